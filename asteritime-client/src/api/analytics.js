@@ -0,0 +1,60 @@
+import { authenticatedFetch } from './auth';
+
+import { API_BASE_URL } from '../config/api';
+
+/**
+ * Fetch an analytics report and turn error responses into exceptions
+ * @param {string} url - Report URL
+ * @returns {Promise<AnalyticsReport>}
+ */
+const fetchReport = async (url) => {
+  const response = await authenticatedFetch(url);
+  if (!response.ok) {
+    const errorText = await response.text();
+    let errorMessage = `Failed to get analytics report (${response.status})`;
+    try {
+      const errorJson = JSON.parse(errorText);
+      if (errorJson.error) {
+        errorMessage = errorJson.error;
+      }
+    } catch (e) {
+      // If response is not JSON, use the text as error message
+      if (errorText) {
+        errorMessage = errorText;
+      }
+    }
+    const error = new Error(errorMessage);
+    error.status = response.status;
+    throw error;
+  }
+  return await response.json();
+};
+
+/**
+ * Get the report of one day (aggregated on the server from daily rollups)
+ * @param {string} date - Date string (YYYY-MM-DD)
+ * @returns {Promise<AnalyticsReport>}
+ */
+export const getDailyReport = async (date) => {
+  return fetchReport(`${API_BASE_URL}/analytics/daily?date=${date}`);
+};
+
+/**
+ * Get the report of the week (Monday to Sunday) containing a date
+ * Closed weeks are served from a frozen snapshot (frozenAt is set)
+ * @param {string} date - Any date of the week (YYYY-MM-DD)
+ * @returns {Promise<AnalyticsReport>}
+ */
+export const getWeeklyReport = async (date) => {
+  return fetchReport(`${API_BASE_URL}/analytics/weekly?date=${date}`);
+};
+
+/**
+ * Get the report of a date range (inclusive, at most 366 days)
+ * @param {string} startDate - Start date (YYYY-MM-DD)
+ * @param {string} endDate - End date (YYYY-MM-DD)
+ * @returns {Promise<AnalyticsReport>}
+ */
+export const getRangeReport = async (startDate, endDate) => {
+  return fetchReport(`${API_BASE_URL}/analytics/range?startDate=${startDate}&endDate=${endDate}`);
+};
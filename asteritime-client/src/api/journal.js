@@ -39,7 +39,7 @@ export const getJournalEntryById = async (id) => {
 
 /**
  * Get all journal entries for current user (ordered by date desc)
- * @returns {Promise<JournalEntry[]>}
+ * @returns {Promise<JournalEntrySummary[]>} Summaries (excerpt, hasImages/hasVoiceNote/hasEvaluation), use getJournalEntryById for the full entry
  */
 export const getAllJournalEntries = async () => {
   const response = await authenticatedFetch(`${API_BASE_URL}/journal-entries`);
@@ -66,7 +66,7 @@ export const getAllJournalEntries = async () => {
 /**
  * Get journal entries by date (returns all entries for that day)
  * @param {string} date - Date string, format: YYYY-MM-DD
- * @returns {Promise<JournalEntry[]>}
+ * @returns {Promise<JournalEntrySummary[]>} Summaries (excerpt, hasImages/hasVoiceNote/hasEvaluation), use getJournalEntryById for the full entry
  */
 export const getJournalEntriesByDate = async (date) => {
   const response = await authenticatedFetch(
@@ -96,7 +96,7 @@ export const getJournalEntriesByDate = async (date) => {
  * Get journal entries by date range
  * @param {string} startDate - Start date, format: YYYY-MM-DD
  * @param {string} endDate - End date, format: YYYY-MM-DD
- * @returns {Promise<JournalEntry[]>}
+ * @returns {Promise<JournalEntrySummary[]>} Summaries (excerpt, hasImages/hasVoiceNote/hasEvaluation), use getJournalEntryById for the full entry
  */
 export const getJournalEntriesByDateRange = async (startDate, endDate) => {
   const response = await authenticatedFetch(
@@ -178,9 +178,12 @@ export const getFocusTime = async (date) => {
  * Add focus minutes
  * @param {string} date - Date string, format: YYYY-MM-DD
  * @param {number} focusMinutes - Focus minutes
- * @returns {Promise<JournalEntry>}
+ * @param {string} [startTime] - Session start, format: YYYY-MM-DDTHH:mm:ss (local time)
+ * @param {string} [endTime] - Session end, format: YYYY-MM-DDTHH:mm:ss (local time)
+ * @returns {Promise<{date: string, focusMinutes: number}>} The recorded increment (202 Accepted);
+ *   the session is written within a few seconds, while getFocusTime already includes it
  */
-export const addFocusMinutes = async (date, focusMinutes) => {
+export const addFocusMinutes = async (date, focusMinutes, startTime, endTime) => {
   const response = await authenticatedFetch(`${API_BASE_URL}/journal-entries/focus-time`, {
     method: 'POST',
     headers: {
@@ -189,6 +192,8 @@ export const addFocusMinutes = async (date, focusMinutes) => {
     body: JSON.stringify({
       date,
       focusMinutes,
+      startTime,
+      endTime,
     }),
   });
 
@@ -0,0 +1,15 @@
+const MEDIA_URL = /\/media\/([0-9a-f]{64})$/;
+
+/**
+ * Thumbnail URL of a journal image
+ * Images uploaded to the server (/api/media/{sha256}) have thumbnails; other URLs are returned as is
+ * @param {string} url - Image URL from JournalEntry.imageUrls
+ * @param {'small'|'medium'|'large'} size - small=160px, medium=480px, large=1024px (longest side)
+ * @returns {string}
+ */
+export const getThumbnailUrl = (url, size = 'medium') => {
+  if (!url || !MEDIA_URL.test(url)) {
+    return url;
+  }
+  return `${url}/thumbnail?size=${size}`;
+};
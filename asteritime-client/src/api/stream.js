@@ -0,0 +1,45 @@
+import { getToken } from './auth';
+
+import { API_BASE_URL } from '../config/api';
+
+// One shared EventSource per tab, opened on first subscribe and closed after the last unsubscribe
+const listeners = new Set();
+let eventSource = null;
+
+const openStream = () => {
+  const token = getToken();
+  if (!token || typeof EventSource === 'undefined') {
+    return;
+  }
+  eventSource = new EventSource(`${API_BASE_URL}/stream?access_token=${encodeURIComponent(token)}`);
+  eventSource.addEventListener('changes', (event) => {
+    let changes;
+    try {
+      changes = JSON.parse(event.data);
+    } catch (e) {
+      return;
+    }
+    listeners.forEach((listener) => listener(changes));
+  });
+};
+
+/**
+ * Subscribe to server-pushed task / focus-time changes (GET /api/stream)
+ * EventSource reconnects automatically after network errors or server restarts.
+ *
+ * @param {(changes: {updatedTaskIds: number[], deletedTaskIds: number[], focusMinutesAdded: Object<string, number>}) => void} onChanges
+ * @returns {() => void} Unsubscribe function
+ */
+export const subscribeToChanges = (onChanges) => {
+  listeners.add(onChanges);
+  if (!eventSource) {
+    openStream();
+  }
+  return () => {
+    listeners.delete(onChanges);
+    if (listeners.size === 0 && eventSource) {
+      eventSource.close();
+      eventSource = null;
+    }
+  };
+};
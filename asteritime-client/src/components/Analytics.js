@@ -1,6 +1,7 @@
 import React, { useState, useEffect, useMemo, useCallback } from 'react';
 import { getTasks } from '../api/task';
-import { getJournalEntriesByDate, getJournalEntriesByDateRange } from '../api/journal';
+import { getJournalEntriesByDate } from '../api/journal';
+import { getDailyReport, getWeeklyReport } from '../api/analytics';
 import { BarChart, Bar, XAxis, YAxis, CartesianGrid, Tooltip, ResponsiveContainer, PieChart, Pie, Cell, Legend, LineChart, Line } from 'recharts';
 import { getTodayLocalDateString } from '../utils/dateUtils';
 import './Analytics.css';
@@ -24,13 +25,43 @@ const QUADRANT_NAMES = {
   4: 'Not Important & Not Urgent',
 };
 
+// Display names of the statuses shown in the status charts
+const STATUS_NAMES = {
+  DONE: 'Completed',
+  DELAY: 'Delayed',
+  CANCEL: 'Cancelled',
+};
+
+// Format local time as YYYY-MM-DDTHH:mm:ss format (without timezone)
+const formatLocalDateTime = (date) => {
+  const year = date.getFullYear();
+  const month = String(date.getMonth() + 1).padStart(2, '0');
+  const day = String(date.getDate()).padStart(2, '0');
+  const hours = String(date.getHours()).padStart(2, '0');
+  const minutes = String(date.getMinutes()).padStart(2, '0');
+  const seconds = String(date.getSeconds()).padStart(2, '0');
+  return `${year}-${month}-${day}T${hours}:${minutes}:${seconds}`;
+};
+
+// Parse a YYYY-MM-DD string as a local date
+const parseLocalDate = (dateString) => {
+  const [year, month, day] = dateString.split('-').map(Number);
+  return new Date(year, month - 1, day);
+};
+
+// Percentage of total (one decimal place, as string)
+const percentageOf = (value, total) => (total > 0 ? ((value / total) * 100).toFixed(1) : 0);
+
 function Analytics() {
-  const [tasks, setTasks] = useState([]);
+  // Aggregated report of the active tab (GET /api/analytics/daily or /weekly)
+  const [report, setReport] = useState(null);
   const [journalEntries, setJournalEntries] = useState([]);
   const [loading, setLoading] = useState(true);
   const [selectedCategory, setSelectedCategory] = useState(null);
   const [selectedDelayCancel, setSelectedDelayCancel] = useState(null);
   const [selectedStatusComparison, setSelectedStatusComparison] = useState(null);
+  // Tasks listed in the open detail modal (loaded when a chart item is clicked)
+  const [detailTasks, setDetailTasks] = useState([]);
   const [activeTab, setActiveTab] = useState('overview'); // 'overview', 'plan', 'focus', 'recurring'
   
   const [selectedDate, setSelectedDate] = useState(getTodayLocalDateString());
@@ -39,128 +70,51 @@ function Analytics() {
   const [overviewSelectedDate, setOverviewSelectedDate] = useState(getTodayLocalDateString()); // Overview tab date selection
   const [viewMode, setViewMode] = useState('daily'); // 'daily' or 'weekly'
 
-  // Format local time as YYYY-MM-DDTHH:mm:ss format (without timezone)
-  const formatLocalDateTime = (date) => {
-    const year = date.getFullYear();
-    const month = String(date.getMonth() + 1).padStart(2, '0');
-    const day = String(date.getDate()).padStart(2, '0');
-    const hours = String(date.getHours()).padStart(2, '0');
-    const minutes = String(date.getMinutes()).padStart(2, '0');
-    const seconds = String(date.getSeconds()).padStart(2, '0');
-    return `${year}-${month}-${day}T${hours}:${minutes}:${seconds}`;
-  };
-
-  // Get today's date range (using local time)
-  const getTodayRange = () => {
-    const today = new Date(selectedDate);
-    const start = new Date(today);
-    start.setHours(0, 0, 0, 0);
-    const end = new Date(today);
-    end.setHours(23, 59, 59, 999);
-    return {
-      startTime: formatLocalDateTime(start),
-      endTime: formatLocalDateTime(end),
-    };
-  };
-
-
-  // Load tasks and journal data
+  // Planned start time range of the report currently shown (used to load tasks for detail modals)
+  const getReportRange = useCallback(() => {
+    if (activeTab === 'plan' && viewMode === 'weekly') {
+      // Monday to Sunday of the week containing the selected date
+      const baseDate = parseLocalDate(weeklySelectedDate);
+      const day = baseDate.getDay();
+      const monday = new Date(baseDate);
+      monday.setDate(baseDate.getDate() - day + (day === 0 ? -6 : 1));
+      const sunday = new Date(monday);
+      sunday.setDate(monday.getDate() + 6);
+      sunday.setHours(23, 59, 59);
+      return { startTime: formatLocalDateTime(monday), endTime: formatLocalDateTime(sunday) };
+    }
+    const date = activeTab === 'overview' ? overviewSelectedDate : selectedDate;
+    const start = parseLocalDate(date);
+    const end = parseLocalDate(date);
+    end.setHours(23, 59, 59);
+    return { startTime: formatLocalDateTime(start), endTime: formatLocalDateTime(end) };
+  }, [activeTab, viewMode, weeklySelectedDate, overviewSelectedDate, selectedDate]);
+
+  // Load the report of the active tab; statistics are aggregated on the server
   useEffect(() => {
     const loadData = async () => {
       try {
         setLoading(true);
         
-        // Overview tab: load tasks for specified date
         if (activeTab === 'overview') {
-          // Load tasks based on selected date
-          const dateParts = overviewSelectedDate.split('-');
-          const year = parseInt(dateParts[0], 10);
-          const month = parseInt(dateParts[1], 10) - 1;
-          const day = parseInt(dateParts[2], 10);
-          
-          const start = new Date(year, month, day, 0, 0, 0);
-          const end = new Date(year, month, day, 23, 59, 59);
-          
-          const range = {
-            startTime: formatLocalDateTime(start),
-            endTime: formatLocalDateTime(end),
-          };
-          
-          const allTasks = await getTasks({
-            startTime: range.startTime,
-            endTime: range.endTime,
-          });
-          setTasks(allTasks || []);
-        } 
-        // Plan tab: load tasks for specified range based on viewMode
-        else if (activeTab === 'plan') {
-          let range;
-          if (viewMode === 'daily') {
-            // Parse selected date string (YYYY-MM-DD format)
-            const dateParts = selectedDate.split('-');
-            const year = parseInt(dateParts[0], 10);
-            const month = parseInt(dateParts[1], 10) - 1; // Month starts from 0
-            const day = parseInt(dateParts[2], 10);
-            
-            const start = new Date(year, month, day, 0, 0, 0);
-            const end = new Date(year, month, day, 23, 59, 59);
-            
-            range = {
-              startTime: formatLocalDateTime(start),
-              endTime: formatLocalDateTime(end),
-            };
-          } else {
-            // Determine the week based on selected date (Monday to Sunday)
-            const baseDate = new Date(weeklySelectedDate);
-            const day = baseDate.getDay();
-            const diff = baseDate.getDate() - day + (day === 0 ? -6 : 1);
-            const monday = new Date(baseDate.setDate(diff));
-            monday.setHours(0, 0, 0, 0);
-            const sunday = new Date(monday);
-            sunday.setDate(monday.getDate() + 6);
-            sunday.setHours(23, 59, 59, 999);
-            range = {
-              startTime: formatLocalDateTime(monday),
-              endTime: formatLocalDateTime(sunday),
-            };
-          }
-          
-          // Load tasks
-          const allTasks = await getTasks({
-            startTime: range.startTime,
-            endTime: range.endTime,
-          });
-          setTasks(allTasks || []);
-        }
-        // Focus tab: load journal data for specified date
-        else if (activeTab === 'focus') {
-          // Load journal data for selected date
-          const entries = await getJournalEntriesByDate(focusSelectedDate);
-          setJournalEntries(entries || []);
-        }
-        
-        // Load journal data (for focus statistics, also needed if not in focus tab)
-        if (activeTab !== 'focus' && viewMode === 'daily') {
-          const entries = await getJournalEntriesByDate(selectedDate);
-          setJournalEntries(entries || []);
-        } else if (activeTab !== 'focus' && viewMode === 'weekly') {
-          // Weekly report: calculate start and end dates based on selected date's week
-          const baseDate = new Date(weeklySelectedDate);
-          const day = baseDate.getDay();
-          const diff = baseDate.getDate() - day + (day === 0 ? -6 : 1);
-          const monday = new Date(baseDate.setDate(diff));
-          monday.setHours(0, 0, 0, 0);
-          const sunday = new Date(monday);
-          sunday.setDate(monday.getDate() + 6);
-          sunday.setHours(23, 59, 59, 999);
-          
-          const startDateStr = `${monday.getFullYear()}-${String(monday.getMonth() + 1).padStart(2, '0')}-${String(monday.getDate()).padStart(2, '0')}`;
-          const endDateStr = `${sunday.getFullYear()}-${String(sunday.getMonth() + 1).padStart(2, '0')}-${String(sunday.getDate()).padStart(2, '0')}`;
-          const entries = await getJournalEntriesByDateRange(startDateStr, endDateStr);
+          setReport(await getDailyReport(overviewSelectedDate));
+        } else if (activeTab === 'plan') {
+          setReport(viewMode === 'daily'
+            ? await getDailyReport(selectedDate)
+            : await getWeeklyReport(weeklySelectedDate));
+        } else if (activeTab === 'focus') {
+          // Focus totals and hourly distribution come from the report,
+          // the per-activity breakdown from the day's journal entries
+          const [dayReport, entries] = await Promise.all([
+            getDailyReport(focusSelectedDate),
+            getJournalEntriesByDate(focusSelectedDate),
+          ]);
+          setReport(dayReport);
           setJournalEntries(entries || []);
         }
       } catch (error) {
         console.error('Failed to load data:', error);
+        setReport(null);
       } finally {
         setLoading(false);
       }
@@ -209,340 +163,96 @@ function Analytics() {
     return mins > 0 ? `${hours}h ${mins}min` : `${hours}h`;
   };
 
-  // Statistics by category (Daily Report) - Count all tasks with planned time (including planned and completed)
-  const dailyCategoryStats = useMemo(() => {
-    const categoryMap = new Map();
-    
-    tasks.forEach(task => {
-      // Count all tasks with planned time (TODO, DOING, DONE status)
-      if (!task.plannedStartTime || !task.plannedEndTime) return;
-      if (task.status === 'CANCEL' || task.status === 'DELAY') return; // Exclude cancelled and delayed tasks
-      
-      // Strictly handle category: if type is null/undefined or name is empty, treat as "Uncategorized"
-      const categoryName = (task.type && task.type.name) ? task.type.name : 'Uncategorized';
-      const duration = calculateTaskDuration(task);
-      
-      // Ensure duration is a valid number
-      if (isNaN(duration) || duration <= 0) return;
-      
-      if (categoryMap.has(categoryName)) {
-        categoryMap.set(categoryName, categoryMap.get(categoryName) + duration);
-      } else {
-        categoryMap.set(categoryName, duration);
-      }
-    });
-
-    const stats = Array.from(categoryMap.entries()).map(([name, duration]) => ({
-      name,
-      duration: Math.round(duration),
-      hours: (duration / 60).toFixed(1),
-    }));
-
-    // Calculate total duration
+  // Planned minutes per category (durationByCategory already excludes delayed and cancelled tasks)
+  const categoryStats = useMemo(() => {
+    if (!report) return [];
+    const stats = report.durationByCategory
+      .filter(category => category.plannedMinutes > 0)
+      .map(category => ({
+        name: category.name,
+        categoryId: category.categoryId,
+        duration: category.plannedMinutes,
+        totalDuration: category.plannedMinutes, // Weekly list field name
+        hours: (category.plannedMinutes / 60).toFixed(1),
+      }));
     const totalDuration = stats.reduce((sum, item) => sum + item.duration, 0);
-    
-    // Calculate percentage
     return stats.map(item => ({
       ...item,
-      percentage: totalDuration > 0 ? ((item.duration / totalDuration) * 100).toFixed(1) : 0,
+      percentage: percentageOf(item.duration, totalDuration),
     })).sort((a, b) => b.duration - a.duration);
-  }, [tasks, calculateTaskDuration]);
-
-  // Statistics for delayed and cancelled task duration (Daily Report)
-  const dailyDelayCancelStats = useMemo(() => {
-    const delayTasks = [];
-    const cancelTasks = [];
-    
-    tasks.forEach(task => {
-      if (!task.plannedStartTime || !task.plannedEndTime) return;
-      
-      const duration = calculateTaskDuration(task);
-      
-      if (task.status === 'DELAY') {
-        delayTasks.push({
-          ...task,
-          duration: Math.round(duration),
-        });
-      } else if (task.status === 'CANCEL') {
-        cancelTasks.push({
-          ...task,
-          duration: Math.round(duration),
-        });
-      }
-    });
+  }, [report]);
+
+  // Planned minutes per status, for the given statuses (in that order)
+  const statusDurationStats = useCallback((statuses) => {
+    if (!report) return [];
+    const stats = statuses
+      .map(status => report.statusSummary.find(item => item.status === status))
+      .filter(item => item && item.plannedMinutes > 0)
+      .map(item => ({
+        name: STATUS_NAMES[item.status],
+        status: item.status,
+        duration: item.plannedMinutes,
+        hours: (item.plannedMinutes / 60).toFixed(1),
+      }));
+    const totalDuration = stats.reduce((sum, item) => sum + item.duration, 0);
+    return stats.map(item => ({
+      ...item,
+      percentage: percentageOf(item.duration, totalDuration),
+    }));
+  }, [report]);
 
-    const delayTotal = delayTasks.reduce((sum, task) => sum + task.duration, 0);
-    const cancelTotal = cancelTasks.reduce((sum, task) => sum + task.duration, 0);
-    const totalDuration = delayTotal + cancelTotal;
+  // Statistics by category (Daily / Weekly Report)
+  const dailyCategoryStats = categoryStats;
+  const weeklyCategoryStats = categoryStats;
 
-    const stats = [];
-    if (delayTotal > 0) {
-      stats.push({
-        name: 'Delayed',
-        duration: delayTotal,
-        hours: (delayTotal / 60).toFixed(1),
-        percentage: totalDuration > 0 ? ((delayTotal / totalDuration) * 100).toFixed(1) : 0,
-        status: 'DELAY',
-        tasks: delayTasks,
-      });
-    }
-    if (cancelTotal > 0) {
-      stats.push({
-        name: 'Cancelled',
-        duration: cancelTotal,
-        hours: (cancelTotal / 60).toFixed(1),
-        percentage: totalDuration > 0 ? ((cancelTotal / totalDuration) * 100).toFixed(1) : 0,
-        status: 'CANCEL',
-        tasks: cancelTasks,
-      });
-    }
-
-    return stats.sort((a, b) => b.duration - a.duration);
-  }, [tasks, calculateTaskDuration]);
+  // Statistics for delayed and cancelled task duration (Daily Report)
+  const dailyDelayCancelStats = useMemo(
+    () => statusDurationStats(['DELAY', 'CANCEL']).sort((a, b) => b.duration - a.duration),
+    [statusDurationStats]
+  );
 
   // Compare completed, delayed, and cancelled task duration (Daily Report)
-  const dailyStatusComparisonStats = useMemo(() => {
-    const doneTasks = [];
-    const delayTasks = [];
-    const cancelTasks = [];
-    
-    tasks.forEach(task => {
-      if (!task.plannedStartTime || !task.plannedEndTime) return;
-      
-      const duration = calculateTaskDuration(task);
-      
-      if (task.status === 'DONE') {
-        doneTasks.push({
-          ...task,
-          duration: Math.round(duration),
-        });
-      } else if (task.status === 'DELAY') {
-        delayTasks.push({
-          ...task,
-          duration: Math.round(duration),
-        });
-      } else if (task.status === 'CANCEL') {
-        cancelTasks.push({
-          ...task,
-          duration: Math.round(duration),
-        });
-      }
-    });
-
-    const doneTotal = doneTasks.reduce((sum, task) => sum + task.duration, 0);
-    const delayTotal = delayTasks.reduce((sum, task) => sum + task.duration, 0);
-    const cancelTotal = cancelTasks.reduce((sum, task) => sum + task.duration, 0);
-    const totalDuration = doneTotal + delayTotal + cancelTotal;
-
-    const stats = [];
-    if (doneTotal > 0) {
-      stats.push({
-        name: 'Completed',
-        duration: doneTotal,
-        hours: (doneTotal / 60).toFixed(1),
-        percentage: totalDuration > 0 ? ((doneTotal / totalDuration) * 100).toFixed(1) : 0,
-        status: 'DONE',
-        tasks: doneTasks,
-      });
-    }
-    if (delayTotal > 0) {
-      stats.push({
-        name: 'Delayed',
-        duration: delayTotal,
-        hours: (delayTotal / 60).toFixed(1),
-        percentage: totalDuration > 0 ? ((delayTotal / totalDuration) * 100).toFixed(1) : 0,
-        status: 'DELAY',
-        tasks: delayTasks,
-      });
-    }
-    if (cancelTotal > 0) {
-      stats.push({
-        name: 'Cancelled',
-        duration: cancelTotal,
-        hours: (cancelTotal / 60).toFixed(1),
-        percentage: totalDuration > 0 ? ((cancelTotal / totalDuration) * 100).toFixed(1) : 0,
-        status: 'CANCEL',
-        tasks: cancelTasks,
-      });
-    }
-
-    return stats.sort((a, b) => {
-      // Sort by status: Completed > Delayed > Cancelled
-      const order = { 'DONE': 1, 'DELAY': 2, 'CANCEL': 3 };
-      return order[a.status] - order[b.status];
-    });
-  }, [tasks, calculateTaskDuration]);
-
-  // Statistics by category (Weekly Report) - Count all tasks with planned time (including planned and completed)
-  const weeklyCategoryStats = useMemo(() => {
-    const categoryMap = new Map();
-    
-    tasks.forEach(task => {
-      // Count all tasks with planned time (TODO, DOING, DONE status)
-      if (!task.plannedStartTime || !task.plannedEndTime) return;
-      if (task.status === 'CANCEL' || task.status === 'DELAY') return; // Exclude cancelled and delayed tasks
-      
-      // Strictly handle category: if type is null/undefined or name is empty, treat as "Uncategorized"
-      const categoryName = (task.type && task.type.name) ? task.type.name : 'Uncategorized';
-      const duration = calculateTaskDuration(task);
-      
-      if (categoryMap.has(categoryName)) {
-        const existing = categoryMap.get(categoryName);
-        existing.totalDuration += duration;
-        existing.tasks.push({
-          ...task,
-          duration: Math.round(duration),
-        });
-      } else {
-        categoryMap.set(categoryName, {
-          name: categoryName,
-          totalDuration: duration,
-          tasks: [{
-            ...task,
-            duration: Math.round(duration),
-          }],
-        });
-      }
-    });
-
-    const stats = Array.from(categoryMap.values()).map(item => ({
-      ...item,
-      totalDuration: Math.round(item.totalDuration),
-      duration: Math.round(item.totalDuration), // Compatible with detail modal field name
-      hours: (item.totalDuration / 60).toFixed(1),
-    }));
-
-    // Calculate total duration
-    const totalDuration = stats.reduce((sum, item) => sum + item.totalDuration, 0);
-    
-    // Calculate percentage
-    return stats.map(item => ({
-      ...item,
-      percentage: totalDuration > 0 ? ((item.totalDuration / totalDuration) * 100).toFixed(1) : 0,
-    })).sort((a, b) => b.totalDuration - a.totalDuration);
-  }, [tasks, calculateTaskDuration]);
+  const dailyStatusComparisonStats = useMemo(
+    () => statusDurationStats(['DONE', 'DELAY', 'CANCEL']),
+    [statusDurationStats]
+  );
 
   // Statistics of completed tasks by quadrant (Overview tab)
   const completedTasksByQuadrant = useMemo(() => {
-    const quadrantMap = new Map();
-    
-    tasks.forEach(task => {
-      // Only count completed tasks
-      if (task.status !== 'DONE') return;
-      
-      // If date is selected, only count tasks for that date
-      if (activeTab === 'overview' && overviewSelectedDate) {
-        // Check task date (prefer plannedStartTime, if not available use createdAt)
-        let taskDateStr = null;
-        if (task.plannedStartTime) {
-          const taskDate = parseLocalDateTime(task.plannedStartTime);
-          if (taskDate) {
-            const year = taskDate.getFullYear();
-            const month = String(taskDate.getMonth() + 1).padStart(2, '0');
-            const day = String(taskDate.getDate()).padStart(2, '0');
-            taskDateStr = `${year}-${month}-${day}`;
-          }
-        } else if (task.createdAt) {
-          const taskDate = parseLocalDateTime(task.createdAt);
-          if (taskDate) {
-            const year = taskDate.getFullYear();
-            const month = String(taskDate.getMonth() + 1).padStart(2, '0');
-            const day = String(taskDate.getDate()).padStart(2, '0');
-            taskDateStr = `${year}-${month}-${day}`;
-          }
-        }
-        
-        // If task date doesn't match selected date, skip
-        if (taskDateStr !== overviewSelectedDate) return;
-      }
-      
-      const quadrant = task.quadrant || 1;
-      
-      if (quadrantMap.has(quadrant)) {
-        quadrantMap.set(quadrant, quadrantMap.get(quadrant) + 1);
-      } else {
-        quadrantMap.set(quadrant, 1);
-      }
-    });
-    
-    const stats = Array.from(quadrantMap.entries()).map(([quadrant, count]) => ({
-      quadrant: parseInt(quadrant),
-      name: QUADRANT_NAMES[quadrant] || `Quadrant ${quadrant}`,
-      count: count,
-      color: QUADRANT_COLORS[quadrant] || COLORS[quadrant - 1],
-    }));
+    if (!report) return [];
+    const stats = report.completionByQuadrant
+      .filter(item => item.done > 0)
+      .map(item => ({
+        quadrant: item.quadrant,
+        name: QUADRANT_NAMES[item.quadrant] || `Quadrant ${item.quadrant}`,
+        count: item.done,
+        color: QUADRANT_COLORS[item.quadrant] || COLORS[item.quadrant - 1],
+      }));
     
     const total = stats.reduce((sum, item) => sum + item.count, 0);
     
     return stats.map(item => ({
       ...item,
-      percentage: total > 0 ? ((item.count / total) * 100).toFixed(1) : 0,
+      percentage: percentageOf(item.count, total),
     })).sort((a, b) => a.quadrant - b.quadrant);
-  }, [tasks, activeTab, overviewSelectedDate]);
+  }, [report]);
 
   // Statistics of completed tasks by category (Overview tab)
   const completedTasksByCategory = useMemo(() => {
-    const categoryMap = new Map();
-    
-    tasks.forEach(task => {
-      // Only count completed tasks
-      if (task.status !== 'DONE') return;
-      
-      // If date is selected, only count tasks for that date
-      if (activeTab === 'overview' && overviewSelectedDate) {
-        // Check task date (prefer plannedStartTime, if not available use createdAt)
-        let taskDateStr = null;
-        if (task.plannedStartTime) {
-          const taskDate = parseLocalDateTime(task.plannedStartTime);
-          if (taskDate) {
-            const year = taskDate.getFullYear();
-            const month = String(taskDate.getMonth() + 1).padStart(2, '0');
-            const day = String(taskDate.getDate()).padStart(2, '0');
-            taskDateStr = `${year}-${month}-${day}`;
-          }
-        } else if (task.createdAt) {
-          const taskDate = parseLocalDateTime(task.createdAt);
-          if (taskDate) {
-            const year = taskDate.getFullYear();
-            const month = String(taskDate.getMonth() + 1).padStart(2, '0');
-            const day = String(taskDate.getDate()).padStart(2, '0');
-            taskDateStr = `${year}-${month}-${day}`;
-          }
-        }
-        
-        // If task date doesn't match selected date, skip
-        if (taskDateStr !== overviewSelectedDate) return;
-      }
-      
-      const categoryName = (task.type && task.type.name) ? task.type.name : 'Uncategorized';
-      
-      if (categoryMap.has(categoryName)) {
-        categoryMap.set(categoryName, categoryMap.get(categoryName) + 1);
-      } else {
-        categoryMap.set(categoryName, 1);
-      }
-    });
-    
-    const stats = Array.from(categoryMap.entries()).map(([name, count]) => ({
-      name,
-      count,
-    }));
-    
-    return stats.sort((a, b) => b.count - a.count);
-  }, [tasks, activeTab, overviewSelectedDate]);
+    if (!report) return [];
+    return report.durationByCategory
+      .filter(category => category.doneCount > 0)
+      .map(category => ({
+        name: category.name,
+        count: category.doneCount,
+      }))
+      .sort((a, b) => b.count - a.count);
+  }, [report]);
 
   // Focus statistics (Focus tab)
   const focusStats = useMemo(() => {
-    // Calculate total focus duration and count
-    let totalFocusMinutes = 0;
-    let focusCount = 0;
-    
-    journalEntries.forEach(entry => {
-      if (entry.totalFocusMinutes && entry.totalFocusMinutes > 0) {
-        totalFocusMinutes += entry.totalFocusMinutes;
-        focusCount++;
-      }
-    });
+    // Focus count: journal entries of the day with focus time
+    const focusCount = journalEntries.filter(entry => entry.totalFocusMinutes > 0).length;
     
     // Statistics by activity type for focus duration (if activity field exists)
     const activityMap = new Map();
@@ -566,69 +276,62 @@ function Analytics() {
     const totalActivityMinutes = activityStats.reduce((sum, item) => sum + item.minutes, 0);
     
     return {
-      totalFocusMinutes: Math.round(totalFocusMinutes),
+      totalFocusMinutes: report ? report.totalFocusMinutes : 0,
       focusCount,
       activityStats: activityStats.map(item => ({
         ...item,
-        percentage: totalActivityMinutes > 0 ? ((item.minutes / totalActivityMinutes) * 100).toFixed(1) : 0,
+        percentage: percentageOf(item.minutes, totalActivityMinutes),
       })).sort((a, b) => b.minutes - a.minutes),
     };
-  }, [journalEntries]);
+  }, [report, journalEntries]);
 
-  // Focus time distribution (hourly statistics for selected date)
+  // Focus time distribution (focus minutes per clock hour from recorded sessions)
   const focusTimeDistribution = useMemo(() => {
-    const hourMap = new Map();
-    
-    // Only count data for selected date
-    journalEntries.forEach(entry => {
-      if (entry.totalFocusMinutes && entry.totalFocusMinutes > 0) {
-        // Get journal entry date
-        let entryDateStr;
-        if (entry.date) {
-          entryDateStr = entry.date; // Format: YYYY-MM-DD
-        } else if (entry.createdAt) {
-          const date = new Date(entry.createdAt);
-          const year = date.getFullYear();
-          const month = String(date.getMonth() + 1).padStart(2, '0');
-          const day = String(date.getDate()).padStart(2, '0');
-          entryDateStr = `${year}-${month}-${day}`;
-        }
-        
-        // Only count data for selected date
-        if (entryDateStr === focusSelectedDate) {
-          // Get hour from createdAt
-          if (entry.createdAt) {
-            const date = new Date(entry.createdAt);
-            const hour = date.getHours();
-            const minutes = entry.totalFocusMinutes || 0;
-            
-            if (hourMap.has(hour)) {
-              hourMap.set(hour, hourMap.get(hour) + minutes);
-            } else {
-              hourMap.set(hour, minutes);
-            }
-          }
-        }
-      }
-    });
-    
-    // Generate 24-hour data
+    const focusByHour = report ? report.focusByHour : [];
     const stats = [];
     for (let i = 0; i < 24; i++) {
       stats.push({
         hour: i,
         label: `${i}:00`,
-        minutes: Math.round(hourMap.get(i) || 0),
+        minutes: focusByHour[i] || 0,
       });
     }
-    
     return stats;
-  }, [journalEntries, focusSelectedDate]);
+  }, [report]);
+
+  // Load the tasks listed in a detail modal (planned in the report range, optionally of one category)
+  const loadDetailTasks = useCallback(async (statuses, category) => {
+    setDetailTasks([]);
+    try {
+      const range = getReportRange();
+      const filters = {
+        startTime: range.startTime,
+        endTime: range.endTime,
+        status: statuses.join(','),
+      };
+      if (category && category.categoryId) {
+        filters.categoryId = category.categoryId;
+      }
+      const loaded = await getTasks(filters);
+      setDetailTasks((loaded || [])
+        .filter(task => task.plannedStartTime && task.plannedEndTime)
+        // Uncategorized tasks cannot be filtered on the server
+        .filter(task => !category || category.categoryId || !task.type)
+        .map(task => ({
+          ...task,
+          duration: Math.round(calculateTaskDuration(task)),
+        }))
+        .sort((a, b) => b.duration - a.duration));
+    } catch (error) {
+      console.error('Failed to load task details:', error);
+    }
+  }, [getReportRange, calculateTaskDuration]);
 
   // Pie chart click event
   const handlePieClick = (data) => {
     if (data && data.name) {
       setSelectedCategory(data.name);
+      loadDetailTasks(['TODO', 'DOING', 'DONE'], categoryStats.find(item => item.name === data.name));
     }
   };
 
@@ -636,6 +339,7 @@ function Analytics() {
   const handleDelayCancelPieClick = (data) => {
     if (data && data.name) {
       setSelectedDelayCancel(data);
+      loadDetailTasks([data.status]);
     }
   };
 
@@ -643,6 +347,7 @@ function Analytics() {
   const handleStatusComparisonPieClick = (data) => {
     if (data && data.name) {
       setSelectedStatusComparison(data);
+      loadDetailTasks([data.status]);
     }
   };
 
@@ -659,24 +364,7 @@ function Analytics() {
   // Weekly category click event
   const handleWeeklyCategoryClick = (category) => {
     setSelectedCategory(category.name);
-  };
-
-  // Get task list for selected category (returns all tasks with planned time, excluding cancelled and delayed)
-  const getCategoryTasks = (categoryName) => {
-    return tasks
-      .filter(task => {
-        // Strictly handle category: if type is null/undefined or name is empty, treat as "Uncategorized"
-        const taskCategoryName = (task.type && task.type.name) ? task.type.name : 'Uncategorized';
-        return (task.status === 'TODO' || task.status === 'DOING' || task.status === 'DONE') && 
-               taskCategoryName === categoryName && 
-               task.plannedStartTime && 
-               task.plannedEndTime;
-      })
-      .map(task => ({
-        ...task,
-        duration: Math.round(calculateTaskDuration(task)),
-      }))
-      .sort((a, b) => b.duration - a.duration);
+    loadDetailTasks(['TODO', 'DOING', 'DONE'], category);
   };
 
   if (loading) {
@@ -1169,7 +857,7 @@ function Analytics() {
                 )}
               </div>
               <div className="task-list">
-                {getCategoryTasks(selectedCategory).map((task) => (
+                {detailTasks.map((task) => (
                   <div key={task.id} className="task-item">
                     <div className="task-title">{task.title}</div>
                     <div className="task-time">
@@ -1186,7 +874,7 @@ function Analytics() {
                     <div className="task-duration">{formatDuration(task.duration)}</div>
                   </div>
                 ))}
-                {getCategoryTasks(selectedCategory).length === 0 && (
+                {detailTasks.length === 0 && (
                   <div className="empty-task">No completed tasks in this category</div>
                 )}
               </div>
@@ -1208,7 +896,7 @@ function Analytics() {
                 Total Duration: {formatDuration(selectedDelayCancel.duration || 0)}
               </div>
               <div className="task-list">
-                {selectedDelayCancel.tasks.map((task) => (
+                {detailTasks.map((task) => (
                   <div key={task.id} className="task-item">
                     <div className="task-title">{task.title}</div>
                     <div className="task-time">
@@ -1225,7 +913,7 @@ function Analytics() {
                     <div className="task-duration">{formatDuration(task.duration)}</div>
                   </div>
                 ))}
-                {selectedDelayCancel.tasks.length === 0 && (
+                {detailTasks.length === 0 && (
                   <div className="empty-task">No tasks in this status</div>
                 )}
               </div>
@@ -1247,7 +935,7 @@ function Analytics() {
                 Total Duration: {formatDuration(selectedStatusComparison.duration || 0)}
               </div>
               <div className="task-list">
-                {selectedStatusComparison.tasks.map((task) => (
+                {detailTasks.map((task) => (
                   <div key={task.id} className="task-item">
                     <div className="task-title">{task.title}</div>
                     <div className="task-time">
@@ -1264,7 +952,7 @@ function Analytics() {
                     <div className="task-duration">{formatDuration(task.duration)}</div>
                   </div>
                 ))}
-                {selectedStatusComparison.tasks.length === 0 && (
+                {detailTasks.length === 0 && (
                   <div className="empty-task">No tasks in this status</div>
                 )}
               </div>
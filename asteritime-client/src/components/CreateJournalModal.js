@@ -1,5 +1,6 @@
 import React, { useState, useEffect } from 'react';
 import { createJournalEntry, updateJournalEntry } from '../api/journal';
+import { getThumbnailUrl } from '../api/media';
 import { getTodayLocalDateString } from '../utils/dateUtils';
 import './CreateJournalModal.css';
 
@@ -230,7 +231,7 @@ function CreateJournalModal({ isOpen, onClose, onSuccess, entry, defaultDate })
             <div className="image-urls-section">
               {imageUrlsArray.map((url, index) => (
                 <div key={index} className="image-url-item">
-                  <img src={url} alt={`Preview ${index + 1}`} className="image-preview" />
+                  <img src={getThumbnailUrl(url, 'small')} alt={`Preview ${index + 1}`} className="image-preview" />
                   <span className="image-url-text" title={url}>
                     {url.length > 40 ? url.substring(0, 40) + '...' : url}
                   </span>
@@ -1,5 +1,6 @@
 import React, { useState, useEffect, useCallback } from 'react';
 import { getTasks, updateTask, deleteTask } from '../api/task';
+import { subscribeToChanges } from '../api/stream';
 import QuadrantPanel from './QuadrantPanel';
 import KanbanColumn from './KanbanColumn';
 import CreateTaskModal from './CreateTaskModal';
@@ -115,11 +116,22 @@ function Dashboard() {
   useEffect(() => {
     loadTasks();
     
+    // Reload when tasks change in another tab or device
+    const unsubscribe = subscribeToChanges((changes) => {
+      if (changes.updatedTaskIds.length > 0 || changes.deletedTaskIds.length > 0) {
+        loadTasks(true);
+      }
+    });
+
+    // Time-based status transitions (e.g. TODO -> DOING) still need a periodic check
     const interval = setInterval(() => {
       loadTasks(true);
     }, 60000);
 
-    return () => clearInterval(interval);
+    return () => {
+      unsubscribe();
+      clearInterval(interval);
+    };
   }, [checkAndUpdateTaskStatus]);
 
   const tasksByQuadrant = {
@@ -5,6 +5,7 @@ import {
   deleteJournalEntry,
   getJournalEntryById,
 } from '../api/journal';
+import { getThumbnailUrl } from '../api/media';
 import CreateJournalModal from './CreateJournalModal';
 import DeleteConfirmModal from './DeleteConfirmModal';
 import { getTodayLocalDateString, formatLocalDateDisplay, parseLocalDate, formatLocalTime, getCurrentTimezone } from '../utils/dateUtils';
@@ -122,10 +123,16 @@ function Journal() {
     setIsDeleteModalOpen(true);
   };
 
-  // Click journal entry to show detail
-  const handleEntryClick = (entry) => {
-    setViewingEntry(entry);
-    setViewMode('detail');
+  // Click journal entry to show detail (lists only carry summaries, load the full entry)
+  const handleEntryClick = async (entry) => {
+    try {
+      const fullEntry = await getJournalEntryById(entry.id);
+      setViewingEntry(fullEntry);
+      setViewMode('detail');
+    } catch (err) {
+      console.error('Failed to load journal entry:', err);
+      setError('Failed to load journal entry, please try again');
+    }
   };
 
   // Return to list view
@@ -169,12 +176,9 @@ function Journal() {
     // If viewing detail, refresh detail data
     if (viewMode === 'detail' && viewingEntry) {
       // Reload the entry
-      getJournalEntriesByDate(selectedDate).then(data => {
-        const updatedEntry = data.find(e => e.id === viewingEntry.id);
-        if (updatedEntry) {
-          setViewingEntry(updatedEntry);
-        }
-      });
+      getJournalEntryById(viewingEntry.id)
+        .then(updatedEntry => setViewingEntry(updatedEntry))
+        .catch(err => console.error('Failed to reload journal entry:', err));
     }
   };
 
@@ -218,12 +222,13 @@ function Journal() {
   };
 
   // Check if it's an auto-created statistics record (only totalFocusMinutes, no other content)
+  // Works on list summaries (excerpt and has* flags instead of the full fields)
   const isAutoCreatedStatsEntry = (entry) => {
     return !entry.title && 
-           !entry.contentText && 
-           !entry.evaluation && 
-           !entry.imageUrls && 
-           !entry.voiceNoteUrl &&
+           !entry.excerpt && 
+           !entry.hasEvaluation && 
+           !entry.hasImages && 
+           !entry.hasVoiceNote &&
            !entry.weather && 
            !entry.mood && 
            !entry.activity &&
@@ -314,15 +319,11 @@ function Journal() {
                   // Debug: print entry data
                   console.log('Journal Entry:', entry);
                   
-                  const preview = entry.contentText 
-                    ? (entry.contentText.length > 100 
-                        ? entry.contentText.substring(0, 100) + '...' 
-                        : entry.contentText)
-                    : (entry.evaluation 
-                        ? (entry.evaluation.length > 100 
-                            ? entry.evaluation.substring(0, 100) + '...' 
-                            : entry.evaluation)
-                        : 'No content');
+                  const preview = entry.excerpt 
+                    ? (entry.excerpt.length > 100 
+                        ? entry.excerpt.substring(0, 100) + '...' 
+                        : entry.excerpt + (entry.excerptTruncated ? '...' : ''))
+                    : 'No content';
                   
                   return (
                     <div 
@@ -361,10 +362,10 @@ function Journal() {
                       
                       {/* Icon hints */}
                       <div className="list-item-icons">
-                        {entry.imageUrls && parseImageUrls(entry.imageUrls).length > 0 && (
+                        {entry.hasImages && (
                           <span className="icon-hint" title="Contains images">📷</span>
                         )}
-                        {entry.voiceNoteUrl && (
+                        {entry.hasVoiceNote && (
                           <span className="icon-hint" title="Contains voice">🎤</span>
                         )}
                       </div>
@@ -433,12 +434,14 @@ function Journal() {
               {viewingEntry.imageUrls && parseImageUrls(viewingEntry.imageUrls).length > 0 && (
                 <div className="entry-images">
                   {parseImageUrls(viewingEntry.imageUrls).map((url, index) => (
-                    <img
-                      key={index}
-                      src={url}
-                      alt={`Journal image ${index + 1}`}
-                      className="entry-image"
-                    />
+                    <a key={index} href={url} target="_blank" rel="noopener noreferrer">
+                      <img
+                        src={getThumbnailUrl(url, 'medium')}
+                        alt={`Journal image ${index + 1}`}
+                        className="entry-image"
+                        loading="lazy"
+                      />
+                    </a>
                   ))}
                 </div>
               )}
@@ -1,5 +1,6 @@
 import React, { useState, useEffect, useRef, useCallback } from 'react';
 import { getFocusTime, addFocusMinutes } from '../api/journal';
+import { formatLocalDateTimeISO } from '../utils/dateUtils';
 import './Pomodoro.css';
 
 function Pomodoro() {
@@ -13,6 +14,7 @@ function Pomodoro() {
   const intervalRef = useRef(null);
   const savedRef = useRef(false); // Prevent duplicate saves
   const wasManuallyResetRef = useRef(false); // Mark if manually reset
+  const startedAtRef = useRef(null); // Session start time (sent with the focus session)
 
   // Get today's date string (YYYY-MM-DD format)
   const getTodayDateString = () => {
@@ -81,7 +83,8 @@ function Pomodoro() {
         try {
           const today = getTodayDateString();
           console.log('Countdown naturally completed, saving focus time:', { date: today, minutes: initialMinutes });
-          const result = await addFocusMinutes(today, initialMinutes);
+          const result = await addFocusMinutes(today, initialMinutes,
+            formatLocalDateTimeISO(startedAtRef.current || new Date()), formatLocalDateTimeISO(new Date()));
           console.log('Save successful:', result);
           // Reload accumulated time
           await loadTodayFocusTime();
@@ -109,6 +112,7 @@ function Pomodoro() {
     const totalSecs = mins * 60; // Convert to seconds
     setTotalSeconds(totalSecs);
     setInitialMinutes(mins); // Record minutes at start
+    startedAtRef.current = new Date();
     setIsRunning(true);
     setIsPaused(false);
     setIsCompleted(false);
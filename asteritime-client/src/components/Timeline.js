@@ -1,5 +1,6 @@
 import React, { useState, useEffect, useMemo } from 'react';
 import { getTasks } from '../api/task';
+import { subscribeToChanges } from '../api/stream';
 import TaskDetailModal from './TaskDetailModal';
 import './Timeline.css';
 
@@ -75,6 +76,15 @@ function Timeline() {
     };
 
     loadTasks();
+
+    // Reload when tasks change in another tab or device
+    const unsubscribe = subscribeToChanges((changes) => {
+      if (changes.updatedTaskIds.length > 0 || changes.deletedTaskIds.length > 0) {
+        loadTasks();
+      }
+    });
+
+    return unsubscribe;
   }, [weekTimeRange]);
 
   // Update current time
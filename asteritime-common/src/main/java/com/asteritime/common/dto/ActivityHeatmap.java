@@ -0,0 +1,106 @@
+package com.asteritime.common.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Activity of one user per day of a calendar year (GitHub-style heatmap)
+ *
+ * Fields:
+ *   - year: Calendar year
+ *   - firstDay: Date of index 0 (January 1st)
+ *   - focusMinutes: Focus minutes per day, index = day of year - 1 (365 or 366 values)
+ *   - completedTasks: DONE tasks per completion day (actual end time), same indexing
+ *   - totalFocusMinutes / totalCompletedTasks: Sums over the year
+ *   - maxFocusMinutes: Largest daily focus value (for the color scale)
+ */
+public class ActivityHeatmap {
+
+    private int year;
+
+    private LocalDate firstDay;
+
+    private int[] focusMinutes;
+
+    private int[] completedTasks;
+
+    private long totalFocusMinutes;
+
+    private long totalCompletedTasks;
+
+    private int maxFocusMinutes;
+
+    public ActivityHeatmap() {
+    }
+
+    public ActivityHeatmap(int year, int[] focusMinutes, int[] completedTasks) {
+        this.year = year;
+        this.firstDay = LocalDate.of(year, 1, 1);
+        this.focusMinutes = focusMinutes;
+        this.completedTasks = completedTasks;
+        for (int minutes : focusMinutes) {
+            totalFocusMinutes += minutes;
+            maxFocusMinutes = Math.max(maxFocusMinutes, minutes);
+        }
+        for (int count : completedTasks) {
+            totalCompletedTasks += count;
+        }
+    }
+
+    // Getters and Setters
+
+    public int getYear() {
+        return year;
+    }
+
+    public void setYear(int year) {
+        this.year = year;
+    }
+
+    public LocalDate getFirstDay() {
+        return firstDay;
+    }
+
+    public void setFirstDay(LocalDate firstDay) {
+        this.firstDay = firstDay;
+    }
+
+    public int[] getFocusMinutes() {
+        return focusMinutes;
+    }
+
+    public void setFocusMinutes(int[] focusMinutes) {
+        this.focusMinutes = focusMinutes;
+    }
+
+    public int[] getCompletedTasks() {
+        return completedTasks;
+    }
+
+    public void setCompletedTasks(int[] completedTasks) {
+        this.completedTasks = completedTasks;
+    }
+
+    public long getTotalFocusMinutes() {
+        return totalFocusMinutes;
+    }
+
+    public void setTotalFocusMinutes(long totalFocusMinutes) {
+        this.totalFocusMinutes = totalFocusMinutes;
+    }
+
+    public long getTotalCompletedTasks() {
+        return totalCompletedTasks;
+    }
+
+    public void setTotalCompletedTasks(long totalCompletedTasks) {
+        this.totalCompletedTasks = totalCompletedTasks;
+    }
+
+    public int getMaxFocusMinutes() {
+        return maxFocusMinutes;
+    }
+
+    public void setMaxFocusMinutes(int maxFocusMinutes) {
+        this.maxFocusMinutes = maxFocusMinutes;
+    }
+}
@@ -0,0 +1,126 @@
+package com.asteritime.common.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Streaks of active days of one user (GET /api/analytics/streaks)
+ *
+ * A day is active when the user has focus minutes or completed a task on it.
+ *
+ * Fields:
+ *   - currentStreak / currentStreakStart: Consecutive active days ending today, or ending
+ *     yesterday if today has no activity yet (0 / null if broken)
+ *   - activeToday: Whether today is already active
+ *   - longestStreak / longestStreakStart / longestStreakEnd: Longest run of active days ever
+ *   - totalActiveDays: Number of active days ever
+ *   - month: Calendar month of monthStreaks (yyyy-MM)
+ *   - monthActiveDays: Number of active days in the month
+ *   - monthStreaks: Per day of the month (index 0 = 1st), length of the streak ending that day (0 = inactive)
+ */
+public class ActivityStreaks {
+
+    private int currentStreak;
+
+    private LocalDate currentStreakStart;
+
+    private boolean activeToday;
+
+    private int longestStreak;
+
+    private LocalDate longestStreakStart;
+
+    private LocalDate longestStreakEnd;
+
+    private int totalActiveDays;
+
+    private String month;
+
+    private int monthActiveDays;
+
+    private int[] monthStreaks;
+
+    public ActivityStreaks() {
+    }
+
+    // Getters and Setters
+
+    public int getCurrentStreak() {
+        return currentStreak;
+    }
+
+    public void setCurrentStreak(int currentStreak) {
+        this.currentStreak = currentStreak;
+    }
+
+    public LocalDate getCurrentStreakStart() {
+        return currentStreakStart;
+    }
+
+    public void setCurrentStreakStart(LocalDate currentStreakStart) {
+        this.currentStreakStart = currentStreakStart;
+    }
+
+    public boolean isActiveToday() {
+        return activeToday;
+    }
+
+    public void setActiveToday(boolean activeToday) {
+        this.activeToday = activeToday;
+    }
+
+    public int getLongestStreak() {
+        return longestStreak;
+    }
+
+    public void setLongestStreak(int longestStreak) {
+        this.longestStreak = longestStreak;
+    }
+
+    public LocalDate getLongestStreakStart() {
+        return longestStreakStart;
+    }
+
+    public void setLongestStreakStart(LocalDate longestStreakStart) {
+        this.longestStreakStart = longestStreakStart;
+    }
+
+    public LocalDate getLongestStreakEnd() {
+        return longestStreakEnd;
+    }
+
+    public void setLongestStreakEnd(LocalDate longestStreakEnd) {
+        this.longestStreakEnd = longestStreakEnd;
+    }
+
+    public int getTotalActiveDays() {
+        return totalActiveDays;
+    }
+
+    public void setTotalActiveDays(int totalActiveDays) {
+        this.totalActiveDays = totalActiveDays;
+    }
+
+    public String getMonth() {
+        return month;
+    }
+
+    public void setMonth(String month) {
+        this.month = month;
+    }
+
+    public int getMonthActiveDays() {
+        return monthActiveDays;
+    }
+
+    public void setMonthActiveDays(int monthActiveDays) {
+        this.monthActiveDays = monthActiveDays;
+    }
+
+    public int[] getMonthStreaks() {
+        return monthStreaks;
+    }
+
+    public void setMonthStreaks(int[] monthStreaks) {
+        this.monthStreaks = monthStreaks;
+    }
+}
@@ -0,0 +1,368 @@
+package com.asteritime.common.dto;
+
+import com.asteritime.common.model.TaskStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregated task and focus statistics for a date range (GET /api/analytics/...)
+ *
+ * Size depends only on the number of days, quadrants, categories and statuses,
+ * never on the number of tasks in the range.
+ *
+ * Fields:
+ *   - startDate / endDate: Reported range (inclusive)
+ *   - days: One entry per day of the range (task counts, planned minutes, focus minutes)
+ *   - statusSummary: Task count and minutes per status
+ *   - completionByQuadrant: Total and completed task count per quadrant (1-4)
+ *   - durationByCategory: Planned minutes per category, excluding DELAY and CANCEL tasks (categoryId null = uncategorized)
+ *   - focusByHour: Focus minutes per hour of day from recorded focus sessions (24 slots, 0 = 00:00-00:59)
+ *   - totalFocusMinutes: Sum of focus minutes in the range
+ *   - driftMinutes: Actual minus planned minutes of DONE tasks (positive = took longer than planned)
+ *   - moodDistribution: Number of journal entries per mood in the range (entries without mood omitted)
+ *   - frozenAt: When a closed week was stored as a weekly snapshot (null for live reports)
+ *
+ * Note: Tasks are assigned to the day of their planned start time; tasks without one are not counted.
+ */
+public class AnalyticsReport {
+
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    private List<DayStat> days = new ArrayList<>();
+
+    private List<StatusStat> statusSummary = new ArrayList<>();
+
+    private List<QuadrantStat> completionByQuadrant = new ArrayList<>();
+
+    private List<CategoryStat> durationByCategory = new ArrayList<>();
+
+    private int[] focusByHour = new int[24];
+
+    private long totalFocusMinutes;
+
+    private long driftMinutes;
+
+    private Map<String, Long> moodDistribution = new LinkedHashMap<>();
+
+    private LocalDateTime frozenAt;
+
+    public AnalyticsReport() {
+    }
+
+    public AnalyticsReport(LocalDate startDate, LocalDate endDate) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    // Getters and Setters
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public List<DayStat> getDays() {
+        return days;
+    }
+
+    public void setDays(List<DayStat> days) {
+        this.days = days;
+    }
+
+    public List<StatusStat> getStatusSummary() {
+        return statusSummary;
+    }
+
+    public void setStatusSummary(List<StatusStat> statusSummary) {
+        this.statusSummary = statusSummary;
+    }
+
+    public List<QuadrantStat> getCompletionByQuadrant() {
+        return completionByQuadrant;
+    }
+
+    public void setCompletionByQuadrant(List<QuadrantStat> completionByQuadrant) {
+        this.completionByQuadrant = completionByQuadrant;
+    }
+
+    public List<CategoryStat> getDurationByCategory() {
+        return durationByCategory;
+    }
+
+    public void setDurationByCategory(List<CategoryStat> durationByCategory) {
+        this.durationByCategory = durationByCategory;
+    }
+
+    public int[] getFocusByHour() {
+        return focusByHour;
+    }
+
+    public void setFocusByHour(int[] focusByHour) {
+        this.focusByHour = focusByHour;
+    }
+
+    public long getTotalFocusMinutes() {
+        return totalFocusMinutes;
+    }
+
+    public void setTotalFocusMinutes(long totalFocusMinutes) {
+        this.totalFocusMinutes = totalFocusMinutes;
+    }
+
+    public long getDriftMinutes() {
+        return driftMinutes;
+    }
+
+    public void setDriftMinutes(long driftMinutes) {
+        this.driftMinutes = driftMinutes;
+    }
+
+    public Map<String, Long> getMoodDistribution() {
+        return moodDistribution;
+    }
+
+    public void setMoodDistribution(Map<String, Long> moodDistribution) {
+        this.moodDistribution = moodDistribution;
+    }
+
+    public LocalDateTime getFrozenAt() {
+        return frozenAt;
+    }
+
+    public void setFrozenAt(LocalDateTime frozenAt) {
+        this.frozenAt = frozenAt;
+    }
+
+    /**
+     * Statistics of one day
+     */
+    public static class DayStat {
+        private LocalDate date;
+        private long taskCount;
+        private long doneCount;
+        private long plannedMinutes;
+        private long focusMinutes;
+
+        public DayStat() {
+        }
+
+        public DayStat(LocalDate date) {
+            this.date = date;
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public void setDate(LocalDate date) {
+            this.date = date;
+        }
+
+        public long getTaskCount() {
+            return taskCount;
+        }
+
+        public void setTaskCount(long taskCount) {
+            this.taskCount = taskCount;
+        }
+
+        public long getDoneCount() {
+            return doneCount;
+        }
+
+        public void setDoneCount(long doneCount) {
+            this.doneCount = doneCount;
+        }
+
+        public long getPlannedMinutes() {
+            return plannedMinutes;
+        }
+
+        public void setPlannedMinutes(long plannedMinutes) {
+            this.plannedMinutes = plannedMinutes;
+        }
+
+        public long getFocusMinutes() {
+            return focusMinutes;
+        }
+
+        public void setFocusMinutes(long focusMinutes) {
+            this.focusMinutes = focusMinutes;
+        }
+    }
+
+    /**
+     * Task count and minutes of one status
+     */
+    public static class StatusStat {
+        private TaskStatus status;
+        private long count;
+        private long plannedMinutes;
+        private long actualMinutes;
+
+        public StatusStat() {
+        }
+
+        public StatusStat(TaskStatus status) {
+            this.status = status;
+        }
+
+        public TaskStatus getStatus() {
+            return status;
+        }
+
+        public void setStatus(TaskStatus status) {
+            this.status = status;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+
+        public long getPlannedMinutes() {
+            return plannedMinutes;
+        }
+
+        public void setPlannedMinutes(long plannedMinutes) {
+            this.plannedMinutes = plannedMinutes;
+        }
+
+        public long getActualMinutes() {
+            return actualMinutes;
+        }
+
+        public void setActualMinutes(long actualMinutes) {
+            this.actualMinutes = actualMinutes;
+        }
+    }
+
+    /**
+     * Completion of one quadrant
+     */
+    public static class QuadrantStat {
+        private int quadrant;
+        private long total;
+        private long done;
+
+        public QuadrantStat() {
+        }
+
+        public QuadrantStat(int quadrant) {
+            this.quadrant = quadrant;
+        }
+
+        public int getQuadrant() {
+            return quadrant;
+        }
+
+        public void setQuadrant(int quadrant) {
+            this.quadrant = quadrant;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public void setTotal(long total) {
+            this.total = total;
+        }
+
+        public long getDone() {
+            return done;
+        }
+
+        public void setDone(long done) {
+            this.done = done;
+        }
+    }
+
+    /**
+     * Planned / actual minutes of one category
+     */
+    public static class CategoryStat {
+        private Long categoryId;
+        private String name;
+        private long taskCount;
+        private long doneCount;
+        private long plannedMinutes;
+        private long actualMinutes;
+
+        public CategoryStat() {
+        }
+
+        public CategoryStat(Long categoryId, String name) {
+            this.categoryId = categoryId;
+            this.name = name;
+        }
+
+        public Long getCategoryId() {
+            return categoryId;
+        }
+
+        public void setCategoryId(Long categoryId) {
+            this.categoryId = categoryId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public long getTaskCount() {
+            return taskCount;
+        }
+
+        public void setTaskCount(long taskCount) {
+            this.taskCount = taskCount;
+        }
+
+        public long getDoneCount() {
+            return doneCount;
+        }
+
+        public void setDoneCount(long doneCount) {
+            this.doneCount = doneCount;
+        }
+
+        public long getPlannedMinutes() {
+            return plannedMinutes;
+        }
+
+        public void setPlannedMinutes(long plannedMinutes) {
+            this.plannedMinutes = plannedMinutes;
+        }
+
+        public long getActualMinutes() {
+            return actualMinutes;
+        }
+
+        public void setActualMinutes(long actualMinutes) {
+            this.actualMinutes = actualMinutes;
+        }
+    }
+}
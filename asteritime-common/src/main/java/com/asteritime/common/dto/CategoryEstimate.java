@@ -0,0 +1,149 @@
+package com.asteritime.common.dto;
+
+/**
+ * How well a user estimates task durations in one category (GET /api/analytics/estimates)
+ *
+ * Ratio = actual minutes / planned minutes of a DONE task (1.0 = on time, 1.5 = 50% over).
+ *
+ * Fields:
+ *   - categoryId / name: Category (null = uncategorized)
+ *   - sampleCount: Number of DONE tasks with planned and actual durations
+ *   - meanRatio / stdDevRatio: Mean and standard deviation of the ratio
+ *   - p50Ratio / p90Ratio: Median and 90th percentile of the ratio (histogram estimate, about 5% accurate)
+ *   - p50OverrunPercent / p90OverrunPercent: Same as percent over plan (negative = finished early)
+ *   - averagePlannedMinutes / averageActualMinutes: Mean durations
+ *   - suggestedMinutes: Suggested duration for a new task (requested planned minutes, or the
+ *     average planned minutes, scaled by the median ratio)
+ */
+public class CategoryEstimate {
+
+    private Long categoryId;
+
+    private String name;
+
+    private long sampleCount;
+
+    private double meanRatio;
+
+    private double stdDevRatio;
+
+    private double p50Ratio;
+
+    private double p90Ratio;
+
+    private long p50OverrunPercent;
+
+    private long p90OverrunPercent;
+
+    private long averagePlannedMinutes;
+
+    private long averageActualMinutes;
+
+    private long suggestedMinutes;
+
+    public CategoryEstimate() {
+    }
+
+    public CategoryEstimate(Long categoryId, String name) {
+        this.categoryId = categoryId;
+        this.name = name;
+    }
+
+    // Getters and Setters
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    public void setSampleCount(long sampleCount) {
+        this.sampleCount = sampleCount;
+    }
+
+    public double getMeanRatio() {
+        return meanRatio;
+    }
+
+    public void setMeanRatio(double meanRatio) {
+        this.meanRatio = meanRatio;
+    }
+
+    public double getStdDevRatio() {
+        return stdDevRatio;
+    }
+
+    public void setStdDevRatio(double stdDevRatio) {
+        this.stdDevRatio = stdDevRatio;
+    }
+
+    public double getP50Ratio() {
+        return p50Ratio;
+    }
+
+    public void setP50Ratio(double p50Ratio) {
+        this.p50Ratio = p50Ratio;
+    }
+
+    public double getP90Ratio() {
+        return p90Ratio;
+    }
+
+    public void setP90Ratio(double p90Ratio) {
+        this.p90Ratio = p90Ratio;
+    }
+
+    public long getP50OverrunPercent() {
+        return p50OverrunPercent;
+    }
+
+    public void setP50OverrunPercent(long p50OverrunPercent) {
+        this.p50OverrunPercent = p50OverrunPercent;
+    }
+
+    public long getP90OverrunPercent() {
+        return p90OverrunPercent;
+    }
+
+    public void setP90OverrunPercent(long p90OverrunPercent) {
+        this.p90OverrunPercent = p90OverrunPercent;
+    }
+
+    public long getAveragePlannedMinutes() {
+        return averagePlannedMinutes;
+    }
+
+    public void setAveragePlannedMinutes(long averagePlannedMinutes) {
+        this.averagePlannedMinutes = averagePlannedMinutes;
+    }
+
+    public long getAverageActualMinutes() {
+        return averageActualMinutes;
+    }
+
+    public void setAverageActualMinutes(long averageActualMinutes) {
+        this.averageActualMinutes = averageActualMinutes;
+    }
+
+    public long getSuggestedMinutes() {
+        return suggestedMinutes;
+    }
+
+    public void setSuggestedMinutes(long suggestedMinutes) {
+        this.suggestedMinutes = suggestedMinutes;
+    }
+}
@@ -0,0 +1,77 @@
+package com.asteritime.common.dto;
+
+import java.util.List;
+
+/**
+ * One page of a cursor (keyset) paginated list
+ *
+ * Fields:
+ *   - items: Entries of this page
+ *   - nextCursor: Opaque continuation token for the next page (null on the last page)
+ *   - hasMore: Whether more entries exist after this page
+ *
+ * Clients pass nextCursor back unchanged as the "cursor" query parameter.
+ */
+public class CursorPage<T> {
+
+    /**
+     * Page size used when the client does not request one
+     */
+    public static final int DEFAULT_SIZE = 50;
+
+    /**
+     * Upper bound for requested page size
+     */
+    public static final int MAX_SIZE = 200;
+
+    private List<T> items;
+
+    private String nextCursor;
+
+    private boolean hasMore;
+
+    public CursorPage() {
+    }
+
+    public CursorPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+    }
+
+    /**
+     * Normalize requested page size into [1, MAX_SIZE] (null means DEFAULT_SIZE)
+     */
+    public static int normalizeSize(Integer size) {
+        if (size == null || size < 1) {
+            return DEFAULT_SIZE;
+        }
+        return Math.min(size, MAX_SIZE);
+    }
+
+    // Getters and Setters
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
@@ -0,0 +1,55 @@
+package com.asteritime.common.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Focus minutes of one user within one clock hour
+ *
+ * Fields:
+ *   - hour: Start of the hour (e.g., 2025-12-01T09:00:00)
+ *   - minutes: Focus minutes falling into this hour
+ *   - sessions: Number of sessions overlapping this hour
+ */
+public class FocusHourBucket {
+
+    private LocalDateTime hour;
+
+    private long minutes;
+
+    private long sessions;
+
+    public FocusHourBucket() {
+    }
+
+    public FocusHourBucket(LocalDateTime hour, long minutes, long sessions) {
+        this.hour = hour;
+        this.minutes = minutes;
+        this.sessions = sessions;
+    }
+
+    // Getters and Setters
+
+    public LocalDateTime getHour() {
+        return hour;
+    }
+
+    public void setHour(LocalDateTime hour) {
+        this.hour = hour;
+    }
+
+    public long getMinutes() {
+        return minutes;
+    }
+
+    public void setMinutes(long minutes) {
+        this.minutes = minutes;
+    }
+
+    public long getSessions() {
+        return sessions;
+    }
+
+    public void setSessions(long sessions) {
+        this.sessions = sessions;
+    }
+}
@@ -0,0 +1,75 @@
+package com.asteritime.common.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Journal summary of one day for the month calendar (GET /api/journal-entries/calendar)
+ *
+ * Fields:
+ *   - date: Day
+ *   - entryCount: Number of journal entries of the day
+ *   - focusMinutes: Sum of focus minutes of the day's entries
+ *   - dominantMood: Most frequent mood of the day (null if no entry has a mood)
+ *   - hasEvaluation: Whether any entry of the day has an evaluation
+ */
+public class JournalCalendarDay {
+
+    private LocalDate date;
+
+    private long entryCount;
+
+    private long focusMinutes;
+
+    private String dominantMood;
+
+    private boolean hasEvaluation;
+
+    public JournalCalendarDay() {
+    }
+
+    public JournalCalendarDay(LocalDate date) {
+        this.date = date;
+    }
+
+    // Getters and Setters
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    public void setEntryCount(long entryCount) {
+        this.entryCount = entryCount;
+    }
+
+    public long getFocusMinutes() {
+        return focusMinutes;
+    }
+
+    public void setFocusMinutes(long focusMinutes) {
+        this.focusMinutes = focusMinutes;
+    }
+
+    public String getDominantMood() {
+        return dominantMood;
+    }
+
+    public void setDominantMood(String dominantMood) {
+        this.dominantMood = dominantMood;
+    }
+
+    public boolean isHasEvaluation() {
+        return hasEvaluation;
+    }
+
+    public void setHasEvaluation(boolean hasEvaluation) {
+        this.hasEvaluation = hasEvaluation;
+    }
+}
@@ -0,0 +1,208 @@
+package com.asteritime.common.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight journal entry for list views (full text, images and voice note URL are only
+ * returned by GET /api/journal-entries/{id})
+ *
+ * Fields:
+ *   - id, date, title, mood, weather, activity, totalFocusMinutes: As on JournalEntry
+ *   - excerpt: Start of contentText (of evaluation if there is no text), at most EXCERPT_LENGTH chars
+ *   - excerptTruncated: Whether the text goes on after the excerpt
+ *   - hasImages / hasVoiceNote / hasEvaluation: Whether the entry has them
+ *   - createdAt, updatedAt, version: As on JournalEntry
+ */
+public class JournalEntrySummary {
+
+    /**
+     * Maximum excerpt length (characters)
+     */
+    public static final int EXCERPT_LENGTH = 160;
+
+    private Long id;
+
+    private LocalDate date;
+
+    private String title;
+
+    private String mood;
+
+    private String weather;
+
+    private String activity;
+
+    private Integer totalFocusMinutes;
+
+    private String excerpt;
+
+    private boolean excerptTruncated;
+
+    private boolean hasImages;
+
+    private boolean hasVoiceNote;
+
+    private boolean hasEvaluation;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    private Long version;
+
+    public JournalEntrySummary() {
+    }
+
+    /**
+     * Constructor used by JPQL projections
+     *
+     * @param excerpt Up to EXCERPT_LENGTH + 1 characters of text, the extra one marks a truncated excerpt
+     * @param hasImages / hasVoiceNote / hasEvaluation 1 if present, else 0
+     */
+    public JournalEntrySummary(Long id, LocalDate date, String title, String mood, String weather, String activity,
+                               Integer totalFocusMinutes, String excerpt, Integer hasImages, Integer hasVoiceNote,
+                               Integer hasEvaluation, LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
+        this.id = id;
+        this.date = date;
+        this.title = title;
+        this.mood = mood;
+        this.weather = weather;
+        this.activity = activity;
+        this.totalFocusMinutes = totalFocusMinutes;
+        if (excerpt != null && excerpt.length() > EXCERPT_LENGTH) {
+            this.excerpt = excerpt.substring(0, EXCERPT_LENGTH);
+            this.excerptTruncated = true;
+        } else {
+            this.excerpt = excerpt == null || excerpt.isEmpty() ? null : excerpt;
+        }
+        this.hasImages = hasImages != null && hasImages > 0;
+        this.hasVoiceNote = hasVoiceNote != null && hasVoiceNote > 0;
+        this.hasEvaluation = hasEvaluation != null && hasEvaluation > 0;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.version = version;
+    }
+
+    // Getters and Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getMood() {
+        return mood;
+    }
+
+    public void setMood(String mood) {
+        this.mood = mood;
+    }
+
+    public String getWeather() {
+        return weather;
+    }
+
+    public void setWeather(String weather) {
+        this.weather = weather;
+    }
+
+    public String getActivity() {
+        return activity;
+    }
+
+    public void setActivity(String activity) {
+        this.activity = activity;
+    }
+
+    public Integer getTotalFocusMinutes() {
+        return totalFocusMinutes;
+    }
+
+    public void setTotalFocusMinutes(Integer totalFocusMinutes) {
+        this.totalFocusMinutes = totalFocusMinutes;
+    }
+
+    public String getExcerpt() {
+        return excerpt;
+    }
+
+    public void setExcerpt(String excerpt) {
+        this.excerpt = excerpt;
+    }
+
+    public boolean isExcerptTruncated() {
+        return excerptTruncated;
+    }
+
+    public void setExcerptTruncated(boolean excerptTruncated) {
+        this.excerptTruncated = excerptTruncated;
+    }
+
+    public boolean isHasImages() {
+        return hasImages;
+    }
+
+    public void setHasImages(boolean hasImages) {
+        this.hasImages = hasImages;
+    }
+
+    public boolean isHasVoiceNote() {
+        return hasVoiceNote;
+    }
+
+    public void setHasVoiceNote(boolean hasVoiceNote) {
+        this.hasVoiceNote = hasVoiceNote;
+    }
+
+    public boolean isHasEvaluation() {
+        return hasEvaluation;
+    }
+
+    public void setHasEvaluation(boolean hasEvaluation) {
+        this.hasEvaluation = hasEvaluation;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,134 @@
+package com.asteritime.common.dto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Journal entry counts per value of one facet (mood, weather or activity)
+ *
+ * Fields:
+ *   - facet: Facet the counts are grouped by
+ *   - startDate / endDate: Date range (inclusive, null = unbounded)
+ *   - filters: Facet values all counted entries have (e.g. {"mood": "Happy"})
+ *   - totalEntries / totalDays: Entries matching the filters and the distinct days they are on
+ *   - values: Counts per facet value, most entries first (value null = entries without that facet)
+ */
+public class JournalFacetCounts {
+
+    private String facet;
+
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    private Map<String, String> filters = new LinkedHashMap<>();
+
+    private long totalEntries;
+
+    private long totalDays;
+
+    private List<ValueCount> values = new ArrayList<>();
+
+    // Getters and Setters
+
+    public String getFacet() {
+        return facet;
+    }
+
+    public void setFacet(String facet) {
+        this.facet = facet;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public Map<String, String> getFilters() {
+        return filters;
+    }
+
+    public void setFilters(Map<String, String> filters) {
+        this.filters = filters;
+    }
+
+    public long getTotalEntries() {
+        return totalEntries;
+    }
+
+    public void setTotalEntries(long totalEntries) {
+        this.totalEntries = totalEntries;
+    }
+
+    public long getTotalDays() {
+        return totalDays;
+    }
+
+    public void setTotalDays(long totalDays) {
+        this.totalDays = totalDays;
+    }
+
+    public List<ValueCount> getValues() {
+        return values;
+    }
+
+    public void setValues(List<ValueCount> values) {
+        this.values = values;
+    }
+
+    /**
+     * Entries and distinct days of one facet value
+     */
+    public static class ValueCount {
+        private String value;
+        private long entries;
+        private long days;
+
+        public ValueCount() {
+        }
+
+        public ValueCount(String value, long entries, long days) {
+            this.value = value;
+            this.entries = entries;
+            this.days = days;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public void setValue(String value) {
+            this.value = value;
+        }
+
+        public long getEntries() {
+            return entries;
+        }
+
+        public void setEntries(long entries) {
+            this.entries = entries;
+        }
+
+        public long getDays() {
+            return days;
+        }
+
+        public void setDays(long days) {
+            this.days = days;
+        }
+    }
+}
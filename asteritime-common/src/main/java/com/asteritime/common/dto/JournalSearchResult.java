@@ -0,0 +1,110 @@
+package com.asteritime.common.dto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ranked full-text search result over a user's journal entries
+ *
+ * Fields:
+ *   - query: Search text as sent
+ *   - totalHits: Number of matching entries (hits holds at most the requested limit)
+ *   - tookMillis: Search time on the server
+ *   - hits: Best matches first
+ */
+public class JournalSearchResult {
+
+    private String query;
+
+    private long totalHits;
+
+    private long tookMillis;
+
+    private List<Hit> hits = new ArrayList<>();
+
+    // Getters and Setters
+
+    public String getQuery() {
+        return query;
+    }
+
+    public void setQuery(String query) {
+        this.query = query;
+    }
+
+    public long getTotalHits() {
+        return totalHits;
+    }
+
+    public void setTotalHits(long totalHits) {
+        this.totalHits = totalHits;
+    }
+
+    public long getTookMillis() {
+        return tookMillis;
+    }
+
+    public void setTookMillis(long tookMillis) {
+        this.tookMillis = tookMillis;
+    }
+
+    public List<Hit> getHits() {
+        return hits;
+    }
+
+    public void setHits(List<Hit> hits) {
+        this.hits = hits;
+    }
+
+    /**
+     * One matching entry; snippet is HTML-escaped text with matches wrapped in <b></b>
+     */
+    public static class Hit {
+        private Long entryId;
+        private LocalDate date;
+        private String title;
+        private float score;
+        private String snippet;
+
+        public Long getEntryId() {
+            return entryId;
+        }
+
+        public void setEntryId(Long entryId) {
+            this.entryId = entryId;
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public void setDate(LocalDate date) {
+            this.date = date;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void setTitle(String title) {
+            this.title = title;
+        }
+
+        public float getScore() {
+            return score;
+        }
+
+        public void setScore(float score) {
+            this.score = score;
+        }
+
+        public String getSnippet() {
+            return snippet;
+        }
+
+        public void setSnippet(String snippet) {
+            this.snippet = snippet;
+        }
+    }
+}
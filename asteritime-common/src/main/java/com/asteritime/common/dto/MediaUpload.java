@@ -0,0 +1,65 @@
+package com.asteritime.common.dto;
+
+/**
+ * Result of a media upload (POST /api/media)
+ *
+ * Fields:
+ *   - sha256: Content key; identical content always gets the same key
+ *   - url: URL to store in JournalEntry.imageUrls / voiceNoteUrl (/api/media/{sha256})
+ *   - sizeBytes: Content size
+ *   - contentType: MIME type recorded when the content was first uploaded
+ */
+public class MediaUpload {
+
+    private String sha256;
+
+    private String url;
+
+    private long sizeBytes;
+
+    private String contentType;
+
+    public MediaUpload() {
+    }
+
+    public MediaUpload(String sha256, String url, long sizeBytes, String contentType) {
+        this.sha256 = sha256;
+        this.url = url;
+        this.sizeBytes = sizeBytes;
+        this.contentType = contentType;
+    }
+
+    // Getters and Setters
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public void setSizeBytes(long sizeBytes) {
+        this.sizeBytes = sizeBytes;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+}
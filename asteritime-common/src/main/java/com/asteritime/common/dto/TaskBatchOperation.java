@@ -0,0 +1,52 @@
+package com.asteritime.common.dto;
+
+import com.asteritime.common.model.Task;
+
+/**
+ * One operation of a task batch request (POST /api/tasks/batch)
+ *
+ * Fields:
+ *   - op: CREATE, UPDATE or DELETE
+ *   - id: Target task ID (required for UPDATE and DELETE)
+ *   - task: Task data (required for CREATE and UPDATE, same format as the single-task endpoints)
+ */
+public class TaskBatchOperation {
+
+    public enum Op {
+        CREATE,
+        UPDATE,
+        DELETE
+    }
+
+    private Op op;
+
+    private Long id;
+
+    private Task task;
+
+    // Getters and Setters
+
+    public Op getOp() {
+        return op;
+    }
+
+    public void setOp(Op op) {
+        this.op = op;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    public void setTask(Task task) {
+        this.task = task;
+    }
+}
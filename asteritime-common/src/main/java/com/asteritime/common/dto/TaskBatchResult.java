@@ -0,0 +1,99 @@
+package com.asteritime.common.dto;
+
+import com.asteritime.common.model.Task;
+
+/**
+ * Result of one operation of a task batch request
+ *
+ * Fields:
+ *   - index: Position of the operation in the request
+ *   - op: Operation type
+ *   - status: HTTP-style status of this item (201 created, 200 updated, 204 deleted, 400 invalid, 404 not found)
+ *   - id: Task ID (assigned ID for CREATE)
+ *   - task: Resulting task (CREATE and UPDATE only)
+ *   - error: Error message if the item failed
+ */
+public class TaskBatchResult {
+
+    private int index;
+
+    private TaskBatchOperation.Op op;
+
+    private int status;
+
+    private Long id;
+
+    private Task task;
+
+    private String error;
+
+    public static TaskBatchResult success(int index, TaskBatchOperation.Op op, int status, Long id, Task task) {
+        TaskBatchResult result = new TaskBatchResult();
+        result.index = index;
+        result.op = op;
+        result.status = status;
+        result.id = id;
+        result.task = task;
+        return result;
+    }
+
+    public static TaskBatchResult failure(int index, TaskBatchOperation.Op op, int status, Long id, String error) {
+        TaskBatchResult result = new TaskBatchResult();
+        result.index = index;
+        result.op = op;
+        result.status = status;
+        result.id = id;
+        result.error = error;
+        return result;
+    }
+
+    // Getters and Setters
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public TaskBatchOperation.Op getOp() {
+        return op;
+    }
+
+    public void setOp(TaskBatchOperation.Op op) {
+        this.op = op;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    public void setTask(Task task) {
+        this.task = task;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,73 @@
+package com.asteritime.common.dto;
+
+import com.asteritime.common.model.Task;
+
+import java.util.List;
+
+/**
+ * Incremental task changes since a client watermark (GET /api/tasks/changes)
+ *
+ * Fields:
+ *   - changed: Tasks created or modified since the watermark (ordered by updatedAt asc)
+ *   - deletedIds: IDs of tasks deleted since the watermark
+ *   - watermark: Value to pass as "since" on the next call (an ISO 8601 time, or an opaque
+ *     continuation token when hasMore is true)
+ *   - hasMore: true if changed was truncated; call again immediately with the new watermark
+ *
+ * Note: Consecutive responses may overlap slightly (a task can be returned twice),
+ * clients must apply changes idempotently (upsert by id, delete by id).
+ */
+public class TaskChanges {
+
+    private List<Task> changed;
+
+    private List<Long> deletedIds;
+
+    private String watermark;
+
+    private boolean hasMore;
+
+    public TaskChanges() {
+    }
+
+    public TaskChanges(List<Task> changed, List<Long> deletedIds, String watermark, boolean hasMore) {
+        this.changed = changed;
+        this.deletedIds = deletedIds;
+        this.watermark = watermark;
+        this.hasMore = hasMore;
+    }
+
+    // Getters and Setters
+
+    public List<Task> getChanged() {
+        return changed;
+    }
+
+    public void setChanged(List<Task> changed) {
+        this.changed = changed;
+    }
+
+    public List<Long> getDeletedIds() {
+        return deletedIds;
+    }
+
+    public void setDeletedIds(List<Long> deletedIds) {
+        this.deletedIds = deletedIds;
+    }
+
+    public String getWatermark() {
+        return watermark;
+    }
+
+    public void setWatermark(String watermark) {
+        this.watermark = watermark;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
@@ -0,0 +1,127 @@
+package com.asteritime.common.model;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Focus session entity (one completed Pomodoro)
+ *
+ * Append-only: sessions are inserted once and never updated, so concurrent
+ * Pomodoro completions never conflict.
+ * Hour-level aggregates are kept in focus_hour_buckets (see FocusSessionService).
+ */
+@Entity
+@Table(name = "focus_sessions")
+public class FocusSession {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Owner user ID
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * Task worked on during the session (optional, kept after the task is deleted)
+     */
+    @Column(name = "task_id")
+    private Long taskId;
+
+    /**
+     * Session start time
+     */
+    @Column(nullable = false)
+    private LocalDateTime startedAt;
+
+    /**
+     * Session end time
+     */
+    @Column(nullable = false)
+    private LocalDateTime endedAt;
+
+    /**
+     * Focused minutes (excludes pauses, so may be less than endedAt - startedAt)
+     */
+    @Column(nullable = false)
+    private Integer minutes;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public FocusSession() {
+    }
+
+    public FocusSession(Long userId, Long taskId, LocalDateTime startedAt, LocalDateTime endedAt, Integer minutes) {
+        this.userId = userId;
+        this.taskId = taskId;
+        this.startedAt = startedAt;
+        this.endedAt = endedAt;
+        this.minutes = minutes;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(Long taskId) {
+        this.taskId = taskId;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getEndedAt() {
+        return endedAt;
+    }
+
+    public void setEndedAt(LocalDateTime endedAt) {
+        this.endedAt = endedAt;
+    }
+
+    public Integer getMinutes() {
+        return minutes;
+    }
+
+    public void setMinutes(Integer minutes) {
+        this.minutes = minutes;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -18,7 +18,7 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "journal_entries")
-@JsonIgnoreProperties({"user"}) // Avoid serializing User object to prevent circular references and sensitive info leaks
+@JsonIgnoreProperties({"user", "hibernateLazyInitializer", "handler"}) // Avoid serializing User object to prevent circular references and sensitive info leaks
 public class JournalEntry {
     
     @Id
@@ -28,7 +28,7 @@ public class JournalEntry {
     /**
      * Owner user (foreign key to users table)
      */
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
     
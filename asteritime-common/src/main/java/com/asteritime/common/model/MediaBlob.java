@@ -0,0 +1,102 @@
+package com.asteritime.common.model;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Uploaded journal media file (image or voice note), addressed by the SHA-256 of its content
+ *
+ * The same content uploaded twice (by any user, for any entry) is stored once.
+ *
+ * Note:
+ *   - refCount counts the journal entries referencing the blob (maintained by MediaService)
+ *   - Blobs unreferenced for longer than the grace period are deleted by the garbage collector
+ */
+@Entity
+@Table(name = "media_blobs")
+public class MediaBlob {
+
+    /**
+     * Lower-case hex SHA-256 of the content
+     */
+    @Id
+    @Column(name = "sha256", columnDefinition = "CHAR(64)")
+    private String sha256;
+
+    /**
+     * Content length in bytes
+     */
+    @Column(name = "size_bytes", nullable = false)
+    private Long sizeBytes;
+
+    /**
+     * MIME type declared at upload (e.g., image/jpeg, audio/webm)
+     */
+    @Column(name = "content_type", nullable = false, length = 100)
+    private String contentType;
+
+    /**
+     * Number of journal entries referencing the blob
+     */
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount = 0;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Since when no entry references the blob (null while referenced)
+     */
+    @Column(name = "unreferenced_since")
+    private LocalDateTime unreferencedSince;
+
+    // Getters and Setters
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public Long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public void setSizeBytes(Long sizeBytes) {
+        this.sizeBytes = sizeBytes;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public Integer getRefCount() {
+        return refCount;
+    }
+
+    public void setRefCount(Integer refCount) {
+        this.refCount = refCount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUnreferencedSince() {
+        return unreferencedSince;
+    }
+
+    public void setUnreferencedSince(LocalDateTime unreferencedSince) {
+        this.unreferencedSince = unreferencedSince;
+    }
+}
@@ -8,14 +8,44 @@ import java.time.LocalDateTime;
 
 /**
  * Task entity
+ *
+ * Fetch plan:
+ *   - All associations are LAZY; list/detail queries load type and recurrenceRule
+ *     through the "Task.withTypeAndRule" entity graph (or an explicit fetch join)
+ *   - user is never fetched for reads (it is not serialized)
  */
 @Entity
 @Table(name = "tasks")
-@JsonIgnoreProperties({"user"}) // Avoid serializing User object to prevent circular references and sensitive info leaks
+@NamedEntityGraph(
+    name = Task.GRAPH_WITH_TYPE_AND_RULE,
+    attributeNodes = {
+        @NamedAttributeNode("type"),
+        @NamedAttributeNode("recurrenceRule")
+    }
+)
+@JsonIgnoreProperties({"user", "hibernateLazyInitializer", "handler"}) // Avoid serializing User object to prevent circular references and sensitive info leaks
 public class Task {
+
+    /**
+     * Entity graph loading category and recurrence rule together with the task
+     */
+    public static final String GRAPH_WITH_TYPE_AND_RULE = "Task.withTypeAndRule";
     
+    /**
+     * Task ID (primary key)
+     * Allocated in pools of 50 from the id_generators table instead of AUTO_INCREMENT,
+     * so Hibernate can batch inserts (IDENTITY forces one INSERT round trip per row)
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "task_id")
+    @TableGenerator(
+        name = "task_id",
+        table = "id_generators",
+        pkColumnName = "sequence_name",
+        valueColumnName = "next_val",
+        pkColumnValue = "tasks",
+        allocationSize = 50
+    )
     private Long id;
     
     @Column(nullable = false)
@@ -35,14 +65,14 @@ public class Task {
     /**
      * Task type (foreign key, references task category)
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
     private TaskCategory type;
     
     /**
      * Recurrence rule (foreign key, references task recurrence frequency rule)
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "recurrence_rule_id")
     private TaskRecurrenceRule recurrenceRule;
     
@@ -130,7 +160,7 @@ public class Task {
     /**
      * Owner user (foreign key to users table)
      */
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
     
@@ -1,6 +1,11 @@
 package com.asteritime.common.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 import javax.persistence.*;
 import java.time.LocalDateTime;
 
@@ -10,6 +15,8 @@ import java.time.LocalDateTime;
  * Note:
  *   - Currently only contains category ID and name
  *   - Can add icon fields (e.g., iconUrl or iconCode) in the future if needed
+ *   - Cached in the second-level cache (region "task_categories", read-write, versioned by @Version)
+ *   - (user, name) is the natural ID, natural ID lookups are cached as well
  */
 @Entity
 @Table(
@@ -18,9 +25,16 @@ import java.time.LocalDateTime;
         @UniqueConstraint(columnNames = {"user_id", "name"})
     }
 )
-@JsonIgnoreProperties({"user"}) // Avoid serializing User object to prevent circular references and sensitive info leaks
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = TaskCategory.CACHE_REGION)
+@NaturalIdCache(region = TaskCategory.NATURAL_ID_CACHE_REGION)
+@JsonIgnoreProperties({"user", "hibernateLazyInitializer", "handler"}) // Avoid serializing User object to prevent circular references and sensitive info leaks
 public class TaskCategory {
 
+    public static final String CACHE_REGION = "task_categories";
+
+    public static final String NATURAL_ID_CACHE_REGION = "task_categories_natural_id";
+
     /**
      * Category ID (primary key)
      */
@@ -31,13 +45,15 @@ public class TaskCategory {
     /**
      * Owner user (foreign key to users table)
      */
-    @ManyToOne(optional = false)
+    @NaturalId
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
     /**
      * Category name (unique per user)
      */
+    @NaturalId
     @Column(nullable = false)
     private String name;
 
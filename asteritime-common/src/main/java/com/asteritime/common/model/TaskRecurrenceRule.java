@@ -1,6 +1,11 @@
 package com.asteritime.common.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 import javax.persistence.*;
 import java.time.LocalDateTime;
 
@@ -16,6 +21,8 @@ import java.time.LocalDateTime;
  *   - For future support of more complex customization (e.g., specific time, day of week):
  *       1) Define richer expression format, or
  *       2) Split into multiple fields (unit, interval, times per day, specific time, etc.)
+ *   - Cached in the second-level cache (region "task_recurrence_rules", read-write, versioned by @Version)
+ *   - (user, frequencyExpression) is the natural ID, natural ID lookups are cached as well
  */
 @Entity
 @Table(
@@ -24,9 +31,16 @@ import java.time.LocalDateTime;
         @UniqueConstraint(columnNames = {"user_id", "frequency_expression"})
     }
 )
-@JsonIgnoreProperties({"user"}) // Avoid serializing User object to prevent circular references and sensitive info leaks
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = TaskRecurrenceRule.CACHE_REGION)
+@NaturalIdCache(region = TaskRecurrenceRule.NATURAL_ID_CACHE_REGION)
+@JsonIgnoreProperties({"user", "hibernateLazyInitializer", "handler"}) // Avoid serializing User object to prevent circular references and sensitive info leaks
 public class TaskRecurrenceRule {
 
+    public static final String CACHE_REGION = "task_recurrence_rules";
+
+    public static final String NATURAL_ID_CACHE_REGION = "task_recurrence_rules_natural_id";
+
     /**
      * Rule ID (primary key)
      */
@@ -37,7 +51,8 @@ public class TaskRecurrenceRule {
     /**
      * Owner user (foreign key to users table)
      */
-    @ManyToOne(optional = false)
+    @NaturalId
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
@@ -48,6 +63,7 @@ public class TaskRecurrenceRule {
      *   - "1/day"  -> once per day
      *   - "2/day"  -> twice per day
      */
+    @NaturalId
     @Column(name = "frequency_expression", nullable = false)
     private String frequencyExpression;
 
@@ -0,0 +1,88 @@
+package com.asteritime.common.model;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Task tombstone
+ *
+ * Records the ID of a deleted task so the change feed (GET /api/tasks/changes)
+ * can tell clients which tasks to remove.
+ *
+ * Note:
+ *   - Append-only, written by TaskService when a task is deleted
+ *   - Purged after the retention period (see TaskService.TOMBSTONE_RETENTION_DAYS)
+ */
+@Entity
+@Table(name = "task_tombstones")
+public class TaskTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Owner user ID of the deleted task
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * ID of the deleted task
+     */
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    /**
+     * Deletion time
+     */
+    @Column(nullable = false)
+    private LocalDateTime deletedAt;
+
+    public TaskTombstone() {
+    }
+
+    public TaskTombstone(Long userId, Long taskId) {
+        this.userId = userId;
+        this.taskId = taskId;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        deletedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(Long taskId) {
+        this.taskId = taskId;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+}
@@ -1,15 +1,24 @@
 package com.asteritime.common.model;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 import java.time.LocalDateTime;
 
 /**
  * User entity
+ *
+ * Cached in the second-level cache (region "users", read-write, versioned by @Version)
  */
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
 public class User {
 
+    public static final String CACHE_REGION = "users";
+
     /**
      * User ID (primary key)
      */
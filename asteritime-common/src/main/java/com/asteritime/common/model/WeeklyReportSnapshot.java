@@ -0,0 +1,108 @@
+package com.asteritime.common.model;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Weekly report snapshot
+ *
+ * The analytics report of one closed week (Monday to Sunday), stored as JSON so
+ * reading a past week is a single-row lookup.
+ *
+ * Note:
+ *   - Written once by WeeklyReportService (scheduled job or first read after the week closed)
+ *   - Never updated: later edits to tasks of a closed week are not reflected
+ */
+@Entity
+@Table(name = "weekly_report_snapshots",
+        uniqueConstraints = @UniqueConstraint(name = "uk_weekly_report_snapshots_user_week",
+                columnNames = {"user_id", "week_start"}))
+public class WeeklyReportSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Owner user ID
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * Monday of the reported week
+     */
+    @Column(name = "week_start", nullable = false)
+    private LocalDate weekStart;
+
+    /**
+     * Report JSON (AnalyticsReport)
+     */
+    @Column(nullable = false, columnDefinition = "MEDIUMTEXT")
+    private String report;
+
+    /**
+     * When the report was computed
+     */
+    @Column(nullable = false)
+    private LocalDateTime frozenAt;
+
+    public WeeklyReportSnapshot() {
+    }
+
+    public WeeklyReportSnapshot(Long userId, LocalDate weekStart, String report) {
+        this.userId = userId;
+        this.weekStart = weekStart;
+        this.report = report;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        if (frozenAt == null) {
+            frozenAt = LocalDateTime.now();
+        }
+    }
+
+    // Getters and Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public LocalDate getWeekStart() {
+        return weekStart;
+    }
+
+    public void setWeekStart(LocalDate weekStart) {
+        this.weekStart = weekStart;
+    }
+
+    public String getReport() {
+        return report;
+    }
+
+    public void setReport(String report) {
+        this.report = report;
+    }
+
+    public LocalDateTime getFrozenAt() {
+        return frozenAt;
+    }
+
+    public void setFrozenAt(LocalDateTime frozenAt) {
+        this.frozenAt = frozenAt;
+    }
+}
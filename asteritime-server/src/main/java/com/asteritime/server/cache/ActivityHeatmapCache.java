@@ -0,0 +1,259 @@
+package com.asteritime.server.cache;
+
+import com.asteritime.common.dto.ActivityHeatmap;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * In-process per-user yearly activity arrays (heatmap)
+ *
+ * Each (user, year) entry holds two 366-slot int arrays indexed by day of year - 1:
+ *   - focusMinutes: Sum of journal focus minutes of the day
+ *   - completedTasks: Number of DONE tasks completed on the day (tasks.completed_on)
+ * An entry is about 3 KB; a heatmap read copies the arrays and touches no rows.
+ *
+ * Entries are built once from the completed task counts and the journal day sums, then kept
+ * up to date with deltas reported by TaskRollupService and JournalEntryService after
+ * their transactions commit. Deltas for years not in memory are dropped, the next load
+ * reads them from the database.
+ *
+ * A per-user generation counter is bumped just before a write commits and again when its
+ * delta is applied, and every entry remembers the generation it was loaded at:
+ *   - A load overlapping either bump may or may not have seen the write; it is not cached
+ *   - An entry loaded after the write started committing may already contain it; the delta
+ *     drops the entry instead of adding itself a second time
+ *   - An entry loaded before that never contains it and gets the delta
+ */
+@Component
+public class ActivityHeatmapCache {
+
+    /**
+     * Slots per year (leap years use all of them, other years leave the last one empty)
+     */
+    public static final int DAYS_PER_YEAR = 366;
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final Cache<YearKey, YearActivity> years;
+
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public ActivityHeatmapCache(@Value("${asteritime.cache.heatmap.max-years:10000}") long maxYears) {
+        this.years = Caffeine.newBuilder()
+                .maximumSize(maxYears)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Get the activity arrays of a user and year, building them through loader if missing
+     *
+     * @param loader Fills a fresh YearActivity from the database
+     * @return Copy of the arrays, trimmed to the length of the year
+     */
+    public ActivityHeatmap get(Long userId, int year, Consumer<YearActivity> loader) {
+        YearKey key = new YearKey(userId, year);
+        int stripe = stripe(userId);
+        YearActivity[] loadedHere = new YearActivity[1];
+        YearActivity activity = years.get(key, k -> {
+            YearActivity loaded = new YearActivity(generations.get(stripe));
+            loader.accept(loaded);
+            loadedHere[0] = loaded;
+            return loaded;
+        });
+        if (loadedHere[0] != null && generations.get(stripe) != activity.generation) {
+            // A write committed while loading: the arrays may or may not contain it, keep them out of the cache
+            years.asMap().remove(key, activity);
+        }
+        return activity.snapshot(year);
+    }
+
+    /**
+     * Add focus minutes to a day once the current transaction commits (immediately if none is active)
+     */
+    public void addFocusMinutesAfterCommit(Long userId, LocalDate date, int minutes) {
+        if (date != null && minutes != 0) {
+            applyOnCommit(userId, date, activity -> activity.focusMinutes, minutes);
+        }
+    }
+
+    /**
+     * Add completed tasks to a day once the current transaction commits (immediately if none is active)
+     */
+    public void addCompletedTasksAfterCommit(Long userId, LocalDate date, int count) {
+        if (date != null && count != 0) {
+            applyOnCommit(userId, date, activity -> activity.completedTasks, count);
+        }
+    }
+
+    /**
+     * Drop all years of a user (or of all users if userId is null) once the current transaction commits
+     */
+    public void invalidateAfterCommit(Long userId) {
+        afterCommit(() -> {
+            if (userId == null) {
+                for (int i = 0; i < GENERATION_STRIPES; i++) {
+                    generations.incrementAndGet(i);
+                }
+                years.invalidateAll();
+            } else {
+                generations.incrementAndGet(stripe(userId));
+                years.asMap().keySet().removeIf(key -> key.userId.equals(userId));
+            }
+        });
+    }
+
+    /**
+     * Cache statistics (hits, misses, evictions, current size)
+     */
+    public Map<String, Object> stats() {
+        CacheStats stats = years.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", years.estimatedSize());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        result.put("loadCount", stats.loadCount());
+        result.put("averageLoadPenaltyNanos", stats.averageLoadPenalty());
+        return result;
+    }
+
+    /**
+     * Apply a delta once the current transaction commits (immediately if none is active)
+     */
+    private void applyOnCommit(Long userId, LocalDate date, Function<YearActivity, AtomicIntegerArray> series,
+                               int delta) {
+        int stripe = stripe(userId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(userId, date, series, delta, generations.incrementAndGet(stripe));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long commitGeneration;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                commitGeneration = generations.incrementAndGet(stripe);
+            }
+
+            @Override
+            public void afterCommit() {
+                apply(userId, date, series, delta, commitGeneration);
+            }
+        });
+    }
+
+    /**
+     * @param commitGeneration Generation taken just before the write committed
+     */
+    private void apply(Long userId, LocalDate date, Function<YearActivity, AtomicIntegerArray> series,
+                       int delta, long commitGeneration) {
+        generations.incrementAndGet(stripe(userId));
+        YearKey key = new YearKey(userId, date.getYear());
+        YearActivity activity = years.getIfPresent(key);
+        if (activity == null) {
+            return;
+        }
+        if (activity.generation >= commitGeneration) {
+            // Loaded after the write started committing, possibly already counting it
+            years.asMap().remove(key, activity);
+        } else {
+            series.apply(activity).addAndGet(date.getDayOfYear() - 1, delta);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static int stripe(Long userId) {
+        return (int) Math.floorMod(userId, (long) GENERATION_STRIPES);
+    }
+
+    /**
+     * Activity arrays of one user and year (slot = day of year - 1)
+     */
+    public static final class YearActivity {
+        private final AtomicIntegerArray focusMinutes = new AtomicIntegerArray(DAYS_PER_YEAR);
+        private final AtomicIntegerArray completedTasks = new AtomicIntegerArray(DAYS_PER_YEAR);
+        private final long generation;
+
+        YearActivity(long generation) {
+            this.generation = generation;
+        }
+
+        public void addFocusMinutes(LocalDate date, long minutes) {
+            focusMinutes.addAndGet(date.getDayOfYear() - 1, (int) minutes);
+        }
+
+        public void addCompletedTasks(LocalDate date, long count) {
+            completedTasks.addAndGet(date.getDayOfYear() - 1, (int) count);
+        }
+
+        ActivityHeatmap snapshot(int year) {
+            int days = Year.of(year).length();
+            int[] focus = new int[days];
+            int[] completed = new int[days];
+            for (int i = 0; i < days; i++) {
+                focus[i] = focusMinutes.get(i);
+                completed[i] = completedTasks.get(i);
+            }
+            return new ActivityHeatmap(year, focus, completed);
+        }
+    }
+
+    /**
+     * Cache key: user + calendar year
+     */
+    static final class YearKey {
+        private final Long userId;
+        private final int year;
+
+        YearKey(Long userId, int year) {
+            this.userId = userId;
+            this.year = year;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof YearKey)) {
+                return false;
+            }
+            YearKey other = (YearKey) o;
+            return year == other.year && userId.equals(other.userId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, year);
+        }
+    }
+}
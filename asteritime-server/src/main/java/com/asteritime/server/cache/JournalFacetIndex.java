@@ -0,0 +1,384 @@
+package com.asteritime.server.cache;
+
+import com.asteritime.common.dto.JournalFacetCounts;
+import com.asteritime.common.model.JournalEntry;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * In-process per-user facet index of journal entries (mood, weather, activity)
+ *
+ * Facet values are dictionary-encoded per user: every distinct string gets a small integer
+ * code the first time it is seen and every entry a dense ordinal. Per facet the index keeps
+ *   - a code column (ordinal -> code + 1, 0 = no value), used for grouping
+ *   - one bitmap per code (bit = ordinal), used for filtering by AND-ing bitmaps
+ * so facet counts and filtered lists compare no strings. Ordinals are reused after deletes,
+ * which keeps the bitmaps dense: a plain BitSet is as compact as a roaring container here.
+ *
+ * An index is built once per user from the facet columns of journal_entries, then kept up
+ * to date by JournalEntryService after its transactions commit. Changes of users not in
+ * memory are dropped, the next load reads them from the database.
+ *
+ * A per-user generation counter guards against a concurrent load caching an index that
+ * was read before a write committed (same scheme as TaskDayCache).
+ */
+@Component
+public class JournalFacetIndex {
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    /**
+     * Indexed journal entry attributes
+     */
+    public enum Facet {
+        MOOD, WEATHER, ACTIVITY;
+
+        /**
+         * Name used in request parameters and responses (lower case)
+         */
+        public String paramName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        /**
+         * @throws IllegalArgumentException if name is not a facet
+         */
+        public static Facet parse(String name) {
+            for (Facet facet : values()) {
+                if (facet.paramName().equalsIgnoreCase(name)) {
+                    return facet;
+                }
+            }
+            throw new IllegalArgumentException("Unknown facet: " + name + " (expected mood, weather or activity)");
+        }
+
+        String of(JournalEntry entry) {
+            switch (this) {
+                case MOOD:
+                    return entry.getMood();
+                case WEATHER:
+                    return entry.getWeather();
+                default:
+                    return entry.getActivity();
+            }
+        }
+    }
+
+    private final Cache<Long, UserFacets> users;
+
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public JournalFacetIndex(@Value("${asteritime.cache.journal-facets.max-users:50000}") long maxUsers) {
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Count a user's entries per value of one facet
+     *
+     * @param startDate First day (inclusive), null = unbounded
+     * @param endDate Last day (inclusive), null = unbounded
+     * @param filters Facet values counted entries must have (normalized, see normalize)
+     * @param loader Reads the facet rows of a user (see JournalEntryRepository.findFacetsByUserId)
+     */
+    public JournalFacetCounts count(Long userId, LocalDate startDate, LocalDate endDate, Map<Facet, String> filters,
+                                    Facet groupBy, Function<Long, List<Object[]>> loader) {
+        UserFacets facets = load(userId, loader);
+        JournalFacetCounts result = new JournalFacetCounts();
+        result.setFacet(groupBy.paramName());
+        result.setStartDate(startDate);
+        result.setEndDate(endDate);
+        filters.forEach((facet, value) -> result.getFilters().put(facet.paramName(), value));
+
+        List<JournalFacetCounts.ValueCount> values = new ArrayList<>();
+        synchronized (facets) {
+            BitSet matches = facets.matching(startDate, endDate, filters);
+            Dictionary groups = facets.dictionary(groupBy);
+            // Slot 0 = no value, slot code + 1 = value
+            long[] entries = new long[groups.size() + 1];
+            List<Set<Integer>> days = new ArrayList<>();
+            for (int i = 0; i < entries.length; i++) {
+                days.add(new HashSet<>());
+            }
+            Set<Integer> allDays = new HashSet<>();
+            for (int ordinal = matches.nextSetBit(0); ordinal >= 0; ordinal = matches.nextSetBit(ordinal + 1)) {
+                int slot = groups.codeAt(ordinal) + 1;
+                entries[slot]++;
+                days.get(slot).add(facets.days[ordinal]);
+                allDays.add(facets.days[ordinal]);
+            }
+            for (int slot = 0; slot < entries.length; slot++) {
+                if (entries[slot] > 0) {
+                    String value = slot == 0 ? null : groups.value(slot - 1);
+                    values.add(new JournalFacetCounts.ValueCount(value, entries[slot], days.get(slot).size()));
+                }
+            }
+            result.setTotalEntries(matches.cardinality());
+            result.setTotalDays(allDays.size());
+        }
+        values.sort(Comparator.comparingLong(JournalFacetCounts.ValueCount::getEntries).reversed()
+                .thenComparing(JournalFacetCounts.ValueCount::getValue, Comparator.nullsLast(Comparator.naturalOrder())));
+        result.setValues(values);
+        return result;
+    }
+
+    /**
+     * IDs of a user's entries within a date range that have all given facet values
+     */
+    public List<Long> findEntryIds(Long userId, LocalDate startDate, LocalDate endDate, Map<Facet, String> filters,
+                                   Function<Long, List<Object[]>> loader) {
+        UserFacets facets = load(userId, loader);
+        List<Long> ids = new ArrayList<>();
+        synchronized (facets) {
+            BitSet matches = facets.matching(startDate, endDate, filters);
+            for (int ordinal = matches.nextSetBit(0); ordinal >= 0; ordinal = matches.nextSetBit(ordinal + 1)) {
+                ids.add(facets.entryIds[ordinal]);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Index the current date and facet values of an entry once the current transaction commits
+     * (immediately if none is active); values are captured now
+     */
+    public void putAfterCommit(Long userId, JournalEntry entry) {
+        long entryId = entry.getId();
+        LocalDate date = entry.getDate();
+        String[] values = new String[Facet.values().length];
+        for (Facet facet : Facet.values()) {
+            values[facet.ordinal()] = normalize(facet.of(entry));
+        }
+        afterCommit(() -> apply(userId, facets -> facets.put(entryId, date, values)));
+    }
+
+    /**
+     * Remove an entry once the current transaction commits (immediately if none is active)
+     */
+    public void removeAfterCommit(Long userId, Long entryId) {
+        afterCommit(() -> apply(userId, facets -> facets.remove(entryId)));
+    }
+
+    /**
+     * Trimmed facet value, null if blank (stored and queried values are normalized the same way)
+     */
+    public static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    /**
+     * Cache statistics (hits, misses, evictions, current size)
+     */
+    public Map<String, Object> stats() {
+        CacheStats stats = users.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", users.estimatedSize());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        result.put("loadCount", stats.loadCount());
+        result.put("averageLoadPenaltyNanos", stats.averageLoadPenalty());
+        return result;
+    }
+
+    private UserFacets load(Long userId, Function<Long, List<Object[]>> loader) {
+        long generation = generations.get(stripe(userId));
+        UserFacets facets = users.get(userId, id -> {
+            UserFacets loaded = new UserFacets();
+            for (Object[] row : loader.apply(id)) {
+                loaded.put((Long) row[0], (LocalDate) row[1],
+                        new String[] {normalize((String) row[2]), normalize((String) row[3]), normalize((String) row[4])});
+            }
+            return loaded;
+        });
+        if (generations.get(stripe(userId)) != generation) {
+            // A write committed while loading: the index may miss it, keep it out of the cache
+            users.invalidate(userId);
+        }
+        return facets;
+    }
+
+    private void apply(Long userId, Consumer<UserFacets> change) {
+        generations.incrementAndGet(stripe(userId));
+        UserFacets facets = users.getIfPresent(userId);
+        if (facets != null) {
+            synchronized (facets) {
+                change.accept(facets);
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static int stripe(Long userId) {
+        return (int) Math.floorMod(userId, (long) GENERATION_STRIPES);
+    }
+
+    /**
+     * Facet index of one user (guarded by synchronizing on the instance)
+     */
+    static final class UserFacets {
+        private final Map<Long, Integer> ordinals = new HashMap<>();
+        private final BitSet live = new BitSet();
+        private final Dictionary[] dictionaries = new Dictionary[Facet.values().length];
+        private long[] entryIds = new long[16];
+        private int[] days = new int[16];
+
+        UserFacets() {
+            for (int i = 0; i < dictionaries.length; i++) {
+                dictionaries[i] = new Dictionary();
+            }
+        }
+
+        Dictionary dictionary(Facet facet) {
+            return dictionaries[facet.ordinal()];
+        }
+
+        void put(long entryId, LocalDate date, String[] values) {
+            Integer ordinal = ordinals.get(entryId);
+            if (ordinal == null) {
+                ordinal = live.nextClearBit(0);
+                if (ordinal >= entryIds.length) {
+                    int capacity = Math.max(ordinal + 1, entryIds.length * 2);
+                    entryIds = Arrays.copyOf(entryIds, capacity);
+                    days = Arrays.copyOf(days, capacity);
+                }
+                ordinals.put(entryId, ordinal);
+                live.set(ordinal);
+                entryIds[ordinal] = entryId;
+            }
+            days[ordinal] = (int) date.toEpochDay();
+            for (int i = 0; i < dictionaries.length; i++) {
+                dictionaries[i].set(ordinal, values[i]);
+            }
+        }
+
+        void remove(long entryId) {
+            Integer ordinal = ordinals.remove(entryId);
+            if (ordinal == null) {
+                return;
+            }
+            live.clear(ordinal);
+            for (Dictionary dictionary : dictionaries) {
+                dictionary.set(ordinal, null);
+            }
+        }
+
+        /**
+         * Ordinals of entries within the date range that have all filter values
+         */
+        BitSet matching(LocalDate startDate, LocalDate endDate, Map<Facet, String> filters) {
+            BitSet result = (BitSet) live.clone();
+            for (Map.Entry<Facet, String> filter : filters.entrySet()) {
+                BitSet bitmap = dictionary(filter.getKey()).bitmap(filter.getValue());
+                if (bitmap == null) {
+                    return new BitSet();
+                }
+                result.and(bitmap);
+            }
+            if (startDate != null || endDate != null) {
+                long first = startDate != null ? startDate.toEpochDay() : Long.MIN_VALUE;
+                long last = endDate != null ? endDate.toEpochDay() : Long.MAX_VALUE;
+                for (int ordinal = result.nextSetBit(0); ordinal >= 0; ordinal = result.nextSetBit(ordinal + 1)) {
+                    if (days[ordinal] < first || days[ordinal] > last) {
+                        result.clear(ordinal);
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Dictionary-encoded values of one facet: value <-> code, code column and bitmap per code
+     * Codes are never reassigned, a value without entries keeps its (empty) bitmap
+     */
+    static final class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        private final List<BitSet> bitmaps = new ArrayList<>();
+        private int[] column = new int[16];
+
+        void set(int ordinal, String value) {
+            if (ordinal >= column.length) {
+                column = Arrays.copyOf(column, Math.max(ordinal + 1, column.length * 2));
+            }
+            int previous = column[ordinal] - 1;
+            if (previous >= 0) {
+                bitmaps.get(previous).clear(ordinal);
+            }
+            if (value == null) {
+                column[ordinal] = 0;
+                return;
+            }
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                codes.put(value, code);
+                values.add(value);
+                bitmaps.add(new BitSet());
+            }
+            column[ordinal] = code + 1;
+            bitmaps.get(code).set(ordinal);
+        }
+
+        BitSet bitmap(String value) {
+            Integer code = codes.get(value);
+            return code == null ? null : bitmaps.get(code);
+        }
+
+        /**
+         * Code of the entry's value, -1 if it has none
+         */
+        int codeAt(int ordinal) {
+            return ordinal < column.length ? column[ordinal] - 1 : -1;
+        }
+
+        String value(int code) {
+            return values.get(code);
+        }
+
+        int size() {
+            return values.size();
+        }
+    }
+}
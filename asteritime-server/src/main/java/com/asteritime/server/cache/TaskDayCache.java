@@ -0,0 +1,298 @@
+package com.asteritime.server.cache;
+
+import com.asteritime.common.model.Task;
+import com.asteritime.server.repository.TaskQuery;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * In-process task cache, bucketed by (user, planned start day)
+ *
+ * Serves planned-start range queries (Dashboard day view, Timeline/Analytics week views)
+ * from memory:
+ *   - Each bucket holds all tasks of one user whose plannedStartTime falls on that day
+ *   - Missing buckets of a range are loaded with a single DB query and split per day
+ *   - Other filters, sort and limit are applied in memory on the cached rows
+ *   - Size-bounded (number of day buckets), least recently used buckets are evicted
+ *
+ * Invalidation is driven by TaskService writes: the old and new planned start day of a
+ * changed task are dropped after the transaction commits.
+ *
+ * A per-user generation counter guards against a concurrent load re-inserting rows
+ * that were read before a write committed.
+ */
+@Component
+public class TaskDayCache {
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final Cache<DayKey, List<Task>> buckets;
+
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    private final int maxRangeDays;
+
+    public TaskDayCache(@Value("${asteritime.cache.tasks.max-day-buckets:20000}") long maxDayBuckets,
+                        @Value("${asteritime.cache.tasks.max-range-days:62}") int maxRangeDays) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxDayBuckets)
+                .recordStats()
+                .build();
+        this.maxRangeDays = maxRangeDays;
+    }
+
+    /**
+     * Whether query can be answered from day buckets
+     * (requires a bounded planned start range no longer than max-range-days)
+     */
+    public boolean supports(TaskQuery query) {
+        if (query.getPlannedStartFrom() == null || query.getPlannedStartTo() == null) {
+            return false;
+        }
+        long days = ChronoUnit.DAYS.between(query.getPlannedStartFrom().toLocalDate(),
+                query.getPlannedStartTo().toLocalDate()) + 1;
+        return days > 0 && days <= maxRangeDays;
+    }
+
+    /**
+     * Answer query from day buckets, loading missing days through loader
+     *
+     * @param userId User ID
+     * @param query Query (must satisfy supports())
+     * @param loader Loads all tasks of user with planned start in [from, to] (inclusive)
+     * @return Matching tasks, filtered, sorted and limited like the DB query would
+     */
+    public List<Task> find(Long userId, TaskQuery query,
+                           BiFunction<LocalDateTime, LocalDateTime, List<Task>> loader) {
+        LocalDate firstDay = query.getPlannedStartFrom().toLocalDate();
+        LocalDate lastDay = query.getPlannedStartTo().toLocalDate();
+        Set<DayKey> keys = new LinkedHashSet<>();
+        for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+            keys.add(new DayKey(userId, day));
+        }
+
+        long generation = generations.get(stripe(userId));
+        Map<DayKey, List<Task>> dayTasks = buckets.getAll(keys, missing -> load(userId, missing, loader));
+        if (generations.get(stripe(userId)) != generation) {
+            // A write committed while loading: rows may be stale, keep them out of the cache
+            buckets.invalidateAll(keys);
+        }
+
+        List<Task> result = new ArrayList<>();
+        for (List<Task> tasks : dayTasks.values()) {
+            for (Task task : tasks) {
+                if (matches(task, query)) {
+                    result.add(task);
+                }
+            }
+        }
+        result.sort(comparator(query));
+        if (query.getLimit() != null && result.size() > query.getLimit()) {
+            return new ArrayList<>(result.subList(0, query.getLimit()));
+        }
+        return result;
+    }
+
+    /**
+     * Invalidate the buckets of the given planned start times once the current transaction commits
+     * (immediately if no transaction is active)
+     */
+    public void invalidateAfterCommit(Long userId, LocalDateTime... plannedStartTimes) {
+        Set<DayKey> keys = new LinkedHashSet<>();
+        for (LocalDateTime time : plannedStartTimes) {
+            if (time != null) {
+                keys.add(new DayKey(userId, time.toLocalDate()));
+            }
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(userId, keys);
+                }
+            });
+        } else {
+            invalidate(userId, keys);
+        }
+    }
+
+    /**
+     * Cache statistics (hits, misses, evictions, current size)
+     */
+    public Map<String, Object> stats() {
+        CacheStats stats = buckets.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", buckets.estimatedSize());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        result.put("loadCount", stats.loadCount());
+        result.put("averageLoadPenaltyNanos", stats.averageLoadPenalty());
+        return result;
+    }
+
+    private void invalidate(Long userId, Set<DayKey> keys) {
+        generations.incrementAndGet(stripe(userId));
+        buckets.invalidateAll(keys);
+    }
+
+    /**
+     * Load missing day buckets with one range query
+     */
+    private Map<DayKey, List<Task>> load(Long userId, Iterable<? extends DayKey> missing,
+                                         BiFunction<LocalDateTime, LocalDateTime, List<Task>> loader) {
+        Map<DayKey, List<Task>> loaded = new HashMap<>();
+        LocalDate firstDay = null;
+        LocalDate lastDay = null;
+        for (DayKey key : missing) {
+            loaded.put(key, new ArrayList<>());
+            if (firstDay == null || key.getDate().isBefore(firstDay)) {
+                firstDay = key.getDate();
+            }
+            if (lastDay == null || key.getDate().isAfter(lastDay)) {
+                lastDay = key.getDate();
+            }
+        }
+        if (firstDay == null) {
+            return loaded;
+        }
+
+        List<Task> tasks = loader.apply(firstDay.atStartOfDay(), lastDay.atTime(LocalTime.MAX));
+        for (Task task : tasks) {
+            List<Task> bucket = loaded.get(new DayKey(userId, task.getPlannedStartTime().toLocalDate()));
+            if (bucket != null) {
+                bucket.add(task);
+            }
+        }
+        loaded.replaceAll((key, bucket) -> Collections.unmodifiableList(bucket));
+        return loaded;
+    }
+
+    private static boolean matches(Task task, TaskQuery query) {
+        if (!query.getQuadrants().isEmpty() && !query.getQuadrants().contains(task.getQuadrant())) {
+            return false;
+        }
+        if (!query.getStatuses().isEmpty() && !query.getStatuses().contains(task.getStatus())) {
+            return false;
+        }
+        if (!query.getCategoryIds().isEmpty()
+                && (task.getType() == null || !query.getCategoryIds().contains(task.getType().getId()))) {
+            return false;
+        }
+        if (!inRange(task.getPlannedStartTime(), query.getPlannedStartFrom(), query.getPlannedStartTo())) {
+            return false;
+        }
+        if ((query.getActualStartFrom() != null || query.getActualStartTo() != null)
+                && !inRange(task.getActualStartTime(), query.getActualStartFrom(), query.getActualStartTo())) {
+            return false;
+        }
+        return query.getUpdatedSince() == null
+                || (task.getUpdatedAt() != null && !task.getUpdatedAt().isBefore(query.getUpdatedSince()));
+    }
+
+    private static boolean inRange(LocalDateTime value, LocalDateTime from, LocalDateTime to) {
+        if (value == null) {
+            return false;
+        }
+        return (from == null || !value.isBefore(from)) && (to == null || !value.isAfter(to));
+    }
+
+    /**
+     * Same order as the DB query: sort field (NULL first when ascending, as MySQL does), then id
+     */
+    private static Comparator<Task> comparator(TaskQuery query) {
+        Comparator<Task> order = fieldComparator(query.getSortField()).thenComparing(Task::getId);
+        return query.isAscending() ? order : order.reversed();
+    }
+
+    private static Comparator<Task> fieldComparator(TaskQuery.SortField field) {
+        switch (field) {
+            case UPDATED_AT:
+                return nullsFirstBy(Task::getUpdatedAt);
+            case PLANNED_START_TIME:
+                return nullsFirstBy(Task::getPlannedStartTime);
+            case PLANNED_END_TIME:
+                return nullsFirstBy(Task::getPlannedEndTime);
+            case ACTUAL_START_TIME:
+                return nullsFirstBy(Task::getActualStartTime);
+            case ACTUAL_END_TIME:
+                return nullsFirstBy(Task::getActualEndTime);
+            case QUADRANT:
+                return nullsFirstBy(Task::getQuadrant);
+            case TITLE:
+                return nullsFirstBy(Task::getTitle);
+            case CREATED_AT:
+            default:
+                return nullsFirstBy(Task::getCreatedAt);
+        }
+    }
+
+    private static <U extends Comparable<? super U>> Comparator<Task> nullsFirstBy(Function<Task, U> key) {
+        return Comparator.comparing(key, Comparator.nullsFirst(Comparator.<U>naturalOrder()));
+    }
+
+    private static int stripe(Long userId) {
+        return (int) Math.floorMod(userId, (long) GENERATION_STRIPES);
+    }
+
+    /**
+     * Cache key: user + planned start day
+     */
+    static final class DayKey {
+        private final Long userId;
+        private final LocalDate date;
+
+        DayKey(Long userId, LocalDate date) {
+            this.userId = userId;
+            this.date = date;
+        }
+
+        LocalDate getDate() {
+            return date;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DayKey)) {
+                return false;
+            }
+            DayKey other = (DayKey) o;
+            return userId.equals(other.userId) && date.equals(other.date);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, date);
+        }
+    }
+}
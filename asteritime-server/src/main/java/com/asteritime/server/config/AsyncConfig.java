@@ -1,5 +1,6 @@
 package com.asteritime.server.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -42,4 +43,100 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    /**
+     * Executor for journal image thumbnails (see ThumbnailService)
+     * 
+     * Decoding and scaling are CPU and memory heavy, so they get a small dedicated pool instead of
+     * taskExecutor. A full queue rejects new work (instead of running it on the caller, a request
+     * thread) and the image is served in full until a later request queues it again.
+     * 
+     * @return Thread pool executor
+     */
+    @Bean(name = "thumbnailExecutor")
+    public Executor thumbnailExecutor(@Value("${asteritime.media.thumbnails.threads:2}") int threads,
+                                      @Value("${asteritime.media.thumbnails.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("thumbnail-");
+        executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Executor for SSE change stream sends (see ChangeStream)
+     * 
+     * SseEmitter.send blocks while the client's socket buffer is full, so sends run here and not on
+     * the shared scheduler. Each connection occupies at most one thread at a time; a full queue
+     * rejects and the events wait in the connection's own queue for the next attempt.
+     * 
+     * @return Thread pool executor
+     */
+    @Bean(name = "streamSendExecutor")
+    public Executor streamSendExecutor(@Value("${asteritime.stream.send-threads:4}") int threads,
+                                       @Value("${asteritime.stream.send-queue-capacity:10000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("stream-send-");
+        executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Executor freezing weekly reports that are read before WeeklyReportJob reached them (see WeeklyReportService)
+     * 
+     * One thread, so the writes stay off the request threads; a full queue drops the freeze and
+     * a later read of the same week queues it again.
+     * 
+     * @return Thread pool executor
+     */
+    @Bean(name = "reportFreezeExecutor")
+    public Executor reportFreezeExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("report-freeze-");
+        executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Executor for threshold flushes of the focus session buffer (see FocusWriteBuffer)
+     * 
+     * One thread, so flushes never compete with request work, and a full queue rejects instead of
+     * running the flush on the recording request thread; the scheduled flush writes the key instead.
+     * 
+     * @return Thread pool executor
+     */
+    @Bean(name = "focusFlushExecutor")
+    public Executor focusFlushExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("focus-flush-");
+        executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        
+        executor.initialize();
+        return executor;
+    }
 }
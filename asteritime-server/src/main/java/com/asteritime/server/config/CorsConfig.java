@@ -17,6 +17,9 @@ public class CorsConfig {
         config.addAllowedOriginPattern("*");
         config.addAllowedHeader("*");
         config.addAllowedMethod("*");
+        // Let cross-origin clients read validators for conditional GETs
+        config.addExposedHeader("ETag");
+        config.addExposedHeader("Last-Modified");
         source.registerCorsConfiguration("/**", config);
         return new CorsFilter(source);
     }
@@ -25,6 +25,13 @@ public class JwtInterceptor implements HandlerInterceptor {
         }
 
         String authHeader = request.getHeader("Authorization");
+        if (authHeader == null && isStreamRequest(request)) {
+            // EventSource cannot send headers, the stream endpoint accepts the token as query parameter
+            String accessToken = request.getParameter("access_token");
+            if (accessToken != null && !accessToken.isEmpty()) {
+                authHeader = "Bearer " + accessToken;
+            }
+        }
         
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
@@ -49,5 +56,9 @@ public class JwtInterceptor implements HandlerInterceptor {
 
         return true;
     }
-}
 
+    private static boolean isStreamRequest(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return "/stream".equals(path);
+    }
+}
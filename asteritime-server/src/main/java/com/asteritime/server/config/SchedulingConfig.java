@@ -0,0 +1,39 @@
+package com.asteritime.server.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Scheduled task configuration
+ * 
+ * Configures the scheduler used by @Scheduled methods, such as:
+ * - Purging expired task tombstones
+ * - Flushing and heartbeating SSE change streams
+ * - Freezing weekly reports after each week closes
+ * - Refreshing and committing the journal search index
+ * - Collecting unreferenced journal media
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    /**
+     * Configure scheduler for periodic background jobs
+     * 
+     * @return Thread pool task scheduler
+     */
+    @Bean(name = "taskScheduler")
+    public ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        
+        scheduler.setPoolSize(4);
+        scheduler.setThreadNamePrefix("scheduled-task-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(30);
+        
+        scheduler.initialize();
+        return scheduler;
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 /**
  * Web configuration class
  * Registers JWT interceptor and configures which paths require/do not require token validation
+ * Media downloads are public: their URLs are content hashes and are loaded by <img>/<audio> tags
  */
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
@@ -21,7 +22,9 @@ public class WebConfig implements WebMvcConfigurer {
                 .addPathPatterns("/**")
                 .excludePathPatterns(
                         "/auth/register",
-                        "/auth/login"
+                        "/auth/login",
+                        "/media/*",
+                        "/media/*/thumbnail"
                 );
     }
 }
@@ -0,0 +1,260 @@
+package com.asteritime.server.controller;
+
+import com.asteritime.common.dto.ActivityHeatmap;
+import com.asteritime.common.dto.ActivityStreaks;
+import com.asteritime.common.dto.AnalyticsReport;
+import com.asteritime.common.dto.CategoryEstimate;
+import com.asteritime.server.service.ActivityStreakService;
+import com.asteritime.server.service.AnalyticsService;
+import com.asteritime.server.service.TaskEstimateService;
+import com.asteritime.server.service.TaskRollupService;
+import com.asteritime.server.service.WeeklyReportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Analytics REST API endpoints
+ * 
+ * Returns aggregated statistics instead of raw tasks; the response size depends only
+ * on the number of days and categories, not on the number of tasks.
+ * 
+ * Note: All endpoints require Authorization header: Bearer <token>
+ * 
+ * Report format (see AnalyticsReport):
+ *   {
+ *     "startDate": "2025-12-01", "endDate": "2025-12-07",
+ *     "days": [ { "date": "2025-12-01", "taskCount": 5, "doneCount": 3, "plannedMinutes": 240, "focusMinutes": 75 }, ... ],
+ *     "statusSummary": [ { "status": "DONE", "count": 12, "plannedMinutes": 600, "actualMinutes": 540 }, ... ],
+ *     "completionByQuadrant": [ { "quadrant": 1, "total": 8, "done": 6 }, ... ],
+ *     "durationByCategory": [ { "categoryId": 2, "name": "Study", "taskCount": 7, "doneCount": 5, "plannedMinutes": 420, "actualMinutes": 380 }, ... ],
+ *     "focusByHour": [0, 0, ..., 50, 25, ...],
+ *     "totalFocusMinutes": 310,
+ *     "driftMinutes": -60,
+ *     "moodDistribution": { "Happy": 3, "Calm": 2 },
+ *     "frozenAt": null
+ *   }
+ */
+@RestController
+@RequestMapping("/analytics")
+public class AnalyticsController {
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private TaskRollupService taskRollupService;
+
+    @Autowired
+    private WeeklyReportService weeklyReportService;
+
+    @Autowired
+    private TaskEstimateService taskEstimateService;
+
+    @Autowired
+    private ActivityStreakService activityStreakService;
+
+    /**
+     * Get daily report
+     * 
+     * URL: GET /api/analytics/daily?date=2025-12-06
+     * 
+     * Query parameters:
+     *   - date: Day to report (ISO date, default: today)
+     */
+    @GetMapping("/daily")
+    public ResponseEntity<AnalyticsReport> getDailyReport(
+            HttpServletRequest request,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        Long userId = (Long) request.getAttribute("userId");
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        
+        LocalDate day = date != null ? date : LocalDate.now();
+        return ResponseEntity.ok(analyticsService.buildReport(userId, day, day));
+    }
+
+    /**
+     * Get weekly report (Monday to Sunday)
+     * 
+     * URL: GET /api/analytics/weekly?date=2025-12-06
+     * 
+     * Query parameters:
+     *   - date: Any day of the week to report (ISO date, default: today)
+     * 
+     * Note: Closed weeks are served from a frozen snapshot (frozenAt is set) once frozen; a closed week
+     *       read before the weekly job reached it is computed live and frozen in the background,
+     *       see WeeklyReportService
+     */
+    @GetMapping("/weekly")
+    public ResponseEntity<AnalyticsReport> getWeeklyReport(
+            HttpServletRequest request,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        Long userId = (Long) request.getAttribute("userId");
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        
+        LocalDate day = date != null ? date : LocalDate.now();
+        return ResponseEntity.ok(weeklyReportService.getWeeklyReport(userId, day));
+    }
+
+    /**
+     * Get report for a custom date range
+     * 
+     * URL: GET /api/analytics/range?startDate=2025-12-01&endDate=2025-12-31
+     * 
+     * Query parameters:
+     *   - startDate / endDate: Range to report (ISO date, inclusive, at most 366 days)
+     * 
+     * Returns: Report, or 400 if the range is reversed or too long
+     */
+    @GetMapping("/range")
+    public ResponseEntity<?> getRangeReport(
+            HttpServletRequest request,
+            @RequestParam("startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam("endDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        Long userId = (Long) request.getAttribute("userId");
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        
+        try {
+            return ResponseEntity.ok(analyticsService.buildReport(userId, startDate, endDate));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("{\"error\":\"" + e.getMessage() + "\"}");
+        }
+    }
+
+    /**
+     * Get yearly activity heatmap (focus minutes and completed tasks per day)
+     * 
+     * URL: GET /api/analytics/heatmap?year=2025
+     * 
+     * Query parameters:
+     *   - year: Calendar year (default: current year)
+     * 
+     * Returns:
+     *   - 200 OK: { "year": 2025, "firstDay": "2025-01-01", "focusMinutes": [0, 25, ...], "completedTasks": [0, 3, ...],
+     *               "totalFocusMinutes": 5400, "totalCompletedTasks": 310, "maxFocusMinutes": 150 }
+     *     (arrays have one value per day of the year, index 0 = January 1st)
+     *   - 400 Bad Request: Year out of range
+     * 
+     * Note: Served from memory (see ActivityHeatmapCache); focus minutes still in the
+     *       Pomodoro write buffer appear after its next flush
+     */
+    @GetMapping("/heatmap")
+    public ResponseEntity<?> getHeatmap(HttpServletRequest request,
+                                        @RequestParam(required = false) Integer year) {
+        Long userId = (Long) request.getAttribute("userId");
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        
+        try {
+            ActivityHeatmap heatmap = analyticsService.getHeatmap(userId,
+                    year != null ? year : LocalDate.now().getYear());
+            return ResponseEntity.ok(heatmap);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("{\"error\":\"" + e.getMessage() + "\"}");
+        }
+    }
+
+    /**
+     * Get focus / task streaks
+     * 
+     * URL: GET /api/analytics/streaks?month=2025-12
+     * 
+     * Query parameters:
+     *   - month: Month for the per-day calendar streaks (yyyy-MM, default: current month)
+     * 
+     * Returns:
+     *   - 200 OK: { "currentStreak": 5, "currentStreakStart": "2025-12-02", "activeToday": true,
+     *               "longestStreak": 21, "longestStreakStart": "2025-10-01", "longestStreakEnd": "2025-10-21",
+     *               "totalActiveDays": 143, "month": "2025-12", "monthActiveDays": 5, "monthStreaks": [0, 1, 2, ...] }
+     *     (a day is active with focus minutes or a task completed on it)
+     * 
+     * Note: Served from an in-memory day bitset (see ActivityStreakService), cost does not grow with account age
+     */
+    @GetMapping("/streaks")
+    public ResponseEntity<ActivityStreaks> getStreaks(
+            HttpServletRequest request,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+        Long userId = (Long) request.getAttribute("userId");
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        
+        return ResponseEntity.ok(activityStreakService.getStreaks(userId, month));
+    }
+
+    /**
+     * Get planned-vs-actual duration statistics per category
+     * 
+     * URL: GET /api/analytics/estimates?categoryId=2&plannedMinutes=60
+     * 
+     * Query parameters:
+     *   - categoryId: Only this category (optional, default: all categories incl. uncategorized)
+     *   - plannedMinutes: Planned duration of a new task to suggest a duration for (optional,
+     *     default: the category's average planned duration)
+     * 
+     * Returns:
+     *   - 200 OK: [ { "categoryId": 2, "name": "Study", "sampleCount": 48, "meanRatio": 1.31, "stdDevRatio": 0.42,
+     *                 "p50Ratio": 1.23, "p90Ratio": 1.91, "p50OverrunPercent": 23, "p90OverrunPercent": 91,
+     *                 "averagePlannedMinutes": 60, "averageActualMinutes": 78, "suggestedMinutes": 74 }, ... ]
+     *     (ratio = actual / planned minutes of DONE tasks; categories without samples are omitted)
+     *   - 400 Bad Request: plannedMinutes is not positive
+     * 
+     * Note: Read from incrementally maintained statistics (see TaskEstimateService), no task history is scanned
+     */
+    @GetMapping("/estimates")
+    public ResponseEntity<?> getEstimates(HttpServletRequest request,
+                                          @RequestParam(required = false) Long categoryId,
+                                          @RequestParam(required = false) Integer plannedMinutes) {
+        Long userId = (Long) request.getAttribute("userId");
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (plannedMinutes != null && plannedMinutes <= 0) {
+            return ResponseEntity.badRequest().body("{\"error\":\"plannedMinutes must be positive\"}");
+        }
+        
+        List<CategoryEstimate> estimates = taskEstimateService.getEstimates(userId, categoryId, plannedMinutes);
+        return ResponseEntity.ok(estimates);
+    }
+
+    /**
+     * Recompute current user's daily task rollups from raw tasks
+     * 
+     * URL: POST /api/analytics/rollups/rebuild
+     * 
+     * Note: Rollups and planned-vs-actual statistics are maintained automatically on every
+     *       task write; this is a repair tool
+     *       (all users can be rebuilt at startup with --rebuild-task-rollups)
+     * 
+     * Returns: { "rows": <number of rollup rows written> }
+     */
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildRollups(HttpServletRequest request) {
+        Long userId = (Long) request.getAttribute("userId");
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        
+        return ResponseEntity.ok(Collections.singletonMap("rows", taskRollupService.rebuild(userId)));
+    }
+}
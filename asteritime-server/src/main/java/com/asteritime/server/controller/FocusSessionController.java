@@ -0,0 +1,93 @@
+package com.asteritime.server.controller;
+
+import com.asteritime.common.dto.FocusHourBucket;
+import com.asteritime.common.model.FocusSession;
+import com.asteritime.server.service.FocusSessionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Focus session REST API endpoints (read-only)
+ *
+ * Sessions are recorded by POST /api/journal-entries/focus-time when a Pomodoro ends.
+ *
+ * Note: All endpoints require Authorization header: Bearer <token>
+ */
+@RestController
+@RequestMapping("/focus-sessions")
+public class FocusSessionController {
+
+    @Autowired
+    private FocusSessionService focusSessionService;
+
+    /**
+     * List focus sessions started within a time range
+     *
+     * URL: GET /api/focus-sessions?from=2025-12-01T00:00:00&to=2025-12-07T23:59:59
+     *
+     * Query parameters:
+     *   - from / to: Start time range (ISO date-time, inclusive, at most 366 days)
+     *
+     * Returns:
+     *   - 200 OK: [ { "id": 1, "userId": 1, "taskId": 42, "startedAt": "...", "endedAt": "...", "minutes": 25, ... }, ... ]
+     *   - 400 Bad Request: Range is reversed or too long
+     */
+    @GetMapping
+    public ResponseEntity<?> getSessions(
+            HttpServletRequest request,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        Long userId = (Long) request.getAttribute("userId");
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        try {
+            List<FocusSession> sessions = focusSessionService.findSessions(userId, from, to);
+            return ResponseEntity.ok(sessions);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("{\"error\":\"" + e.getMessage() + "\"}");
+        }
+    }
+
+    /**
+     * Get focus minutes per clock hour for a date range
+     *
+     * URL: GET /api/focus-sessions/hourly?startDate=2025-12-01&endDate=2025-12-07
+     *
+     * Query parameters:
+     *   - startDate / endDate: Date range (ISO date, inclusive, at most 366 days)
+     *
+     * Returns:
+     *   - 200 OK: [ { "hour": "2025-12-01T09:00:00", "minutes": 50, "sessions": 2 }, ... ] (empty hours omitted)
+     *   - 400 Bad Request: Range is reversed or too long
+     */
+    @GetMapping("/hourly")
+    public ResponseEntity<?> getHourlyBuckets(
+            HttpServletRequest request,
+            @RequestParam("startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam("endDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        Long userId = (Long) request.getAttribute("userId");
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        try {
+            List<FocusHourBucket> buckets = focusSessionService.findHourBuckets(userId, startDate, endDate);
+            return ResponseEntity.ok(buckets);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("{\"error\":\"" + e.getMessage() + "\"}");
+        }
+    }
+}
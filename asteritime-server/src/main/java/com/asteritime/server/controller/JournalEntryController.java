@@ -1,16 +1,30 @@
 package com.asteritime.server.controller;
 
+import com.asteritime.common.dto.CursorPage;
+import com.asteritime.common.dto.JournalCalendarDay;
+import com.asteritime.common.dto.JournalEntrySummary;
 import com.asteritime.common.model.JournalEntry;
+import com.asteritime.server.cache.JournalFacetIndex;
+import com.asteritime.server.repository.ResultFingerprint;
+import com.asteritime.server.service.FocusSessionService;
 import com.asteritime.server.service.JournalEntryService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.servlet.http.HttpServletRequest;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -26,9 +40,17 @@ import java.util.Optional;
 @RequestMapping("/journal-entries")
 public class JournalEntryController {
 
+    /**
+     * Clients may keep journal lists but must revalidate them (ETag) before reuse
+     */
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     @Autowired
     private JournalEntryService journalEntryService;
 
+    @Autowired
+    private FocusSessionService focusSessionService;
+
     /**
      * Create a new journal entry
      * 
@@ -87,20 +109,66 @@ public class JournalEntryController {
      * Get all journal entries for current user (ordered by date desc, newest first)
      * 
      * Note: userId is automatically extracted from token
+     * Note: List endpoints return JournalEntrySummary (excerpt instead of full text, image/voice/evaluation flags),
+     *       the full entry is returned by GET /api/journal-entries/{id}
      * 
      * Example:
      *   GET /api/journal-entries
      *   Header: Authorization: Bearer <token>
+     *   If-None-Match: <ETag of previous response>   -> 304 Not Modified if nothing changed
      */
     @GetMapping
-    public ResponseEntity<List<JournalEntry>> getAllEntries(HttpServletRequest request) {
+    public ResponseEntity<List<JournalEntrySummary>> getAllEntries(HttpServletRequest request, WebRequest webRequest) {
         Long userId = (Long) request.getAttribute("userId");
         if (userId == null) {
             return ResponseEntity.status(401).build();
         }
 
-        List<JournalEntry> entries = journalEntryService.findAllByUserId(userId);
-        return ResponseEntity.ok(entries);
+        // The aggregate fingerprint is only worth its query when the client can get a 304 from it
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            ResultFingerprint fingerprint = journalEntryService.fingerprintAllByUserId(userId);
+            if (webRequest.checkNotModified(fingerprint.toETag())) {
+                return null;
+            }
+            return ResponseEntity.ok().cacheControl(REVALIDATE)
+                    .body(journalEntryService.findAllSummariesByUserId(userId));
+        }
+
+        // Unconditional read: derive the ETag from the loaded rows
+        List<JournalEntrySummary> entries = journalEntryService.findAllSummariesByUserId(userId);
+        return ResponseEntity.ok().cacheControl(REVALIDATE)
+                .eTag(JournalEntryService.fingerprintOf(entries).toETag())
+                .body(entries);
+    }
+
+    /**
+     * Get one page of journal entries for current user (cursor-based pagination, newest first)
+     * 
+     * Query parameters:
+     *   - cursor: nextCursor from the previous page (omit for the first page)
+     *   - size: Page size (default 50, max 200)
+     * 
+     * Example:
+     *   GET /api/journal-entries/page?size=20
+     *   GET /api/journal-entries/page?size=20&cursor=MjAyNS0xMi0w
+     *   Header: Authorization: Bearer <token>
+     * 
+     * Returns: { "items": [...], "nextCursor": "...", "hasMore": true }, or 400 if cursor is invalid
+     */
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<JournalEntrySummary>> getEntryPage(HttpServletRequest request,
+                                                                        @RequestParam(required = false) String cursor,
+                                                                        @RequestParam(required = false) Integer size) {
+        Long userId = (Long) request.getAttribute("userId");
+        if (userId == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        try {
+            return ResponseEntity.ok(journalEntryService.findPageByUserId(userId, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
@@ -109,10 +177,12 @@ public class JournalEntryController {
      * Example:
      *   GET /api/journal-entries/by-date?date=2025-12-09
      *   Header: Authorization: Bearer <token>
+     *   If-None-Match: <ETag of previous response>   -> 304 Not Modified if nothing changed
      */
     @GetMapping("/by-date")
-    public ResponseEntity<List<JournalEntry>> getEntriesByDate(HttpServletRequest request,
-                                                               @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+    public ResponseEntity<List<JournalEntrySummary>> getEntriesByDate(HttpServletRequest request,
+                                                                      WebRequest webRequest,
+                                                                      @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
         Long userId = (Long) request.getAttribute("userId");
         if (userId == null) {
             return ResponseEntity.status(401).build();
@@ -121,8 +191,21 @@ public class JournalEntryController {
             return ResponseEntity.badRequest().build();
         }
 
-        List<JournalEntry> entries = journalEntryService.findByUserAndDate(userId, date);
-        return ResponseEntity.ok(entries);
+        // The aggregate fingerprint is only worth its query when the client can get a 304 from it
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            ResultFingerprint fingerprint = journalEntryService.fingerprintByUserAndDateRange(userId, date, date);
+            if (webRequest.checkNotModified(fingerprint.toETag())) {
+                return null;
+            }
+            return ResponseEntity.ok().cacheControl(REVALIDATE)
+                    .body(journalEntryService.findSummariesByUserAndDate(userId, date));
+        }
+
+        // Unconditional read: derive the ETag from the loaded rows
+        List<JournalEntrySummary> entries = journalEntryService.findSummariesByUserAndDate(userId, date);
+        return ResponseEntity.ok().cacheControl(REVALIDATE)
+                .eTag(JournalEntryService.fingerprintOf(entries).toETag())
+                .body(entries);
     }
 
     /**
@@ -131,11 +214,13 @@ public class JournalEntryController {
      * Example:
      *   GET /api/journal-entries/by-date-range?startDate=2025-12-01&endDate=2025-12-31
      *   Header: Authorization: Bearer <token>
+     *   If-None-Match: <ETag of previous response>   -> 304 Not Modified if nothing changed
      */
     @GetMapping("/by-date-range")
-    public ResponseEntity<List<JournalEntry>> getEntriesByDateRange(HttpServletRequest request,
-                                                                     @RequestParam("startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-                                                                     @RequestParam("endDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+    public ResponseEntity<List<JournalEntrySummary>> getEntriesByDateRange(HttpServletRequest request,
+                                                                            WebRequest webRequest,
+                                                                            @RequestParam("startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+                                                                            @RequestParam("endDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
         Long userId = (Long) request.getAttribute("userId");
         if (userId == null) {
             return ResponseEntity.status(401).build();
@@ -144,10 +229,183 @@ public class JournalEntryController {
             return ResponseEntity.badRequest().build();
         }
 
-        List<JournalEntry> entries = journalEntryService.findByUserAndDateRange(userId, startDate, endDate);
+        // The aggregate fingerprint is only worth its query when the client can get a 304 from it
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            ResultFingerprint fingerprint = journalEntryService.fingerprintByUserAndDateRange(userId, startDate, endDate);
+            if (webRequest.checkNotModified(fingerprint.toETag())) {
+                return null;
+            }
+            return ResponseEntity.ok().cacheControl(REVALIDATE)
+                    .body(journalEntryService.findSummariesByUserAndDateRange(userId, startDate, endDate));
+        }
+
+        // Unconditional read: derive the ETag from the loaded rows
+        List<JournalEntrySummary> entries = journalEntryService.findSummariesByUserAndDateRange(userId, startDate, endDate);
+        return ResponseEntity.ok().cacheControl(REVALIDATE)
+                .eTag(JournalEntryService.fingerprintOf(entries).toETag())
+                .body(entries);
+    }
+
+    /**
+     * Get the journal calendar of a month: one summary per day that has entries
+     * (entry count, focus minutes, dominant mood, whether an evaluation exists)
+     * Served from one aggregate query, entry texts are not read
+     * 
+     * Example:
+     *   GET /api/journal-entries/calendar?month=2025-12
+     *   Header: Authorization: Bearer <token>
+     *   If-None-Match: <ETag of previous response>   -> 304 Not Modified if nothing changed
+     */
+    @GetMapping("/calendar")
+    public ResponseEntity<List<JournalCalendarDay>> getCalendar(HttpServletRequest request,
+                                                                WebRequest webRequest,
+                                                                @RequestParam("month") @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+        Long userId = (Long) request.getAttribute("userId");
+        if (userId == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        // The aggregate fingerprint is only worth its query when the client can get a 304 from it
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            ResultFingerprint fingerprint = journalEntryService.fingerprintByUserAndDateRange(
+                    userId, month.atDay(1), month.atEndOfMonth());
+            if (webRequest.checkNotModified(fingerprint.toETag())) {
+                return null;
+            }
+            return ResponseEntity.ok().cacheControl(REVALIDATE)
+                    .body(journalEntryService.getCalendar(userId, month).getDays());
+        }
+
+        // Unconditional read: the calendar query also returns the month's fingerprint
+        JournalEntryService.Calendar calendar = journalEntryService.getCalendar(userId, month);
+        return ResponseEntity.ok().cacheControl(REVALIDATE)
+                .eTag(calendar.getFingerprint().toETag())
+                .body(calendar.getDays());
+    }
+
+    /**
+     * Count journal entries per value of one facet (mood, weather or activity)
+     * Served from the per-user facet index, e.g. "how many Happy days this quarter, by weather"
+     * 
+     * Query parameters:
+     *   - groupBy: Facet to count by (mood, weather or activity)
+     *   - mood, weather, activity: Only count entries with this value (optional)
+     *   - startDate, endDate: Date range, inclusive (optional, ISO date)
+     * 
+     * Example:
+     *   GET /api/journal-entries/facets?groupBy=weather&mood=Happy&startDate=2025-10-01&endDate=2025-12-31
+     *   Header: Authorization: Bearer <token>
+     * 
+     * Returns: { "facet": "weather", "filters": { "mood": "Happy" }, "totalEntries": 41, "totalDays": 37,
+     *            "values": [ { "value": "Sunny", "entries": 20, "days": 18 }, ... ] },
+     *          or 400 if groupBy is not a facet
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<?> getFacetCounts(HttpServletRequest request,
+                                            @RequestParam("groupBy") String groupBy,
+                                            @RequestParam(required = false) String mood,
+                                            @RequestParam(required = false) String weather,
+                                            @RequestParam(required = false) String activity,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        Long userId = (Long) request.getAttribute("userId");
+        if (userId == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        try {
+            JournalFacetIndex.Facet facet = JournalFacetIndex.Facet.parse(groupBy);
+            return ResponseEntity.ok(journalEntryService.countByFacet(
+                    userId, startDate, endDate, facetFilters(mood, weather, activity), facet));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("{\"error\":\"" + e.getMessage() + "\"}");
+        }
+    }
+
+    /**
+     * Get journal entries that have all given facet values (ordered by date desc, newest first)
+     * 
+     * Query parameters:
+     *   - mood, weather, activity: Facet values to match (optional)
+     *   - startDate, endDate: Date range, inclusive (optional, ISO date)
+     * 
+     * Example:
+     *   GET /api/journal-entries/by-facets?mood=Happy&weather=Rainy
+     *   Header: Authorization: Bearer <token>
+     */
+    @GetMapping("/by-facets")
+    public ResponseEntity<List<JournalEntrySummary>> getEntriesByFacets(HttpServletRequest request,
+                                                                        @RequestParam(required = false) String mood,
+                                                                        @RequestParam(required = false) String weather,
+                                                                        @RequestParam(required = false) String activity,
+                                                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+                                                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        Long userId = (Long) request.getAttribute("userId");
+        if (userId == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        List<JournalEntrySummary> entries = journalEntryService.findByFacets(
+                userId, startDate, endDate, facetFilters(mood, weather, activity));
         return ResponseEntity.ok(entries);
     }
 
+    /**
+     * Full-text search over titles, texts and evaluations of current user's entries (best matches first)
+     * 
+     * Query parameters:
+     *   - q: Search text; all words must match, supports "phrases", -excluded words, prefix* and a | b
+     *   - startDate, endDate: Date range, inclusive (optional, ISO date)
+     *   - limit: Maximum number of hits (default 20, max 100)
+     * 
+     * Example:
+     *   GET /api/journal-entries/search?q=morning%20run&startDate=2025-01-01
+     *   Header: Authorization: Bearer <token>
+     * 
+     * Returns: { "query": "morning run", "totalHits": 12, "tookMillis": 3,
+     *            "hits": [ { "entryId": 42, "date": "2025-03-02", "title": "...", "score": 4.1,
+     *                        "snippet": "... a <b>morning</b> <b>run</b> by the river ..." }, ... ] },
+     *          or 400 if q is blank
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> search(HttpServletRequest request,
+                                    @RequestParam("q") String query,
+                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+                                    @RequestParam(defaultValue = "20") int limit) {
+        Long userId = (Long) request.getAttribute("userId");
+        if (userId == null) {
+            return ResponseEntity.status(401).build();
+        }
+        if (query == null || query.trim().isEmpty()) {
+            return ResponseEntity.badRequest().body("{\"error\":\"q must not be blank\"}");
+        }
+
+        return ResponseEntity.ok(journalEntryService.search(userId, query.trim(), startDate, endDate, limit));
+    }
+
+    /**
+     * Rebuild the search index of current user's entries from the database
+     * (all users: start the server with --rebuild-journal-search)
+     * 
+     * Example:
+     *   POST /api/journal-entries/search/rebuild
+     *   Header: Authorization: Bearer <token>
+     * 
+     * Returns: { "indexedEntries": 734 }
+     */
+    @PostMapping("/search/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildSearchIndex(HttpServletRequest request) {
+        Long userId = (Long) request.getAttribute("userId");
+        if (userId == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("indexedEntries", journalEntryService.rebuildSearchIndex(userId));
+        return ResponseEntity.ok(body);
+    }
+
     /**
      * Update journal entry
      * 
@@ -271,7 +529,7 @@ public class JournalEntryController {
             return ResponseEntity.badRequest().build();
         }
 
-        int minutes = journalEntryService.getTotalFocusMinutes(userId, date);
+        int minutes = focusSessionService.getTotalFocusMinutes(userId, date);
         return ResponseEntity.ok(minutes);
     }
 
@@ -320,17 +578,27 @@ public class JournalEntryController {
      * Request body example:
      * {
      *   "date": "2025-12-03",
-     *   "focusMinutes": 25
+     *   "focusMinutes": 25,
+     *   "startTime": "2025-12-03T09:00:00",   // optional, defaults to endTime - focusMinutes
+     *   "endTime": "2025-12-03T09:25:00",     // optional, defaults to now
+     *   "taskId": 42                          // optional
      * }
      * 
      * Logic:
+     *   - The session is buffered in memory and written within a few seconds (see FocusWriteBuffer):
+     *     appended to focus_sessions, counted in its hour buckets and added to the day's journal
      *   - If entry exists for that day, add to existing totalFocusMinutes
      *   - If no entry exists, create new JournalEntry with focusMinutes
      *   - Evaluation field is not modified here
+     *   - GET /focus-time includes buffered minutes immediately
+     * 
+     * Returns:
+     *   - 202 Accepted: { "date": "2025-12-03", "focusMinutes": 25 }
+     *   - 400 Bad Request: Missing date, invalid minutes / times, or unknown task
      */
     @PostMapping("/focus-time")
-    public ResponseEntity<JournalEntry> addFocusMinutes(HttpServletRequest httpRequest,
-                                                         @RequestBody FocusIncrementRequest request) {
+    public ResponseEntity<Map<String, Object>> addFocusMinutes(HttpServletRequest httpRequest,
+                                                               @RequestBody FocusIncrementRequest request) {
         Long userId = (Long) httpRequest.getAttribute("userId");
         if (userId == null) {
             return ResponseEntity.status(401).build();
@@ -343,9 +611,16 @@ public class JournalEntryController {
             return ResponseEntity.badRequest().build();
         }
 
-        JournalEntry saved =
-                journalEntryService.addFocusMinutes(userId, date, focusMinutes);
-        return ResponseEntity.ok(saved);
+        try {
+            focusSessionService.recordSession(userId, date, focusMinutes,
+                    request.getStartTime(), request.getEndTime(), request.getTaskId());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("date", date);
+        body.put("focusMinutes", focusMinutes);
+        return ResponseEntity.accepted().body(body);
     }
 
     /**
@@ -380,6 +655,20 @@ public class JournalEntryController {
         return ResponseEntity.ok(entry);
     }
 
+    private static Map<JournalFacetIndex.Facet, String> facetFilters(String mood, String weather, String activity) {
+        Map<JournalFacetIndex.Facet, String> filters = new EnumMap<>(JournalFacetIndex.Facet.class);
+        if (mood != null) {
+            filters.put(JournalFacetIndex.Facet.MOOD, mood);
+        }
+        if (weather != null) {
+            filters.put(JournalFacetIndex.Facet.WEATHER, weather);
+        }
+        if (activity != null) {
+            filters.put(JournalFacetIndex.Facet.ACTIVITY, activity);
+        }
+        return filters;
+    }
+
     /**
      * Request body for Pomodoro timer focus time increment
      * Note: userId is extracted from token, not needed in request body
@@ -387,6 +676,9 @@ public class JournalEntryController {
     public static class FocusIncrementRequest {
         private LocalDate date;
         private Integer focusMinutes;
+        private LocalDateTime startTime;
+        private LocalDateTime endTime;
+        private Long taskId;
 
         public LocalDate getDate() {
             return date;
@@ -403,6 +695,30 @@ public class JournalEntryController {
         public void setFocusMinutes(Integer focusMinutes) {
             this.focusMinutes = focusMinutes;
         }
+
+        public LocalDateTime getStartTime() {
+            return startTime;
+        }
+
+        public void setStartTime(LocalDateTime startTime) {
+            this.startTime = startTime;
+        }
+
+        public LocalDateTime getEndTime() {
+            return endTime;
+        }
+
+        public void setEndTime(LocalDateTime endTime) {
+            this.endTime = endTime;
+        }
+
+        public Long getTaskId() {
+            return taskId;
+        }
+
+        public void setTaskId(Long taskId) {
+            this.taskId = taskId;
+        }
     }
 
     /**
@@ -430,5 +746,3 @@ public class JournalEntryController {
         }
     }
 }
-
-
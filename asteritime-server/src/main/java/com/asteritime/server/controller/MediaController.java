@@ -0,0 +1,193 @@
+package com.asteritime.server.controller;
+
+import com.asteritime.common.dto.MediaUpload;
+import com.asteritime.common.model.MediaBlob;
+import com.asteritime.server.media.ByteRangeResponder;
+import com.asteritime.server.media.MediaTypes;
+import com.asteritime.server.media.ThumbnailSize;
+import com.asteritime.server.service.MediaService;
+import com.asteritime.server.service.ThumbnailService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Journal media (images, voice notes) API
+ *
+ * Note: Uploading requires Authorization header: Bearer <token>.
+ *       Downloads are public: a media URL is the SHA-256 of the content, so it cannot be guessed
+ *       and works in <img>/<audio> tags, which cannot send the header.
+ */
+@RestController
+@RequestMapping("/media")
+public class MediaController {
+
+    /**
+     * Content never changes under a key, so browsers and proxies may keep it for a year without revalidating
+     */
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+    @Autowired
+    private MediaService mediaService;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    /**
+     * Upload a file (multipart/form-data, part "file"; JPEG/PNG/GIF/WebP image or MP3/M4A/Ogg/WebM/WAV audio)
+     *
+     * Example:
+     *   POST /api/media
+     *   Header: Authorization: Bearer <token>
+     *   Body: file=<binary>
+     *
+     * Returns: 201 { "sha256": "9f86d0...", "url": "/api/media/9f86d0...", "sizeBytes": 48213, "contentType": "image/jpeg" }
+     * The type is taken from the file content; other types (including SVG) are rejected with 400.
+     * Uploading content that is already stored returns the existing blob.
+     * Put the url into imageUrls / voiceNoteUrl of a journal entry; blobs that no entry references
+     * are deleted after asteritime.media.gc-grace-hours.
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> upload(HttpServletRequest request, @RequestParam("file") MultipartFile file) throws IOException {
+        Long userId = (Long) request.getAttribute("userId");
+        if (userId == null) {
+            return ResponseEntity.status(401).build();
+        }
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().body("{\"error\":\"File is empty\"}");
+        }
+
+        MediaBlob blob;
+        try {
+            // Multipart parts are spooled to disk (file-size-threshold: 0), so this streams from the part file
+            blob = mediaService.upload(file.getContentType(), file.getInputStream());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("{\"error\":\"" + e.getMessage() + "\"}");
+        }
+
+        String url = MediaService.urlOf(blob.getSha256());
+        return ResponseEntity.created(URI.create(url))
+                .body(new MediaUpload(blob.getSha256(), url, blob.getSizeBytes(), blob.getContentType()));
+    }
+
+    /**
+     * Download a file
+     *
+     * Example:
+     *   GET /api/media/{sha256}
+     *   If-None-Match: "{sha256}"   -> 304 Not Modified
+     *   Range: bytes=1048576-       -> 206 Partial Content (seeking in a voice note)
+     *   Range: bytes=0-99,500-599   -> 206 multipart/byteranges
+     *   If-Range: "{sha256}"        -> Range is honoured only if the tag matches
+     *
+     * The body is sent from the file without copying it through the heap (see ByteRangeResponder).
+     */
+    @GetMapping("/{sha256:[0-9a-f]{64}}")
+    public void download(@PathVariable String sha256, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Optional<MediaBlob> blob = mediaService.find(sha256);
+        Path file = mediaService.pathOf(sha256);
+        if (!blob.isPresent() || !Files.isReadable(file)) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        String etag = "\"" + sha256 + "\"";
+        if (notModified(request, response, etag)) {
+            return;
+        }
+
+        String contentType = blob.get().getContentType();
+        response.setContentType(contentType);
+        setContentSafetyHeaders(response, contentType);
+        ByteRangeResponder.respond(request, response, file, blob.get().getSizeBytes(), contentType, etag);
+    }
+
+    /**
+     * Download a thumbnail of an image (JPEG, longest side small=160, medium=480, large=1024 px)
+     *
+     * Example:
+     *   GET /api/media/{sha256}/thumbnail?size=small
+     *
+     * Thumbnails are generated in the background after upload. Until they exist (or if the image
+     * format cannot be decoded) this redirects (302, not cached) to the original image.
+     * Returns 404 for missing or non-image blobs, 400 for an unknown size.
+     */
+    @GetMapping("/{sha256:[0-9a-f]{64}}/thumbnail")
+    public void thumbnail(@PathVariable String sha256, @RequestParam(defaultValue = "medium") String size,
+                          HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ThumbnailSize thumbnailSize;
+        try {
+            thumbnailSize = ThumbnailSize.parse(size);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+            return;
+        }
+        Optional<MediaBlob> blob = mediaService.find(sha256);
+        if (!blob.isPresent() || !MediaService.isImage(blob.get())) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        Optional<Path> file = thumbnailService.find(sha256, thumbnailSize);
+        if (!file.isPresent()) {
+            thumbnailService.generateAsync(sha256);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+            response.sendRedirect(request.getContextPath() + "/media/" + sha256);
+            return;
+        }
+
+        String etag = "\"" + sha256 + "-" + thumbnailSize.paramName() + "\"";
+        if (notModified(request, response, etag)) {
+            return;
+        }
+
+        response.setContentType(MediaType.IMAGE_JPEG_VALUE);
+        setContentSafetyHeaders(response, MediaType.IMAGE_JPEG_VALUE);
+        ByteRangeResponder.respond(request, response, file.get(), Files.size(file.get()), MediaType.IMAGE_JPEG_VALUE, etag);
+    }
+
+    /**
+     * Keep user content from running as a page on this origin, even when opened directly:
+     * no sniffing, a sandbox without scripts or same-origin access, and anything outside
+     * the MediaTypes allowlist (e.g. blobs stored before it existed) only as a download
+     */
+    private static void setContentSafetyHeaders(HttpServletResponse response, String contentType) {
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        response.setHeader("Content-Security-Policy", "sandbox");
+        if (!MediaTypes.isAllowed(contentType)) {
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment");
+        }
+    }
+
+    /**
+     * Set validators and immutable caching headers; answers 304 if the client already has this content
+     */
+    private static boolean notModified(HttpServletRequest request, HttpServletResponse response, String etag) {
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE);
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,57 @@
+package com.asteritime.server.controller;
+
+import com.asteritime.server.stream.ChangeStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Server-Sent Events push channel for task and focus-time changes
+ * 
+ * Note: Requires Authorization header: Bearer <token>
+ *       (browsers' EventSource cannot set headers, so ?access_token=<token> is accepted on this endpoint)
+ */
+@RestController
+@RequestMapping("/stream")
+public class StreamController {
+
+    @Autowired
+    private ChangeStream changeStream;
+
+    /**
+     * Open a change stream for current user
+     * 
+     * URL: GET /api/stream?access_token=<token>
+     * Header: Authorization: Bearer <token> (alternative to access_token)
+     * 
+     * Events:
+     *   event: changes
+     *   data: { "updatedTaskIds": [12, 15], "deletedTaskIds": [9], "focusMinutesAdded": { "2025-12-01": 25 } }
+     * 
+     * Changes committed within a short window are merged into one event.
+     * A comment line is sent periodically as heartbeat; EventSource reconnects automatically
+     * when the stream times out or the server restarts.
+     * 
+     * Returns: text/event-stream, or 401 if not authenticated
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(HttpServletRequest request) {
+        Long userId = (Long) request.getAttribute("userId");
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        
+        return ResponseEntity.ok()
+                .header("Cache-Control", "no-cache")
+                // Disable response buffering in nginx so events are delivered immediately
+                .header("X-Accel-Buffering", "no")
+                .body(changeStream.open(userId));
+    }
+}
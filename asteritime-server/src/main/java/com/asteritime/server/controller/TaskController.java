@@ -1,19 +1,33 @@
 package com.asteritime.server.controller;
 
+import com.asteritime.common.dto.CursorPage;
+import com.asteritime.common.dto.TaskBatchOperation;
+import com.asteritime.common.dto.TaskBatchResult;
+import com.asteritime.common.dto.TaskChanges;
 import com.asteritime.common.model.Task;
 import com.asteritime.common.model.TaskStatus;
-import com.asteritime.common.model.User;
+import com.asteritime.server.repository.ResultFingerprint;
+import com.asteritime.server.repository.TaskQuery;
 import com.asteritime.server.service.TaskService;
+import com.asteritime.server.util.CursorCodec;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.servlet.http.HttpServletRequest;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Task REST API endpoints
@@ -23,6 +37,7 @@ import java.util.List;
  *   - Create task
  *   - Update task
  *   - Delete task
+ *   - Batch create/update/delete
  * 
  * Note: All endpoints require Authorization header: Bearer <token>
  * userId is automatically extracted from token to ensure users can only operate their own tasks
@@ -31,6 +46,16 @@ import java.util.List;
 @RequestMapping("/tasks")
 public class TaskController {
     
+    /**
+     * Maximum number of operations accepted by POST /api/tasks/batch
+     */
+    private static final int MAX_BATCH_OPERATIONS = 500;
+    
+    /**
+     * Clients may keep task lists but must revalidate them (ETag) before reuse
+     */
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+    
     @Autowired
     private TaskService taskService;
     
@@ -40,74 +65,233 @@ public class TaskController {
      * URL: GET /api/tasks
      * Header: Authorization: Bearer <token>
      * 
-     * Query parameters (all optional, can be combined):
-     *   - quadrant: Quadrant (1-4)
-     *   - categoryId: Category ID
-     *   - status: Status (DELAY, TODO, DOING, DONE, CANCEL)
-     *   - startTime: Start time (ISO 8601 format, e.g., 2025-12-06T00:00:00)
-     *   - endTime: End time (ISO 8601 format, e.g., 2025-12-06T23:59:59)
+     * Query parameters (all optional, can be combined freely):
+     *   - quadrant: Quadrant(s) (1-4), repeat or comma-separate for multiple (e.g., quadrant=1,2)
+     *   - categoryId: Category ID(s), repeat or comma-separate for multiple
+     *   - status: Status(es) (DELAY, TODO, DOING, DONE, CANCEL), repeat or comma-separate for multiple
+     *   - startTime: Planned start range begin (ISO 8601 format, e.g., 2025-12-06T00:00:00)
+     *   - endTime: Planned start range end (ISO 8601 format, e.g., 2025-12-06T23:59:59)
+     *   - actualFrom: Actual start range begin (ISO 8601 format)
+     *   - actualTo: Actual start range end (ISO 8601 format)
+     *   - updatedSince: Only tasks updated at or after this time (ISO 8601 format)
+     *   - sort: Sort field and direction, e.g., plannedStartTime,asc (default: createdAt,desc)
+     *   - limit: Maximum number of tasks to return (1-1000)
      * 
      * Examples:
      *   GET /api/tasks                                    -> All tasks
      *   GET /api/tasks?quadrant=1                        -> Quadrant 1 tasks
-     *   GET /api/tasks?categoryId=2                      -> Category ID 2 tasks
-     *   GET /api/tasks?status=TODO                       -> TODO status tasks
-     *   GET /api/tasks?quadrant=1&categoryId=2           -> Quadrant 1 and category 2 tasks
-     *   GET /api/tasks?quadrant=1&status=DOING           -> Quadrant 1 and DOING status tasks
-     *   GET /api/tasks?categoryId=2&status=TODO          -> Category 2 and TODO status tasks
+     *   GET /api/tasks?quadrant=1,2&status=TODO,DOING    -> Quadrant 1/2 tasks that are TODO or DOING
+     *   GET /api/tasks?categoryId=2&categoryId=3         -> Category 2 or 3 tasks
      *   GET /api/tasks?startTime=2025-12-06T00:00:00&endTime=2025-12-06T23:59:59  -> Tasks for a specific day
-     *   GET /api/tasks?status=TODO&startTime=...&endTime=...  -> TODO status tasks within time range
-     *   GET /api/tasks?quadrant=1&status=DOING&startTime=...&endTime=...  -> Quadrant 1 + DOING + time range
+     *   GET /api/tasks?status=DONE&actualFrom=2025-12-01T00:00:00&actualTo=2025-12-07T23:59:59
+     *   GET /api/tasks?startTime=...&endTime=...&sort=plannedStartTime,asc&limit=200
+     * 
+     * Conditional GET: responses carry an ETag; send it back as If-None-Match to get
+     * 304 Not Modified when nothing changed. No Last-Modified is sent: deleting a task that
+     * is not the latest updated one would not move it.
      * 
-     * Returns: List of matching tasks (ordered by creation time desc)
+     * Returns: List of matching tasks (ordered by creation time desc unless sort is given)
      */
     @GetMapping
     public ResponseEntity<List<Task>> getTasks(
             HttpServletRequest request,
-            @RequestParam(required = false) Integer quadrant,
-            @RequestParam(required = false) Long categoryId,
-            @RequestParam(required = false) String status,
+            WebRequest webRequest,
+            @RequestParam(required = false) List<Integer> quadrant,
+            @RequestParam(required = false) List<Long> categoryId,
+            @RequestParam(required = false) List<String> status,
             @RequestParam(required = false) String startTime,
-            @RequestParam(required = false) String endTime) {
+            @RequestParam(required = false) String endTime,
+            @RequestParam(required = false) String actualFrom,
+            @RequestParam(required = false) String actualTo,
+            @RequestParam(required = false) String updatedSince,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) Integer limit) {
         
         Long userId = (Long) request.getAttribute("userId");
         if (userId == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
         
-        if (quadrant != null && (quadrant < 1 || quadrant > 4)) {
+        if (limit != null && (limit < 1 || limit > TaskQuery.MAX_LIMIT)) {
             return ResponseEntity.badRequest().build();
         }
         
-        if (status != null && !status.isEmpty()) {
-            try {
-                TaskStatus.valueOf(status.toUpperCase());
-            } catch (IllegalArgumentException e) {
-                return ResponseEntity.badRequest().build();
+        TaskQuery query;
+        try {
+            query = buildQuery(quadrant, categoryId, status, startTime, endTime,
+                    actualFrom, actualTo, updatedSince, sort);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        query.limit(limit);
+        
+        // The aggregate fingerprint is only worth its query when the client can get a 304 from it
+        // (or the result is cut by limit, so the loaded rows do not cover the whole match).
+        // Fingerprint first: a write committing in between yields a newer body with an older ETag,
+        // which only costs the client one extra full response
+        boolean limited = query.getLimit() != null;
+        if (limited || webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            ResultFingerprint fingerprint = taskService.fingerprint(userId, query);
+            if (webRequest.checkNotModified(fingerprint.toETag())) {
+                return null;
             }
+            return ResponseEntity.ok().cacheControl(REVALIDATE)
+                    .body(taskService.findByConditions(userId, query));
+        }
+        
+        // Unconditional read: derive the ETag from the loaded rows (served from TaskDayCache where possible)
+        List<Task> tasks = taskService.findByConditions(userId, query);
+        return ResponseEntity.ok().cacheControl(REVALIDATE)
+                .eTag(TaskService.fingerprintOf(tasks).toETag())
+                .body(tasks);
+    }
+    
+    /**
+     * Get one page of tasks for current user (cursor-based pagination)
+     * 
+     * URL: GET /api/tasks/page
+     * Header: Authorization: Bearer <token>
+     * 
+     * Query parameters:
+     *   - cursor: nextCursor from the previous page (omit for the first page)
+     *   - size: Page size (default 50, max 200)
+     *   - Filters: same as GET /api/tasks (quadrant, categoryId, status, startTime, endTime,
+     *              actualFrom, actualTo, updatedSince); sort and limit are not supported
+     * 
+     * Examples:
+     *   GET /api/tasks/page?size=100                      -> First 100 tasks
+     *   GET /api/tasks/page?size=100&cursor=MjAyNS0xMi0w  -> Next 100 tasks
+     * 
+     * Returns: { "items": [...], "nextCursor": "...", "hasMore": true }
+     *          ordered by planned start time asc, then id asc (tasks without planned start time first)
+     *          400 if cursor or filters are invalid
+     */
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<Task>> getTaskPage(
+            HttpServletRequest request,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) List<Integer> quadrant,
+            @RequestParam(required = false) List<Long> categoryId,
+            @RequestParam(required = false) List<String> status,
+            @RequestParam(required = false) String startTime,
+            @RequestParam(required = false) String endTime,
+            @RequestParam(required = false) String actualFrom,
+            @RequestParam(required = false) String actualTo,
+            @RequestParam(required = false) String updatedSince) {
+        
+        Long userId = (Long) request.getAttribute("userId");
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
         
-        LocalDateTime startDateTime = null;
-        LocalDateTime endDateTime = null;
         try {
-            if (startTime != null && !startTime.isEmpty()) {
-                startDateTime = LocalDateTime.parse(startTime);
+            TaskQuery query = buildQuery(quadrant, categoryId, status, startTime, endTime,
+                    actualFrom, actualTo, updatedSince, null);
+            return ResponseEntity.ok(taskService.findPage(userId, query, cursor, size));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * Get tasks changed since a watermark (incremental sync)
+     * 
+     * URL: GET /api/tasks/changes?since=2025-12-01T08:00:00
+     * Header: Authorization: Bearer <token>
+     * 
+     * Query parameters:
+     *   - since: Watermark from the previous response (ISO 8601, or an opaque continuation token
+     *            when hasMore was true); for the first sync use the time the full task list was loaded
+     * 
+     * Usage:
+     *   1. Load all tasks once (GET /api/tasks or GET /api/tasks/page) and remember the time
+     *   2. Poll GET /api/tasks/changes?since=<watermark>, upsert "changed", remove "deletedIds"
+     *   3. Store the returned watermark; if hasMore is true, call again immediately
+     * 
+     * Returns: { "changed": [...], "deletedIds": [...], "watermark": "...", "hasMore": false }
+     *          400 if since is missing or malformed
+     *          410 if since is older than the tombstone retention period (client must resync fully)
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<?> getChanges(HttpServletRequest request,
+                                        @RequestParam(required = false) String since) {
+        Long userId = (Long) request.getAttribute("userId");
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        
+        if (since == null || since.isEmpty()) {
+            return ResponseEntity.badRequest().body("{\"error\":\"since is required\"}");
+        }
+        LocalDateTime sinceTime;
+        Long afterId = null;
+        try {
+            sinceTime = LocalDateTime.parse(since);
+        } catch (DateTimeParseException e) {
+            // Continuation watermark of a truncated response: (updatedAt, id) of its last task
+            try {
+                String[] key = CursorCodec.decode(since, 2);
+                sinceTime = LocalDateTime.parse(key[0]);
+                afterId = Long.valueOf(key[1]);
+            } catch (RuntimeException malformed) {
+                return ResponseEntity.badRequest()
+                        .body("{\"error\":\"since must be an ISO 8601 date-time or a returned watermark\"}");
             }
-            if (endTime != null && !endTime.isEmpty()) {
-                endDateTime = LocalDateTime.parse(endTime);
+        }
+        if (sinceTime.isBefore(taskService.oldestChangeWatermark())) {
+            return ResponseEntity.status(HttpStatus.GONE)
+                    .body("{\"error\":\"Watermark expired, reload all tasks\"}");
+        }
+        
+        TaskChanges changes = taskService.findChangesSince(userId, sinceTime, afterId);
+        return ResponseEntity.ok(changes);
+    }
+    
+    /**
+     * Build task query from request parameters
+     * 
+     * @throws IllegalArgumentException if quadrant/status/sort is invalid or a time range is half-open
+     * @throws DateTimeParseException if a time parameter is not ISO 8601
+     */
+    private TaskQuery buildQuery(List<Integer> quadrants, List<Long> categoryIds, List<String> statuses,
+                                 String startTime, String endTime, String actualFrom, String actualTo,
+                                 String updatedSince, String sort) {
+        if (quadrants != null) {
+            for (Integer quadrant : quadrants) {
+                if (quadrant == null || quadrant < 1 || quadrant > 4) {
+                    throw new IllegalArgumentException("Quadrant must be between 1 and 4");
+                }
             }
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().build();
         }
         
-        if ((startDateTime != null && endDateTime == null) || 
-            (startDateTime == null && endDateTime != null)) {
-            return ResponseEntity.badRequest().build();
+        List<TaskStatus> taskStatuses = new ArrayList<>();
+        if (statuses != null) {
+            for (String status : statuses) {
+                if (status != null && !status.isEmpty()) {
+                    taskStatuses.add(TaskStatus.valueOf(status.trim().toUpperCase()));
+                }
+            }
         }
         
-        List<Task> tasks = taskService.findByConditions(
-                userId, quadrant, categoryId, status, startDateTime, endDateTime);
-        return ResponseEntity.ok(tasks);
+        LocalDateTime startDateTime = parseDateTime(startTime);
+        LocalDateTime endDateTime = parseDateTime(endTime);
+        if ((startDateTime == null) != (endDateTime == null)) {
+            throw new IllegalArgumentException("startTime and endTime must be provided together");
+        }
+        
+        return new TaskQuery()
+                .quadrants(quadrants)
+                .categoryIds(categoryIds)
+                .statuses(taskStatuses)
+                .plannedStartBetween(startDateTime, endDateTime)
+                .actualStartBetween(parseDateTime(actualFrom), parseDateTime(actualTo))
+                .updatedSince(parseDateTime(updatedSince))
+                .sort(sort);
+    }
+    
+    private static LocalDateTime parseDateTime(String value) {
+        return value == null || value.isEmpty() ? null : LocalDateTime.parse(value);
     }
     
     /**
@@ -116,16 +300,33 @@ public class TaskController {
      * URL: GET /api/tasks/{id}
      * Header: Authorization: Bearer <token>
      * 
+     * Conditional GET: supports If-None-Match (304 Not Modified)
+     * 
      * Returns: Task with specified ID, or 404 if not found or not owned by current user
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Task> getTask(HttpServletRequest request, @PathVariable Long id) {
+    public ResponseEntity<Task> getTask(HttpServletRequest request, WebRequest webRequest, @PathVariable Long id) {
         Long userId = (Long) request.getAttribute("userId");
         if (userId == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
+        
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            ResultFingerprint fingerprint = taskService.fingerprintByIdAndUserId(id, userId);
+            if (fingerprint.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            if (webRequest.checkNotModified(fingerprint.toETag())) {
+                return null;
+            }
+            return taskService.findByIdAndUserId(id, userId)
+                    .map(task -> ResponseEntity.ok().cacheControl(REVALIDATE).body(task))
+                    .orElse(ResponseEntity.notFound().build());
+        }
         return taskService.findByIdAndUserId(id, userId)
-                .map(ResponseEntity::ok)
+                .map(task -> ResponseEntity.ok().cacheControl(REVALIDATE)
+                        .eTag(TaskService.fingerprintOf(Collections.singletonList(task)).toETag())
+                        .body(task))
                 .orElse(ResponseEntity.notFound().build());
     }
     
@@ -161,49 +362,14 @@ public class TaskController {
         }
         
         try {
-            // Validate required fields
-            if (task.getTitle() == null || task.getTitle().trim().isEmpty()) {
-                return ResponseEntity.badRequest()
-                        .body("{\"error\":\"Task title is required\"}");
-            }
-            
-            if (task.getQuadrant() == null || task.getQuadrant() < 1 || task.getQuadrant() > 4) {
+            // Validate required fields, resolve category/recurrence rule/user references
+            try {
+                taskService.prepareNewTask(userId, task);
+            } catch (IllegalArgumentException e) {
                 return ResponseEntity.badRequest()
-                        .body("{\"error\":\"Quadrant must be between 1 and 4\"}");
-            }
-            
-            if (task.getStatus() == null) {
-                task.setStatus(TaskStatus.TODO);
+                        .body("{\"error\":\"" + e.getMessage() + "\"}");
             }
             
-            // Validate and load TaskCategory if provided
-            if (task.getType() != null && task.getType().getId() != null) {
-                Long categoryId = task.getType().getId();
-                com.asteritime.common.model.TaskCategory category = 
-                    taskService.loadCategoryIfExists(categoryId, userId);
-                if (category == null) {
-                    return ResponseEntity.badRequest()
-                            .body("{\"error\":\"Task category not found or does not belong to current user\"}");
-                }
-                task.setType(category);
-            }
-            
-            // Validate and load TaskRecurrenceRule if provided
-            if (task.getRecurrenceRule() != null && task.getRecurrenceRule().getId() != null) {
-                Long ruleId = task.getRecurrenceRule().getId();
-                com.asteritime.common.model.TaskRecurrenceRule rule = 
-                    taskService.loadRecurrenceRuleIfExists(ruleId, userId);
-                if (rule == null) {
-                    return ResponseEntity.badRequest()
-                            .body("{\"error\":\"Recurrence rule not found or does not belong to current user\"}");
-                }
-                task.setRecurrenceRule(rule);
-            }
-            
-            // Load user reference (Hibernate needs a managed entity, not a transient one)
-            User user = taskService.loadUserReference(userId);
-            task.setUser(user);
-            
             Task created = taskService.save(task);
             return ResponseEntity.status(HttpStatus.CREATED).body(created);
             
@@ -218,6 +384,63 @@ public class TaskController {
         }
     }
     
+    /**
+     * Apply a batch of create/update/delete operations (bulk planning, schedule import)
+     * 
+     * URL: POST /api/tasks/batch
+     * Header: Authorization: Bearer <token>
+     * 
+     * Request body example:
+     *   {
+     *     "operations": [
+     *       { "op": "CREATE", "task": { "title": "Morning run", "quadrant": 2, "plannedStartTime": "2025-12-08T07:00:00" } },
+     *       { "op": "UPDATE", "id": 42, "task": { "plannedStartTime": "2025-12-09T09:00:00" } },
+     *       { "op": "DELETE", "id": 43 }
+     *     ]
+     *   }
+     * 
+     * Note:
+     *   - At most 500 operations per request
+     *   - task uses the same format as POST /api/tasks and PUT /api/tasks/{id}
+     *   - Invalid items are reported per item and skipped, valid items are applied in one transaction
+     * 
+     * Returns: 200 with one result per operation, e.g.
+     *   { "results": [ { "index": 0, "op": "CREATE", "status": 201, "id": 1001, "task": {...} },
+     *                  { "index": 2, "op": "DELETE", "status": 404, "id": 43, "error": "..." } ] }
+     *   400 if the request is empty or too large, 409 if a task was modified concurrently (nothing applied)
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> applyBatch(HttpServletRequest request, @RequestBody TaskBatchRequest batchRequest) {
+        Long userId = (Long) request.getAttribute("userId");
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        
+        List<TaskBatchOperation> operations = batchRequest == null ? null : batchRequest.getOperations();
+        if (operations == null || operations.isEmpty()) {
+            return ResponseEntity.badRequest()
+                    .body("{\"error\":\"At least one operation is required\"}");
+        }
+        if (operations.size() > MAX_BATCH_OPERATIONS) {
+            return ResponseEntity.badRequest()
+                    .body("{\"error\":\"At most " + MAX_BATCH_OPERATIONS + " operations are allowed per batch\"}");
+        }
+        
+        try {
+            List<TaskBatchResult> results = taskService.applyBatch(userId, operations);
+            Map<String, Object> response = new HashMap<>();
+            response.put("results", results);
+            return ResponseEntity.ok(response);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .header("X-Error-Message", "A task has been modified by another operation, please refresh and retry")
+                    .build();
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.badRequest()
+                    .body("{\"error\":\"Invalid data: " + e.getMessage() + "\"}");
+        }
+    }
+    
     /**
      * Update task (only own tasks)
      * 
@@ -292,6 +515,19 @@ public class TaskController {
             return ResponseEntity.notFound().build();
         }
     }
+    
+    /**
+     * Request body for batch operations
+     */
+    public static class TaskBatchRequest {
+        private List<TaskBatchOperation> operations;
+        
+        public List<TaskBatchOperation> getOperations() {
+            return operations;
+        }
+        
+        public void setOperations(List<TaskBatchOperation> operations) {
+            this.operations = operations;
+        }
+    }
 }
-
-
@@ -0,0 +1,109 @@
+package com.asteritime.server.management;
+
+import com.asteritime.common.model.TaskCategory;
+import com.asteritime.common.model.TaskRecurrenceRule;
+import com.asteritime.common.model.User;
+import com.asteritime.server.cache.ActivityHeatmapCache;
+import com.asteritime.server.cache.JournalFacetIndex;
+import com.asteritime.server.cache.TaskDayCache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache statistics (for monitoring cache effectiveness)
+ *
+ * The figures cover all users, so this is an actuator endpoint on the management port
+ * (management.server.port, bound to localhost) rather than an API endpoint.
+ */
+@Component
+@Endpoint(id = "cachestats")
+public class CacheStatsEndpoint {
+
+    /**
+     * Hibernate second-level cache regions (entity and natural ID regions)
+     */
+    private static final String[] SECOND_LEVEL_REGIONS = {
+            User.CACHE_REGION,
+            TaskCategory.CACHE_REGION,
+            TaskCategory.NATURAL_ID_CACHE_REGION,
+            TaskRecurrenceRule.CACHE_REGION,
+            TaskRecurrenceRule.NATURAL_ID_CACHE_REGION
+    };
+
+    @Autowired
+    private TaskDayCache taskDayCache;
+
+    @Autowired
+    private ActivityHeatmapCache activityHeatmapCache;
+
+    @Autowired
+    private JournalFacetIndex journalFacetIndex;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Get hit/miss/eviction statistics of in-process caches
+     *
+     * URL: GET http://localhost:8081/actuator/cachestats
+     *
+     * Response example:
+     *   {
+     *     "taskDayCache": { "size": 120, "hitCount": 5321, "missCount": 140, "hitRate": 0.97, "evictionCount": 0, ... },
+     *     "activityHeatmapCache": { "size": 14, "hitCount": 220, "missCount": 14, ... },
+     *     "journalFacetIndex": { "size": 9, "hitCount": 57, "missCount": 9, ... },
+     *     "secondLevelCache": {
+     *       "statisticsEnabled": false,
+     *       "regions": { "users": { "hitCount": 812, "missCount": 9, "putCount": 9, "elementCount": 9 }, ... },
+     *       "queryCacheHitCount": 301, "queryCacheMissCount": 12, ...
+     *     }
+     *   }
+     *
+     * Second-level cache counters stay 0 unless hibernate.generate_statistics is enabled
+     * (it is only in the test profile, collecting statistics costs on every session).
+     */
+    @ReadOperation
+    public Map<String, Object> stats() {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("taskDayCache", taskDayCache.stats());
+        response.put("activityHeatmapCache", activityHeatmapCache.stats());
+        response.put("journalFacetIndex", journalFacetIndex.stats());
+        response.put("secondLevelCache", secondLevelCacheStats());
+        return response;
+    }
+
+    private Map<String, Object> secondLevelCacheStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String regionName : SECOND_LEVEL_REGIONS) {
+            CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(regionName);
+            Map<String, Object> regionStats = new LinkedHashMap<>();
+            regionStats.put("hitCount", region.getHitCount());
+            regionStats.put("missCount", region.getMissCount());
+            regionStats.put("putCount", region.getPutCount());
+            regionStats.put("elementCount", region.getElementCountInMemory());
+            regions.put(regionName, regionStats);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        result.put("regions", regions);
+        result.put("secondLevelCacheHitCount", statistics.getSecondLevelCacheHitCount());
+        result.put("secondLevelCacheMissCount", statistics.getSecondLevelCacheMissCount());
+        result.put("naturalIdCacheHitCount", statistics.getNaturalIdCacheHitCount());
+        result.put("naturalIdCacheMissCount", statistics.getNaturalIdCacheMissCount());
+        result.put("queryCacheHitCount", statistics.getQueryCacheHitCount());
+        result.put("queryCacheMissCount", statistics.getQueryCacheMissCount());
+        return result;
+    }
+}
@@ -0,0 +1,30 @@
+package com.asteritime.server.management;
+
+import com.asteritime.server.stream.ChangeStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Change stream statistics, server-wide (actuator endpoint on the management port)
+ */
+@Component
+@Endpoint(id = "streamstats")
+public class StreamStatsEndpoint {
+
+    @Autowired
+    private ChangeStream changeStream;
+
+    /**
+     * Get stream statistics (open connections, users, queued and sent events, dropped slow connections)
+     *
+     * URL: GET http://localhost:8081/actuator/streamstats
+     */
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return changeStream.stats();
+    }
+}
@@ -0,0 +1,33 @@
+package com.asteritime.server.management;
+
+import com.asteritime.server.service.WeeklyReportJob;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Progress of the weekly report precomputation job, all users (actuator endpoint on the management port)
+ */
+@Component
+@Endpoint(id = "weeklyreports")
+public class WeeklyReportJobEndpoint {
+
+    @Autowired
+    private WeeklyReportJob weeklyReportJob;
+
+    /**
+     * Get progress of the current (or last) precomputation run
+     *
+     * URL: GET http://localhost:8081/actuator/weeklyreports
+     *
+     * Returns: { "running": false, "weekStart": "2025-12-01", "partitionsTotal": 3, "partitionsDone": 3,
+     *            "usersProcessed": 2480, "reportsWritten": 2475, "usersFailed": 0, ... }
+     */
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return weeklyReportJob.stats();
+    }
+}
@@ -0,0 +1,252 @@
+package com.asteritime.server.media;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed file store on the local filesystem
+ *
+ * Layout under asteritime.media.dir:
+ *   - blobs/ab/cd/abcd...: Content with SHA-256 abcd... (two fan-out levels keep directories small)
+ *   - blobs/ab/cd/abcd....<suffix>: Files derived from the content (thumbnails), deleted with it
+ *   - tmp/: Uploads being written; moved into blobs/ once hashed
+ *
+ * Uploads are streamed through a fixed-size buffer into tmp/ while hashing, so a file is never
+ * held on the heap. Blob files are immutable: the same content always ends up at the same path
+ * and an existing blob is never rewritten.
+ *
+ * Storing and deleting a key run under a per-key lock stripe together with a callback, so the
+ * metadata row and the file of a key change together (see MediaService).
+ */
+@Component
+public class BlobStore {
+
+    private static final Logger log = LoggerFactory.getLogger(BlobStore.class);
+
+    private static final Pattern KEY = Pattern.compile("[0-9a-f]{64}");
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final int LOCK_STRIPES = 256;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Path blobDir;
+
+    private final Path tmpDir;
+
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public BlobStore(@Value("${asteritime.media.dir:./data/media}") String mediaDir) {
+        Path root = Paths.get(mediaDir);
+        this.blobDir = root.resolve("blobs");
+        this.tmpDir = root.resolve("tmp");
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(blobDir);
+        Files.createDirectories(tmpDir);
+    }
+
+    /**
+     * Whether key is a well-formed blob key (lower-case hex SHA-256)
+     */
+    public static boolean isValidKey(String key) {
+        return key != null && KEY.matcher(key).matches();
+    }
+
+    /**
+     * Stream content into the store
+     *
+     * @param onStored Runs under the key's lock once the file is in place (e.g. to register the blob)
+     * @return Key and size of the content
+     */
+    public StoredBlob store(InputStream content, Consumer<StoredBlob> onStored) throws IOException {
+        Path tmp = Files.createTempFile(tmpDir, "upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            long size = 0;
+            byte[] buffer = new byte[BUFFER_SIZE];
+            try (InputStream in = content; OutputStream out = Files.newOutputStream(tmp)) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                    size += read;
+                }
+            }
+
+            StoredBlob blob = new StoredBlob(hex(digest.digest()), size);
+            synchronized (lockFor(blob.getKey())) {
+                Path target = pathOf(blob.getKey());
+                if (!Files.exists(target)) {
+                    Files.createDirectories(target.getParent());
+                    Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+                }
+                onStored.accept(blob);
+            }
+            return blob;
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Delete a blob file if condition (run under the key's lock, e.g. deleting the metadata row) holds
+     *
+     * @return Whether the blob was deleted
+     */
+    public boolean deleteIf(String key, BooleanSupplier condition) throws IOException {
+        synchronized (lockFor(key)) {
+            if (!condition.getAsBoolean()) {
+                return false;
+            }
+            Path file = pathOf(key);
+            Files.deleteIfExists(file);
+            try (DirectoryStream<Path> derived = Files.newDirectoryStream(file.getParent(), key + ".*")) {
+                for (Path derivedFile : derived) {
+                    Files.deleteIfExists(derivedFile);
+                }
+            } catch (NoSuchFileException e) {
+                // Fan-out directory was never created
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Write a file derived from a blob (e.g. a thumbnail) next to it, replacing an existing one
+     *
+     * @return false if the blob no longer exists (the derived file is discarded)
+     */
+    public boolean storeDerived(String key, String suffix, ContentWriter writer) throws IOException {
+        Path tmp = Files.createTempFile(tmpDir, "upload-", ".part");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp), BUFFER_SIZE)) {
+                writer.writeTo(out);
+            }
+            synchronized (lockFor(key)) {
+                if (!Files.exists(pathOf(key))) {
+                    return false;
+                }
+                Files.move(tmp, derivedPathOf(key, suffix), StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+                return true;
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Path of a blob file (blobs/ab/cd/key)
+     */
+    public Path pathOf(String key) {
+        if (!isValidKey(key)) {
+            throw new IllegalArgumentException("Invalid media key: " + key);
+        }
+        return blobDir.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+
+    /**
+     * Path of a file derived from a blob (blobs/ab/cd/key.suffix)
+     */
+    public Path derivedPathOf(String key, String suffix) {
+        return pathOf(key).resolveSibling(key + "." + suffix);
+    }
+
+    /**
+     * Delete upload leftovers (e.g. from a crash) older than maxAge
+     *
+     * @return Number of deleted files
+     */
+    public int purgeTemporaryFiles(Duration maxAge) {
+        Instant cutoff = Instant.now().minus(maxAge);
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(tmpDir, "upload-*.part")) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(cutoff) && Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to purge temporary media uploads in {}", tmpDir, e);
+        }
+        return deleted;
+    }
+
+    private Object lockFor(String key) {
+        return locks[Integer.parseInt(key.substring(0, 2), 16) % LOCK_STRIPES];
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xf];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xf];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Writes the content of a derived file
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Key and size of stored content
+     */
+    public static final class StoredBlob {
+        private final String key;
+        private final long size;
+
+        StoredBlob(String key, long size) {
+            this.key = key;
+            this.size = size;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public long getSize() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.asteritime.server.media;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Answers a GET/HEAD for an immutable file, honouring Range and If-Range (RFC 7233)
+ *
+ * Responses:
+ *   - 200: No Range header, an unparseable one, an If-Range that does not match, or ranges
+ *          that together are larger than the file (overlapping abuse); whole file
+ *   - 206: One satisfiable range (Content-Range), or several as multipart/byteranges
+ *   - 416: No range overlaps the file (Content-Range carries only the size)
+ *
+ * Only strong entity tags are compared in If-Range; a date never matches (no Last-Modified is
+ * sent), so the client gets the whole file, as RFC 7233 requires.
+ *
+ * The whole file and single ranges go through FileRegionWriter (sendfile on Tomcat, which hands
+ * the transfer to the connector's poller and frees the request thread). Multipart responses are
+ * written by the request thread, each part with FileChannel.transferTo through the servlet's
+ * fixed-size output buffer; nothing is read into the heap in either case.
+ */
+public final class ByteRangeResponder {
+
+    private static final String BYTES_UNIT = "bytes ";
+
+    private static final String CRLF = "\r\n";
+
+    private ByteRangeResponder() {
+    }
+
+    /**
+     * Write status, range headers and body of a file whose other headers (Content-Type, ETag, caching) are set
+     *
+     * @param etag Strong entity tag of the file, quoted
+     */
+    public static void respond(HttpServletRequest request, HttpServletResponse response, Path file,
+                               long size, String contentType, String etag) throws IOException {
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        boolean head = "HEAD".equals(request.getMethod());
+
+        List<long[]> regions = requestedRegions(request, size, etag);
+        if (regions == null) {
+            response.setContentLengthLong(size);
+            if (!head) {
+                FileRegionWriter.write(request, response, file, 0, size);
+            }
+            return;
+        }
+        if (regions.isEmpty()) {
+            response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+            response.setContentLengthLong(0);
+            return;
+        }
+
+        response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+        if (regions.size() == 1) {
+            long[] region = regions.get(0);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, contentRange(region, size));
+            response.setContentLengthLong(region[1] - region[0]);
+            if (!head) {
+                FileRegionWriter.write(request, response, file, region[0], region[1]);
+            }
+            return;
+        }
+
+        String boundary = UUID.randomUUID().toString().replace("-", "");
+        List<byte[]> partHeaders = new ArrayList<>(regions.size());
+        long length = 0;
+        for (long[] region : regions) {
+            byte[] partHeader = (CRLF + "--" + boundary + CRLF
+                    + HttpHeaders.CONTENT_TYPE + ": " + contentType + CRLF
+                    + HttpHeaders.CONTENT_RANGE + ": " + contentRange(region, size) + CRLF + CRLF)
+                    .getBytes(StandardCharsets.US_ASCII);
+            partHeaders.add(partHeader);
+            length += partHeader.length + (region[1] - region[0]);
+        }
+        byte[] closing = (CRLF + "--" + boundary + "--" + CRLF).getBytes(StandardCharsets.US_ASCII);
+        length += closing.length;
+
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(length);
+        if (head) {
+            return;
+        }
+        ServletOutputStream out = response.getOutputStream();
+        WritableByteChannel target = Channels.newChannel(out);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            for (int i = 0; i < regions.size(); i++) {
+                out.write(partHeaders.get(i));
+                FileRegionWriter.transfer(channel, regions.get(i)[0], regions.get(i)[1], target);
+            }
+        }
+        out.write(closing);
+    }
+
+    /**
+     * Regions [start, end) to send: null for the whole file (200), empty if nothing is satisfiable (416)
+     */
+    private static List<long[]> requestedRegions(HttpServletRequest request, long size, String etag) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null || !ifRangeMatches(request.getHeader(HttpHeaders.IF_RANGE), etag)) {
+            return null;
+        }
+        List<HttpRange> ranges;
+        try {
+            ranges = HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            // Invalid (or more than 100) ranges: ignore the header
+            return null;
+        }
+        if (ranges.isEmpty()) {
+            return null;
+        }
+
+        List<long[]> regions = new ArrayList<>(ranges.size());
+        long total = 0;
+        for (HttpRange range : ranges) {
+            long start = range.getRangeStart(size);
+            if (start >= size) {
+                continue;
+            }
+            long end = range.getRangeEnd(size) + 1;
+            regions.add(new long[] {start, end});
+            total += end - start;
+        }
+        if (total > size) {
+            return null;
+        }
+        return regions;
+    }
+
+    private static boolean ifRangeMatches(String ifRange, String etag) {
+        if (ifRange == null) {
+            return true;
+        }
+        return ifRange.trim().equals(etag);
+    }
+
+    private static String contentRange(long[] region, long size) {
+        return BYTES_UNIT + region[0] + "-" + (region[1] - 1) + "/" + size;
+    }
+}
@@ -0,0 +1,62 @@
+package com.asteritime.server.media;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes a region of a file as the response body without reading it into the heap
+ *
+ * Tomcat's NIO connector sends the region with sendfile (the kernel copies file pages to the
+ * socket, FileChannel.transferTo underneath) once the handler returns. Where sendfile is not
+ * available (other containers, compressed responses) the region is copied with
+ * FileChannel.transferTo into the servlet output stream.
+ */
+public final class FileRegionWriter {
+
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private FileRegionWriter() {
+    }
+
+    /**
+     * Send bytes [start, end) of a file; Content-Length must already be set to end - start
+     */
+    public static void write(HttpServletRequest request, HttpServletResponse response, Path file,
+                             long start, long end) throws IOException {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            transfer(channel, start, end, Channels.newChannel(response.getOutputStream()));
+        }
+    }
+
+    /**
+     * Copy bytes [start, end) of a channel to target
+     * (the JDK moves them in small fixed-size chunks when target is not a file or socket channel)
+     */
+    public static void transfer(FileChannel channel, long start, long end, WritableByteChannel target)
+            throws IOException {
+        long position = start;
+        while (position < end) {
+            long sent = channel.transferTo(position, end - position, target);
+            if (sent <= 0) {
+                throw new EOFException("File ended at " + position + " before " + end);
+            }
+            position += sent;
+        }
+    }
+}
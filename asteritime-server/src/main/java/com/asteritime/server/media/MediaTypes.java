@@ -0,0 +1,144 @@
+package com.asteritime.server.media;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Media types accepted for journal media, recognised by their magic bytes
+ *
+ * Only raster images and the audio containers browsers record voice notes in are allowed.
+ * Formats that can carry script (SVG, HTML, PDF...) are never accepted, whatever the client
+ * declares: the type stored for a blob is the one detected from its content.
+ *
+ * Allowed:
+ *   - image/jpeg, image/png, image/gif, image/webp
+ *   - audio/mpeg, audio/mp4, audio/ogg, audio/webm, audio/wav
+ */
+public final class MediaTypes {
+
+    /**
+     * Number of leading bytes detect() needs
+     */
+    public static final int HEADER_LENGTH = 12;
+
+    private static final Set<String> ALLOWED = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "image/jpeg", "image/png", "image/gif", "image/webp",
+            "audio/mpeg", "audio/mp4", "audio/ogg", "audio/webm", "audio/wav")));
+
+    /**
+     * Non-standard names browsers and operating systems declare for allowed types
+     */
+    private static final Map<String, String> ALIASES = new HashMap<>();
+
+    static {
+        ALIASES.put("image/jpg", "image/jpeg");
+        ALIASES.put("image/pjpeg", "image/jpeg");
+        ALIASES.put("audio/mp3", "audio/mpeg");
+        ALIASES.put("audio/x-m4a", "audio/mp4");
+        ALIASES.put("audio/m4a", "audio/mp4");
+        ALIASES.put("audio/x-wav", "audio/wav");
+        ALIASES.put("audio/wave", "audio/wav");
+        ALIASES.put("audio/vnd.wave", "audio/wav");
+        // MediaRecorder in some browsers labels audio-only recordings as video containers
+        ALIASES.put("video/webm", "audio/webm");
+        ALIASES.put("video/mp4", "audio/mp4");
+        ALIASES.put("application/ogg", "audio/ogg");
+    }
+
+    private MediaTypes() {
+    }
+
+    /**
+     * Whether type is an allowed (canonical) media type
+     */
+    public static boolean isAllowed(String type) {
+        return type != null && ALLOWED.contains(type);
+    }
+
+    /**
+     * Canonical allowed type for a declared Content-Type (parameters ignored), or null if not allowed
+     */
+    public static String canonical(String declared) {
+        if (declared == null) {
+            return null;
+        }
+        String type = declared.trim().toLowerCase(Locale.ROOT);
+        int parameters = type.indexOf(';');
+        if (parameters >= 0) {
+            type = type.substring(0, parameters).trim();
+        }
+        type = ALIASES.getOrDefault(type, type);
+        return ALLOWED.contains(type) ? type : null;
+    }
+
+    /**
+     * Allowed type of content from its first bytes, or null if it is none of them
+     *
+     * @param header Up to HEADER_LENGTH leading bytes of the content
+     */
+    public static String detect(byte[] header) {
+        if (startsWith(header, 0, 0xFF, 0xD8, 0xFF)) {
+            return "image/jpeg";
+        }
+        if (startsWith(header, 0, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+            return "image/png";
+        }
+        if (startsWith(header, 0, "GIF87a") || startsWith(header, 0, "GIF89a")) {
+            return "image/gif";
+        }
+        if (startsWith(header, 0, "RIFF")) {
+            if (startsWith(header, 8, "WEBP")) {
+                return "image/webp";
+            }
+            if (startsWith(header, 8, "WAVE")) {
+                return "audio/wav";
+            }
+            return null;
+        }
+        if (startsWith(header, 0, "OggS")) {
+            return "audio/ogg";
+        }
+        if (startsWith(header, 0, 0x1A, 0x45, 0xDF, 0xA3)) {
+            return "audio/webm";
+        }
+        if (startsWith(header, 4, "ftyp")) {
+            return "audio/mp4";
+        }
+        if (startsWith(header, 0, "ID3")
+                || (header.length >= 2 && (header[0] & 0xFF) == 0xFF && (header[1] & 0xE0) == 0xE0)) {
+            return "audio/mpeg";
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] header, int offset, String magic) {
+        byte[] bytes = magic.getBytes(StandardCharsets.US_ASCII);
+        if (header.length < offset + bytes.length) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (header[offset + i] != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean startsWith(byte[] header, int offset, int... magic) {
+        if (header.length < offset + magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if ((header[offset + i] & 0xFF) != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,54 @@
+package com.asteritime.server.media;
+
+import java.util.Locale;
+
+/**
+ * Thumbnail sizes of journal images (longest side in pixels, JPEG)
+ *
+ *   - SMALL: Previews in the edit dialog
+ *   - MEDIUM: Images in the journal entry view
+ *   - LARGE: Wide layouts / high-density screens
+ */
+public enum ThumbnailSize {
+    LARGE(1024),
+    MEDIUM(480),
+    SMALL(160);
+
+    private final int maxDimension;
+
+    ThumbnailSize(int maxDimension) {
+        this.maxDimension = maxDimension;
+    }
+
+    public int getMaxDimension() {
+        return maxDimension;
+    }
+
+    /**
+     * Name used in the size request parameter (small, medium, large)
+     */
+    public String paramName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Suffix of the thumbnail file next to the original (blobs/ab/cd/key.w480.jpg)
+     */
+    public String fileSuffix() {
+        return "w" + maxDimension + ".jpg";
+    }
+
+    /**
+     * Parse a size request parameter
+     *
+     * @throws IllegalArgumentException if name is not a known size
+     */
+    public static ThumbnailSize parse(String name) {
+        for (ThumbnailSize size : values()) {
+            if (size.paramName().equalsIgnoreCase(name)) {
+                return size;
+            }
+        }
+        throw new IllegalArgumentException("Unknown thumbnail size: " + name);
+    }
+}
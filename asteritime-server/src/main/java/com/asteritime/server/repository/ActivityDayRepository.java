@@ -0,0 +1,32 @@
+package com.asteritime.server.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Active day bitset fragment (mixed into TaskRepository)
+ *
+ * A day is active when the user has journal focus minutes or completed a task on it (tasks.completed_on).
+ * activity_day_words stores one 64-bit word per user and 64 days since 1970-01-01,
+ * so a user's whole history is a few hundred small rows at most.
+ */
+public interface ActivityDayRepository {
+
+    /**
+     * Read a user's active day words
+     *
+     * @return Words indexed by word index (day since epoch / 64), missing words are 0
+     */
+    long[] findActivityWords(Long userId);
+
+    /**
+     * Mark a day active (atomic OR, requires an active transaction)
+     */
+    void setActivityDay(Long userId, LocalDate date);
+
+    /**
+     * Mark a day inactive unless it still has focus minutes or completed tasks (requires an active transaction)
+     *
+     * @return true if the day is inactive now
+     */
+    boolean clearActivityDayIfInactive(Long userId, LocalDate date);
+}
@@ -0,0 +1,99 @@
+package com.asteritime.server.repository;
+
+import org.hibernate.query.NativeQuery;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Native SQL implementation of ActivityDayRepository
+ *
+ * MySQL bit operators work on unsigned 64-bit values; results are cast back to SIGNED
+ * so the column holds the same two's complement value as a Java long.
+ */
+public class ActivityDayRepositoryImpl implements ActivityDayRepository {
+
+    private static final String WORD_TABLE = "activity_day_words";
+
+    private static final String FIND_WORDS_SQL =
+            "SELECT w.word_index, w.bits FROM activity_day_words w "
+            + "WHERE w.user_id = :userId AND w.bits <> 0 ORDER BY w.word_index";
+
+    private static final String SET_DAY_SQL =
+            "INSERT INTO activity_day_words (user_id, word_index, bits) VALUES (:userId, :wordIndex, :mask) "
+            + "ON DUPLICATE KEY UPDATE bits = CAST(bits | VALUES(bits) AS SIGNED)";
+
+    private static final String CLEAR_DAY_SQL =
+            "UPDATE activity_day_words SET bits = CAST(bits & ~:mask AS SIGNED) "
+            + "WHERE user_id = :userId AND word_index = :wordIndex "
+            + "AND NOT EXISTS (SELECT 1 FROM journal_entries e "
+            + "WHERE e.user_id = :userId AND e.date = :date AND e.total_focus_minutes > 0) "
+            + "AND NOT EXISTS (SELECT 1 FROM tasks t WHERE t.user_id = :userId AND t.completed_on = :date)";
+
+    private static final String IS_SET_SQL =
+            "SELECT COUNT(*) FROM activity_day_words w "
+            + "WHERE w.user_id = :userId AND w.word_index = :wordIndex AND (w.bits & :mask) <> 0";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public long[] findActivityWords(Long userId) {
+        List<Object[]> rows = entityManager.createNativeQuery(FIND_WORDS_SQL)
+                .setParameter("userId", userId)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return new long[0];
+        }
+
+        long[] words = new long[((Number) rows.get(rows.size() - 1)[0]).intValue() + 1];
+        for (Object[] row : rows) {
+            int wordIndex = ((Number) row[0]).intValue();
+            if (wordIndex >= 0) {
+                words[wordIndex] = ((Number) row[1]).longValue();
+            }
+        }
+        return words;
+    }
+
+    @Override
+    public void setActivityDay(Long userId, LocalDate date) {
+        long day = date.toEpochDay();
+        statement(SET_DAY_SQL)
+                .setParameter("userId", userId)
+                .setParameter("wordIndex", (int) (day >> 6))
+                .setParameter("mask", 1L << (day & 63))
+                .executeUpdate();
+    }
+
+    @Override
+    public boolean clearActivityDayIfInactive(Long userId, LocalDate date) {
+        long day = date.toEpochDay();
+        statement(CLEAR_DAY_SQL)
+                .setParameter("userId", userId)
+                .setParameter("wordIndex", (int) (day >> 6))
+                .setParameter("mask", 1L << (day & 63))
+                .setParameter("date", date)
+                .executeUpdate();
+        Number stillSet = (Number) entityManager.createNativeQuery(IS_SET_SQL)
+                .setParameter("userId", userId)
+                .setParameter("wordIndex", (int) (day >> 6))
+                .setParameter("mask", 1L << (day & 63))
+                .getSingleResult();
+        return stillSet.longValue() == 0;
+    }
+
+    /**
+     * Native statement that only touches the word table
+     * (declaring the query space keeps Hibernate from evicting every second-level cache region)
+     */
+    private Query statement(String sql) {
+        Query query = entityManager.createNativeQuery(sql);
+        query.unwrap(NativeQuery.class).addSynchronizedQuerySpace(WORD_TABLE);
+        return query;
+    }
+}
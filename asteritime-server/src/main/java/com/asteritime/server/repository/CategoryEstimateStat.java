@@ -0,0 +1,56 @@
+package com.asteritime.server.repository;
+
+/**
+ * Stored planned-vs-actual statistics of one user and category
+ *
+ * Ratio is actual minutes / planned minutes of a DONE task; categoryId is null for uncategorized tasks.
+ * m2Ratio is the Welford sum of squared deviations (variance = m2Ratio / sampleCount).
+ */
+public class CategoryEstimateStat {
+
+    private final Long categoryId;
+
+    private final long sampleCount;
+
+    private final double meanRatio;
+
+    private final double m2Ratio;
+
+    private final long plannedMinutes;
+
+    private final long actualMinutes;
+
+    public CategoryEstimateStat(Long categoryId, long sampleCount, double meanRatio, double m2Ratio,
+                                long plannedMinutes, long actualMinutes) {
+        this.categoryId = categoryId;
+        this.sampleCount = sampleCount;
+        this.meanRatio = meanRatio;
+        this.m2Ratio = m2Ratio;
+        this.plannedMinutes = plannedMinutes;
+        this.actualMinutes = actualMinutes;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    public double getMeanRatio() {
+        return meanRatio;
+    }
+
+    public double getM2Ratio() {
+        return m2Ratio;
+    }
+
+    public long getPlannedMinutes() {
+        return plannedMinutes;
+    }
+
+    public long getActualMinutes() {
+        return actualMinutes;
+    }
+}
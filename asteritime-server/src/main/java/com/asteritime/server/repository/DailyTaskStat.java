@@ -0,0 +1,66 @@
+package com.asteritime.server.repository;
+
+import com.asteritime.common.model.TaskStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Aggregated task statistics of one (day, quadrant, category, status) group
+ *
+ * Day is the planned start day of the tasks; categoryId is null for uncategorized tasks.
+ */
+public class DailyTaskStat {
+
+    private final LocalDate date;
+
+    private final int quadrant;
+
+    private final Long categoryId;
+
+    private final TaskStatus status;
+
+    private final long taskCount;
+
+    private final long plannedMinutes;
+
+    private final long actualMinutes;
+
+    public DailyTaskStat(LocalDate date, int quadrant, Long categoryId, TaskStatus status,
+                         long taskCount, long plannedMinutes, long actualMinutes) {
+        this.date = date;
+        this.quadrant = quadrant;
+        this.categoryId = categoryId;
+        this.status = status;
+        this.taskCount = taskCount;
+        this.plannedMinutes = plannedMinutes;
+        this.actualMinutes = actualMinutes;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public int getQuadrant() {
+        return quadrant;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public TaskStatus getStatus() {
+        return status;
+    }
+
+    public long getTaskCount() {
+        return taskCount;
+    }
+
+    public long getPlannedMinutes() {
+        return plannedMinutes;
+    }
+
+    public long getActualMinutes() {
+        return actualMinutes;
+    }
+}
@@ -0,0 +1,34 @@
+package com.asteritime.server.repository;
+
+import com.asteritime.common.dto.FocusHourBucket;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Focus hour bucket fragment (mixed into FocusSessionRepository)
+ *
+ * Buckets hold the focus minutes of one user per clock hour and are only ever
+ * incremented, so concurrent sessions never conflict.
+ */
+public interface FocusHourBucketRepository {
+
+    /**
+     * Add minutes to one hour bucket, creating it if missing (requires an active transaction)
+     *
+     * @param hourStart Start of the clock hour (minutes/seconds must be zero)
+     */
+    void addToHourBucket(Long userId, LocalDateTime hourStart, long minutes, long sessions);
+
+    /**
+     * Find non-empty hour buckets of a user within [from, to)
+     */
+    List<FocusHourBucket> findHourBuckets(Long userId, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Sum focus minutes of a user per hour of day within [from, to)
+     *
+     * @return 24 slots, index 0 = 00:00-00:59
+     */
+    int[] sumMinutesByHourOfDay(Long userId, LocalDateTime from, LocalDateTime to);
+}
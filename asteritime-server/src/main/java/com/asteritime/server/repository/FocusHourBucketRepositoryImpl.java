@@ -0,0 +1,83 @@
+package com.asteritime.server.repository;
+
+import com.asteritime.common.dto.FocusHourBucket;
+import org.hibernate.query.NativeQuery;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Native SQL implementation of FocusHourBucketRepository
+ */
+public class FocusHourBucketRepositoryImpl implements FocusHourBucketRepository {
+
+    private static final String BUCKET_TABLE = "focus_hour_buckets";
+
+    private static final String ADD_TO_BUCKET_SQL =
+            "INSERT INTO focus_hour_buckets (user_id, hour_start, minutes, sessions) "
+            + "VALUES (:userId, :hourStart, :minutes, :sessions) "
+            + "ON DUPLICATE KEY UPDATE minutes = minutes + VALUES(minutes), sessions = sessions + VALUES(sessions)";
+
+    private static final String FIND_BUCKETS_SQL =
+            "SELECT b.hour_start, b.minutes, b.sessions FROM focus_hour_buckets b "
+            + "WHERE b.user_id = :userId AND b.hour_start >= :from AND b.hour_start < :to AND b.minutes > 0 "
+            + "ORDER BY b.hour_start";
+
+    private static final String SUM_BY_HOUR_OF_DAY_SQL =
+            "SELECT HOUR(b.hour_start), SUM(b.minutes) FROM focus_hour_buckets b "
+            + "WHERE b.user_id = :userId AND b.hour_start >= :from AND b.hour_start < :to "
+            + "GROUP BY HOUR(b.hour_start)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void addToHourBucket(Long userId, LocalDateTime hourStart, long minutes, long sessions) {
+        Query query = entityManager.createNativeQuery(ADD_TO_BUCKET_SQL);
+        // Declaring the query space keeps Hibernate from evicting every second-level cache region
+        query.unwrap(NativeQuery.class).addSynchronizedQuerySpace(BUCKET_TABLE);
+        query.setParameter("userId", userId)
+                .setParameter("hourStart", hourStart)
+                .setParameter("minutes", minutes)
+                .setParameter("sessions", sessions)
+                .executeUpdate();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<FocusHourBucket> findHourBuckets(Long userId, LocalDateTime from, LocalDateTime to) {
+        List<Object[]> rows = entityManager.createNativeQuery(FIND_BUCKETS_SQL)
+                .setParameter("userId", userId)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getResultList();
+
+        List<FocusHourBucket> buckets = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            buckets.add(new FocusHourBucket(((Timestamp) row[0]).toLocalDateTime(),
+                    ((Number) row[1]).longValue(), ((Number) row[2]).longValue()));
+        }
+        return buckets;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public int[] sumMinutesByHourOfDay(Long userId, LocalDateTime from, LocalDateTime to) {
+        List<Object[]> rows = entityManager.createNativeQuery(SUM_BY_HOUR_OF_DAY_SQL)
+                .setParameter("userId", userId)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getResultList();
+
+        int[] minutesByHour = new int[24];
+        for (Object[] row : rows) {
+            minutesByHour[((Number) row[0]).intValue()] = ((Number) row[1]).intValue();
+        }
+        return minutesByHour;
+    }
+}
@@ -0,0 +1,17 @@
+package com.asteritime.server.repository;
+
+import com.asteritime.common.model.FocusSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface FocusSessionRepository extends JpaRepository<FocusSession, Long>, FocusHourBucketRepository {
+
+    /**
+     * Find sessions of a user started within a time range (ordered by start time)
+     */
+    List<FocusSession> findByUserIdAndStartedAtBetweenOrderByStartedAtAsc(Long userId, LocalDateTime from, LocalDateTime to);
+}
@@ -1,34 +1,56 @@
 package com.asteritime.server.repository;
 
+import com.asteritime.common.dto.JournalEntrySummary;
 import com.asteritime.common.model.JournalEntry;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface JournalEntryRepository extends JpaRepository<JournalEntry, Long> {
     
+    /**
+     * Select clause of JournalEntrySummary projections: the TEXT columns are cut to an excerpt or
+     * reduced to presence flags by the database, so list queries never load them whole
+     */
+    String SUMMARY_SELECT = "SELECT new com.asteritime.common.dto.JournalEntrySummary(e.id, e.date, e.title, e.mood, "
+            + "e.weather, e.activity, e.totalFocusMinutes, "
+            + "SUBSTRING(COALESCE(e.contentText, e.evaluation), 1, " + (JournalEntrySummary.EXCERPT_LENGTH + 1) + "), "
+            + "CASE WHEN e.imageUrls IS NULL OR e.imageUrls = '' OR e.imageUrls = '[]' THEN 0 ELSE 1 END, "
+            + "CASE WHEN e.voiceNoteUrl IS NULL OR e.voiceNoteUrl = '' THEN 0 ELSE 1 END, "
+            + "CASE WHEN e.evaluation IS NULL OR e.evaluation = '' THEN 0 ELSE 1 END, "
+            + "e.createdAt, e.updatedAt, e.version) FROM JournalEntry e ";
+    
     /**
      * Find all journal entries for a user on a specific date (ordered by creation time desc, newest first)
      */
     List<JournalEntry> findByUser_IdAndDateOrderByCreatedAtDesc(Long userId, LocalDate date);
     
     /**
-     * Find all journal entries for a user (ordered by date desc, newest first)
+     * Summaries of a user's journal entries on a specific date (ordered by creation time desc, newest first)
+     */
+    @Query(SUMMARY_SELECT + "WHERE e.user.id = :userId AND e.date = :date ORDER BY e.createdAt DESC")
+    List<JournalEntrySummary> findSummariesByUserIdAndDate(@Param("userId") Long userId, @Param("date") LocalDate date);
+    
+    /**
+     * Summaries of all journal entries for a user (ordered by date desc, newest first)
      */
-    @Query("SELECT e FROM JournalEntry e WHERE e.user.id = :userId ORDER BY e.date DESC, e.createdAt DESC")
-    List<JournalEntry> findByUser_IdOrderByDateDescCreatedAtDesc(@Param("userId") Long userId);
+    @Query(SUMMARY_SELECT + "WHERE e.user.id = :userId ORDER BY e.date DESC, e.createdAt DESC")
+    List<JournalEntrySummary> findSummariesByUserId(@Param("userId") Long userId);
     
     /**
-     * Find all journal entries for a user within a date range (ordered by date desc, newest first)
+     * Summaries of a user's journal entries within a date range (ordered by date desc, newest first)
      */
-    @Query("SELECT e FROM JournalEntry e WHERE e.user.id = :userId AND e.date BETWEEN :startDate AND :endDate ORDER BY e.date DESC, e.createdAt DESC")
-    List<JournalEntry> findByUser_IdAndDateBetweenOrderByDateDescCreatedAtDesc(
+    @Query(SUMMARY_SELECT + "WHERE e.user.id = :userId AND e.date BETWEEN :startDate AND :endDate ORDER BY e.date DESC, e.createdAt DESC")
+    List<JournalEntrySummary> findSummariesByUserIdAndDateBetween(
             @Param("userId") Long userId, 
             @Param("startDate") LocalDate startDate, 
             @Param("endDate") LocalDate endDate);
@@ -38,6 +60,121 @@ public interface JournalEntryRepository extends JpaRepository<JournalEntry, Long
      */
     @Query("SELECT e FROM JournalEntry e JOIN FETCH e.user WHERE e.id = :id")
     Optional<JournalEntry> findByIdWithUser(@Param("id") Long id);
+    
+    /**
+     * Find first keyset page of journal entry summaries for a user (ordered by date, creation time, id desc)
+     * Page size is taken from pageable, no count query is issued
+     */
+    @Query(SUMMARY_SELECT + "WHERE e.user.id = :userId ORDER BY e.date DESC, e.createdAt DESC, e.id DESC")
+    List<JournalEntrySummary> findFirstPageByUserId(@Param("userId") Long userId, Pageable pageable);
+    
+    /**
+     * Find next keyset page of journal entry summaries for a user, strictly after the given (date, createdAt, id) key
+     * Page size is taken from pageable, no count query is issued
+     */
+    @Query(SUMMARY_SELECT + "WHERE e.user.id = :userId AND (e.date < :date "
+            + "OR (e.date = :date AND (e.createdAt < :createdAt OR (e.createdAt = :createdAt AND e.id < :id)))) "
+            + "ORDER BY e.date DESC, e.createdAt DESC, e.id DESC")
+    List<JournalEntrySummary> findPageByUserIdAfter(
+            @Param("userId") Long userId,
+            @Param("date") LocalDate date,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable);
+    
+    /**
+     * Aggregate fingerprint of all journal entries of a user (for conditional GETs)
+     */
+    @Query("SELECT new com.asteritime.server.repository.ResultFingerprint(COUNT(e), SUM(e.version), MAX(e.updatedAt)) "
+            + "FROM JournalEntry e WHERE e.user.id = :userId")
+    ResultFingerprint fingerprintByUserId(@Param("userId") Long userId);
+    
+    /**
+     * Aggregate fingerprint of a user's journal entries within a date range (for conditional GETs)
+     */
+    @Query("SELECT new com.asteritime.server.repository.ResultFingerprint(COUNT(e), SUM(e.version), MAX(e.updatedAt)) "
+            + "FROM JournalEntry e WHERE e.user.id = :userId AND e.date BETWEEN :startDate AND :endDate")
+    ResultFingerprint fingerprintByUserIdAndDateBetween(
+            @Param("userId") Long userId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+    
+    /**
+     * Sum focus minutes of a user per day within a date range
+     * Returns rows of [date (LocalDate), minutes (Long)]
+     */
+    @Query("SELECT e.date, SUM(e.totalFocusMinutes) FROM JournalEntry e "
+            + "WHERE e.user.id = :userId AND e.date BETWEEN :startDate AND :endDate GROUP BY e.date")
+    List<Object[]> sumFocusMinutesByDate(
+            @Param("userId") Long userId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+    
+    /**
+     * Summarize a user's journal per (day, mood) within a date range, without reading text columns
+     * Returns rows of [date (LocalDate), mood (String or null), entries (Long), focus minutes (Long),
+     * entries with evaluation (Long), version sum (Long), latest update (LocalDateTime)], ordered by date;
+     * the last two add up to the same fingerprint as fingerprintByUserIdAndDateBetween
+     */
+    @Query("SELECT e.date, e.mood, COUNT(e), SUM(e.totalFocusMinutes), "
+            + "SUM(CASE WHEN e.evaluation IS NOT NULL AND e.evaluation <> '' THEN 1 ELSE 0 END), "
+            + "SUM(e.version), MAX(e.updatedAt) "
+            + "FROM JournalEntry e WHERE e.user.id = :userId AND e.date BETWEEN :startDate AND :endDate "
+            + "GROUP BY e.date, e.mood ORDER BY e.date")
+    List<Object[]> summarizeByDateAndMood(
+            @Param("userId") Long userId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+    
+    /**
+     * Count journal entries of a user per mood within a date range (entries without mood skipped)
+     * Returns rows of [mood (String), count (Long)], most frequent first
+     */
+    @Query("SELECT e.mood, COUNT(e) FROM JournalEntry e "
+            + "WHERE e.user.id = :userId AND e.date BETWEEN :startDate AND :endDate AND e.mood IS NOT NULL "
+            + "GROUP BY e.mood ORDER BY COUNT(e) DESC")
+    List<Object[]> countMoodsByDate(
+            @Param("userId") Long userId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+    
+    /**
+     * Facet attributes of all journal entries of a user (builds the facet index, no text columns read)
+     * Returns rows of [id (Long), date (LocalDate), mood, weather, activity (String or null)], ordered by date
+     */
+    @Query("SELECT e.id, e.date, e.mood, e.weather, e.activity FROM JournalEntry e "
+            + "WHERE e.user.id = :userId ORDER BY e.date, e.id")
+    List<Object[]> findFacetsByUserId(@Param("userId") Long userId);
+    
+    /**
+     * Summaries of journal entries by ID, ordered by date desc, newest first
+     */
+    @Query(SUMMARY_SELECT + "WHERE e.id IN :ids ORDER BY e.date DESC, e.createdAt DESC")
+    List<JournalEntrySummary> findSummariesByIdIn(@Param("ids") List<Long> ids);
+    
+    /**
+     * Text columns of journal entries in ID order, for (re)building the search index batch by batch
+     * Returns rows of [id (Long), user ID (Long), date (LocalDate), title, contentText, evaluation (String or null)]
+     * 
+     * @param userId Only entries of this user, null = all users
+     * @param afterId Only entries with a greater ID (0 for the first batch)
+     */
+    @Query("SELECT e.id, e.user.id, e.date, e.title, e.contentText, e.evaluation FROM JournalEntry e "
+            + "WHERE e.id > :afterId AND (:userId IS NULL OR e.user.id = :userId) ORDER BY e.id")
+    List<Object[]> findSearchRowsAfter(
+            @Param("userId") Long userId,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+    
+    /**
+     * Atomically add focus minutes to a journal entry (no read-modify-write, so no optimistic lock conflict)
+     * Bumps version and updatedAt like a regular update so cached copies and ETags are invalidated
+     */
+    @Modifying
+    @Query("UPDATE VERSIONED JournalEntry e SET e.totalFocusMinutes = e.totalFocusMinutes + :minutes, "
+            + "e.updatedAt = :updatedAt WHERE e.id = :id")
+    int incrementTotalFocusMinutes(
+            @Param("id") Long id,
+            @Param("minutes") int minutes,
+            @Param("updatedAt") LocalDateTime updatedAt);
 }
-
-
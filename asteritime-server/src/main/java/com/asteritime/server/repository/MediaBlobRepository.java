@@ -0,0 +1,79 @@
+package com.asteritime.server.repository;
+
+import com.asteritime.common.model.MediaBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Media blob metadata and journal entry references (see MediaService)
+ *
+ * Reference changes are single-row statements: a link row is inserted or deleted first and
+ * ref_count is only adjusted when that actually changed a row, so repeated calls are harmless.
+ * MySQL assigns UPDATE columns left to right, so unreferenced_since sees the new ref_count.
+ */
+@Repository
+public interface MediaBlobRepository extends JpaRepository<MediaBlob, String> {
+
+    /**
+     * Register an uploaded blob; an existing unreferenced blob gets a fresh grace period
+     */
+    @Modifying
+    @Query(value = "INSERT INTO media_blobs (sha256, size_bytes, content_type, ref_count, created_at, unreferenced_since) "
+            + "VALUES (:sha256, :sizeBytes, :contentType, 0, :now, :now) "
+            + "ON DUPLICATE KEY UPDATE unreferenced_since = IF(ref_count = 0, VALUES(unreferenced_since), NULL)",
+            nativeQuery = true)
+    int upsertUploaded(
+            @Param("sha256") String sha256,
+            @Param("sizeBytes") long sizeBytes,
+            @Param("contentType") String contentType,
+            @Param("now") LocalDateTime now);
+
+    /**
+     * Blobs referenced by a journal entry
+     */
+    @Query(value = "SELECT m.sha256 FROM journal_entry_media m WHERE m.entry_id = :entryId", nativeQuery = true)
+    List<String> findKeysByEntryId(@Param("entryId") Long entryId);
+
+    /**
+     * Link an entry to a blob (no-op if already linked or the blob does not exist)
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO journal_entry_media (entry_id, sha256) "
+            + "SELECT :entryId, b.sha256 FROM media_blobs b WHERE b.sha256 = :sha256", nativeQuery = true)
+    int insertLink(@Param("entryId") Long entryId, @Param("sha256") String sha256);
+
+    @Modifying
+    @Query(value = "DELETE FROM journal_entry_media WHERE entry_id = :entryId AND sha256 = :sha256", nativeQuery = true)
+    int deleteLink(@Param("entryId") Long entryId, @Param("sha256") String sha256);
+
+    @Modifying
+    @Query(value = "UPDATE media_blobs SET ref_count = ref_count + 1, unreferenced_since = NULL WHERE sha256 = :sha256",
+            nativeQuery = true)
+    int incrementRefCount(@Param("sha256") String sha256);
+
+    @Modifying
+    @Query(value = "UPDATE media_blobs SET ref_count = GREATEST(ref_count - 1, 0), "
+            + "unreferenced_since = IF(ref_count = 0, :now, NULL) WHERE sha256 = :sha256", nativeQuery = true)
+    int decrementRefCount(@Param("sha256") String sha256, @Param("now") LocalDateTime now);
+
+    /**
+     * Blobs unreferenced since before the cutoff (garbage collection candidates)
+     */
+    @Query(value = "SELECT b.sha256 FROM media_blobs b WHERE b.ref_count = 0 AND b.unreferenced_since < :cutoff "
+            + "ORDER BY b.unreferenced_since LIMIT :limit", nativeQuery = true)
+    List<String> findCollectableKeys(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    /**
+     * Delete a blob row if it is still collectable (rechecked in the same statement)
+     */
+    @Modifying
+    @Query(value = "DELETE FROM media_blobs WHERE sha256 = :sha256 AND ref_count = 0 AND unreferenced_since < :cutoff",
+            nativeQuery = true)
+    int deleteIfCollectable(@Param("sha256") String sha256, @Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,62 @@
+package com.asteritime.server.repository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Aggregate fingerprint of a query result (row count, sum of versions, latest update time)
+ *
+ * Computed with a single aggregate query instead of loading the rows, and used to answer
+ * conditional GETs (ETag / If-None-Match).
+ *
+ * Any insert, update or delete inside the result changes at least one component:
+ *   - insert/delete changes count (and updatedAt/version sum)
+ *   - update increments the row's @Version, so the version sum grows
+ * The latest update time alone would miss deletes, so it is only ever part of the ETag
+ * and never sent as Last-Modified.
+ *
+ * Note: Selected with JPQL constructor expressions ("SELECT new ...ResultFingerprint(COUNT, SUM, MAX)")
+ */
+public class ResultFingerprint {
+
+    private final long count;
+
+    private final long versionSum;
+
+    private final LocalDateTime lastModified;
+
+    public ResultFingerprint(Long count, Long versionSum, LocalDateTime lastModified) {
+        this.count = count == null ? 0 : count;
+        this.versionSum = versionSum == null ? 0 : versionSum;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Whether the result contains no rows
+     */
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Strong entity tag (quoted), e.g. "3-1a-5f2b1c9e8d000"
+     */
+    public String toETag() {
+        long modifiedMicros = lastModified == null ? 0
+                : ChronoUnit.MICROS.between(LocalDateTime.of(1970, 1, 1, 0, 0), lastModified);
+        return "\"" + Long.toHexString(count) + "-" + Long.toHexString(versionSum)
+                + "-" + Long.toHexString(modifiedMicros) + "\"";
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getVersionSum() {
+        return versionSum;
+    }
+
+    public LocalDateTime getLastModified() {
+        return lastModified;
+    }
+}
@@ -0,0 +1,52 @@
+package com.asteritime.server.repository;
+
+import com.asteritime.common.model.TaskStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Task aggregation fragment (mixed into TaskRepository)
+ *
+ * Analytics are read from the daily_task_rollups table, which holds per-day
+ * aggregates of tasks and is kept up to date by TaskRollupService.
+ */
+public interface TaskAnalyticsRepository {
+
+    /**
+     * Read a user's task aggregates by (planned start day, quadrant, category, status)
+     *
+     * @param userId User ID (required)
+     * @param startDate First day (inclusive)
+     * @param endDate Last day (inclusive)
+     * @return One row per non-empty group
+     */
+    List<DailyTaskStat> aggregateByDay(Long userId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Count a user's DONE tasks per completion day (tasks.completed_on)
+     *
+     * @param userId User ID (required)
+     * @param startDate First day (inclusive)
+     * @param endDate Last day (inclusive)
+     * @return Count per day with at least one completed task, in day order
+     */
+    Map<LocalDate, Long> countCompletedByDay(Long userId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Add deltas to one rollup row, creating it if missing (requires an active transaction)
+     *
+     * @param categoryId Category ID, or null for uncategorized tasks
+     */
+    void addToRollup(Long userId, LocalDate date, int quadrant, Long categoryId, TaskStatus status,
+                     long taskCount, long plannedMinutes, long actualMinutes);
+
+    /**
+     * Recompute rollup rows from the tasks table (requires an active transaction)
+     *
+     * @param userId User ID, or null for all users
+     * @return Number of rollup rows written
+     */
+    int rebuildRollups(Long userId);
+}
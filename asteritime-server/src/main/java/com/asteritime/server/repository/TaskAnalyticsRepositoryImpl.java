@@ -0,0 +1,139 @@
+package com.asteritime.server.repository;
+
+import com.asteritime.common.model.TaskStatus;
+import org.hibernate.query.NativeQuery;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Native SQL implementation of TaskAnalyticsRepository
+ *
+ * Rollup rows are keyed by (user_id, date, quadrant, category_id, status);
+ * category_id 0 stands for uncategorized tasks so it can be part of the primary key.
+ */
+public class TaskAnalyticsRepositoryImpl implements TaskAnalyticsRepository {
+
+    private static final String ROLLUP_TABLE = "daily_task_rollups";
+
+    private static final String AGGREGATE_BY_DAY_SQL =
+            "SELECT r.date, r.quadrant, NULLIF(r.category_id, 0), r.status, "
+            + "r.task_count, r.planned_minutes, r.actual_minutes "
+            + "FROM daily_task_rollups r "
+            + "WHERE r.user_id = :userId AND r.date BETWEEN :startDate AND :endDate AND r.task_count > 0";
+
+    private static final String COUNT_COMPLETED_BY_DAY_SQL =
+            "SELECT t.completed_on, COUNT(*) FROM tasks t "
+            + "WHERE t.user_id = :userId AND t.completed_on BETWEEN :startDate AND :endDate "
+            + "GROUP BY t.completed_on";
+
+    private static final String ADD_TO_ROLLUP_SQL =
+            "INSERT INTO daily_task_rollups "
+            + "(user_id, date, quadrant, category_id, status, task_count, planned_minutes, actual_minutes) "
+            + "VALUES (:userId, :date, :quadrant, :categoryId, :status, :taskCount, :plannedMinutes, :actualMinutes) "
+            + "ON DUPLICATE KEY UPDATE task_count = task_count + VALUES(task_count), "
+            + "planned_minutes = planned_minutes + VALUES(planned_minutes), "
+            + "actual_minutes = actual_minutes + VALUES(actual_minutes)";
+
+    private static final String DELETE_ROLLUPS_SQL = "DELETE FROM daily_task_rollups";
+
+    /**
+     * Same aggregation as V5__daily_task_rollups.sql uses for the initial backfill
+     */
+    private static final String REBUILD_ROLLUPS_SQL =
+            "INSERT INTO daily_task_rollups "
+            + "(user_id, date, quadrant, category_id, status, task_count, planned_minutes, actual_minutes) "
+            + "SELECT t.user_id, DATE(t.planned_start_time), t.quadrant, COALESCE(t.category_id, 0), t.status, COUNT(*), "
+            + "SUM(GREATEST(COALESCE(TIMESTAMPDIFF(MINUTE, t.planned_start_time, t.planned_end_time), 0), 0)), "
+            + "SUM(GREATEST(COALESCE(TIMESTAMPDIFF(MINUTE, t.actual_start_time, t.actual_end_time), 0), 0)) "
+            + "FROM tasks t "
+            + "WHERE t.planned_start_time IS NOT NULL %s"
+            + "GROUP BY t.user_id, DATE(t.planned_start_time), t.quadrant, COALESCE(t.category_id, 0), t.status";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<DailyTaskStat> aggregateByDay(Long userId, LocalDate startDate, LocalDate endDate) {
+        List<Object[]> rows = entityManager.createNativeQuery(AGGREGATE_BY_DAY_SQL)
+                .setParameter("userId", userId)
+                .setParameter("startDate", startDate)
+                .setParameter("endDate", endDate)
+                .getResultList();
+
+        List<DailyTaskStat> stats = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            stats.add(new DailyTaskStat(
+                    ((java.sql.Date) row[0]).toLocalDate(),
+                    ((Number) row[1]).intValue(),
+                    row[2] == null ? null : ((Number) row[2]).longValue(),
+                    TaskStatus.valueOf((String) row[3]),
+                    ((Number) row[4]).longValue(),
+                    ((Number) row[5]).longValue(),
+                    ((Number) row[6]).longValue()));
+        }
+        return stats;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<LocalDate, Long> countCompletedByDay(Long userId, LocalDate startDate, LocalDate endDate) {
+        List<Object[]> rows = entityManager.createNativeQuery(COUNT_COMPLETED_BY_DAY_SQL)
+                .setParameter("userId", userId)
+                .setParameter("startDate", startDate)
+                .setParameter("endDate", endDate)
+                .getResultList();
+
+        Map<LocalDate, Long> counts = new TreeMap<>();
+        for (Object[] row : rows) {
+            counts.put(((java.sql.Date) row[0]).toLocalDate(), ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    @Override
+    public void addToRollup(Long userId, LocalDate date, int quadrant, Long categoryId, TaskStatus status,
+                            long taskCount, long plannedMinutes, long actualMinutes) {
+        rollupStatement(ADD_TO_ROLLUP_SQL)
+                .setParameter("userId", userId)
+                .setParameter("date", date)
+                .setParameter("quadrant", quadrant)
+                .setParameter("categoryId", categoryId == null ? 0L : categoryId)
+                .setParameter("status", status.name())
+                .setParameter("taskCount", taskCount)
+                .setParameter("plannedMinutes", plannedMinutes)
+                .setParameter("actualMinutes", actualMinutes)
+                .executeUpdate();
+    }
+
+    @Override
+    public int rebuildRollups(Long userId) {
+        if (userId == null) {
+            rollupStatement(DELETE_ROLLUPS_SQL).executeUpdate();
+            return rollupStatement(String.format(REBUILD_ROLLUPS_SQL, "")).executeUpdate();
+        }
+        rollupStatement(DELETE_ROLLUPS_SQL + " WHERE user_id = :userId")
+                .setParameter("userId", userId)
+                .executeUpdate();
+        return rollupStatement(String.format(REBUILD_ROLLUPS_SQL, "AND t.user_id = :userId "))
+                .setParameter("userId", userId)
+                .executeUpdate();
+    }
+
+    /**
+     * Native statement that only touches the rollup table
+     * (declaring the query space keeps Hibernate from evicting every second-level cache region)
+     */
+    private Query rollupStatement(String sql) {
+        Query query = entityManager.createNativeQuery(sql);
+        query.unwrap(NativeQuery.class).addSynchronizedQuerySpace(ROLLUP_TABLE);
+        return query;
+    }
+}
@@ -0,0 +1,19 @@
+package com.asteritime.server.repository;
+
+import com.asteritime.common.model.TaskCategory;
+
+import java.util.Optional;
+
+/**
+ * Natural ID lookup fragment (mixed into TaskCategoryRepository)
+ *
+ * Resolves categories by (user, name) through Hibernate's natural ID API so repeated
+ * lookups are answered from the natural ID cache instead of the database.
+ */
+public interface TaskCategoryNaturalIdRepository {
+
+    /**
+     * Find category by natural ID (user + name)
+     */
+    Optional<TaskCategory> findByNaturalId(Long userId, String name);
+}
@@ -0,0 +1,27 @@
+package com.asteritime.server.repository;
+
+import com.asteritime.common.model.TaskCategory;
+import com.asteritime.common.model.User;
+import org.hibernate.Session;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Optional;
+
+/**
+ * Hibernate natural ID implementation of TaskCategoryNaturalIdRepository
+ */
+public class TaskCategoryNaturalIdRepositoryImpl implements TaskCategoryNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<TaskCategory> findByNaturalId(Long userId, String name) {
+        return entityManager.unwrap(Session.class)
+                .byNaturalId(TaskCategory.class)
+                .using("user", entityManager.getReference(User.class, userId))
+                .using("name", name)
+                .loadOptional();
+    }
+}
@@ -2,26 +2,25 @@ package com.asteritime.server.repository;
 
 import com.asteritime.common.model.TaskCategory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
+import javax.persistence.QueryHint;
 
+/**
+ * Task category repository
+ * 
+ * Lookups by ID go through JpaRepository#findById (second-level cache),
+ * lookups by (user, name) go through findByNaturalId (natural ID cache)
+ */
 @Repository
-public interface TaskCategoryRepository extends JpaRepository<TaskCategory, Long> {
+public interface TaskCategoryRepository extends JpaRepository<TaskCategory, Long>, TaskCategoryNaturalIdRepository {
     
     /**
      * Find all categories for a specific user
+     * Result is kept in the query cache (invalidated whenever the table changes)
      */
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     java.util.List<TaskCategory> findByUser_Id(Long userId);
-    
-    /**
-     * Find specific category for a specific user (for duplicate checking)
-     */
-    Optional<TaskCategory> findByUser_IdAndName(Long userId, String name);
-    
-    /**
-     * Find specific category for a specific user (by ID)
-     */
-    Optional<TaskCategory> findByIdAndUser_Id(Long id, Long userId);
 }
 
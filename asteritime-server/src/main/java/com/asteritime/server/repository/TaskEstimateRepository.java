@@ -0,0 +1,50 @@
+package com.asteritime.server.repository;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Planned-vs-actual statistics fragment (mixed into TaskRepository)
+ *
+ * Reads and updates task_estimate_stats / task_estimate_histograms, which are kept up to date
+ * by TaskEstimateService. All updates are single-row upserts, so concurrent writers never
+ * read-modify-write the same row in Java.
+ */
+public interface TaskEstimateRepository {
+
+    /**
+     * Read a user's statistics, one row per category with samples
+     */
+    List<CategoryEstimateStat> findEstimateStats(Long userId);
+
+    /**
+     * Read a user's ratio histograms
+     *
+     * @return Bucket counts per category ID (null key = uncategorized), arrays of the given length
+     */
+    Map<Long, long[]> findEstimateHistograms(Long userId, int buckets);
+
+    /**
+     * Merge a batch of samples into the Welford state of one category (requires an active transaction)
+     * Removals are merged as a batch with negative count and negative m2.
+     *
+     * @param categoryId Category ID, or null for uncategorized tasks
+     */
+    void mergeEstimateStats(Long userId, Long categoryId, long sampleCount, double meanRatio, double m2Ratio,
+                            long plannedMinutes, long actualMinutes);
+
+    /**
+     * Add to one histogram bucket, creating it if missing (requires an active transaction)
+     *
+     * @param categoryId Category ID, or null for uncategorized tasks
+     */
+    void addToEstimateBucket(Long userId, Long categoryId, int bucket, long sampleCount);
+
+    /**
+     * Recompute statistics and histograms from the tasks table (requires an active transaction)
+     *
+     * @param userId User ID, or null for all users
+     * @return Number of statistics rows written
+     */
+    int rebuildEstimates(Long userId);
+}
@@ -0,0 +1,186 @@
+package com.asteritime.server.repository;
+
+import org.hibernate.query.NativeQuery;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Native SQL implementation of TaskEstimateRepository
+ *
+ * category_id 0 stands for uncategorized tasks so it can be part of the primary key.
+ * Histogram bucket boundaries must match TaskEstimateService.bucketOf: ratios are computed
+ * in DOUBLE like in Java (integer / in MySQL yields a DECIMAL rounded to 4 places, which puts
+ * ratios near a bucket boundary into a different bucket than incremental updates).
+ */
+public class TaskEstimateRepositoryImpl implements TaskEstimateRepository {
+
+    private static final String STATS_TABLE = "task_estimate_stats";
+
+    private static final String HISTOGRAM_TABLE = "task_estimate_histograms";
+
+    private static final String FIND_STATS_SQL =
+            "SELECT NULLIF(s.category_id, 0), s.sample_count, s.mean_ratio, s.m2_ratio, "
+            + "s.planned_minutes, s.actual_minutes "
+            + "FROM task_estimate_stats s WHERE s.user_id = :userId AND s.sample_count > 0";
+
+    private static final String FIND_HISTOGRAMS_SQL =
+            "SELECT NULLIF(h.category_id, 0), h.bucket, h.sample_count "
+            + "FROM task_estimate_histograms h WHERE h.user_id = :userId AND h.sample_count > 0";
+
+    /**
+     * Chan's parallel merge of Welford states (n, mean, m2) + (count, mean, m2).
+     * MySQL evaluates the assignments left to right with already updated values,
+     * so m2 and mean are computed before sample_count changes.
+     */
+    private static final String MERGE_STATS_SQL =
+            "INSERT INTO task_estimate_stats "
+            + "(user_id, category_id, sample_count, mean_ratio, m2_ratio, planned_minutes, actual_minutes) "
+            + "VALUES (:userId, :categoryId, :sampleCount, :meanRatio, :m2Ratio, :plannedMinutes, :actualMinutes) "
+            + "ON DUPLICATE KEY UPDATE "
+            + "m2_ratio = IF(sample_count + VALUES(sample_count) <= 0, 0, GREATEST(m2_ratio + VALUES(m2_ratio) "
+            + "+ POW(VALUES(mean_ratio) - mean_ratio, 2) * sample_count * VALUES(sample_count) "
+            + "/ (sample_count + VALUES(sample_count)), 0)), "
+            + "mean_ratio = IF(sample_count + VALUES(sample_count) <= 0, 0, mean_ratio "
+            + "+ (VALUES(mean_ratio) - mean_ratio) * VALUES(sample_count) / (sample_count + VALUES(sample_count))), "
+            + "sample_count = sample_count + VALUES(sample_count), "
+            + "planned_minutes = planned_minutes + VALUES(planned_minutes), "
+            + "actual_minutes = actual_minutes + VALUES(actual_minutes)";
+
+    private static final String ADD_TO_BUCKET_SQL =
+            "INSERT INTO task_estimate_histograms (user_id, category_id, bucket, sample_count) "
+            + "VALUES (:userId, :categoryId, :bucket, :sampleCount) "
+            + "ON DUPLICATE KEY UPDATE sample_count = sample_count + VALUES(sample_count)";
+
+    /**
+     * DONE tasks with planned and actual durations (same selection as V8__task_estimate_stats.sql)
+     */
+    private static final String SAMPLES_SQL =
+            "(SELECT t.user_id, COALESCE(t.category_id, 0) AS category_id, "
+            + "TIMESTAMPDIFF(MINUTE, t.planned_start_time, t.planned_end_time) AS planned, "
+            + "TIMESTAMPDIFF(MINUTE, t.actual_start_time, t.actual_end_time) AS actual "
+            + "FROM tasks t WHERE t.status = 'DONE' AND t.planned_start_time IS NOT NULL %s) e "
+            + "WHERE e.planned > 0 AND e.actual > 0 ";
+
+    /**
+     * actual / planned as DOUBLE, the same value as Sample.ratio()
+     */
+    private static final String RATIO_SQL = "CAST(e.actual AS DOUBLE) / e.planned";
+
+    private static final String REBUILD_STATS_SQL =
+            "INSERT INTO task_estimate_stats "
+            + "(user_id, category_id, sample_count, mean_ratio, m2_ratio, planned_minutes, actual_minutes) "
+            + "SELECT e.user_id, e.category_id, COUNT(*), AVG(" + RATIO_SQL + "), "
+            + "VAR_POP(" + RATIO_SQL + ") * COUNT(*), SUM(e.planned), SUM(e.actual) "
+            + "FROM " + SAMPLES_SQL
+            + "GROUP BY e.user_id, e.category_id";
+
+    private static final String REBUILD_HISTOGRAMS_SQL =
+            "INSERT INTO task_estimate_histograms (user_id, category_id, bucket, sample_count) "
+            + "SELECT e.user_id, e.category_id, "
+            + "LEAST(GREATEST(FLOOR(LN(" + RATIO_SQL + " / 0.0625) / LN(1.05)) + 1, 0), 115) AS bucket, COUNT(*) "
+            + "FROM " + SAMPLES_SQL
+            + "GROUP BY e.user_id, e.category_id, bucket";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<CategoryEstimateStat> findEstimateStats(Long userId) {
+        List<Object[]> rows = entityManager.createNativeQuery(FIND_STATS_SQL)
+                .setParameter("userId", userId)
+                .getResultList();
+
+        List<CategoryEstimateStat> stats = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            stats.add(new CategoryEstimateStat(
+                    row[0] == null ? null : ((Number) row[0]).longValue(),
+                    ((Number) row[1]).longValue(),
+                    ((Number) row[2]).doubleValue(),
+                    ((Number) row[3]).doubleValue(),
+                    ((Number) row[4]).longValue(),
+                    ((Number) row[5]).longValue()));
+        }
+        return stats;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<Long, long[]> findEstimateHistograms(Long userId, int buckets) {
+        List<Object[]> rows = entityManager.createNativeQuery(FIND_HISTOGRAMS_SQL)
+                .setParameter("userId", userId)
+                .getResultList();
+
+        Map<Long, long[]> histograms = new HashMap<>();
+        for (Object[] row : rows) {
+            Long categoryId = row[0] == null ? null : ((Number) row[0]).longValue();
+            int bucket = ((Number) row[1]).intValue();
+            if (bucket >= 0 && bucket < buckets) {
+                histograms.computeIfAbsent(categoryId, id -> new long[buckets])[bucket] = ((Number) row[2]).longValue();
+            }
+        }
+        return histograms;
+    }
+
+    @Override
+    public void mergeEstimateStats(Long userId, Long categoryId, long sampleCount, double meanRatio, double m2Ratio,
+                                   long plannedMinutes, long actualMinutes) {
+        statement(MERGE_STATS_SQL, STATS_TABLE)
+                .setParameter("userId", userId)
+                .setParameter("categoryId", categoryId == null ? 0L : categoryId)
+                .setParameter("sampleCount", sampleCount)
+                .setParameter("meanRatio", meanRatio)
+                .setParameter("m2Ratio", m2Ratio)
+                .setParameter("plannedMinutes", plannedMinutes)
+                .setParameter("actualMinutes", actualMinutes)
+                .executeUpdate();
+    }
+
+    @Override
+    public void addToEstimateBucket(Long userId, Long categoryId, int bucket, long sampleCount) {
+        statement(ADD_TO_BUCKET_SQL, HISTOGRAM_TABLE)
+                .setParameter("userId", userId)
+                .setParameter("categoryId", categoryId == null ? 0L : categoryId)
+                .setParameter("bucket", bucket)
+                .setParameter("sampleCount", sampleCount)
+                .executeUpdate();
+    }
+
+    @Override
+    public int rebuildEstimates(Long userId) {
+        if (userId == null) {
+            statement("DELETE FROM task_estimate_stats", STATS_TABLE).executeUpdate();
+            statement("DELETE FROM task_estimate_histograms", HISTOGRAM_TABLE).executeUpdate();
+            statement(String.format(REBUILD_HISTOGRAMS_SQL, ""), HISTOGRAM_TABLE).executeUpdate();
+            return statement(String.format(REBUILD_STATS_SQL, ""), STATS_TABLE).executeUpdate();
+        }
+        statement("DELETE FROM task_estimate_stats WHERE user_id = :userId", STATS_TABLE)
+                .setParameter("userId", userId)
+                .executeUpdate();
+        statement("DELETE FROM task_estimate_histograms WHERE user_id = :userId", HISTOGRAM_TABLE)
+                .setParameter("userId", userId)
+                .executeUpdate();
+        statement(String.format(REBUILD_HISTOGRAMS_SQL, "AND t.user_id = :userId"), HISTOGRAM_TABLE)
+                .setParameter("userId", userId)
+                .executeUpdate();
+        return statement(String.format(REBUILD_STATS_SQL, "AND t.user_id = :userId"), STATS_TABLE)
+                .setParameter("userId", userId)
+                .executeUpdate();
+    }
+
+    /**
+     * Native statement that only touches the given table
+     * (declaring the query space keeps Hibernate from evicting every second-level cache region)
+     */
+    private Query statement(String sql, String table) {
+        Query query = entityManager.createNativeQuery(sql);
+        query.unwrap(NativeQuery.class).addSynchronizedQuerySpace(table);
+        return query;
+    }
+}
@@ -0,0 +1,224 @@
+package com.asteritime.server.repository;
+
+import com.asteritime.common.model.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Task query conditions
+ *
+ * Holds an arbitrary combination of task filters, the sort order and the row limit.
+ * Every condition is optional; unset conditions are simply not applied.
+ * Compiled into a single SQL statement by TaskQueryRepositoryImpl.
+ *
+ * Supported conditions:
+ *   - quadrants: Set of quadrants (1-4)
+ *   - statuses: Set of statuses
+ *   - categoryIds: Set of category IDs
+ *   - plannedStartFrom / plannedStartTo: Planned start time range (inclusive)
+ *   - actualStartFrom / actualStartTo: Actual start time range (inclusive)
+ *   - updatedSince: Only tasks updated at or after this time
+ *   - updatedAfterId: With updatedSince, only tasks strictly after (updatedSince, updatedAfterId)
+ *     in (updatedAt, id) order (change feed continuation)
+ */
+public class TaskQuery {
+
+    /**
+     * Maximum number of rows a single query may return
+     */
+    public static final int MAX_LIMIT = 1000;
+
+    /**
+     * Sortable fields (whitelist, request values are matched against these names)
+     */
+    public enum SortField {
+        CREATED_AT("createdAt"),
+        UPDATED_AT("updatedAt"),
+        PLANNED_START_TIME("plannedStartTime"),
+        PLANNED_END_TIME("plannedEndTime"),
+        ACTUAL_START_TIME("actualStartTime"),
+        ACTUAL_END_TIME("actualEndTime"),
+        QUADRANT("quadrant"),
+        TITLE("title");
+
+        private final String property;
+
+        SortField(String property) {
+            this.property = property;
+        }
+
+        public String getProperty() {
+            return property;
+        }
+
+        /**
+         * Resolve sort field by entity property name (case-insensitive)
+         *
+         * @throws IllegalArgumentException if field is not sortable
+         */
+        public static SortField fromProperty(String property) {
+            for (SortField field : values()) {
+                if (field.property.equalsIgnoreCase(property)) {
+                    return field;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported sort field: " + property);
+        }
+    }
+
+    private Set<Integer> quadrants = Collections.emptySet();
+    private Set<TaskStatus> statuses = Collections.emptySet();
+    private Set<Long> categoryIds = Collections.emptySet();
+    private LocalDateTime plannedStartFrom;
+    private LocalDateTime plannedStartTo;
+    private LocalDateTime actualStartFrom;
+    private LocalDateTime actualStartTo;
+    private LocalDateTime updatedSince;
+    private Long updatedAfterId;
+    private SortField sortField = SortField.CREATED_AT;
+    private boolean ascending = false;
+    private Integer limit;
+
+    /**
+     * Parse sort expression in "field" or "field,asc|desc" format (e.g., plannedStartTime,asc)
+     *
+     * @throws IllegalArgumentException if field or direction is not supported
+     */
+    public TaskQuery sort(String expression) {
+        if (expression == null || expression.trim().isEmpty()) {
+            return this;
+        }
+        String[] parts = expression.split(",");
+        this.sortField = SortField.fromProperty(parts[0].trim());
+        if (parts.length > 1) {
+            String direction = parts[1].trim().toLowerCase(Locale.ROOT);
+            if ("asc".equals(direction)) {
+                this.ascending = true;
+            } else if ("desc".equals(direction)) {
+                this.ascending = false;
+            } else {
+                throw new IllegalArgumentException("Unsupported sort direction: " + parts[1]);
+            }
+        }
+        return this;
+    }
+
+    public TaskQuery quadrants(Collection<Integer> quadrants) {
+        this.quadrants = toSet(quadrants);
+        return this;
+    }
+
+    public TaskQuery statuses(Collection<TaskStatus> statuses) {
+        this.statuses = statuses == null || statuses.isEmpty()
+                ? Collections.emptySet() : EnumSet.copyOf(statuses);
+        return this;
+    }
+
+    public TaskQuery categoryIds(Collection<Long> categoryIds) {
+        this.categoryIds = toSet(categoryIds);
+        return this;
+    }
+
+    public TaskQuery plannedStartBetween(LocalDateTime from, LocalDateTime to) {
+        this.plannedStartFrom = from;
+        this.plannedStartTo = to;
+        return this;
+    }
+
+    public TaskQuery actualStartBetween(LocalDateTime from, LocalDateTime to) {
+        this.actualStartFrom = from;
+        this.actualStartTo = to;
+        return this;
+    }
+
+    public TaskQuery updatedSince(LocalDateTime updatedSince) {
+        this.updatedSince = updatedSince;
+        this.updatedAfterId = null;
+        return this;
+    }
+
+    public TaskQuery updatedAfter(LocalDateTime updatedAt, Long id) {
+        this.updatedSince = updatedAt;
+        this.updatedAfterId = id;
+        return this;
+    }
+
+    public TaskQuery sort(SortField sortField, boolean ascending) {
+        this.sortField = sortField;
+        this.ascending = ascending;
+        return this;
+    }
+
+    /**
+     * Set row limit (capped at MAX_LIMIT, null means unlimited)
+     */
+    public TaskQuery limit(Integer limit) {
+        this.limit = limit == null ? null : Math.min(limit, MAX_LIMIT);
+        return this;
+    }
+
+    private static <T> Set<T> toSet(Collection<T> values) {
+        if (values == null || values.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<T> set = new LinkedHashSet<>(values);
+        set.remove(null);
+        return set;
+    }
+
+    // Getters
+
+    public Set<Integer> getQuadrants() {
+        return quadrants;
+    }
+
+    public Set<TaskStatus> getStatuses() {
+        return statuses;
+    }
+
+    public Set<Long> getCategoryIds() {
+        return categoryIds;
+    }
+
+    public LocalDateTime getPlannedStartFrom() {
+        return plannedStartFrom;
+    }
+
+    public LocalDateTime getPlannedStartTo() {
+        return plannedStartTo;
+    }
+
+    public LocalDateTime getActualStartFrom() {
+        return actualStartFrom;
+    }
+
+    public LocalDateTime getActualStartTo() {
+        return actualStartTo;
+    }
+
+    public LocalDateTime getUpdatedSince() {
+        return updatedSince;
+    }
+
+    public Long getUpdatedAfterId() {
+        return updatedAfterId;
+    }
+
+    public SortField getSortField() {
+        return sortField;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+}
@@ -0,0 +1,48 @@
+package com.asteritime.server.repository;
+
+import com.asteritime.common.model.Task;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Dynamic task query fragment (mixed into TaskRepository)
+ *
+ * Replaces one derived finder per filter combination with a single composable query.
+ */
+public interface TaskQueryRepository {
+
+    /**
+     * Find tasks for a specific user matching all conditions in query
+     *
+     * @param userId User ID (required)
+     * @param query Filter conditions, sort and row limit
+     * @return Matching tasks in requested order
+     */
+    List<Task> search(Long userId, TaskQuery query);
+
+    /**
+     * Find one keyset page of tasks ordered by (plannedStartTime, id) ascending
+     * Tasks without planned start time come first (MySQL sorts NULL first in ascending order)
+     *
+     * Note: Sort and limit in query are ignored, the page order is fixed so the keyset stays valid
+     *
+     * @param userId User ID (required)
+     * @param query Filter conditions
+     * @param afterPlannedStart Planned start time of the last task on the previous page (may be null)
+     * @param afterId ID of the last task on the previous page, or null for the first page
+     * @param limit Maximum number of tasks to return
+     * @return Tasks strictly after the given key
+     */
+    List<Task> searchAfter(Long userId, TaskQuery query, LocalDateTime afterPlannedStart, Long afterId, int limit);
+
+    /**
+     * Aggregate fingerprint of all tasks matching query (ignores sort and limit)
+     * Category and recurrence rule versions are included, since they are part of the task JSON
+     *
+     * @param userId User ID (required)
+     * @param query Filter conditions
+     * @return Count, version sum and latest update time of the matching tasks
+     */
+    ResultFingerprint fingerprint(Long userId, TaskQuery query);
+}
@@ -0,0 +1,167 @@
+package com.asteritime.server.repository;
+
+import com.asteritime.common.model.Task;
+import com.asteritime.common.model.TaskCategory;
+import com.asteritime.common.model.TaskRecurrenceRule;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JPA Criteria implementation of TaskQueryRepository
+ *
+ * All conditions are compiled into one SELECT; category and recurrence rule
+ * are fetch-joined so no follow-up selects are issued per row.
+ */
+public class TaskQueryRepositoryImpl implements TaskQueryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Task> search(Long userId, TaskQuery query) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Task> cq = cb.createQuery(Task.class);
+        Root<Task> task = cq.from(Task.class);
+        task.fetch("type", JoinType.LEFT);
+        task.fetch("recurrenceRule", JoinType.LEFT);
+
+        cq.select(task)
+                .where(buildPredicates(cb, task, userId, query).toArray(new Predicate[0]))
+                .orderBy(buildOrder(cb, task, query));
+
+        TypedQuery<Task> typedQuery = entityManager.createQuery(cq);
+        if (query.getLimit() != null) {
+            typedQuery.setMaxResults(query.getLimit());
+        }
+        return typedQuery.getResultList();
+    }
+
+    @Override
+    public ResultFingerprint fingerprint(Long userId, TaskQuery query) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ResultFingerprint> cq = cb.createQuery(ResultFingerprint.class);
+        Root<Task> task = cq.from(Task.class);
+        Join<Task, TaskCategory> type = task.join("type", JoinType.LEFT);
+        Join<Task, TaskRecurrenceRule> rule = task.join("recurrenceRule", JoinType.LEFT);
+
+        // SUM(t.version + COALESCE(c.version, 0) + COALESCE(r.version, 0))
+        Expression<Long> versions = cb.sum(cb.sum(task.<Long>get("version"),
+                cb.coalesce(type.<Long>get("version"), 0L)),
+                cb.coalesce(rule.<Long>get("version"), 0L));
+        cq.select(cb.construct(ResultFingerprint.class,
+                        cb.count(task),
+                        cb.sum(versions),
+                        cb.greatest(task.<LocalDateTime>get("updatedAt"))))
+                .where(buildPredicates(cb, task, userId, query).toArray(new Predicate[0]));
+
+        return entityManager.createQuery(cq).getSingleResult();
+    }
+
+    @Override
+    public List<Task> searchAfter(Long userId, TaskQuery query, LocalDateTime afterPlannedStart, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Task> cq = cb.createQuery(Task.class);
+        Root<Task> task = cq.from(Task.class);
+        task.fetch("type", JoinType.LEFT);
+        task.fetch("recurrenceRule", JoinType.LEFT);
+
+        List<Predicate> predicates = buildPredicates(cb, task, userId, query);
+        if (afterId != null) {
+            predicates.add(keysetPredicate(cb, task, afterPlannedStart, afterId));
+        }
+
+        Path<LocalDateTime> plannedStart = task.get("plannedStartTime");
+        cq.select(task)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.asc(plannedStart), cb.asc(task.get("id")));
+
+        return entityManager.createQuery(cq)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Rows strictly after (afterPlannedStart, afterId) in (plannedStartTime ASC NULLS FIRST, id ASC) order
+     */
+    private static Predicate keysetPredicate(CriteriaBuilder cb, Root<Task> task,
+                                             LocalDateTime afterPlannedStart, Long afterId) {
+        Path<LocalDateTime> plannedStart = task.get("plannedStartTime");
+        Path<Long> id = task.get("id");
+        if (afterPlannedStart == null) {
+            return cb.or(
+                    cb.and(cb.isNull(plannedStart), cb.greaterThan(id, afterId)),
+                    cb.isNotNull(plannedStart));
+        }
+        return cb.or(
+                cb.greaterThan(plannedStart, afterPlannedStart),
+                cb.and(cb.equal(plannedStart, afterPlannedStart), cb.greaterThan(id, afterId)));
+    }
+
+    /**
+     * Build WHERE predicates (user is always constrained, other conditions only when set)
+     */
+    static List<Predicate> buildPredicates(CriteriaBuilder cb, Root<Task> task, Long userId, TaskQuery query) {
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(task.get("user").get("id"), userId));
+
+        if (!query.getQuadrants().isEmpty()) {
+            predicates.add(task.get("quadrant").in(query.getQuadrants()));
+        }
+        if (!query.getStatuses().isEmpty()) {
+            predicates.add(task.get("status").in(query.getStatuses()));
+        }
+        if (!query.getCategoryIds().isEmpty()) {
+            predicates.add(task.get("type").get("id").in(query.getCategoryIds()));
+        }
+        addRange(cb, predicates, task.<LocalDateTime>get("plannedStartTime"),
+                query.getPlannedStartFrom(), query.getPlannedStartTo());
+        addRange(cb, predicates, task.<LocalDateTime>get("actualStartTime"),
+                query.getActualStartFrom(), query.getActualStartTo());
+        if (query.getUpdatedSince() != null && query.getUpdatedAfterId() != null) {
+            // updated_at > :t OR (updated_at = :t AND id > :id), a range on (user_id, updated_at, id)
+            Path<LocalDateTime> updatedAt = task.get("updatedAt");
+            predicates.add(cb.or(
+                    cb.greaterThan(updatedAt, query.getUpdatedSince()),
+                    cb.and(cb.equal(updatedAt, query.getUpdatedSince()),
+                            cb.greaterThan(task.<Long>get("id"), query.getUpdatedAfterId()))));
+        } else if (query.getUpdatedSince() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(task.<LocalDateTime>get("updatedAt"), query.getUpdatedSince()));
+        }
+        return predicates;
+    }
+
+    private static <T extends Comparable<? super T>> void addRange(CriteriaBuilder cb, List<Predicate> predicates,
+                                                                  Path<T> path, T from, T to) {
+        if (from != null) {
+            predicates.add(cb.greaterThanOrEqualTo(path, from));
+        }
+        if (to != null) {
+            predicates.add(cb.lessThanOrEqualTo(path, to));
+        }
+    }
+
+    /**
+     * Build ORDER BY (id is appended as tie-breaker so results are deterministic)
+     */
+    private static List<Order> buildOrder(CriteriaBuilder cb, Root<Task> task, TaskQuery query) {
+        List<Order> orders = new ArrayList<>();
+        Path<?> sortPath = task.get(query.getSortField().getProperty());
+        orders.add(query.isAscending() ? cb.asc(sortPath) : cb.desc(sortPath));
+        orders.add(query.isAscending() ? cb.asc(task.get("id")) : cb.desc(task.get("id")));
+        return orders;
+    }
+}
@@ -0,0 +1,19 @@
+package com.asteritime.server.repository;
+
+import com.asteritime.common.model.TaskRecurrenceRule;
+
+import java.util.Optional;
+
+/**
+ * Natural ID lookup fragment (mixed into TaskRecurrenceRuleRepository)
+ *
+ * Resolves recurrence rules by (user, frequencyExpression) through Hibernate's natural ID API
+ * so repeated lookups are answered from the natural ID cache instead of the database.
+ */
+public interface TaskRecurrenceRuleNaturalIdRepository {
+
+    /**
+     * Find recurrence rule by natural ID (user + frequency expression)
+     */
+    Optional<TaskRecurrenceRule> findByNaturalId(Long userId, String frequencyExpression);
+}
@@ -0,0 +1,27 @@
+package com.asteritime.server.repository;
+
+import com.asteritime.common.model.TaskRecurrenceRule;
+import com.asteritime.common.model.User;
+import org.hibernate.Session;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Optional;
+
+/**
+ * Hibernate natural ID implementation of TaskRecurrenceRuleNaturalIdRepository
+ */
+public class TaskRecurrenceRuleNaturalIdRepositoryImpl implements TaskRecurrenceRuleNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<TaskRecurrenceRule> findByNaturalId(Long userId, String frequencyExpression) {
+        return entityManager.unwrap(Session.class)
+                .byNaturalId(TaskRecurrenceRule.class)
+                .using("user", entityManager.getReference(User.class, userId))
+                .using("frequencyExpression", frequencyExpression)
+                .loadOptional();
+    }
+}
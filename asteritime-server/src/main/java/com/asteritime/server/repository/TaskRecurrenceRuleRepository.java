@@ -2,27 +2,26 @@ package com.asteritime.server.repository;
 
 import com.asteritime.common.model.TaskRecurrenceRule;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.util.List;
-import java.util.Optional;
 
+/**
+ * Task recurrence rule repository
+ * 
+ * Lookups by ID go through JpaRepository#findById (second-level cache),
+ * lookups by (user, frequencyExpression) go through findByNaturalId (natural ID cache)
+ */
 @Repository
-public interface TaskRecurrenceRuleRepository extends JpaRepository<TaskRecurrenceRule, Long> {
+public interface TaskRecurrenceRuleRepository extends JpaRepository<TaskRecurrenceRule, Long>, TaskRecurrenceRuleNaturalIdRepository {
     
     /**
      * Find all recurrence rules for a specific user
+     * Result is kept in the query cache (invalidated whenever the table changes)
      */
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<TaskRecurrenceRule> findByUser_Id(Long userId);
-    
-    /**
-     * Find specific recurrence rule for a specific user (for duplicate checking)
-     */
-    Optional<TaskRecurrenceRule> findByUser_IdAndFrequencyExpression(Long userId, String frequencyExpression);
-    
-    /**
-     * Find specific recurrence rule for a specific user (by ID)
-     */
-    Optional<TaskRecurrenceRule> findByIdAndUser_Id(Long id, Long userId);
 }
 
@@ -1,100 +1,59 @@
 package com.asteritime.server.repository;
 
 import com.asteritime.common.model.Task;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Task repository
+ *
+ * Note: Filtered list queries (quadrant/category/status/time range combinations)
+ * go through TaskQueryRepository#search instead of one derived finder per combination
+ * 
+ * Fetch plan: every read loads category and recurrence rule in the same statement
+ * (Task.withTypeAndRule entity graph), user is left as a lazy reference
+ */
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskQueryRepository, TaskAnalyticsRepository,
+        TaskEstimateRepository, ActivityDayRepository {
     
     /**
      * Find all tasks for a specific user
      */
+    @EntityGraph(Task.GRAPH_WITH_TYPE_AND_RULE)
     List<Task> findByUser_Id(Long userId);
     
     /**
      * Find specific task for a specific user
      */
+    @EntityGraph(Task.GRAPH_WITH_TYPE_AND_RULE)
     Optional<Task> findByIdAndUser_Id(Long id, Long userId);
     
     /**
-     * Find tasks by user + quadrant
+     * Find several tasks of a specific user by ID (tasks of other users are skipped)
      */
-    List<Task> findByUser_IdAndQuadrant(Long userId, Integer quadrant);
+    @EntityGraph(Task.GRAPH_WITH_TYPE_AND_RULE)
+    List<Task> findByIdInAndUser_Id(Collection<Long> ids, Long userId);
     
     /**
-     * Find tasks by user + category
+     * Check whether a task exists and belongs to a specific user
      */
-    List<Task> findByUser_IdAndType_Id(Long userId, Long categoryId);
+    boolean existsByIdAndUser_Id(Long id, Long userId);
     
     /**
-     * Find tasks by user + status
+     * Aggregate fingerprint of one task of a specific user (count is 0 if not found)
+     * Reads only version/update columns, used to answer conditional GETs without loading the task
      */
-    List<Task> findByUser_IdAndStatus(Long userId, String status);
-    
-    /**
-     * Find tasks by user + time range (based on planned start time)
-     */
-    List<Task> findByUser_IdAndPlannedStartTimeBetween(Long userId, LocalDateTime start, LocalDateTime end);
-    
-    /**
-     * Find tasks by user + quadrant + category
-     */
-    List<Task> findByUser_IdAndQuadrantAndType_Id(Long userId, Integer quadrant, Long categoryId);
-    
-    /**
-     * Find tasks by user + quadrant + status
-     */
-    List<Task> findByUser_IdAndQuadrantAndStatus(Long userId, Integer quadrant, String status);
-    
-    /**
-     * Find tasks by user + category + status
-     */
-    List<Task> findByUser_IdAndType_IdAndStatus(Long userId, Long categoryId, String status);
-    
-    /**
-     * Find tasks by user + quadrant + time range
-     */
-    List<Task> findByUser_IdAndQuadrantAndPlannedStartTimeBetween(Long userId, Integer quadrant, LocalDateTime start, LocalDateTime end);
-    
-    /**
-     * Find tasks by user + category + time range
-     */
-    List<Task> findByUser_IdAndType_IdAndPlannedStartTimeBetween(Long userId, Long categoryId, LocalDateTime start, LocalDateTime end);
-    
-    /**
-     * Find tasks by user + status + time range
-     */
-    List<Task> findByUser_IdAndStatusAndPlannedStartTimeBetween(Long userId, String status, LocalDateTime start, LocalDateTime end);
-    
-    /**
-     * Find tasks by user + quadrant + category + status
-     */
-    List<Task> findByUser_IdAndQuadrantAndType_IdAndStatus(Long userId, Integer quadrant, Long categoryId, String status);
-    
-    /**
-     * Find tasks by user + quadrant + status + time range
-     */
-    List<Task> findByUser_IdAndQuadrantAndStatusAndPlannedStartTimeBetween(Long userId, Integer quadrant, String status, LocalDateTime start, LocalDateTime end);
-    
-    /**
-     * Find tasks by user + category + status + time range
-     */
-    List<Task> findByUser_IdAndType_IdAndStatusAndPlannedStartTimeBetween(Long userId, Long categoryId, String status, LocalDateTime start, LocalDateTime end);
-    
-    /**
-     * Find tasks by user + quadrant + category + time range
-     */
-    List<Task> findByUser_IdAndQuadrantAndType_IdAndPlannedStartTimeBetween(Long userId, Integer quadrant, Long categoryId, LocalDateTime start, LocalDateTime end);
-    
-    /**
-     * Find tasks by user + quadrant + category + status + time range
-     */
-    List<Task> findByUser_IdAndQuadrantAndType_IdAndStatusAndPlannedStartTimeBetween(Long userId, Integer quadrant, Long categoryId, String status, LocalDateTime start, LocalDateTime end);
+    @Query("SELECT new com.asteritime.server.repository.ResultFingerprint("
+            + "COUNT(t), SUM(t.version + COALESCE(c.version, 0) + COALESCE(r.version, 0)), MAX(t.updatedAt)) "
+            + "FROM Task t LEFT JOIN t.type c LEFT JOIN t.recurrenceRule r "
+            + "WHERE t.id = :id AND t.user.id = :userId")
+    ResultFingerprint fingerprintByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
 }
-
-
@@ -0,0 +1,28 @@
+package com.asteritime.server.repository;
+
+import com.asteritime.common.model.TaskTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, Long> {
+
+    /**
+     * Find IDs of tasks deleted by a user at or after the given time
+     */
+    @Query("SELECT DISTINCT t.taskId FROM TaskTombstone t WHERE t.userId = :userId AND t.deletedAt >= :since")
+    List<Long> findDeletedTaskIdsSince(@Param("userId") Long userId, @Param("since") LocalDateTime since);
+
+    /**
+     * Purge tombstones older than the cutoff (bulk delete, no entities loaded)
+     */
+    @Modifying
+    @Query("DELETE FROM TaskTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
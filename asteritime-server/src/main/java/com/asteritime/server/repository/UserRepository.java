@@ -2,8 +2,12 @@ package com.asteritime.server.repository;
 
 import com.asteritime.common.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,6 +16,24 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
     Optional<User> findByEmailAndPassword(String email, String password);
+
+    /**
+     * Highest user ID (null if there are no users), used to partition batch jobs by ID range
+     */
+    @Query("SELECT MAX(u.id) FROM User u")
+    Long findMaxId();
+
+    /**
+     * IDs of users within an ID range (inclusive), without loading the entities
+     */
+    @Query("SELECT u.id FROM User u WHERE u.id BETWEEN :fromId AND :toId ORDER BY u.id")
+    List<Long> findIdsBetween(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    /**
+     * Registration time of a user, without loading the entity
+     */
+    @Query("SELECT u.createdAt FROM User u WHERE u.id = :id")
+    Optional<LocalDateTime> findCreatedAtById(@Param("id") Long id);
 }
 
 
@@ -0,0 +1,19 @@
+package com.asteritime.server.repository;
+
+import com.asteritime.common.model.WeeklyReportSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface WeeklyReportSnapshotRepository extends JpaRepository<WeeklyReportSnapshot, Long> {
+
+    /**
+     * Find the frozen report of a user's week (unique key lookup)
+     */
+    Optional<WeeklyReportSnapshot> findByUserIdAndWeekStart(Long userId, LocalDate weekStart);
+
+    boolean existsByUserIdAndWeekStart(Long userId, LocalDate weekStart);
+}
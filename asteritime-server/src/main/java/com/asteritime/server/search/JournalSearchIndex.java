@@ -0,0 +1,449 @@
+package com.asteritime.server.search;
+
+import com.asteritime.common.dto.JournalSearchResult;
+import com.asteritime.common.model.JournalEntry;
+import com.asteritime.server.repository.JournalEntryRepository;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.search.uhighlight.DefaultPassageFormatter;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Embedded full-text index of journal entries (title, contentText, evaluation), stored on local disk
+ *
+ * Partitioning: users are hashed onto a fixed number of Lucene indexes under index-dir
+ * (partition-N), every document also carries its user ID, so a search opens one partition
+ * and filters to one user. Changing the partition count requires a rebuild.
+ *
+ * Updates: JournalEntryService reports changed entries; a snapshot is taken right away and
+ * written on a single indexer thread after the transaction commits, so updates of the same
+ * entry are applied in commit order and never slow down the request. Searches see them after
+ * the next near-real-time refresh (refresh-interval-ms); the indexes are committed to disk
+ * every commit-interval-ms and on shutdown.
+ *
+ * The index only holds data derived from journal_entries: if it is lost or out of date
+ * (e.g. after a crash between commits) it is rebuilt with --rebuild-journal-search, see
+ * JournalSearchRebuildRunner. A missing index is rebuilt automatically at startup.
+ */
+@Component
+public class JournalSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(JournalSearchIndex.class);
+
+    /**
+     * Largest number of hits returned by one search
+     */
+    public static final int MAX_LIMIT = 100;
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private static final String ID = "id";
+    private static final String USER_ID = "userId";
+    private static final String DAY = "day";
+    private static final String TITLE = "title";
+    private static final String CONTENT = "content";
+    private static final String EVALUATION = "evaluation";
+
+    private static final String[] SNIPPET_FIELDS = {CONTENT, EVALUATION, TITLE};
+
+    private final Path indexDir;
+
+    private final Partition[] partitions;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+
+    private final ExecutorService indexer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "journal-search-indexer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private boolean created;
+
+    @Autowired
+    private JournalEntryRepository journalEntryRepository;
+
+    public JournalSearchIndex(PlatformTransactionManager transactionManager,
+                              @Value("${asteritime.search.index-dir:./data/search}") String indexDir,
+                              @Value("${asteritime.search.partitions:8}") int partitions) {
+        this.indexDir = Paths.get(indexDir);
+        this.partitions = new Partition[Math.max(1, partitions)];
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(indexDir);
+        for (int i = 0; i < partitions.length; i++) {
+            Directory directory = FSDirectory.open(indexDir.resolve("partition-" + i));
+            if (!DirectoryReader.indexExists(directory)) {
+                created = true;
+            }
+            IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+            IndexWriter writer = new IndexWriter(directory, config);
+            // Make a new partition visible on disk right away, so a restart does not see it as missing
+            writer.commit();
+            partitions[i] = new Partition(directory, writer, new SearcherManager(writer, null));
+        }
+        log.info("Opened journal search index at {} ({} partitions{})", indexDir.toAbsolutePath(),
+                partitions.length, created ? ", new" : "");
+    }
+
+    /**
+     * Whether at least one partition did not exist on disk when the index was opened
+     */
+    public boolean isCreated() {
+        return created;
+    }
+
+    /**
+     * Index the current title, text and date of an entry once the current transaction commits
+     * (immediately if none is active); values are captured now
+     */
+    public void indexAfterCommit(Long userId, JournalEntry entry) {
+        Document document = toDocument(entry.getId(), userId, entry.getDate(),
+                entry.getTitle(), entry.getContentText(), entry.getEvaluation());
+        String id = entry.getId().toString();
+        afterCommit(() -> submit(() -> partitionOf(userId).writer.updateDocument(new Term(ID, id), document)));
+    }
+
+    /**
+     * Remove an entry from the index once the current transaction commits
+     */
+    public void deleteAfterCommit(Long userId, Long entryId) {
+        String id = entryId.toString();
+        afterCommit(() -> submit(() -> partitionOf(userId).writer.deleteDocuments(new Term(ID, id))));
+    }
+
+    /**
+     * Ranked search over one user's entries
+     *
+     * Syntax: words must all match (title matches weigh double), "quoted phrases", -excluded,
+     * prefix*, a | b for either word.
+     *
+     * @param startDate First day (inclusive), null = unbounded
+     * @param endDate Last day (inclusive), null = unbounded
+     * @param limit Maximum number of hits (capped at MAX_LIMIT)
+     */
+    public JournalSearchResult search(Long userId, String text, LocalDate startDate, LocalDate endDate, int limit) {
+        long start = System.currentTimeMillis();
+        JournalSearchResult result = new JournalSearchResult();
+        result.setQuery(text);
+
+        Map<String, Float> weights = new LinkedHashMap<>();
+        weights.put(TITLE, 2f);
+        weights.put(CONTENT, 1f);
+        weights.put(EVALUATION, 1f);
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, weights);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query textQuery = parser.parse(text);
+
+        BooleanQuery.Builder builder = new BooleanQuery.Builder()
+                .add(textQuery, BooleanClause.Occur.MUST)
+                .add(LongPoint.newExactQuery(USER_ID, userId), BooleanClause.Occur.FILTER);
+        if (startDate != null || endDate != null) {
+            builder.add(LongPoint.newRangeQuery(DAY,
+                    startDate != null ? startDate.toEpochDay() : Long.MIN_VALUE,
+                    endDate != null ? endDate.toEpochDay() : Long.MAX_VALUE), BooleanClause.Occur.FILTER);
+        }
+        Query query = builder.build();
+
+        SearcherManager searcherManager = partitionOf(userId).searcherManager;
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs topDocs = searcher.search(query, Math.min(Math.max(limit, 1), MAX_LIMIT));
+                result.setTotalHits(topDocs.totalHits.relation == TotalHits.Relation.EQUAL_TO
+                        ? topDocs.totalHits.value : searcher.count(query));
+
+                UnifiedHighlighter highlighter = UnifiedHighlighter.builder(searcher, analyzer)
+                        .withFormatter(new DefaultPassageFormatter("<b>", "</b>", " ... ", true))
+                        .build();
+                Map<String, String[]> snippets = highlighter.highlightFields(
+                        SNIPPET_FIELDS, query, topDocs, new int[] {2, 1, 1});
+
+                ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+                for (int i = 0; i < scoreDocs.length; i++) {
+                    Document document = searcher.storedFields().document(scoreDocs[i].doc);
+                    JournalSearchResult.Hit hit = new JournalSearchResult.Hit();
+                    hit.setEntryId(Long.valueOf(document.get(ID)));
+                    hit.setDate(LocalDate.ofEpochDay(document.getField(DAY).numericValue().longValue()));
+                    hit.setTitle(document.get(TITLE));
+                    hit.setScore(scoreDocs[i].score);
+                    hit.setSnippet(snippet(snippets, i));
+                    result.getHits().add(hit);
+                }
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Journal search failed", e);
+        }
+        result.setTookMillis(System.currentTimeMillis() - start);
+        return result;
+    }
+
+    /**
+     * Rebuild the index of one user (or of all users if userId is null) from journal_entries
+     * Runs on the indexer thread, so updates reported meanwhile are applied after it
+     *
+     * @return Number of indexed entries
+     */
+    public long rebuild(Long userId) {
+        try {
+            return indexer.submit(() -> rebuildNow(userId)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while rebuilding the journal search index", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to rebuild the journal search index", e.getCause());
+        }
+    }
+
+    /**
+     * Start a rebuild of all users without waiting for it
+     */
+    public void rebuildInBackground() {
+        indexer.submit(() -> {
+            try {
+                rebuildNow(null);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Failed to rebuild the journal search index", e);
+            }
+        });
+    }
+
+    /**
+     * Make recent updates visible to searches (near-real-time, no disk commit)
+     */
+    @Scheduled(fixedDelayString = "${asteritime.search.refresh-interval-ms:1000}")
+    public void refresh() {
+        for (Partition partition : partitions) {
+            try {
+                partition.searcherManager.maybeRefresh();
+            } catch (IOException e) {
+                log.warn("Failed to refresh journal search partition", e);
+            }
+        }
+    }
+
+    /**
+     * Commit pending updates to disk
+     */
+    @Scheduled(fixedDelayString = "${asteritime.search.commit-interval-ms:60000}")
+    public void commit() {
+        for (Partition partition : partitions) {
+            try {
+                if (partition.writer.hasUncommittedChanges()) {
+                    partition.writer.commit();
+                }
+            } catch (IOException e) {
+                log.warn("Failed to commit journal search partition", e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        indexer.shutdown();
+        try {
+            if (!indexer.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Journal search indexer did not finish in time, pending updates are lost until the next rebuild");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Partition partition : partitions) {
+            if (partition == null) {
+                continue;
+            }
+            try {
+                partition.searcherManager.close();
+                // Commits pending updates
+                partition.writer.close();
+                partition.directory.close();
+            } catch (IOException e) {
+                log.warn("Failed to close journal search partition", e);
+            }
+        }
+    }
+
+    private long rebuildNow(Long userId) throws IOException {
+        long start = System.currentTimeMillis();
+        if (userId == null) {
+            for (Partition partition : partitions) {
+                partition.writer.deleteAll();
+            }
+        } else {
+            partitionOf(userId).writer.deleteDocuments(LongPoint.newExactQuery(USER_ID, userId));
+        }
+
+        long indexed = 0;
+        long afterId = 0;
+        while (true) {
+            long after = afterId;
+            List<Object[]> rows = readOnlyTransaction.execute(status -> journalEntryRepository.findSearchRowsAfter(
+                    userId, after, PageRequest.of(0, REBUILD_BATCH_SIZE)));
+            for (Object[] row : rows) {
+                Long entryId = (Long) row[0];
+                Long owner = (Long) row[1];
+                partitionOf(owner).writer.updateDocument(new Term(ID, entryId.toString()), toDocument(
+                        entryId, owner, (LocalDate) row[2], (String) row[3], (String) row[4], (String) row[5]));
+                afterId = entryId;
+            }
+            indexed += rows.size();
+            if (rows.size() < REBUILD_BATCH_SIZE) {
+                break;
+            }
+        }
+
+        for (Partition partition : partitions) {
+            partition.writer.commit();
+            partition.searcherManager.maybeRefresh();
+        }
+        log.info("Rebuilt journal search index for {}: {} entries in {} ms",
+                userId == null ? "all users" : "user " + userId, indexed, System.currentTimeMillis() - start);
+        return indexed;
+    }
+
+    private static Document toDocument(Long entryId, Long userId, LocalDate date,
+                                       String title, String content, String evaluation) {
+        Document document = new Document();
+        document.add(new StringField(ID, entryId.toString(), Field.Store.YES));
+        document.add(new LongPoint(USER_ID, userId));
+        document.add(new LongPoint(DAY, date.toEpochDay()));
+        document.add(new StoredField(DAY, date.toEpochDay()));
+        if (title != null) {
+            document.add(new TextField(TITLE, title, Field.Store.YES));
+        }
+        if (content != null) {
+            document.add(new TextField(CONTENT, content, Field.Store.YES));
+        }
+        if (evaluation != null) {
+            document.add(new TextField(EVALUATION, evaluation, Field.Store.YES));
+        }
+        return document;
+    }
+
+    /**
+     * First snippet that contains a match (content, then evaluation, then title), else the start of the text
+     */
+    private static String snippet(Map<String, String[]> snippets, int hit) {
+        String fallback = null;
+        for (String field : SNIPPET_FIELDS) {
+            String snippet = snippets.get(field)[hit];
+            if (snippet == null) {
+                continue;
+            }
+            if (snippet.contains("<b>")) {
+                return snippet;
+            }
+            if (fallback == null) {
+                fallback = snippet;
+            }
+        }
+        return fallback;
+    }
+
+    private void submit(IndexUpdate update) {
+        indexer.submit(() -> {
+            try {
+                update.apply();
+            } catch (IOException | RuntimeException e) {
+                log.warn("Failed to update journal search index (rebuild with --rebuild-journal-search)", e);
+            }
+        });
+    }
+
+    private Partition partitionOf(Long userId) {
+        return partitions[(int) Math.floorMod(userId, (long) partitions.length)];
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Write applied on the indexer thread
+     */
+    @FunctionalInterface
+    private interface IndexUpdate {
+        void apply() throws IOException;
+    }
+
+    /**
+     * One Lucene index with its writer and near-real-time searcher
+     */
+    private static final class Partition {
+        private final Directory directory;
+        private final IndexWriter writer;
+        private final SearcherManager searcherManager;
+
+        Partition(Directory directory, IndexWriter writer, SearcherManager searcherManager) {
+            this.directory = directory;
+            this.writer = writer;
+            this.searcherManager = searcherManager;
+        }
+    }
+}
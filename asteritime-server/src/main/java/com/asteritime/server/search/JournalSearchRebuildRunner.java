@@ -0,0 +1,39 @@
+package com.asteritime.server.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds the journal full-text index for all users at startup when requested
+ * 
+ * Usage: java -jar asteritime-server.jar --rebuild-journal-search
+ *        (or mvn spring-boot:run -Dspring-boot.run.arguments=--rebuild-journal-search)
+ * 
+ * A missing index (first start, deleted data directory) is rebuilt in the background without
+ * the option. Single users can be rebuilt at runtime with POST /api/journal-entries/search/rebuild.
+ */
+@Component
+public class JournalSearchRebuildRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(JournalSearchRebuildRunner.class);
+
+    static final String OPTION = "rebuild-journal-search";
+
+    @Autowired
+    private JournalSearchIndex journalSearchIndex;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (args.containsOption(OPTION)) {
+            long entries = journalSearchIndex.rebuild(null);
+            log.info("Rebuilt journal search index: {} entries", entries);
+        } else if (journalSearchIndex.isCreated()) {
+            log.info("Journal search index is new, building it in the background");
+            journalSearchIndex.rebuildInBackground();
+        }
+    }
+}
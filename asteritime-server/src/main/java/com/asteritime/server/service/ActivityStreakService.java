@@ -0,0 +1,253 @@
+package com.asteritime.server.service;
+
+import com.asteritime.common.dto.ActivityStreaks;
+import com.asteritime.server.repository.TaskRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Focus / task streaks from a per-user bitset of active days
+ *
+ * A day is active when it has journal focus minutes or a task completed on it (actual end time,
+ * or last update for tasks finished without one; see tasks.completed_on).
+ * Bit d (days since 1970-01-01) is persisted in activity_day_words (64 days per row):
+ *   - Activity added: the bit is set with an atomic OR in the writing transaction
+ *   - Activity removed: after commit the bit is cleared unless the day still has
+ *     focus minutes or completed tasks (one conditional UPDATE)
+ *
+ * Reads use an in-memory BitSet per user (a few KB for decades of history): streak
+ * boundaries are found with previousClearBit / nextClearBit, which skip whole 64-bit
+ * words, and the longest streak is kept up to date on every set bit, so it is only
+ * recomputed after a day of the longest run was cleared.
+ */
+@Service
+public class ActivityStreakService {
+
+    private static final Logger log = LoggerFactory.getLogger(ActivityStreakService.class);
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final Cache<Long, UserDays> users;
+
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TransactionTemplate newTransactionTemplate;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    public ActivityStreakService(PlatformTransactionManager transactionManager,
+                                 @Value("${asteritime.cache.streaks.max-users:50000}") long maxUsers) {
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .build();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Record that the activity of a day changed (focus minutes or completed tasks added if delta > 0, removed if < 0)
+     * Joins the current transaction; memory is updated once it commits.
+     */
+    public void recordActivity(Long userId, LocalDate date, long delta) {
+        if (date == null || delta == 0 || date.toEpochDay() < 0) {
+            return;
+        }
+        if (delta > 0) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                taskRepository.setActivityDay(userId, date);
+            } else {
+                transactionTemplate.executeWithoutResult(status -> taskRepository.setActivityDay(userId, date));
+            }
+            afterCommit(() -> update(userId, date, true));
+        } else {
+            afterCommit(() -> clearIfInactive(userId, date));
+        }
+    }
+
+    /**
+     * Get current and longest streak plus the per-day streaks of a month
+     *
+     * @param userId User ID
+     * @param month Month for monthStreaks (null = current month)
+     */
+    public ActivityStreaks getStreaks(Long userId, YearMonth month) {
+        LocalDate today = LocalDate.now();
+        YearMonth calendarMonth = month != null ? month : YearMonth.from(today);
+        UserDays days = load(userId);
+
+        ActivityStreaks streaks = new ActivityStreaks();
+        synchronized (days) {
+            int todayIndex = (int) today.toEpochDay();
+            streaks.setActiveToday(days.isActive(todayIndex));
+            int currentEnd = streaks.isActiveToday() ? todayIndex : todayIndex - 1;
+            int current = days.runEndingAt(currentEnd);
+            streaks.setCurrentStreak(current);
+            streaks.setCurrentStreakStart(current == 0 ? null : LocalDate.ofEpochDay(currentEnd - current + 1));
+
+            days.ensureLongest();
+            streaks.setLongestStreak(days.longest);
+            if (days.longest > 0) {
+                streaks.setLongestStreakStart(LocalDate.ofEpochDay(days.longestEnd - days.longest + 1));
+                streaks.setLongestStreakEnd(LocalDate.ofEpochDay(days.longestEnd));
+            }
+            streaks.setTotalActiveDays(days.bits.cardinality());
+
+            int first = (int) calendarMonth.atDay(1).toEpochDay();
+            int[] monthStreaks = new int[calendarMonth.lengthOfMonth()];
+            int run = days.runEndingAt(first - 1);
+            int active = 0;
+            for (int i = 0; i < monthStreaks.length; i++) {
+                run = days.isActive(first + i) ? run + 1 : 0;
+                monthStreaks[i] = run;
+                if (run > 0) {
+                    active++;
+                }
+            }
+            streaks.setMonth(calendarMonth.toString());
+            streaks.setMonthActiveDays(active);
+            streaks.setMonthStreaks(monthStreaks);
+        }
+        return streaks;
+    }
+
+    private UserDays load(Long userId) {
+        long generation = generations.get(stripe(userId));
+        UserDays days = users.get(userId, id -> new UserDays(BitSet.valueOf(taskRepository.findActivityWords(id))));
+        if (generations.get(stripe(userId)) != generation) {
+            // A change committed while loading: the bits may miss it, keep them out of the cache
+            users.invalidate(userId);
+        }
+        return days;
+    }
+
+    private void clearIfInactive(Long userId, LocalDate date) {
+        try {
+            Boolean inactive = newTransactionTemplate.execute(
+                    status -> taskRepository.clearActivityDayIfInactive(userId, date));
+            update(userId, date, !Boolean.TRUE.equals(inactive));
+        } catch (RuntimeException e) {
+            log.warn("Failed to recheck activity of user {} on {}", userId, date, e);
+            generations.incrementAndGet(stripe(userId));
+            users.invalidate(userId);
+        }
+    }
+
+    private void update(Long userId, LocalDate date, boolean active) {
+        generations.incrementAndGet(stripe(userId));
+        UserDays days = users.getIfPresent(userId);
+        if (days == null) {
+            return;
+        }
+        synchronized (days) {
+            if (active) {
+                days.set((int) date.toEpochDay());
+            } else {
+                days.clear((int) date.toEpochDay());
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static int stripe(Long userId) {
+        return (int) Math.floorMod(userId, (long) GENERATION_STRIPES);
+    }
+
+    /**
+     * Active days of one user (bit = days since epoch) and the cached longest run
+     * (guarded by synchronizing on the instance)
+     */
+    static final class UserDays {
+        private final BitSet bits;
+        private int longest;
+        private int longestEnd;
+        private boolean longestValid;
+
+        UserDays(BitSet bits) {
+            this.bits = bits;
+        }
+
+        boolean isActive(int day) {
+            return day >= 0 && bits.get(day);
+        }
+
+        /**
+         * Length of the run of active days ending on day (0 if day is inactive)
+         */
+        int runEndingAt(int day) {
+            if (!isActive(day)) {
+                return 0;
+            }
+            return day - bits.previousClearBit(day);
+        }
+
+        void set(int day) {
+            bits.set(day);
+            if (longestValid) {
+                int end = bits.nextClearBit(day) - 1;
+                int length = runEndingAt(end);
+                if (length > longest) {
+                    longest = length;
+                    longestEnd = end;
+                }
+            }
+        }
+
+        void clear(int day) {
+            bits.clear(day);
+            if (longestValid && day <= longestEnd && day > longestEnd - longest) {
+                longestValid = false;
+            }
+        }
+
+        /**
+         * Recompute the longest run if a clear invalidated it (one pass over the set runs)
+         */
+        void ensureLongest() {
+            if (longestValid) {
+                return;
+            }
+            longest = 0;
+            longestEnd = 0;
+            for (int start = bits.nextSetBit(0); start >= 0; ) {
+                int end = bits.nextClearBit(start);
+                if (end - start > longest) {
+                    longest = end - start;
+                    longestEnd = end - 1;
+                }
+                start = bits.nextSetBit(end);
+            }
+            longestValid = true;
+        }
+    }
+}
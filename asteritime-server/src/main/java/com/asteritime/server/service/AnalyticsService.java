@@ -0,0 +1,220 @@
+package com.asteritime.server.service;
+
+import com.asteritime.common.dto.ActivityHeatmap;
+import com.asteritime.common.dto.AnalyticsReport;
+import com.asteritime.common.model.TaskCategory;
+import com.asteritime.common.model.TaskStatus;
+import com.asteritime.server.cache.ActivityHeatmapCache;
+import com.asteritime.server.repository.DailyTaskStat;
+import com.asteritime.server.repository.FocusSessionRepository;
+import com.asteritime.server.repository.JournalEntryRepository;
+import com.asteritime.server.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Analytics aggregation (daily / weekly / custom range reports)
+ *
+ * Task statistics are read from daily_task_rollups (see TaskRollupService), so a report
+ * reads at most days x quadrants x categories x statuses small rows instead of raw tasks;
+ * this service only folds them into the report series.
+ * Yearly heatmaps are served from ActivityHeatmapCache and only read the database on a miss.
+ */
+@Service
+@Transactional(readOnly = true)
+public class AnalyticsService {
+
+    /**
+     * Longest range a single report may cover (days)
+     */
+    public static final int MAX_RANGE_DAYS = 366;
+
+    private static final String UNCATEGORIZED = "Uncategorized";
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JournalEntryRepository journalEntryRepository;
+
+    @Autowired
+    private FocusSessionRepository focusSessionRepository;
+
+    @Autowired
+    private TaskCategoryService taskCategoryService;
+
+    @Autowired
+    private ActivityHeatmapCache activityHeatmapCache;
+
+    /**
+     * Build analytics report for a user and date range
+     *
+     * @param userId User ID
+     * @param startDate First day (inclusive)
+     * @param endDate Last day (inclusive)
+     * @return Aggregated report
+     * @throws IllegalArgumentException if range is reversed or longer than MAX_RANGE_DAYS
+     */
+    public AnalyticsReport buildReport(Long userId, LocalDate startDate, LocalDate endDate) {
+        long days = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        if (days < 1) {
+            throw new IllegalArgumentException("endDate must not be before startDate");
+        }
+        if (days > MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Range must not exceed " + MAX_RANGE_DAYS + " days");
+        }
+
+        AnalyticsReport report = new AnalyticsReport(startDate, endDate);
+        Map<LocalDate, AnalyticsReport.DayStat> dayStats = new LinkedHashMap<>();
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            dayStats.put(day, new AnalyticsReport.DayStat(day));
+        }
+
+        addTaskStats(report, dayStats, userId, taskRepository.aggregateByDay(userId, startDate, endDate));
+        addFocusStats(report, dayStats, userId, startDate, endDate);
+        addMoodStats(report, userId, startDate, endDate);
+
+        report.setDays(new ArrayList<>(dayStats.values()));
+        return report;
+    }
+
+    /**
+     * Get focus minutes and completed tasks per day of a calendar year
+     * No transaction is opened for cached years; a miss reads the year's completed tasks and journal day sums
+     *
+     * @param userId User ID
+     * @param year Calendar year
+     * @return Heatmap arrays indexed by day of year - 1
+     * @throws IllegalArgumentException if year is outside 1970-9999
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public ActivityHeatmap getHeatmap(Long userId, int year) {
+        if (year < 1970 || year > 9999) {
+            throw new IllegalArgumentException("year must be between 1970 and 9999");
+        }
+        return activityHeatmapCache.get(userId, year, activity -> {
+            LocalDate firstDay = LocalDate.of(year, 1, 1);
+            LocalDate lastDay = LocalDate.of(year, 12, 31);
+            taskRepository.countCompletedByDay(userId, firstDay, lastDay).forEach(activity::addCompletedTasks);
+            for (Object[] row : journalEntryRepository.sumFocusMinutesByDate(userId, firstDay, lastDay)) {
+                activity.addFocusMinutes((LocalDate) row[0], ((Number) row[1]).longValue());
+            }
+        });
+    }
+
+    private void addTaskStats(AnalyticsReport report, Map<LocalDate, AnalyticsReport.DayStat> dayStats,
+                              Long userId, List<DailyTaskStat> rows) {
+        Map<TaskStatus, AnalyticsReport.StatusStat> statusStats = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            statusStats.put(status, new AnalyticsReport.StatusStat(status));
+        }
+        AnalyticsReport.QuadrantStat[] quadrantStats = new AnalyticsReport.QuadrantStat[4];
+        for (int i = 0; i < quadrantStats.length; i++) {
+            quadrantStats[i] = new AnalyticsReport.QuadrantStat(i + 1);
+        }
+        Map<Long, AnalyticsReport.CategoryStat> categoryStats = new HashMap<>();
+        Map<Long, String> categoryNames = null;
+
+        for (DailyTaskStat row : rows) {
+            boolean done = row.getStatus() == TaskStatus.DONE;
+            boolean active = row.getStatus() != TaskStatus.DELAY && row.getStatus() != TaskStatus.CANCEL;
+
+            AnalyticsReport.DayStat day = dayStats.get(row.getDate());
+            if (day != null) {
+                day.setTaskCount(day.getTaskCount() + row.getTaskCount());
+                if (done) {
+                    day.setDoneCount(day.getDoneCount() + row.getTaskCount());
+                }
+                if (active) {
+                    day.setPlannedMinutes(day.getPlannedMinutes() + row.getPlannedMinutes());
+                }
+            }
+
+            if (done) {
+                report.setDriftMinutes(report.getDriftMinutes() + row.getActualMinutes() - row.getPlannedMinutes());
+            }
+
+            AnalyticsReport.StatusStat status = statusStats.get(row.getStatus());
+            status.setCount(status.getCount() + row.getTaskCount());
+            status.setPlannedMinutes(status.getPlannedMinutes() + row.getPlannedMinutes());
+            status.setActualMinutes(status.getActualMinutes() + row.getActualMinutes());
+
+            if (row.getQuadrant() >= 1 && row.getQuadrant() <= 4) {
+                AnalyticsReport.QuadrantStat quadrant = quadrantStats[row.getQuadrant() - 1];
+                quadrant.setTotal(quadrant.getTotal() + row.getTaskCount());
+                if (done) {
+                    quadrant.setDone(quadrant.getDone() + row.getTaskCount());
+                }
+            }
+
+            if (active) {
+                if (categoryNames == null) {
+                    categoryNames = loadCategoryNames(userId);
+                }
+                Map<Long, String> names = categoryNames;
+                AnalyticsReport.CategoryStat category = categoryStats.computeIfAbsent(row.getCategoryId(),
+                        id -> new AnalyticsReport.CategoryStat(id, id == null ? UNCATEGORIZED
+                                : names.getOrDefault(id, UNCATEGORIZED)));
+                category.setTaskCount(category.getTaskCount() + row.getTaskCount());
+                if (done) {
+                    category.setDoneCount(category.getDoneCount() + row.getTaskCount());
+                }
+                category.setPlannedMinutes(category.getPlannedMinutes() + row.getPlannedMinutes());
+                category.setActualMinutes(category.getActualMinutes() + row.getActualMinutes());
+            }
+        }
+
+        List<AnalyticsReport.CategoryStat> categories = new ArrayList<>(categoryStats.values());
+        categories.sort(Comparator.comparingLong(AnalyticsReport.CategoryStat::getPlannedMinutes).reversed());
+
+        report.setStatusSummary(new ArrayList<>(statusStats.values()));
+        report.setCompletionByQuadrant(List.of(quadrantStats));
+        report.setDurationByCategory(categories);
+    }
+
+    private void addFocusStats(AnalyticsReport report, Map<LocalDate, AnalyticsReport.DayStat> dayStats,
+                               Long userId, LocalDate startDate, LocalDate endDate) {
+        long total = 0;
+        for (Object[] row : journalEntryRepository.sumFocusMinutesByDate(userId, startDate, endDate)) {
+            long minutes = ((Number) row[1]).longValue();
+            AnalyticsReport.DayStat day = dayStats.get((LocalDate) row[0]);
+            if (day != null) {
+                day.setFocusMinutes(minutes);
+            }
+            total += minutes;
+        }
+        report.setTotalFocusMinutes(total);
+
+        // Hour of day comes from recorded sessions; journal totals carry no time of day
+        report.setFocusByHour(focusSessionRepository.sumMinutesByHourOfDay(userId,
+                startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay()));
+    }
+
+    private void addMoodStats(AnalyticsReport report, Long userId, LocalDate startDate, LocalDate endDate) {
+        Map<String, Long> moods = new LinkedHashMap<>();
+        for (Object[] row : journalEntryRepository.countMoodsByDate(userId, startDate, endDate)) {
+            moods.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        report.setMoodDistribution(moods);
+    }
+
+    private Map<Long, String> loadCategoryNames(Long userId) {
+        Map<Long, String> names = new HashMap<>();
+        for (TaskCategory category : taskCategoryService.findAllByUserId(userId)) {
+            names.put(category.getId(), category.getName());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,128 @@
+package com.asteritime.server.service;
+
+import com.asteritime.common.dto.FocusHourBucket;
+import com.asteritime.common.model.FocusSession;
+import com.asteritime.server.repository.FocusSessionRepository;
+import com.asteritime.server.repository.TaskRepository;
+import com.asteritime.server.stream.ChangeStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Focus session recording
+ *
+ * Every completed Pomodoro is appended to focus_sessions and its minutes are spread over the
+ * clock hours it overlapped in focus_hour_buckets. Both writes are inserts or additive upserts,
+ * so concurrent completions of the same user never conflict and need no retry.
+ * The day's journal total is still maintained for the journal views.
+ * Writes go through FocusWriteBuffer; sessions and buckets become visible after the next flush,
+ * totals read through getTotalFocusMinutes include buffered and in-flight minutes immediately.
+ */
+@Service
+@Transactional(isolation = Isolation.READ_COMMITTED)
+public class FocusSessionService {
+
+    /**
+     * Longest session accepted (minutes)
+     */
+    public static final int MAX_SESSION_MINUTES = 24 * 60;
+
+    @Autowired
+    private FocusSessionRepository focusSessionRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JournalEntryService journalEntryService;
+
+    @Autowired
+    private FocusWriteBuffer focusWriteBuffer;
+
+    @Autowired
+    private ChangeStream changeStream;
+
+    /**
+     * Record a completed focus session and add its minutes to the journal of the given date
+     * The session is buffered and written within one flush interval (see FocusWriteBuffer);
+     * no database access happens here unless a task is given.
+     *
+     * @param date Journal date the minutes are credited to
+     * @param minutes Focused minutes
+     * @param startedAt Session start (optional, defaults to endedAt - minutes)
+     * @param endedAt Session end (optional, defaults to now)
+     * @param taskId Task worked on (optional, must belong to the user)
+     * @throws IllegalArgumentException if minutes, times or task are invalid
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void recordSession(Long userId, LocalDate date, int minutes,
+                              LocalDateTime startedAt, LocalDateTime endedAt, Long taskId) {
+        if (minutes <= 0 || minutes > MAX_SESSION_MINUTES) {
+            throw new IllegalArgumentException("focusMinutes must be between 1 and " + MAX_SESSION_MINUTES);
+        }
+        LocalDateTime end = endedAt != null ? endedAt : LocalDateTime.now();
+        LocalDateTime start = startedAt != null ? startedAt : end.minusMinutes(minutes);
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("endTime must not be before startTime");
+        }
+        if (Duration.between(start, end).toMinutes() > MAX_SESSION_MINUTES) {
+            throw new IllegalArgumentException("Session must not exceed " + MAX_SESSION_MINUTES + " minutes");
+        }
+        if (taskId != null && !taskRepository.existsByIdAndUser_Id(taskId, userId)) {
+            throw new IllegalArgumentException("Task not found: " + taskId);
+        }
+
+        focusWriteBuffer.add(date, new FocusSession(userId, taskId, start, end, minutes));
+        changeStream.publishFocusMinutesAfterCommit(userId, date, minutes);
+    }
+
+    /**
+     * Get total focus minutes for a date, including minutes still in the write buffer
+     */
+    @Transactional(readOnly = true)
+    public int getTotalFocusMinutes(Long userId, LocalDate date) {
+        return focusWriteBuffer.totalMinutes(userId, date,
+                () -> journalEntryService.getTotalFocusMinutes(userId, date));
+    }
+
+    /**
+     * Find sessions of a user started within [from, to] (ordered by start time)
+     *
+     * @throws IllegalArgumentException if range is reversed or longer than AnalyticsService.MAX_RANGE_DAYS
+     */
+    @Transactional(readOnly = true)
+    public List<FocusSession> findSessions(Long userId, LocalDateTime from, LocalDateTime to) {
+        checkRange(from, to);
+        return focusSessionRepository.findByUserIdAndStartedAtBetweenOrderByStartedAtAsc(userId, from, to);
+    }
+
+    /**
+     * Find non-empty hour buckets of a user for a date range (inclusive)
+     *
+     * @throws IllegalArgumentException if range is reversed or longer than AnalyticsService.MAX_RANGE_DAYS
+     */
+    @Transactional(readOnly = true)
+    public List<FocusHourBucket> findHourBuckets(Long userId, LocalDate startDate, LocalDate endDate) {
+        checkRange(startDate.atStartOfDay(), endDate.atStartOfDay());
+        return focusSessionRepository.findHourBuckets(userId, startDate.atStartOfDay(),
+                endDate.plusDays(1).atStartOfDay());
+    }
+
+    private static void checkRange(LocalDateTime from, LocalDateTime to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("End must not be before start");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= AnalyticsService.MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Range must not exceed " + AnalyticsService.MAX_RANGE_DAYS + " days");
+        }
+    }
+}
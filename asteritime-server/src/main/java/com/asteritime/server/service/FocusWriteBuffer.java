@@ -0,0 +1,341 @@
+package com.asteritime.server.service;
+
+import com.asteritime.common.model.FocusSession;
+import com.asteritime.server.repository.FocusSessionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntSupplier;
+
+/**
+ * Write-behind buffer for focus sessions
+ *
+ * Completed Pomodoros are accumulated in memory per (user, journal date) and written in one
+ * transaction per key: the session rows, one additive upsert per touched hour bucket and one
+ * atomic journal increment. Recording a session is therefore an in-memory operation.
+ *
+ * Flushing:
+ *   - Every flush interval (asteritime.focus.flush-interval-ms)
+ *   - As soon as a key holds flush-threshold-minutes, on focusFlushExecutor (one thread, never
+ *     the caller; if its queue is full the scheduled flush picks the key up)
+ *   - On graceful shutdown (@PreDestroy); a crash loses at most one flush interval
+ * A failed write is put back into the buffer and retried on the next flush.
+ *
+ * Minutes taken out of the buffer stay counted as in flight until their transaction has
+ * committed, so totals read through totalMinutes never miss them. Moving minutes into flight,
+ * committing and clearing them hold a striped write lock that totalMinutes takes for reading
+ * around the database read, so a total counts each flushed minute exactly once.
+ *
+ * Keys are only mutated inside ConcurrentHashMap.compute / merge / remove, which lock a
+ * single bin, so concurrent increments of different users never contend.
+ */
+@Component
+public class FocusWriteBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(FocusWriteBuffer.class);
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final Map<FocusKey, PendingFocus> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Minutes removed from pending whose write has not committed yet
+     */
+    private final Map<FocusKey, Integer> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Keys with a threshold flush queued on the executor
+     */
+    private final Set<FocusKey> flushQueued = ConcurrentHashMap.newKeySet();
+
+    private final ReentrantReadWriteLock[] commitLocks = new ReentrantReadWriteLock[LOCK_STRIPES];
+
+    private final int flushThresholdMinutes;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Executor executor;
+
+    @Autowired
+    private FocusSessionRepository focusSessionRepository;
+
+    @Autowired
+    private JournalEntryService journalEntryService;
+
+    public FocusWriteBuffer(PlatformTransactionManager transactionManager,
+                            @Qualifier("focusFlushExecutor") Executor executor,
+                            @Value("${asteritime.focus.flush-threshold-minutes:120}") int flushThresholdMinutes) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+        this.flushThresholdMinutes = flushThresholdMinutes;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            commitLocks[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    /**
+     * Buffer a completed session credited to the journal of the given date
+     */
+    public void add(LocalDate date, FocusSession session) {
+        FocusKey key = new FocusKey(session.getUserId(), date);
+        PendingFocus merged = pending.compute(key, (k, current) -> {
+            PendingFocus target = current == null ? new PendingFocus() : current;
+            target.add(session);
+            return target;
+        });
+        if (merged.minutes >= flushThresholdMinutes && flushQueued.add(key)) {
+            try {
+                executor.execute(() -> {
+                    flushQueued.remove(key);
+                    flush(key);
+                });
+            } catch (RejectedExecutionException e) {
+                flushQueued.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Focus minutes of a user and date: committed ones plus those buffered or being written
+     *
+     * @param committedMinutes Reads the committed minutes from the database (READ COMMITTED)
+     */
+    public int totalMinutes(Long userId, LocalDate date, IntSupplier committedMinutes) {
+        FocusKey key = new FocusKey(userId, date);
+        ReentrantReadWriteLock.ReadLock lock = lockOf(key).readLock();
+        lock.lock();
+        try {
+            PendingFocus buffered = pending.get(key);
+            return committedMinutes.getAsInt()
+                    + inFlight.getOrDefault(key, 0)
+                    + (buffered == null ? 0 : buffered.minutes);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Write all buffered sessions (runs every flush interval)
+     */
+    @Scheduled(fixedDelayString = "${asteritime.focus.flush-interval-ms:5000}")
+    public void flushAll() {
+        for (FocusKey key : pending.keySet()) {
+            flush(key);
+        }
+    }
+
+    /**
+     * Write remaining sessions before the application context closes
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushAll();
+        if (!pending.isEmpty()) {
+            log.error("Focus sessions of {} user-days could not be written before shutdown", pending.size());
+        }
+    }
+
+    private void flush(FocusKey key) {
+        ReentrantReadWriteLock.WriteLock lock = lockOf(key).writeLock();
+        PendingFocus buffered;
+        lock.lock();
+        try {
+            // remove() is atomic with add(), later sessions start a new buffer
+            buffered = pending.remove(key);
+            if (buffered == null) {
+                return;
+            }
+            inFlight.merge(key, buffered.minutes, Integer::sum);
+        } finally {
+            lock.unlock();
+        }
+
+        boolean[] committed = new boolean[1];
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                write(key, buffered);
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void beforeCommit(boolean readOnly) {
+                        lock.lock();
+                    }
+
+                    @Override
+                    public void afterCompletion(int completion) {
+                        if (!lock.isHeldByCurrentThread()) {
+                            return;
+                        }
+                        try {
+                            if (completion == STATUS_COMMITTED) {
+                                committed[0] = true;
+                                removeInFlight(key, buffered.minutes);
+                            }
+                        } finally {
+                            lock.unlock();
+                        }
+                    }
+                });
+            });
+        } catch (RuntimeException e) {
+            if (committed[0]) {
+                log.warn("Focus minutes of user {} on {} were written, but the flush failed afterwards",
+                        key.userId, key.date, e);
+                return;
+            }
+            log.warn("Failed to write {} focus minutes of user {} on {}, retrying on next flush",
+                    buffered.minutes, key.userId, key.date, e);
+            lock.lock();
+            try {
+                removeInFlight(key, buffered.minutes);
+                pending.merge(key, buffered.copy(), PendingFocus::absorb);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void removeInFlight(FocusKey key, int minutes) {
+        inFlight.computeIfPresent(key, (k, current) -> current == minutes ? null : current - minutes);
+    }
+
+    private ReentrantReadWriteLock lockOf(FocusKey key) {
+        return commitLocks[Math.floorMod(key.hashCode(), LOCK_STRIPES)];
+    }
+
+    private void write(FocusKey key, PendingFocus buffered) {
+        focusSessionRepository.saveAll(buffered.sessions);
+
+        Map<LocalDateTime, long[]> buckets = new TreeMap<>();
+        for (FocusSession session : buffered.sessions) {
+            spreadOverHours(buckets, session);
+        }
+        for (Map.Entry<LocalDateTime, long[]> bucket : buckets.entrySet()) {
+            focusSessionRepository.addToHourBucket(key.userId, bucket.getKey(),
+                    bucket.getValue()[0], bucket.getValue()[1]);
+        }
+
+        journalEntryService.addFocusMinutes(key.userId, key.date, buffered.minutes);
+    }
+
+    /**
+     * Spread the minutes of a session over the clock hours it overlapped, proportionally to the
+     * overlap; rounding is cumulative so the parts always add up to the session minutes.
+     * Each overlapped hour counts the session once.
+     */
+    static void spreadOverHours(Map<LocalDateTime, long[]> buckets, FocusSession session) {
+        LocalDateTime start = session.getStartedAt();
+        LocalDateTime end = session.getEndedAt();
+        int minutes = session.getMinutes();
+        LocalDateTime hour = start.truncatedTo(ChronoUnit.HOURS);
+        long totalSeconds = Duration.between(start, end).getSeconds();
+        if (totalSeconds == 0) {
+            addToBucket(buckets, hour, minutes);
+            return;
+        }
+
+        long coveredSeconds = 0;
+        long assigned = 0;
+        while (hour.isBefore(end)) {
+            LocalDateTime next = hour.plusHours(1);
+            LocalDateTime from = start.isAfter(hour) ? start : hour;
+            LocalDateTime to = end.isBefore(next) ? end : next;
+            coveredSeconds += Duration.between(from, to).getSeconds();
+            long cumulative = Math.round((double) minutes * coveredSeconds / totalSeconds);
+            addToBucket(buckets, hour, cumulative - assigned);
+            assigned = cumulative;
+            hour = next;
+        }
+    }
+
+    private static void addToBucket(Map<LocalDateTime, long[]> buckets, LocalDateTime hour, long minutes) {
+        long[] bucket = buckets.computeIfAbsent(hour, h -> new long[2]);
+        bucket[0] += minutes;
+        bucket[1]++;
+    }
+
+    /**
+     * Buffer key: one user and journal date
+     */
+    static final class FocusKey {
+        private final Long userId;
+        private final LocalDate date;
+
+        FocusKey(Long userId, LocalDate date) {
+            this.userId = userId;
+            this.date = date;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof FocusKey)) {
+                return false;
+            }
+            FocusKey other = (FocusKey) o;
+            return userId.equals(other.userId) && date.equals(other.date);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, date);
+        }
+    }
+
+    /**
+     * Sessions of one key collected since the last flush
+     * (only mutated inside ConcurrentHashMap.compute / merge, written after removal from the map)
+     */
+    static final class PendingFocus {
+        private final List<FocusSession> sessions = new ArrayList<>();
+        private volatile int minutes;
+
+        void add(FocusSession session) {
+            sessions.add(session);
+            minutes += session.getMinutes();
+        }
+
+        /**
+         * Copy with fresh (unsaved) sessions, so a rolled back write can be retried as inserts
+         */
+        PendingFocus copy() {
+            PendingFocus copy = new PendingFocus();
+            for (FocusSession session : sessions) {
+                copy.add(new FocusSession(session.getUserId(), session.getTaskId(), session.getStartedAt(),
+                        session.getEndedAt(), session.getMinutes()));
+            }
+            return copy;
+        }
+
+        PendingFocus absorb(PendingFocus other) {
+            sessions.addAll(other.sessions);
+            minutes += other.minutes;
+            return this;
+        }
+    }
+}
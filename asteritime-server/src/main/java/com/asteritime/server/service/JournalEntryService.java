@@ -1,18 +1,40 @@
 package com.asteritime.server.service;
 
+import com.asteritime.common.dto.CursorPage;
+import com.asteritime.common.dto.JournalCalendarDay;
+import com.asteritime.common.dto.JournalEntrySummary;
+import com.asteritime.common.dto.JournalFacetCounts;
+import com.asteritime.common.dto.JournalSearchResult;
 import com.asteritime.common.model.JournalEntry;
 import com.asteritime.common.model.User;
+import com.asteritime.server.cache.ActivityHeatmapCache;
+import com.asteritime.server.cache.JournalFacetIndex;
 import com.asteritime.server.repository.JournalEntryRepository;
+import com.asteritime.server.repository.ResultFingerprint;
+import com.asteritime.server.search.JournalSearchIndex;
+import com.asteritime.server.util.CursorCodec;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -25,6 +47,24 @@ public class JournalEntryService {
     @Autowired
     private com.asteritime.server.repository.UserRepository userRepository;
 
+    @Autowired
+    private ActivityHeatmapCache activityHeatmapCache;
+
+    @Autowired
+    private ActivityStreakService activityStreakService;
+
+    @Autowired
+    private JournalFacetIndex journalFacetIndex;
+
+    @Autowired
+    private JournalSearchIndex journalSearchIndex;
+
+    @Autowired
+    private MediaService mediaService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     /**
      * Create a new journal entry
      */
@@ -42,7 +82,12 @@ public class JournalEntryService {
             journalEntry.setTotalFocusMinutes(0);
         }
         
-        return journalEntryRepository.save(journalEntry);
+        recordFocusChange(userId, journalEntry.getDate(), journalEntry.getTotalFocusMinutes());
+        JournalEntry saved = journalEntryRepository.save(journalEntry);
+        mediaService.updateReferences(saved.getId(), saved.getImageUrls(), saved.getVoiceNoteUrl());
+        journalFacetIndex.putAfterCommit(userId, saved);
+        journalSearchIndex.indexAfterCommit(userId, saved);
+        return saved;
     }
 
     /**
@@ -60,18 +105,192 @@ public class JournalEntryService {
     }
 
     /**
-     * Find all journal entries for a user (ordered by date desc, newest first)
+     * Summaries of a user's journal entries on a specific date (ordered by creation time desc)
+     */
+    @Transactional(readOnly = true)
+    public List<JournalEntrySummary> findSummariesByUserAndDate(Long userId, LocalDate date) {
+        return journalEntryRepository.findSummariesByUserIdAndDate(userId, date);
+    }
+
+    /**
+     * Summaries of all journal entries for a user (ordered by date desc, newest first)
      */
-    public List<JournalEntry> findAllByUserId(Long userId) {
-        return journalEntryRepository.findByUser_IdOrderByDateDescCreatedAtDesc(userId);
+    @Transactional(readOnly = true)
+    public List<JournalEntrySummary> findAllSummariesByUserId(Long userId) {
+        return journalEntryRepository.findSummariesByUserId(userId);
     }
 
     /**
-     * Find all journal entries for a user within a date range
+     * Summaries of a user's journal entries within a date range (ordered by date desc, newest first)
      */
-    public List<JournalEntry> findByUserAndDateRange(Long userId, LocalDate startDate, LocalDate endDate) {
-        return journalEntryRepository.findByUser_IdAndDateBetweenOrderByDateDescCreatedAtDesc(
-                userId, startDate, endDate);
+    @Transactional(readOnly = true)
+    public List<JournalEntrySummary> findSummariesByUserAndDateRange(Long userId, LocalDate startDate, LocalDate endDate) {
+        return journalEntryRepository.findSummariesByUserIdAndDateBetween(userId, startDate, endDate);
+    }
+
+    /**
+     * Summarize a month of a user's journal per day (days without entries are omitted)
+     * One aggregate query grouped by (day, mood); the dominant mood is the most frequent one,
+     * ties broken alphabetically. The same query yields the month's fingerprint for the ETag.
+     */
+    @Transactional(readOnly = true)
+    public Calendar getCalendar(Long userId, YearMonth month) {
+        Map<LocalDate, JournalCalendarDay> days = new LinkedHashMap<>();
+        Map<LocalDate, Long> dominantMoodCounts = new HashMap<>();
+        long count = 0;
+        long versionSum = 0;
+        LocalDateTime lastModified = null;
+        for (Object[] row : journalEntryRepository.summarizeByDateAndMood(userId, month.atDay(1), month.atEndOfMonth())) {
+            LocalDate date = (LocalDate) row[0];
+            String mood = (String) row[1];
+            long entries = ((Number) row[2]).longValue();
+
+            JournalCalendarDay day = days.computeIfAbsent(date, JournalCalendarDay::new);
+            day.setEntryCount(day.getEntryCount() + entries);
+            day.setFocusMinutes(day.getFocusMinutes() + ((Number) row[3]).longValue());
+            if (((Number) row[4]).longValue() > 0) {
+                day.setHasEvaluation(true);
+            }
+            if (mood != null && !mood.isEmpty()) {
+                long best = dominantMoodCounts.getOrDefault(date, 0L);
+                if (entries > best || (entries == best && mood.compareTo(day.getDominantMood()) < 0)) {
+                    day.setDominantMood(mood);
+                    dominantMoodCounts.put(date, entries);
+                }
+            }
+
+            count += entries;
+            versionSum += row[5] == null ? 0 : ((Number) row[5]).longValue();
+            LocalDateTime updatedAt = (LocalDateTime) row[6];
+            if (updatedAt != null && (lastModified == null || updatedAt.isAfter(lastModified))) {
+                lastModified = updatedAt;
+            }
+        }
+        return new Calendar(new ArrayList<>(days.values()), new ResultFingerprint(count, versionSum, lastModified));
+    }
+
+    /**
+     * Count a user's entries per value of one facet, optionally filtered by other facet values
+     * Served from the in-memory facet index (dictionary codes + bitmaps), no rows are read once it is built
+     *
+     * @param startDate First day (inclusive), null = unbounded
+     * @param endDate Last day (inclusive), null = unbounded
+     * @param filters Facet values the counted entries must have
+     */
+    @Transactional(readOnly = true)
+    public JournalFacetCounts countByFacet(Long userId, LocalDate startDate, LocalDate endDate,
+                                           Map<JournalFacetIndex.Facet, String> filters, JournalFacetIndex.Facet groupBy) {
+        return journalFacetIndex.count(userId, startDate, endDate, normalizeFilters(filters), groupBy,
+                journalEntryRepository::findFacetsByUserId);
+    }
+
+    /**
+     * Summaries of a user's entries that have all given facet values (ordered by date desc, newest first)
+     * Matching IDs come from the facet index, only the matching rows are read
+     */
+    @Transactional(readOnly = true)
+    public List<JournalEntrySummary> findByFacets(Long userId, LocalDate startDate, LocalDate endDate,
+                                           Map<JournalFacetIndex.Facet, String> filters) {
+        List<Long> ids = journalFacetIndex.findEntryIds(userId, startDate, endDate, normalizeFilters(filters),
+                journalEntryRepository::findFacetsByUserId);
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return journalEntryRepository.findSummariesByIdIn(ids);
+    }
+
+    /**
+     * Full-text search over a user's titles, texts and evaluations (ranked, with highlighted snippets)
+     * Served from the embedded search index, which reflects commits after its refresh interval
+     *
+     * @param startDate First day (inclusive), null = unbounded
+     * @param endDate Last day (inclusive), null = unbounded
+     * @param limit Maximum number of hits (capped at JournalSearchIndex.MAX_LIMIT)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public JournalSearchResult search(Long userId, String query, LocalDate startDate, LocalDate endDate, int limit) {
+        return journalSearchIndex.search(userId, query, startDate, endDate, limit);
+    }
+
+    /**
+     * Rebuild the search index of a user's entries from the database
+     *
+     * @return Number of indexed entries
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long rebuildSearchIndex(Long userId) {
+        return journalSearchIndex.rebuild(userId);
+    }
+
+    /**
+     * Fingerprint of all journal entries of a user (answers conditional GETs without loading entries)
+     */
+    @Transactional(readOnly = true)
+    public ResultFingerprint fingerprintAllByUserId(Long userId) {
+        return journalEntryRepository.fingerprintByUserId(userId);
+    }
+
+    /**
+     * Fingerprint of already loaded summaries, same value as the fingerprint queries over the same rows (no query)
+     */
+    public static ResultFingerprint fingerprintOf(List<JournalEntrySummary> entries) {
+        long versionSum = 0;
+        LocalDateTime lastModified = null;
+        for (JournalEntrySummary entry : entries) {
+            versionSum += entry.getVersion() == null ? 0 : entry.getVersion();
+            if (entry.getUpdatedAt() != null && (lastModified == null || entry.getUpdatedAt().isAfter(lastModified))) {
+                lastModified = entry.getUpdatedAt();
+            }
+        }
+        return new ResultFingerprint((long) entries.size(), versionSum, lastModified);
+    }
+
+    /**
+     * Fingerprint of a user's journal entries within a date range (inclusive)
+     */
+    @Transactional(readOnly = true)
+    public ResultFingerprint fingerprintByUserAndDateRange(Long userId, LocalDate startDate, LocalDate endDate) {
+        return journalEntryRepository.fingerprintByUserIdAndDateBetween(userId, startDate, endDate);
+    }
+
+    /**
+     * Find one page of journal entry summaries for a user using keyset pagination
+     * Pages are ordered by (date, createdAt, id) desc, newest first; latency does not grow with history size
+     * 
+     * @param cursor Continuation token from the previous page, or null for the first page
+     * @param size Requested page size (capped at CursorPage.MAX_SIZE)
+     * @throws IllegalArgumentException if cursor is malformed
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<JournalEntrySummary> findPageByUserId(Long userId, String cursor, Integer size) {
+        int pageSize = CursorPage.normalizeSize(size);
+        // Fetch one extra row to know whether another page exists
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        
+        List<JournalEntrySummary> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = journalEntryRepository.findFirstPageByUserId(userId, limit);
+        } else {
+            String[] key = CursorCodec.decode(cursor, 3);
+            LocalDate date;
+            LocalDateTime createdAt;
+            Long id;
+            try {
+                date = LocalDate.parse(key[0]);
+                createdAt = LocalDateTime.parse(key[1]);
+                id = Long.valueOf(key[2]);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Malformed cursor", e);
+            }
+            rows = journalEntryRepository.findPageByUserIdAfter(userId, date, createdAt, id, limit);
+        }
+        
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<JournalEntrySummary> items = rows.subList(0, pageSize);
+        JournalEntrySummary last = items.get(pageSize - 1);
+        return new CursorPage<>(items, CursorCodec.encode(last.getDate(), last.getCreatedAt(), last.getId()));
     }
 
     /**
@@ -101,6 +320,8 @@ public class JournalEntryService {
                 System.err.println("User ID mismatch - Requested user: " + userId + ", Entry owner: " + entry.getUser().getId());
                 throw new IllegalArgumentException("Not authorized to modify other user's journal");
             }
+            LocalDate oldDate = entry.getDate();
+            int oldFocusMinutes = Optional.ofNullable(entry.getTotalFocusMinutes()).orElse(0);
             if (updatedEntry.getTitle() != null) {
                 String title = updatedEntry.getTitle().trim();
                 entry.setTitle(title.isEmpty() ? null : title);
@@ -148,6 +369,14 @@ public class JournalEntryService {
             try {
                 JournalEntry saved = journalEntryRepository.save(entry);
                 System.out.println("Saved successfully: " + saved.getId());
+                int newFocusMinutes = Optional.ofNullable(saved.getTotalFocusMinutes()).orElse(0);
+                if (!saved.getDate().equals(oldDate) || newFocusMinutes != oldFocusMinutes) {
+                    recordFocusChange(userId, oldDate, -oldFocusMinutes);
+                    recordFocusChange(userId, saved.getDate(), newFocusMinutes);
+                }
+                mediaService.updateReferences(saved.getId(), saved.getImageUrls(), saved.getVoiceNoteUrl());
+                journalFacetIndex.putAfterCommit(userId, saved);
+                journalSearchIndex.indexAfterCommit(userId, saved);
                 return Optional.of(saved);
             } catch (OptimisticLockingFailureException e) {
                 throw new OptimisticLockingFailureException("Journal entry has been modified by another operation, please refresh and retry", e);
@@ -179,7 +408,11 @@ public class JournalEntryService {
             throw new IllegalArgumentException("Not authorized to delete other user's journal");
         }
         
+        mediaService.updateReferences(entryId);
         journalEntryRepository.delete(entry);
+        journalFacetIndex.removeAfterCommit(userId, entryId);
+        journalSearchIndex.deleteAfterCommit(userId, entryId);
+        recordFocusChange(userId, entry.getDate(), -Optional.ofNullable(entry.getTotalFocusMinutes()).orElse(0));
         return true;
     }
 
@@ -203,16 +436,18 @@ public class JournalEntryService {
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
         entry.setUser(user);
 
-        return journalEntryRepository.save(entry);
+        JournalEntry saved = journalEntryRepository.save(entry);
+        journalFacetIndex.putAfterCommit(userId, saved);
+        return saved;
     }
 
     /**
      * Add focus minutes for a user on a specific date
      * Note: Only adds to existing entries, creates minimal record if no entry exists
-     * Uses optimistic locking to prevent concurrent update conflicts
+     * The increment is a single atomic UPDATE, so concurrent Pomodoro completions never conflict or retry
      */
-    @Retryable(value = {OptimisticLockingFailureException.class}, maxAttempts = 3, backoff = @Backoff(delay = 100))
     public JournalEntry addFocusMinutes(Long userId, LocalDate date, int focusMinutes) {
+        recordFocusChange(userId, date, focusMinutes);
         List<JournalEntry> entries = journalEntryRepository.findByUser_IdAndDateOrderByCreatedAtDesc(userId, date);
 
         JournalEntry entry;
@@ -226,16 +461,17 @@ public class JournalEntryService {
                     .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
             entry.setUser(user);
             
-            return journalEntryRepository.save(entry);
+            JournalEntry saved = journalEntryRepository.save(entry);
+            journalFacetIndex.putAfterCommit(userId, saved);
+            return saved;
         } else {
             entry = entries.get(entries.size() - 1);
             int current = Optional.ofNullable(entry.getTotalFocusMinutes()).orElse(0);
+            journalEntryRepository.incrementTotalFocusMinutes(entry.getId(), focusMinutes, LocalDateTime.now());
+            // The loaded copy is stale now; detach it so it is never flushed, then reflect the increment
+            entityManager.detach(entry);
             entry.setTotalFocusMinutes(current + focusMinutes);
-            try {
-                return journalEntryRepository.save(entry);
-            } catch (OptimisticLockingFailureException e) {
-                throw e;
-            }
+            return entry;
         }
     }
 
@@ -243,10 +479,9 @@ public class JournalEntryService {
      * Get total focus minutes for a specific date (sum of all journal entries for that day)
      */
     public int getTotalFocusMinutes(Long userId, LocalDate date) {
-        List<JournalEntry> entries = journalEntryRepository.findByUser_IdAndDateOrderByCreatedAtDesc(userId, date);
-        return entries.stream()
-                .mapToInt(e -> Optional.ofNullable(e.getTotalFocusMinutes()).orElse(0))
-                .sum();
+        List<Object[]> rows = journalEntryRepository.sumFocusMinutesByDate(userId, date, date);
+        Number minutes = rows.isEmpty() ? null : (Number) rows.get(0)[1];
+        return minutes == null ? 0 : minutes.intValue();
     }
 
     /**
@@ -256,8 +491,51 @@ public class JournalEntryService {
     public JournalEntry upsertEvaluation(Long userId, LocalDate date, String evaluation) {
         JournalEntry entry = getOrCreateEntry(userId, date);
         entry.setEvaluation(evaluation);
-        return journalEntryRepository.save(entry);
+        JournalEntry saved = journalEntryRepository.save(entry);
+        journalSearchIndex.indexAfterCommit(userId, saved);
+        return saved;
     }
-}
 
+    /**
+     * Normalize filter values like indexed values (trimmed), blank filters are dropped
+     */
+    private static Map<JournalFacetIndex.Facet, String> normalizeFilters(Map<JournalFacetIndex.Facet, String> filters) {
+        Map<JournalFacetIndex.Facet, String> normalized = new EnumMap<>(JournalFacetIndex.Facet.class);
+        filters.forEach((facet, value) -> {
+            String normalizedValue = JournalFacetIndex.normalize(value);
+            if (normalizedValue != null) {
+                normalized.put(facet, normalizedValue);
+            }
+        });
+        return normalized;
+    }
 
+    /**
+     * Report a change of a day's focus minutes to the heatmap and streak trackers
+     */
+    private void recordFocusChange(Long userId, LocalDate date, int minutes) {
+        activityHeatmapCache.addFocusMinutesAfterCommit(userId, date, minutes);
+        activityStreakService.recordActivity(userId, date, minutes);
+    }
+
+    /**
+     * Journal calendar of a month with the fingerprint of the entries it summarizes
+     */
+    public static final class Calendar {
+        private final List<JournalCalendarDay> days;
+        private final ResultFingerprint fingerprint;
+
+        Calendar(List<JournalCalendarDay> days, ResultFingerprint fingerprint) {
+            this.days = days;
+            this.fingerprint = fingerprint;
+        }
+
+        public List<JournalCalendarDay> getDays() {
+            return days;
+        }
+
+        public ResultFingerprint getFingerprint() {
+            return fingerprint;
+        }
+    }
+}
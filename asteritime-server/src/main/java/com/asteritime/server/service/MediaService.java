@@ -0,0 +1,214 @@
+package com.asteritime.server.service;
+
+import com.asteritime.common.model.MediaBlob;
+import com.asteritime.server.media.BlobStore;
+import com.asteritime.server.media.MediaTypes;
+import com.asteritime.server.repository.MediaBlobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Journal media (images, voice notes) in the content-addressed BlobStore
+ *
+ * Uploads return a URL /api/media/{sha256}; the client stores it in JournalEntry.imageUrls or
+ * voiceNoteUrl like any external link. When an entry is saved or deleted, JournalEntryService
+ * hands its URL fields to updateReferences, which keeps journal_entry_media and the ref_count
+ * of each blob in step within the same transaction.
+ *
+ * Blobs nobody references (uploaded but never saved, or removed from all entries) are deleted
+ * by a scheduled garbage collection after a grace period, so an upload survives until the entry
+ * that uses it is saved.
+ *
+ * Uploaded images get thumbnails in the background (see ThumbnailService).
+ */
+@Service
+public class MediaService {
+
+    private static final Logger log = LoggerFactory.getLogger(MediaService.class);
+
+    /**
+     * URL path of a blob, relative to the server root
+     */
+    public static final String URL_PREFIX = "/api/media/";
+
+    private static final Pattern MEDIA_URL = Pattern.compile("/media/([0-9a-f]{64})");
+
+    private static final int GC_BATCH_SIZE = 500;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private MediaBlobRepository mediaBlobRepository;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Duration gcGrace;
+
+    public MediaService(PlatformTransactionManager transactionManager,
+                        @Value("${asteritime.media.gc-grace-hours:24}") long gcGraceHours) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.gcGrace = Duration.ofHours(gcGraceHours);
+    }
+
+    /**
+     * Store uploaded content (streamed, deduplicated by SHA-256)
+     *
+     * The stored type is detected from the content's magic bytes; the declared one only has to be allowed too.
+     *
+     * @param contentType Declared MIME type, must be one of MediaTypes
+     * @throws IllegalArgumentException if the declared or detected type is not allowed
+     */
+    public MediaBlob upload(String contentType, InputStream content) throws IOException {
+        if (MediaTypes.canonical(contentType) == null) {
+            throw new IllegalArgumentException("Unsupported media type, allowed: JPEG, PNG, GIF, WebP images "
+                    + "and MP3, MP4/M4A, Ogg, WebM, WAV audio");
+        }
+        InputStream in = new BufferedInputStream(content, MediaTypes.HEADER_LENGTH);
+        in.mark(MediaTypes.HEADER_LENGTH);
+        byte[] header = new byte[MediaTypes.HEADER_LENGTH];
+        int headerLength = in.readNBytes(header, 0, header.length);
+        in.reset();
+        String type = MediaTypes.detect(Arrays.copyOf(header, headerLength));
+        if (type == null) {
+            in.close();
+            throw new IllegalArgumentException("File content is not a supported image or audio format");
+        }
+
+        BlobStore.StoredBlob stored = blobStore.store(in, blob -> transactionTemplate.executeWithoutResult(
+                status -> mediaBlobRepository.upsertUploaded(blob.getKey(), blob.getSize(), type, LocalDateTime.now())));
+        MediaBlob blob = mediaBlobRepository.findById(stored.getKey())
+                .orElseThrow(() -> new IllegalStateException("Media blob vanished after upload: " + stored.getKey()));
+        if (isImage(blob)) {
+            thumbnailService.generateAsync(blob.getSha256());
+        }
+        return blob;
+    }
+
+    /**
+     * Whether a blob is an image (has thumbnails)
+     */
+    public static boolean isImage(MediaBlob blob) {
+        return blob.getContentType().startsWith("image/");
+    }
+
+    /**
+     * Find blob metadata by key
+     */
+    @Transactional(readOnly = true)
+    public Optional<MediaBlob> find(String key) {
+        if (!BlobStore.isValidKey(key)) {
+            return Optional.empty();
+        }
+        return mediaBlobRepository.findById(key);
+    }
+
+    /**
+     * File of a blob
+     */
+    public Path pathOf(String key) {
+        return blobStore.pathOf(key);
+    }
+
+    /**
+     * URL of a blob as stored in journal entries
+     */
+    public static String urlOf(String key) {
+        return URL_PREFIX + key;
+    }
+
+    /**
+     * Make an entry reference exactly the blobs whose URLs appear in the given fields (none for a deleted entry)
+     * Joins the current transaction
+     */
+    @Transactional
+    public void updateReferences(Long entryId, String... urlFields) {
+        Set<String> wanted = new TreeSet<>();
+        for (String field : urlFields) {
+            if (field != null) {
+                Matcher matcher = MEDIA_URL.matcher(field);
+                while (matcher.find()) {
+                    wanted.add(matcher.group(1));
+                }
+            }
+        }
+        Set<String> current = new TreeSet<>(mediaBlobRepository.findKeysByEntryId(entryId));
+        if (wanted.equals(current)) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (String key : wanted) {
+            if (!current.contains(key) && mediaBlobRepository.insertLink(entryId, key) > 0) {
+                mediaBlobRepository.incrementRefCount(key);
+            }
+        }
+        for (String key : current) {
+            if (!wanted.contains(key) && mediaBlobRepository.deleteLink(entryId, key) > 0) {
+                mediaBlobRepository.decrementRefCount(key, now);
+            }
+        }
+    }
+
+    /**
+     * Delete blobs unreferenced for longer than the grace period, and stale upload leftovers
+     *
+     * @return Number of deleted blobs
+     */
+    @Scheduled(cron = "${asteritime.media.gc-cron:0 45 3 * * *}")
+    public int collectGarbage() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(gcGrace);
+        int deleted = 0;
+        while (true) {
+            List<String> keys = transactionTemplate.execute(
+                    status -> mediaBlobRepository.findCollectableKeys(cutoff, GC_BATCH_SIZE));
+            int deletedInBatch = 0;
+            for (String key : keys) {
+                try {
+                    // Row and file go together under the key's lock, so a concurrent upload of the same content
+                    // either revives the row first or stores the file again afterwards
+                    boolean removed = blobStore.deleteIf(key, () -> Integer.valueOf(1).equals(transactionTemplate.execute(
+                            status -> mediaBlobRepository.deleteIfCollectable(key, cutoff))));
+                    if (removed) {
+                        deletedInBatch++;
+                    }
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Failed to collect media blob {}", key, e);
+                }
+            }
+            deleted += deletedInBatch;
+            if (keys.size() < GC_BATCH_SIZE || deletedInBatch == 0) {
+                break;
+            }
+        }
+        int temporary = blobStore.purgeTemporaryFiles(Duration.ofDays(1));
+        if (deleted > 0 || temporary > 0) {
+            log.info("Media garbage collection deleted {} blobs and {} temporary uploads", deleted, temporary);
+        }
+        return deleted;
+    }
+}
@@ -31,7 +31,9 @@ public class TaskCategoryService {
      * Find category by ID (validates ownership)
      */
     public Optional<TaskCategory> findByIdAndUserId(Long id, Long userId) {
-        return taskCategoryRepository.findByIdAndUser_Id(id, userId);
+        // Primary key lookup is served by the second-level cache, ownership is checked in memory
+        return taskCategoryRepository.findById(id)
+                .filter(category -> category.getUser().getId().equals(userId));
     }
 
     /**
@@ -42,7 +44,7 @@ public class TaskCategoryService {
      * @return Created category, or Optional.empty() if name already exists
      */
     public Optional<TaskCategory> create(Long userId, String name) {
-        if (taskCategoryRepository.findByUser_IdAndName(userId, name).isPresent()) {
+        if (taskCategoryRepository.findByNaturalId(userId, name).isPresent()) {
             return Optional.empty();
         }
 
@@ -65,7 +67,7 @@ public class TaskCategoryService {
      * @return true if deletion successful, false if category doesn't exist or doesn't belong to user
      */
     public boolean deleteByIdAndUserId(Long id, Long userId) {
-        Optional<TaskCategory> categoryOpt = taskCategoryRepository.findByIdAndUser_Id(id, userId);
+        Optional<TaskCategory> categoryOpt = findByIdAndUserId(id, userId);
         if (!categoryOpt.isPresent()) {
             return false;
         }
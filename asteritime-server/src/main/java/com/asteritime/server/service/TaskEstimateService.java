@@ -0,0 +1,360 @@
+package com.asteritime.server.service;
+
+import com.asteritime.common.dto.CategoryEstimate;
+import com.asteritime.common.model.TaskCategory;
+import com.asteritime.common.model.TaskStatus;
+import com.asteritime.server.repository.CategoryEstimateStat;
+import com.asteritime.server.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Planned-vs-actual duration statistics per user and category
+ *
+ * Every DONE task with a planned and an actual duration is one sample of
+ * ratio = actual minutes / planned minutes. Per category the service keeps
+ *   - Welford state (count, mean, M2) in task_estimate_stats, merged with Chan's formula
+ *     in a single upsert, so adding or removing samples never rereads the tasks
+ *   - A log-scaled histogram of the ratio in task_estimate_histograms (5% wide buckets
+ *     between 1/16 and 16), additive and therefore mergeable and decrementable
+ *
+ * TaskRollupService forwards every task change; samples leaving (status changed away from
+ * DONE, durations edited, task deleted) are removed and new ones added, accumulated per
+ * transaction and applied just before commit like the daily rollups.
+ */
+@Service
+public class TaskEstimateService {
+
+    /**
+     * Upper bound of histogram bucket 0
+     */
+    static final double MIN_RATIO = 1.0 / 16;
+
+    /**
+     * Width factor of the inner histogram buckets
+     */
+    static final double GAMMA = 1.05;
+
+    /**
+     * Number of histogram buckets (underflow, 114 inner buckets, overflow)
+     */
+    static final int BUCKETS = 116;
+
+    private static final Object PENDING_ESTIMATES_KEY = new Object();
+
+    private static final String UNCATEGORIZED = "Uncategorized";
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskCategoryService taskCategoryService;
+
+    /**
+     * Histogram bucket of a ratio (same formula as the rebuild SQL in TaskEstimateRepositoryImpl)
+     */
+    static int bucketOf(double ratio) {
+        double bucket = Math.floor(Math.log(ratio / MIN_RATIO) / Math.log(GAMMA)) + 1;
+        return (int) Math.max(0, Math.min(BUCKETS - 1, bucket));
+    }
+
+    /**
+     * Representative ratio of a bucket (geometric middle of inner buckets, bounds for the outer ones)
+     */
+    static double ratioOf(int bucket) {
+        if (bucket <= 0) {
+            return MIN_RATIO;
+        }
+        if (bucket >= BUCKETS - 1) {
+            return MIN_RATIO * Math.pow(GAMMA, BUCKETS - 2);
+        }
+        return MIN_RATIO * Math.pow(GAMMA, bucket - 0.5);
+    }
+
+    /**
+     * Record a task change (rollup contributions before and after, null if absent)
+     * Applied before the current transaction commits, or immediately if none is active.
+     */
+    public void recordChange(Long userId, TaskRollupService.Contribution before, TaskRollupService.Contribution after) {
+        Sample removed = sampleOf(before);
+        Sample added = sampleOf(after);
+        if (Objects.equals(removed, added)) {
+            return;
+        }
+        Map<EstimateKey, PendingEstimate> pending = pendingEstimates();
+        if (removed != null) {
+            pending.computeIfAbsent(new EstimateKey(userId, removed.categoryId), k -> new PendingEstimate())
+                    .removed.add(removed);
+        }
+        if (added != null) {
+            pending.computeIfAbsent(new EstimateKey(userId, added.categoryId), k -> new PendingEstimate())
+                    .added.add(added);
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyPending(pending);
+        }
+    }
+
+    /**
+     * Get a user's estimation accuracy per category
+     *
+     * @param userId User ID
+     * @param categoryId Only this category (null = all; uncategorized tasks are only listed for all)
+     * @param plannedMinutes Planned duration to base suggestedMinutes on (null = category average)
+     * @return Categories with at least one sample, most samples first
+     */
+    @Transactional(readOnly = true)
+    public List<CategoryEstimate> getEstimates(Long userId, Long categoryId, Integer plannedMinutes) {
+        List<CategoryEstimateStat> stats = taskRepository.findEstimateStats(userId);
+        if (categoryId != null) {
+            stats.removeIf(stat -> !categoryId.equals(stat.getCategoryId()));
+        }
+        if (stats.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, long[]> histograms = taskRepository.findEstimateHistograms(userId, BUCKETS);
+        Map<Long, String> names = new HashMap<>();
+        for (TaskCategory category : taskCategoryService.findAllByUserId(userId)) {
+            names.put(category.getId(), category.getName());
+        }
+
+        List<CategoryEstimate> estimates = new ArrayList<>(stats.size());
+        for (CategoryEstimateStat stat : stats) {
+            CategoryEstimate estimate = new CategoryEstimate(stat.getCategoryId(), stat.getCategoryId() == null
+                    ? UNCATEGORIZED : names.getOrDefault(stat.getCategoryId(), UNCATEGORIZED));
+            long count = stat.getSampleCount();
+            estimate.setSampleCount(count);
+            estimate.setMeanRatio(round(stat.getMeanRatio()));
+            estimate.setStdDevRatio(round(Math.sqrt(Math.max(0, stat.getM2Ratio()) / count)));
+            estimate.setAveragePlannedMinutes(Math.round((double) stat.getPlannedMinutes() / count));
+            estimate.setAverageActualMinutes(Math.round((double) stat.getActualMinutes() / count));
+
+            long[] histogram = histograms.get(stat.getCategoryId());
+            double p50 = histogram == null ? stat.getMeanRatio() : quantile(histogram, 0.5);
+            double p90 = histogram == null ? stat.getMeanRatio() : quantile(histogram, 0.9);
+            estimate.setP50Ratio(round(p50));
+            estimate.setP90Ratio(round(p90));
+            estimate.setP50OverrunPercent(Math.round((p50 - 1) * 100));
+            estimate.setP90OverrunPercent(Math.round((p90 - 1) * 100));
+
+            long basis = plannedMinutes != null ? plannedMinutes : estimate.getAveragePlannedMinutes();
+            estimate.setSuggestedMinutes(Math.round(basis * p50));
+            estimates.add(estimate);
+        }
+        estimates.sort(Comparator.comparingLong(CategoryEstimate::getSampleCount).reversed());
+        return estimates;
+    }
+
+    /**
+     * Recompute statistics from the tasks table
+     *
+     * @param userId User ID, or null to rebuild all users
+     * @return Number of statistics rows written
+     */
+    @Transactional
+    public int rebuild(Long userId) {
+        return taskRepository.rebuildEstimates(userId);
+    }
+
+    /**
+     * Smallest bucket ratio covering fraction q of the samples
+     */
+    static double quantile(long[] histogram, double q) {
+        long total = 0;
+        for (long count : histogram) {
+            total += Math.max(0, count);
+        }
+        long target = Math.max(1, (long) Math.ceil(q * total));
+        long cumulative = 0;
+        for (int bucket = 0; bucket < histogram.length; bucket++) {
+            cumulative += Math.max(0, histogram[bucket]);
+            if (cumulative >= target) {
+                return ratioOf(bucket);
+            }
+        }
+        return ratioOf(histogram.length - 1);
+    }
+
+    private static double round(double ratio) {
+        return Math.round(ratio * 1000) / 1000.0;
+    }
+
+    private static Sample sampleOf(TaskRollupService.Contribution contribution) {
+        if (contribution == null || contribution.getStatus() != TaskStatus.DONE
+                || contribution.getPlannedMinutes() <= 0 || contribution.getActualMinutes() <= 0) {
+            return null;
+        }
+        return new Sample(contribution.getCategoryId(), contribution.getPlannedMinutes(),
+                contribution.getActualMinutes());
+    }
+
+    private Map<EstimateKey, PendingEstimate> pendingEstimates() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new TreeMap<>();
+        }
+        @SuppressWarnings("unchecked")
+        Map<EstimateKey, PendingEstimate> pending =
+                (Map<EstimateKey, PendingEstimate>) TransactionSynchronizationManager.getResource(PENDING_ESTIMATES_KEY);
+        if (pending == null) {
+            Map<EstimateKey, PendingEstimate> created = new TreeMap<>();
+            TransactionSynchronizationManager.bindResource(PENDING_ESTIMATES_KEY, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    applyPending(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_ESTIMATES_KEY);
+                }
+            });
+            pending = created;
+        }
+        return pending;
+    }
+
+    /**
+     * Merge accumulated samples in key order (consistent lock order across transactions)
+     */
+    private void applyPending(Map<EstimateKey, PendingEstimate> pending) {
+        for (Map.Entry<EstimateKey, PendingEstimate> entry : pending.entrySet()) {
+            EstimateKey key = entry.getKey();
+            PendingEstimate estimate = entry.getValue();
+            Welford added = estimate.added;
+            Welford removed = estimate.removed;
+            if (added.count > 0) {
+                taskRepository.mergeEstimateStats(key.userId, key.categoryId, added.count, added.mean, added.m2,
+                        added.plannedMinutes, added.actualMinutes);
+            }
+            if (removed.count > 0) {
+                // Removing a batch is merging it with negative count and negative M2
+                taskRepository.mergeEstimateStats(key.userId, key.categoryId, -removed.count, removed.mean,
+                        -removed.m2, -removed.plannedMinutes, -removed.actualMinutes);
+            }
+            for (Map.Entry<Integer, Long> bucket : estimate.bucketDeltas().entrySet()) {
+                taskRepository.addToEstimateBucket(key.userId, key.categoryId, bucket.getKey(), bucket.getValue());
+            }
+        }
+        pending.clear();
+    }
+
+    /**
+     * One sample: a DONE task's category and durations
+     */
+    static final class Sample {
+        private final Long categoryId;
+        private final long plannedMinutes;
+        private final long actualMinutes;
+
+        Sample(Long categoryId, long plannedMinutes, long actualMinutes) {
+            this.categoryId = categoryId;
+            this.plannedMinutes = plannedMinutes;
+            this.actualMinutes = actualMinutes;
+        }
+
+        double ratio() {
+            return (double) actualMinutes / plannedMinutes;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Sample)) {
+                return false;
+            }
+            Sample other = (Sample) o;
+            return plannedMinutes == other.plannedMinutes && actualMinutes == other.actualMinutes
+                    && Objects.equals(categoryId, other.categoryId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(categoryId, plannedMinutes, actualMinutes);
+        }
+    }
+
+    /**
+     * Welford state of a batch of samples (plus their duration sums and histogram buckets)
+     */
+    static final class Welford {
+        private long count;
+        private double mean;
+        private double m2;
+        private long plannedMinutes;
+        private long actualMinutes;
+        private final Map<Integer, Long> buckets = new TreeMap<>();
+
+        void add(Sample sample) {
+            double ratio = sample.ratio();
+            count++;
+            double delta = ratio - mean;
+            mean += delta / count;
+            m2 += delta * (ratio - mean);
+            plannedMinutes += sample.plannedMinutes;
+            actualMinutes += sample.actualMinutes;
+            buckets.merge(bucketOf(ratio), 1L, Long::sum);
+        }
+    }
+
+    /**
+     * Samples added to and removed from one (user, category) within a transaction
+     */
+    static final class PendingEstimate {
+        private final Welford added = new Welford();
+        private final Welford removed = new Welford();
+
+        Map<Integer, Long> bucketDeltas() {
+            Map<Integer, Long> deltas = new TreeMap<>(added.buckets);
+            removed.buckets.forEach((bucket, count) -> deltas.merge(bucket, -count, Long::sum));
+            deltas.values().removeIf(count -> count == 0);
+            return deltas;
+        }
+    }
+
+    /**
+     * Statistics row key (ordered so upserts lock rows in the same order)
+     */
+    static final class EstimateKey implements Comparable<EstimateKey> {
+        private final Long userId;
+        private final Long categoryId;
+
+        EstimateKey(Long userId, Long categoryId) {
+            this.userId = userId;
+            this.categoryId = categoryId;
+        }
+
+        @Override
+        public int compareTo(EstimateKey other) {
+            int result = userId.compareTo(other.userId);
+            if (result == 0) {
+                result = Long.compare(categoryId == null ? 0 : categoryId,
+                        other.categoryId == null ? 0 : other.categoryId);
+            }
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof EstimateKey && compareTo((EstimateKey) o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, categoryId == null ? 0L : categoryId);
+        }
+    }
+}
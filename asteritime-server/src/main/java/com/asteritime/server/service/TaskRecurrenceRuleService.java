@@ -31,7 +31,9 @@ public class TaskRecurrenceRuleService {
      * Find recurrence rule by ID (validates ownership)
      */
     public Optional<TaskRecurrenceRule> findByIdAndUserId(Long id, Long userId) {
-        return taskRecurrenceRuleRepository.findByIdAndUser_Id(id, userId);
+        // Primary key lookup is served by the second-level cache, ownership is checked in memory
+        return taskRecurrenceRuleRepository.findById(id)
+                .filter(rule -> rule.getUser().getId().equals(userId));
     }
 
     /**
@@ -42,7 +44,7 @@ public class TaskRecurrenceRuleService {
      * @return Created rule, or Optional.empty() if expression already exists
      */
     public Optional<TaskRecurrenceRule> create(Long userId, String frequencyExpression) {
-        if (taskRecurrenceRuleRepository.findByUser_IdAndFrequencyExpression(userId, frequencyExpression).isPresent()) {
+        if (taskRecurrenceRuleRepository.findByNaturalId(userId, frequencyExpression).isPresent()) {
             return Optional.empty();
         }
 
@@ -65,7 +67,7 @@ public class TaskRecurrenceRuleService {
      * @return true if deletion successful, false if rule doesn't exist or doesn't belong to user
      */
     public boolean deleteByIdAndUserId(Long id, Long userId) {
-        Optional<TaskRecurrenceRule> ruleOpt = taskRecurrenceRuleRepository.findByIdAndUser_Id(id, userId);
+        Optional<TaskRecurrenceRule> ruleOpt = findByIdAndUserId(id, userId);
         if (!ruleOpt.isPresent()) {
             return false;
         }
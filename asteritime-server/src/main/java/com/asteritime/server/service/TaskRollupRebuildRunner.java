@@ -0,0 +1,37 @@
+package com.asteritime.server.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds daily_task_rollups for all users at startup when requested
+ * 
+ * Usage: java -jar asteritime-server.jar --rebuild-task-rollups
+ *        (or mvn spring-boot:run -Dspring-boot.run.arguments=--rebuild-task-rollups)
+ * 
+ * Single users can be rebuilt at runtime with POST /api/analytics/rollups/rebuild.
+ */
+@Component
+public class TaskRollupRebuildRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskRollupRebuildRunner.class);
+
+    static final String OPTION = "rebuild-task-rollups";
+
+    @Autowired
+    private TaskRollupService taskRollupService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(OPTION)) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        int rows = taskRollupService.rebuild(null);
+        log.info("Rebuilt daily_task_rollups: {} rows in {} ms", rows, System.currentTimeMillis() - start);
+    }
+}
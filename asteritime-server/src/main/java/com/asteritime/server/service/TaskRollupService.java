@@ -0,0 +1,285 @@
+package com.asteritime.server.service;
+
+import com.asteritime.common.model.Task;
+import com.asteritime.common.model.TaskStatus;
+import com.asteritime.server.cache.ActivityHeatmapCache;
+import com.asteritime.server.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Maintains the daily_task_rollups table
+ *
+ * Each task with a planned start time contributes one unit to the rollup row
+ * (user, planned start day, quadrant, category, status), plus its planned and actual minutes.
+ * TaskService reports the contribution of a task before and after every write; the difference
+ * is accumulated per transaction and applied with one upsert per touched row just before commit,
+ * so rollups commit or roll back together with the tasks and batch writes stay batched.
+ * Completed task counts are also forwarded (by completion day) to ActivityHeatmapCache and
+ * ActivityStreakService, and every change to TaskEstimateService (planned-vs-actual statistics).
+ */
+@Service
+public class TaskRollupService {
+
+    private static final Object PENDING_DELTAS_KEY = new Object();
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ActivityHeatmapCache activityHeatmapCache;
+
+    @Autowired
+    private TaskEstimateService taskEstimateService;
+
+    @Autowired
+    private ActivityStreakService activityStreakService;
+
+    /**
+     * Contribution of a task in its current state (no rollup row if it has no planned start time)
+     */
+    public static Contribution contributionOf(Task task) {
+        if (task == null || task.getStatus() == null || task.getQuadrant() == null) {
+            return null;
+        }
+        Long categoryId = task.getType() == null ? null : task.getType().getId();
+        LocalDate plannedDate = task.getPlannedStartTime() == null ? null : task.getPlannedStartTime().toLocalDate();
+        return new Contribution(plannedDate, completedOn(task), task.getQuadrant(), categoryId,
+                task.getStatus(), minutesBetween(task.getPlannedStartTime(), task.getPlannedEndTime()),
+                minutesBetween(task.getActualStartTime(), task.getActualEndTime()));
+    }
+
+    /**
+     * Day a DONE task was completed, same as the tasks.completed_on column (null for other statuses)
+     */
+    static LocalDate completedOn(Task task) {
+        if (task.getStatus() != TaskStatus.DONE) {
+            return null;
+        }
+        LocalDateTime end = task.getActualEndTime() != null ? task.getActualEndTime() : task.getUpdatedAt();
+        return end == null ? null : end.toLocalDate();
+    }
+
+    /**
+     * Record a task change (before == null: created, after == null: deleted)
+     * Applied before the current transaction commits, or immediately if none is active.
+     */
+    public void recordChange(Long userId, Contribution before, Contribution after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        Map<RollupKey, long[]> deltas = pendingDeltas();
+        if (before != null && before.date != null) {
+            addDelta(deltas, new RollupKey(userId, before), -1, -before.plannedMinutes, -before.actualMinutes);
+        }
+        if (after != null && after.date != null) {
+            addDelta(deltas, new RollupKey(userId, after), 1, after.plannedMinutes, after.actualMinutes);
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyDeltas(deltas);
+        }
+        taskEstimateService.recordChange(userId, before, after);
+
+        if (before != null && before.status == TaskStatus.DONE) {
+            activityHeatmapCache.addCompletedTasksAfterCommit(userId, before.completedOn, -1);
+            activityStreakService.recordActivity(userId, before.completedOn, -1);
+        }
+        if (after != null && after.status == TaskStatus.DONE) {
+            activityHeatmapCache.addCompletedTasksAfterCommit(userId, after.completedOn, 1);
+            activityStreakService.recordActivity(userId, after.completedOn, 1);
+        }
+    }
+
+    /**
+     * Recompute rollups (and planned-vs-actual statistics) from the tasks table
+     *
+     * @param userId User ID, or null to rebuild all users
+     * @return Number of rollup rows written
+     */
+    @Transactional
+    public int rebuild(Long userId) {
+        activityHeatmapCache.invalidateAfterCommit(userId);
+        taskEstimateService.rebuild(userId);
+        return taskRepository.rebuildRollups(userId);
+    }
+
+    private Map<RollupKey, long[]> pendingDeltas() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new TreeMap<>();
+        }
+        @SuppressWarnings("unchecked")
+        Map<RollupKey, long[]> deltas =
+                (Map<RollupKey, long[]>) TransactionSynchronizationManager.getResource(PENDING_DELTAS_KEY);
+        if (deltas == null) {
+            Map<RollupKey, long[]> created = new TreeMap<>();
+            TransactionSynchronizationManager.bindResource(PENDING_DELTAS_KEY, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    applyDeltas(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_DELTAS_KEY);
+                }
+            });
+            deltas = created;
+        }
+        return deltas;
+    }
+
+    /**
+     * Upsert accumulated deltas in key order (consistent lock order across transactions)
+     */
+    private void applyDeltas(Map<RollupKey, long[]> deltas) {
+        for (Map.Entry<RollupKey, long[]> entry : deltas.entrySet()) {
+            long[] delta = entry.getValue();
+            if (delta[0] == 0 && delta[1] == 0 && delta[2] == 0) {
+                continue;
+            }
+            RollupKey key = entry.getKey();
+            taskRepository.addToRollup(key.userId, key.date, key.quadrant, key.categoryId, key.status,
+                    delta[0], delta[1], delta[2]);
+        }
+        deltas.clear();
+    }
+
+    private static void addDelta(Map<RollupKey, long[]> deltas, RollupKey key,
+                                 long count, long plannedMinutes, long actualMinutes) {
+        long[] delta = deltas.computeIfAbsent(key, k -> new long[3]);
+        delta[0] += count;
+        delta[1] += plannedMinutes;
+        delta[2] += actualMinutes;
+    }
+
+    /**
+     * Whole minutes between two times (0 if either is missing or end is before start),
+     * same as MySQL GREATEST(TIMESTAMPDIFF(MINUTE, start, end), 0)
+     */
+    private static long minutesBetween(LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null || end.isBefore(start)) {
+            return 0;
+        }
+        return Duration.between(start, end).toMinutes();
+    }
+
+    /**
+     * Rollup-relevant state of one task
+     * (date is the planned start day, null if unplanned: such tasks have no rollup row but still count as completed)
+     */
+    public static final class Contribution {
+        private final LocalDate date;
+        private final LocalDate completedOn;
+        private final int quadrant;
+        private final Long categoryId;
+        private final TaskStatus status;
+        private final long plannedMinutes;
+        private final long actualMinutes;
+
+        Contribution(LocalDate date, LocalDate completedOn, int quadrant, Long categoryId, TaskStatus status,
+                     long plannedMinutes, long actualMinutes) {
+            this.date = date;
+            this.completedOn = completedOn;
+            this.quadrant = quadrant;
+            this.categoryId = categoryId;
+            this.status = status;
+            this.plannedMinutes = plannedMinutes;
+            this.actualMinutes = actualMinutes;
+        }
+
+        Long getCategoryId() {
+            return categoryId;
+        }
+
+        TaskStatus getStatus() {
+            return status;
+        }
+
+        long getPlannedMinutes() {
+            return plannedMinutes;
+        }
+
+        long getActualMinutes() {
+            return actualMinutes;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Contribution)) {
+                return false;
+            }
+            Contribution other = (Contribution) o;
+            return quadrant == other.quadrant && plannedMinutes == other.plannedMinutes
+                    && actualMinutes == other.actualMinutes && Objects.equals(date, other.date)
+                    && Objects.equals(completedOn, other.completedOn)
+                    && Objects.equals(categoryId, other.categoryId) && status == other.status;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(date, completedOn, quadrant, categoryId, status, plannedMinutes, actualMinutes);
+        }
+    }
+
+    /**
+     * Primary key of a rollup row (ordered so upserts lock rows in the same order)
+     */
+    static final class RollupKey implements Comparable<RollupKey> {
+        private final Long userId;
+        private final LocalDate date;
+        private final int quadrant;
+        private final Long categoryId;
+        private final TaskStatus status;
+
+        RollupKey(Long userId, Contribution contribution) {
+            this.userId = userId;
+            this.date = contribution.date;
+            this.quadrant = contribution.quadrant;
+            this.categoryId = contribution.categoryId;
+            this.status = contribution.status;
+        }
+
+        @Override
+        public int compareTo(RollupKey other) {
+            int result = userId.compareTo(other.userId);
+            if (result == 0) {
+                result = date.compareTo(other.date);
+            }
+            if (result == 0) {
+                result = Integer.compare(quadrant, other.quadrant);
+            }
+            if (result == 0) {
+                result = Long.compare(categoryId == null ? 0 : categoryId,
+                        other.categoryId == null ? 0 : other.categoryId);
+            }
+            if (result == 0) {
+                result = status.name().compareTo(other.status.name());
+            }
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof RollupKey && compareTo((RollupKey) o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, date, quadrant, categoryId, status);
+        }
+    }
+}
@@ -1,25 +1,53 @@
 package com.asteritime.server.service;
 
+import com.asteritime.common.dto.CursorPage;
+import com.asteritime.common.dto.TaskBatchOperation;
+import com.asteritime.common.dto.TaskBatchResult;
+import com.asteritime.common.dto.TaskChanges;
 import com.asteritime.common.model.Task;
 import com.asteritime.common.model.TaskStatus;
+import com.asteritime.common.model.TaskTombstone;
 import com.asteritime.common.model.User;
+import com.asteritime.server.cache.TaskDayCache;
+import com.asteritime.server.repository.ResultFingerprint;
+import com.asteritime.server.repository.TaskQuery;
 import com.asteritime.server.repository.TaskRepository;
+import com.asteritime.server.repository.TaskTombstoneRepository;
+import com.asteritime.server.stream.ChangeStream;
+import com.asteritime.server.util.CursorCodec;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional(isolation = Isolation.READ_COMMITTED)
 public class TaskService {
 
+    /**
+     * How long deletions stay visible to the change feed
+     */
+    public static final int TOMBSTONE_RETENTION_DAYS = 30;
+
+    /**
+     * How far the change feed watermark lags the current time
+     */
+    static final int CHANGE_FEED_OVERLAP_SECONDS = 5;
+
     @Autowired
     private TaskRepository taskRepository;
     
@@ -31,6 +59,18 @@ public class TaskService {
     
     @Autowired
     private com.asteritime.server.repository.UserRepository userRepository;
+    
+    @Autowired
+    private TaskDayCache taskDayCache;
+
+    @Autowired
+    private TaskTombstoneRepository taskTombstoneRepository;
+
+    @Autowired
+    private ChangeStream changeStream;
+
+    @Autowired
+    private TaskRollupService taskRollupService;
 
     /**
      * Find all tasks for a specific user
@@ -40,60 +80,160 @@ public class TaskService {
     }
 
     /**
-     * Find tasks for a specific user by conditions (supports combined queries)
+     * Find tasks for a specific user by conditions (supports arbitrary combined queries)
+     * 
+     * Bounded planned start ranges (day/week views) are served from TaskDayCache;
+     * everything else is compiled into a single SQL statement.
+     * Runs without its own transaction so cache hits never touch the connection pool.
      * 
      * @param userId User ID (required)
-     * @param quadrant Quadrant (1-4, optional)
-     * @param categoryId Category ID (optional)
-     * @param status Status (optional)
-     * @param startTime Start time (optional)
-     * @param endTime End time (optional)
+     * @param query Filter conditions (quadrants, statuses, categories, time ranges), sort and row limit
      * @return List of matching tasks
      */
-    public List<Task> findByConditions(Long userId, Integer quadrant, Long categoryId, 
-                                       String status, LocalDateTime startTime, LocalDateTime endTime) {
-        boolean hasTimeRange = startTime != null && endTime != null;
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<Task> findByConditions(Long userId, TaskQuery query) {
+        if (taskDayCache.supports(query)) {
+            return taskDayCache.find(userId, query, (from, to) ->
+                    taskRepository.search(userId, new TaskQuery().plannedStartBetween(from, to)));
+        }
+        return taskRepository.search(userId, query);
+    }
+
+    /**
+     * Fingerprint of the tasks matching query (answers conditional GETs without loading tasks)
+     * 
+     * @param userId User ID (required)
+     * @param query Filter conditions (sort and limit are ignored)
+     * @return Count, version sum and latest update time of the matching tasks
+     */
+    @Transactional(readOnly = true)
+    public ResultFingerprint fingerprint(Long userId, TaskQuery query) {
+        return taskRepository.fingerprint(userId, query);
+    }
+
+    /**
+     * Fingerprint of already loaded tasks, same value as fingerprint() over the same rows (no query)
+     */
+    public static ResultFingerprint fingerprintOf(List<Task> tasks) {
+        long versionSum = 0;
+        LocalDateTime lastModified = null;
+        for (Task task : tasks) {
+            versionSum += versionOf(task.getVersion());
+            if (task.getType() != null) {
+                versionSum += versionOf(task.getType().getVersion());
+            }
+            if (task.getRecurrenceRule() != null) {
+                versionSum += versionOf(task.getRecurrenceRule().getVersion());
+            }
+            if (task.getUpdatedAt() != null && (lastModified == null || task.getUpdatedAt().isAfter(lastModified))) {
+                lastModified = task.getUpdatedAt();
+            }
+        }
+        return new ResultFingerprint((long) tasks.size(), versionSum, lastModified);
+    }
+
+    private static long versionOf(Long version) {
+        return version == null ? 0 : version;
+    }
+
+    /**
+     * Fingerprint of one task of a specific user (count is 0 if it does not exist)
+     */
+    @Transactional(readOnly = true)
+    public ResultFingerprint fingerprintByIdAndUserId(Long id, Long userId) {
+        return taskRepository.fingerprintByIdAndUserId(id, userId);
+    }
+
+    /**
+     * Find one page of tasks for a specific user using keyset pagination
+     * Pages are ordered by (plannedStartTime, id) ascending; latency does not grow with history size
+     * 
+     * @param userId User ID (required)
+     * @param query Filter conditions (sort and limit are ignored)
+     * @param cursor Continuation token from the previous page, or null for the first page
+     * @param size Requested page size (capped at CursorPage.MAX_SIZE)
+     * @return Page of tasks with next cursor
+     * @throws IllegalArgumentException if cursor is malformed
+     */
+    public CursorPage<Task> findPage(Long userId, TaskQuery query, String cursor, Integer size) {
+        int pageSize = CursorPage.normalizeSize(size);
+        LocalDateTime afterPlannedStart = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] key = CursorCodec.decode(cursor, 2);
+            try {
+                afterPlannedStart = key[0] == null ? null : LocalDateTime.parse(key[0]);
+                afterId = Long.valueOf(key[1]);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Malformed cursor", e);
+            }
+        }
+        
+        // Fetch one extra row to know whether another page exists
+        List<Task> rows = taskRepository.searchAfter(userId, query, afterPlannedStart, afterId, pageSize + 1);
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<Task> items = rows.subList(0, pageSize);
+        Task last = items.get(pageSize - 1);
+        return new CursorPage<>(items, CursorCodec.encode(last.getPlannedStartTime(), last.getId()));
+    }
+
+    /**
+     * Find tasks created, updated or deleted since a client watermark (incremental sync)
+     * 
+     * Changed tasks come from the (user_id, updated_at) index, deletions from task_tombstones.
+     * The returned watermark lags the current time by CHANGE_FEED_OVERLAP_SECONDS so that
+     * transactions committing slightly after their updatedAt timestamp are not missed;
+     * the price is that a task may be returned by two consecutive calls.
+     * 
+     * A truncated result returns a continuation watermark encoding (updatedAt, id) of its last task,
+     * so the next call resumes strictly after it even when more than a page of tasks share one updatedAt.
+     * 
+     * @param userId User ID (required)
+     * @param since Watermark time returned by the previous call
+     * @param afterId Task ID of a continuation watermark, or null for a plain time watermark
+     * @return Changed tasks, deleted task IDs and the next watermark
+     */
+    @Transactional(readOnly = true)
+    public TaskChanges findChangesSince(Long userId, LocalDateTime since, Long afterId) {
+        LocalDateTime now = LocalDateTime.now();
+        int limit = TaskQuery.MAX_LIMIT;
+        TaskQuery query = afterId == null
+                ? new TaskQuery().updatedSince(since)
+                : new TaskQuery().updatedAfter(since, afterId);
+        List<Task> changed = taskRepository.search(userId, query
+                .sort(TaskQuery.SortField.UPDATED_AT, true)
+                .limit(limit));
+        List<Long> deletedIds = taskTombstoneRepository.findDeletedTaskIdsSince(userId, since);
+        
+        if (changed.size() >= limit) {
+            // Truncated: resume strictly after the last returned (updatedAt, id)
+            Task last = changed.get(changed.size() - 1);
+            return new TaskChanges(changed, deletedIds,
+                    CursorCodec.encode(last.getUpdatedAt(), last.getId()), true);
+        }
         
-        if (quadrant != null && categoryId != null && status != null && hasTimeRange) {
-            return taskRepository.findByUser_IdAndQuadrantAndType_IdAndStatusAndPlannedStartTimeBetween(
-                    userId, quadrant, categoryId, status, startTime, endTime);
-        } else if (quadrant != null && categoryId != null && hasTimeRange) {
-            return taskRepository.findByUser_IdAndQuadrantAndType_IdAndPlannedStartTimeBetween(
-                    userId, quadrant, categoryId, startTime, endTime);
-        } else if (quadrant != null && status != null && hasTimeRange) {
-            return taskRepository.findByUser_IdAndQuadrantAndStatusAndPlannedStartTimeBetween(
-                    userId, quadrant, status, startTime, endTime);
-        } else if (categoryId != null && status != null && hasTimeRange) {
-            return taskRepository.findByUser_IdAndType_IdAndStatusAndPlannedStartTimeBetween(
-                    userId, categoryId, status, startTime, endTime);
-        } else if (quadrant != null && categoryId != null && status != null) {
-            return taskRepository.findByUser_IdAndQuadrantAndType_IdAndStatus(userId, quadrant, categoryId, status);
-        } else if (quadrant != null && hasTimeRange) {
-            return taskRepository.findByUser_IdAndQuadrantAndPlannedStartTimeBetween(
-                    userId, quadrant, startTime, endTime);
-        } else if (categoryId != null && hasTimeRange) {
-            return taskRepository.findByUser_IdAndType_IdAndPlannedStartTimeBetween(
-                    userId, categoryId, startTime, endTime);
-        } else if (status != null && hasTimeRange) {
-            return taskRepository.findByUser_IdAndStatusAndPlannedStartTimeBetween(
-                    userId, status, startTime, endTime);
-        } else if (quadrant != null && categoryId != null) {
-            return taskRepository.findByUser_IdAndQuadrantAndType_Id(userId, quadrant, categoryId);
-        } else if (quadrant != null && status != null) {
-            return taskRepository.findByUser_IdAndQuadrantAndStatus(userId, quadrant, status);
-        } else if (categoryId != null && status != null) {
-            return taskRepository.findByUser_IdAndType_IdAndStatus(userId, categoryId, status);
-        } else if (quadrant != null) {
-            return taskRepository.findByUser_IdAndQuadrant(userId, quadrant);
-        } else if (categoryId != null) {
-            return taskRepository.findByUser_IdAndType_Id(userId, categoryId);
-        } else if (status != null) {
-            return taskRepository.findByUser_IdAndStatus(userId, status);
-        } else if (hasTimeRange) {
-            return taskRepository.findByUser_IdAndPlannedStartTimeBetween(userId, startTime, endTime);
-        } else {
-            return taskRepository.findByUser_Id(userId);
+        LocalDateTime watermark = now.minusSeconds(CHANGE_FEED_OVERLAP_SECONDS);
+        if (watermark.isBefore(since)) {
+            watermark = since;
         }
+        return new TaskChanges(changed, deletedIds, watermark.toString(), false);
+    }
+
+    /**
+     * Earliest watermark the change feed can still answer; older clients must resync fully
+     */
+    public LocalDateTime oldestChangeWatermark() {
+        return LocalDateTime.now().minusDays(TOMBSTONE_RETENTION_DAYS);
+    }
+
+    /**
+     * Purge tombstones that are older than the retention period (daily at 03:30)
+     */
+    @Scheduled(cron = "${asteritime.tasks.tombstone-purge-cron:0 30 3 * * *}")
+    public void purgeExpiredTombstones() {
+        taskTombstoneRepository.deleteOlderThan(oldestChangeWatermark());
     }
 
     /**
@@ -126,11 +266,60 @@ public class TaskService {
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
     }
     
+    /**
+     * Validate a new task and resolve its references for the given user
+     * 
+     * - Title is required, quadrant must be 1-4, status defaults to TODO
+     * - type / recurrenceRule (id only) are replaced by the user's managed entities
+     * - user is set to the current user
+     * 
+     * @throws IllegalArgumentException if a field is invalid or a reference does not belong to the user
+     */
+    public void prepareNewTask(Long userId, Task task) {
+        if (task.getTitle() == null || task.getTitle().trim().isEmpty()) {
+            throw new IllegalArgumentException("Task title is required");
+        }
+        if (task.getQuadrant() == null || task.getQuadrant() < 1 || task.getQuadrant() > 4) {
+            throw new IllegalArgumentException("Quadrant must be between 1 and 4");
+        }
+        if (task.getStatus() == null) {
+            task.setStatus(TaskStatus.TODO);
+        }
+        
+        if (task.getType() != null && task.getType().getId() != null) {
+            com.asteritime.common.model.TaskCategory category = loadCategoryIfExists(task.getType().getId(), userId);
+            if (category == null) {
+                throw new IllegalArgumentException("Task category not found or does not belong to current user");
+            }
+            task.setType(category);
+        }
+        
+        if (task.getRecurrenceRule() != null && task.getRecurrenceRule().getId() != null) {
+            com.asteritime.common.model.TaskRecurrenceRule rule =
+                    loadRecurrenceRuleIfExists(task.getRecurrenceRule().getId(), userId);
+            if (rule == null) {
+                throw new IllegalArgumentException("Recurrence rule not found or does not belong to current user");
+            }
+            task.setRecurrenceRule(rule);
+        }
+        
+        // Load user reference (Hibernate needs a managed entity, not a transient one)
+        task.setUser(loadUserReference(userId));
+    }
+    
     /**
      * Save task (automatically associates with user in task)
      */
     public Task save(Task task) {
-        return taskRepository.save(task);
+        if (task.getStatus() == TaskStatus.DONE && task.getActualEndTime() == null) {
+            // Completion day (heatmap, tasks.completed_on) must not follow later edits via updatedAt
+            task.setActualEndTime(LocalDateTime.now());
+        }
+        Task saved = taskRepository.save(task);
+        taskRollupService.recordChange(saved.getUser().getId(), null, TaskRollupService.contributionOf(saved));
+        taskDayCache.invalidateAfterCommit(saved.getUser().getId(), saved.getPlannedStartTime());
+        changeStream.publishTaskUpdatedAfterCommit(saved.getUser().getId(), saved.getId());
+        return saved;
     }
 
     /**
@@ -150,17 +339,19 @@ public class TaskService {
             throw new RuntimeException("Task does not exist or does not belong to current user");
         }
         
-        Task existingTask = existingTaskOpt.get();
+        return applyUpdate(existingTaskOpt.get(), userId, updatedTask);
+    }
+    
+    /**
+     * Merge updated fields into a loaded task and save it (shared by updateTask and applyBatch)
+     */
+    private Task applyUpdate(Task existingTask, Long userId, Task updatedTask) {
+        validateUpdate(existingTask, updatedTask);
         TaskStatus oldStatus = existingTask.getStatus();
+        LocalDateTime oldPlannedStartTime = existingTask.getPlannedStartTime();
+        TaskRollupService.Contribution oldContribution = TaskRollupService.contributionOf(existingTask);
         TaskStatus newStatus = updatedTask.getStatus();
         
-        if (existingTask.getQuadrant() == null) {
-            throw new RuntimeException("Task quadrant cannot be null, task data may be corrupted");
-        }
-        if (existingTask.getStatus() == null) {
-            throw new RuntimeException("Task status cannot be null, task data may be corrupted");
-        }
-        
         if (updatedTask.getTitle() != null && !updatedTask.getTitle().isEmpty()) {
             existingTask.setTitle(updatedTask.getTitle());
         }
@@ -184,14 +375,6 @@ public class TaskService {
         }
         
         if (newStatus != null && newStatus != oldStatus) {
-            if (oldStatus == TaskStatus.TODO && newStatus == TaskStatus.DONE) {
-                throw new RuntimeException("TODO task must be changed to DOING status before marking as DONE");
-            }
-            
-            if (oldStatus == TaskStatus.DOING && newStatus == TaskStatus.TODO) {
-                throw new RuntimeException("DOING task cannot be changed back to TODO status");
-            }
-            
             existingTask.setStatus(newStatus);
             
             if (newStatus == TaskStatus.DOING) {
@@ -226,27 +409,171 @@ public class TaskService {
                 existingTask.setActualEndTime(updatedTask.getActualEndTime());
             }
         }
-        
-        if (existingTask.getQuadrant() == null) {
-            throw new RuntimeException("Task quadrant cannot be null");
-        }
-        if (existingTask.getStatus() == null) {
-            throw new RuntimeException("Task status cannot be null");
-        }
-        if (existingTask.getTitle() == null || existingTask.getTitle().isEmpty()) {
-            throw new RuntimeException("Task title cannot be empty");
+        if (existingTask.getStatus() == TaskStatus.DONE && existingTask.getActualEndTime() == null) {
+            // Legacy DONE task without an end time: completed_on follows updated_at, which this write
+            // moves to now (@PreUpdate runs at flush), so the heatmap delta must see the new day already
+            existingTask.setUpdatedAt(LocalDateTime.now());
         }
         
         try {
             if (updatedTask.getVersion() != null) {
                 existingTask.setVersion(updatedTask.getVersion());
             }
-            return taskRepository.save(existingTask);
+            Task saved = taskRepository.save(existingTask);
+            taskRollupService.recordChange(userId, oldContribution, TaskRollupService.contributionOf(saved));
+            taskDayCache.invalidateAfterCommit(userId, oldPlannedStartTime, saved.getPlannedStartTime());
+            changeStream.publishTaskUpdatedAfterCommit(userId, saved.getId());
+            return saved;
         } catch (OptimisticLockingFailureException e) {
             throw new OptimisticLockingFailureException("Task has been modified by another operation, please refresh and retry", e);
         }
     }
 
+    /**
+     * Check that merging updatedTask into existingTask yields a valid task, without modifying either
+     * (applyUpdate runs it before touching the managed entity, applyBatch to report invalid items)
+     * 
+     * @throws RuntimeException if the stored task is corrupted, the status transition is not allowed
+     *         or the title would be empty
+     */
+    private static void validateUpdate(Task existingTask, Task updatedTask) {
+        TaskStatus oldStatus = existingTask.getStatus();
+        TaskStatus newStatus = updatedTask.getStatus();
+        if (existingTask.getQuadrant() == null) {
+            throw new RuntimeException("Task quadrant cannot be null, task data may be corrupted");
+        }
+        if (oldStatus == null) {
+            throw new RuntimeException("Task status cannot be null, task data may be corrupted");
+        }
+        if (oldStatus == TaskStatus.TODO && newStatus == TaskStatus.DONE) {
+            throw new RuntimeException("TODO task must be changed to DOING status before marking as DONE");
+        }
+        if (oldStatus == TaskStatus.DOING && newStatus == TaskStatus.TODO) {
+            throw new RuntimeException("DOING task cannot be changed back to TODO status");
+        }
+        boolean titleUpdated = updatedTask.getTitle() != null && !updatedTask.getTitle().isEmpty();
+        if (!titleUpdated && (existingTask.getTitle() == null || existingTask.getTitle().isEmpty())) {
+            throw new RuntimeException("Task title cannot be empty");
+        }
+    }
+
+    /**
+     * Apply mixed create/update/delete operations in one transaction
+     * 
+     * Rows are written at commit in JDBC batches (pooled task IDs + hibernate.jdbc.batch_size),
+     * so a few hundred operations cost a handful of round trips.
+     * 
+     * Invalid items (validation error, unknown task, illegal status transition) are reported
+     * per item and skipped; database failures (e.g., version conflict) roll back the whole batch.
+     * Several operations on one task apply in order, each validated against the result of the previous ones.
+     * 
+     * @param userId User ID (all operations are restricted to this user's tasks)
+     * @param operations Operations in request order
+     * @return One result per operation, in request order
+     * @throws OptimisticLockingFailureException if an updated task was modified concurrently
+     */
+    public List<TaskBatchResult> applyBatch(Long userId, List<TaskBatchOperation> operations) {
+        // Load all UPDATE/DELETE targets owned by the user with a single query
+        Set<Long> targetIds = new HashSet<>();
+        for (TaskBatchOperation operation : operations) {
+            if (operation != null && operation.getId() != null && operation.getOp() != TaskBatchOperation.Op.CREATE) {
+                targetIds.add(operation.getId());
+            }
+        }
+        Map<Long, Task> targets = new HashMap<>();
+        if (!targetIds.isEmpty()) {
+            for (Task task : taskRepository.findByIdInAndUser_Id(targetIds, userId)) {
+                targets.put(task.getId(), task);
+            }
+        }
+        
+        List<TaskBatchResult> results = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            results.add(applyBatchOperation(userId, i, operations.get(i), targets));
+        }
+        return results;
+    }
+    
+    private TaskBatchResult applyBatchOperation(Long userId, int index, TaskBatchOperation operation,
+                                                Map<Long, Task> targets) {
+        TaskBatchOperation.Op op = operation == null ? null : operation.getOp();
+        if (op == null) {
+            return TaskBatchResult.failure(index, null, 400, null, "Operation type is required");
+        }
+        
+        switch (op) {
+            case CREATE: {
+                if (operation.getTask() == null) {
+                    return TaskBatchResult.failure(index, op, 400, null, "Task data is required");
+                }
+                try {
+                    prepareNewTask(userId, operation.getTask());
+                } catch (IllegalArgumentException e) {
+                    return TaskBatchResult.failure(index, op, 400, null, e.getMessage());
+                }
+                Task created = save(operation.getTask());
+                return TaskBatchResult.success(index, op, 201, created.getId(), created);
+            }
+            case UPDATE: {
+                if (operation.getId() == null || operation.getTask() == null) {
+                    return TaskBatchResult.failure(index, op, 400, operation.getId(), "Task id and data are required");
+                }
+                Task existingTask = targets.get(operation.getId());
+                if (existingTask == null) {
+                    return TaskBatchResult.failure(index, op, 404, operation.getId(),
+                            "Task does not exist or does not belong to current user");
+                }
+                Task updatedTask = operation.getTask();
+                // Resolve category/recurrence rule to the user's managed entities (ownership check)
+                if (updatedTask.getType() != null && updatedTask.getType().getId() != null) {
+                    com.asteritime.common.model.TaskCategory category =
+                            loadCategoryIfExists(updatedTask.getType().getId(), userId);
+                    if (category == null) {
+                        return TaskBatchResult.failure(index, op, 400, operation.getId(),
+                                "Task category not found or does not belong to current user");
+                    }
+                    updatedTask.setType(category);
+                }
+                if (updatedTask.getRecurrenceRule() != null && updatedTask.getRecurrenceRule().getId() != null) {
+                    com.asteritime.common.model.TaskRecurrenceRule rule =
+                            loadRecurrenceRuleIfExists(updatedTask.getRecurrenceRule().getId(), userId);
+                    if (rule == null) {
+                        return TaskBatchResult.failure(index, op, 400, operation.getId(),
+                                "Recurrence rule not found or does not belong to current user");
+                    }
+                    updatedTask.setRecurrenceRule(rule);
+                }
+                // Validate against the task as left by earlier operations of the batch, before it is modified:
+                // an invalid item changes nothing, and earlier updates of the same task stay applied
+                try {
+                    validateUpdate(existingTask, updatedTask);
+                } catch (RuntimeException e) {
+                    return TaskBatchResult.failure(index, op, 400, operation.getId(), e.getMessage());
+                }
+                Task updated = applyUpdate(existingTask, userId, updatedTask);
+                return TaskBatchResult.success(index, op, 200, updated.getId(), updated);
+            }
+            case DELETE: {
+                if (operation.getId() == null) {
+                    return TaskBatchResult.failure(index, op, 400, null, "Task id is required");
+                }
+                Task existingTask = targets.remove(operation.getId());
+                if (existingTask == null) {
+                    return TaskBatchResult.failure(index, op, 404, operation.getId(),
+                            "Task does not exist or does not belong to current user");
+                }
+                taskRepository.delete(existingTask);
+                taskRollupService.recordChange(userId, TaskRollupService.contributionOf(existingTask), null);
+                taskTombstoneRepository.save(new TaskTombstone(userId, existingTask.getId()));
+                taskDayCache.invalidateAfterCommit(userId, existingTask.getPlannedStartTime());
+                changeStream.publishTaskDeletedAfterCommit(userId, existingTask.getId());
+                return TaskBatchResult.success(index, op, 204, operation.getId(), null);
+            }
+            default:
+                return TaskBatchResult.failure(index, op, 400, operation.getId(), "Unsupported operation");
+        }
+    }
+    
     /**
      * Delete specific task for specific user (ensures task belongs to user)
      */
@@ -254,6 +581,10 @@ public class TaskService {
         Optional<Task> taskOpt = taskRepository.findByIdAndUser_Id(id, userId);
         if (taskOpt.isPresent()) {
             taskRepository.deleteById(id);
+            taskRollupService.recordChange(userId, TaskRollupService.contributionOf(taskOpt.get()), null);
+            taskTombstoneRepository.save(new TaskTombstone(userId, id));
+            taskDayCache.invalidateAfterCommit(userId, taskOpt.get().getPlannedStartTime());
+            changeStream.publishTaskDeletedAfterCommit(userId, id);
             return true;
         }
         return false;
@@ -0,0 +1,208 @@
+package com.asteritime.server.service;
+
+import com.asteritime.server.media.BlobStore;
+import com.asteritime.server.media.ThumbnailSize;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Thumbnails of journal images, generated in the background and kept next to the original blob
+ *
+ * Every ThumbnailSize is generated in one pass: the image is decoded once with ImageIO source
+ * subsampling (so a large photo is never decoded at full resolution), then scaled down size by
+ * size, each from the previous one. Transparent areas are filled with white and all thumbnails
+ * are JPEG.
+ *
+ * Work runs on thumbnailExecutor only. Uploads queue generation; a thumbnail request for an image
+ * without thumbnails (uploaded before thumbnails existed, or dropped because the queue was full)
+ * queues it again. Images ImageIO cannot decode (e.g. WebP, HEIC) are remembered and served as is.
+ */
+@Service
+public class ThumbnailService {
+
+    private static final Logger log = LoggerFactory.getLogger(ThumbnailService.class);
+
+    private static final float JPEG_QUALITY = 0.82f;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    private final Executor executor;
+
+    /**
+     * Keys queued or being generated (a key is queued at most once at a time)
+     */
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Keys whose content could not be decoded
+     */
+    private final Cache<String, Boolean> undecodable = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .build();
+
+    public ThumbnailService(@Qualifier("thumbnailExecutor") Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Thumbnail file of a blob, if generated
+     */
+    public Optional<Path> find(String key, ThumbnailSize size) {
+        Path file = blobStore.derivedPathOf(key, size.fileSuffix());
+        return Files.isReadable(file) ? Optional.of(file) : Optional.empty();
+    }
+
+    /**
+     * Queue thumbnail generation for a blob (no-op if already queued or not decodable)
+     *
+     * @return false if the queue is full
+     */
+    public boolean generateAsync(String key) {
+        if (undecodable.getIfPresent(key) != null || !pending.add(key)) {
+            return true;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(key);
+                } finally {
+                    pending.remove(key);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            pending.remove(key);
+            log.debug("Thumbnail queue full, skipped {}", key);
+            return false;
+        }
+    }
+
+    private void generate(String key) {
+        Path source = blobStore.pathOf(key);
+        try {
+            BufferedImage image = decode(source, ThumbnailSize.values()[0].getMaxDimension());
+            if (image == null) {
+                undecodable.put(key, Boolean.TRUE);
+                return;
+            }
+            // Sizes are declared largest first, so each one is scaled from the previous
+            for (ThumbnailSize size : ThumbnailSize.values()) {
+                image = scale(image, size.getMaxDimension());
+                BufferedImage thumbnail = image;
+                if (!blobStore.storeDerived(key, size.fileSuffix(), out -> writeJpeg(thumbnail, out))) {
+                    // Blob was garbage collected meanwhile
+                    return;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to generate thumbnails for media blob {}", key, e);
+            undecodable.put(key, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Decode an image, subsampled so that its longest side stays at or above maxDimension
+     *
+     * @return null if no ImageIO reader understands the content
+     */
+    private static BufferedImage decode(Path source, int maxDimension) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            if (in == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, longest / maxDimension);
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Scale down to fit maxDimension (never up), halving first while that stays above the target for quality
+     */
+    private static BufferedImage scale(BufferedImage image, int maxDimension) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        double ratio = Math.min(1.0, (double) maxDimension / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+
+        BufferedImage current = image;
+        while (current.getWidth() / 2 >= targetWidth && current.getHeight() / 2 >= targetHeight) {
+            current = draw(current, current.getWidth() / 2, current.getHeight() / 2);
+        }
+        if (current.getWidth() != targetWidth || current.getHeight() != targetHeight
+                || current.getType() != BufferedImage.TYPE_INT_RGB) {
+            current = draw(current, targetWidth, targetHeight);
+        }
+        return current;
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private static void writeJpeg(BufferedImage image, OutputStream out) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream imageOut = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(imageOut);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.asteritime.server.service;
+
+import com.asteritime.server.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Precomputes frozen weekly reports after each week closes
+ *
+ * Users are split into ID ranges of partition-size IDs; partitions run in parallel on a
+ * dedicated pool of max-concurrency threads, each processing its users one by one.
+ * Every thread holds at most one pooled connection at a time, so the job never uses more
+ * than max-concurrency connections of the Hikari pool; pause-ms adds a delay after each
+ * user to throttle it further.
+ *
+ * run() only submits the partitions and returns, so the scheduler thread is free at once;
+ * the worker finishing the last partition records the end of the run.
+ *
+ * Weeks already stored are skipped, so a rerun after a crash only computes missing users.
+ * Progress is exposed through stats() (actuator endpoint weeklyreports on the management port).
+ */
+@Component
+public class WeeklyReportJob {
+
+    private static final Logger log = LoggerFactory.getLogger(WeeklyReportJob.class);
+
+    private final int maxConcurrency;
+
+    private final int partitionSize;
+
+    private final long pauseMillis;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final AtomicInteger partitionsTotal = new AtomicInteger();
+
+    private final AtomicInteger partitionsDone = new AtomicInteger();
+
+    private final AtomicLong usersProcessed = new AtomicLong();
+
+    private final AtomicLong reportsWritten = new AtomicLong();
+
+    private final AtomicLong usersFailed = new AtomicLong();
+
+    private volatile LocalDate weekStart;
+
+    private volatile LocalDateTime startedAt;
+
+    private volatile LocalDateTime finishedAt;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WeeklyReportService weeklyReportService;
+
+    public WeeklyReportJob(@Value("${asteritime.reports.weekly.max-concurrency:2}") int maxConcurrency,
+                           @Value("${asteritime.reports.weekly.partition-size:1000}") int partitionSize,
+                           @Value("${asteritime.reports.weekly.pause-ms:0}") long pauseMillis) {
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.partitionSize = Math.max(1, partitionSize);
+        this.pauseMillis = Math.max(0, pauseMillis);
+    }
+
+    /**
+     * Freeze the reports of the week that just closed (runs early on Monday)
+     */
+    @Scheduled(cron = "${asteritime.reports.weekly.cron:0 15 0 * * MON}")
+    public void precomputeLastWeek() {
+        run(WeeklyReportService.weekStartOf(LocalDate.now()).minusWeeks(1));
+    }
+
+    /**
+     * Start freezing the reports of all users for a closed week (returns once the work is submitted)
+     *
+     * @param week Monday of the week
+     * @return false if a run is already in progress
+     */
+    public boolean run(LocalDate week) {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Weekly report precomputation already running, skipping week {}", week);
+            return false;
+        }
+        ExecutorService pool = null;
+        try {
+            reset(week);
+            Long maxId = userRepository.findMaxId();
+            if (maxId == null) {
+                finish(week);
+                return true;
+            }
+
+            partitionsTotal.set((int) ((maxId + partitionSize - 1) / partitionSize));
+            AtomicInteger threadNumber = new AtomicInteger();
+            pool = Executors.newFixedThreadPool(maxConcurrency, runnable -> {
+                Thread thread = new Thread(runnable, "weekly-report-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            for (long start = 1; start <= maxId; start += partitionSize) {
+                long fromId = start;
+                long toId = Math.min(start + partitionSize - 1, maxId);
+                pool.execute(() -> processPartition(week, fromId, toId));
+            }
+            // Lets the queued partitions run, the threads exit after the last one
+            pool.shutdown();
+            return true;
+        } catch (RuntimeException e) {
+            if (pool != null) {
+                pool.shutdownNow();
+            }
+            log.error("Failed to start weekly report precomputation for week {}", week, e);
+            finish(week);
+            throw e;
+        }
+    }
+
+    /**
+     * Progress of the current (or last) run
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("running", running.get());
+        result.put("weekStart", weekStart);
+        result.put("startedAt", startedAt);
+        result.put("finishedAt", finishedAt);
+        result.put("partitionsTotal", partitionsTotal.get());
+        result.put("partitionsDone", partitionsDone.get());
+        result.put("usersProcessed", usersProcessed.get());
+        result.put("reportsWritten", reportsWritten.get());
+        result.put("usersFailed", usersFailed.get());
+        result.put("maxConcurrency", maxConcurrency);
+        result.put("pauseMs", pauseMillis);
+        return result;
+    }
+
+    private void processPartition(LocalDate week, long fromId, long toId) {
+        try {
+            List<Long> userIds = userRepository.findIdsBetween(fromId, toId);
+            for (Long userId : userIds) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                try {
+                    if (weeklyReportService.freezeIfAbsent(userId, week)) {
+                        reportsWritten.incrementAndGet();
+                    }
+                } catch (RuntimeException e) {
+                    usersFailed.incrementAndGet();
+                    log.warn("Failed to freeze weekly report of user {} for week {}", userId, week, e);
+                }
+                usersProcessed.incrementAndGet();
+                pause();
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to load users {}-{} for weekly reports", fromId, toId, e);
+        } finally {
+            if (partitionsDone.incrementAndGet() == partitionsTotal.get()) {
+                finish(week);
+            }
+        }
+    }
+
+    /**
+     * Record the end of a run (called by the worker completing the last partition)
+     */
+    private void finish(LocalDate week) {
+        finishedAt = LocalDateTime.now();
+        running.set(false);
+        log.info("Weekly reports for week {}: {} users, {} written, {} failed in {} partitions",
+                week, usersProcessed.get(), reportsWritten.get(), usersFailed.get(), partitionsDone.get());
+    }
+
+    private void pause() {
+        if (pauseMillis == 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void reset(LocalDate week) {
+        weekStart = week;
+        startedAt = LocalDateTime.now();
+        finishedAt = null;
+        partitionsTotal.set(0);
+        partitionsDone.set(0);
+        usersProcessed.set(0);
+        reportsWritten.set(0);
+        usersFailed.set(0);
+    }
+}
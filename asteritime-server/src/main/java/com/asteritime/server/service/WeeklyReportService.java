@@ -0,0 +1,176 @@
+package com.asteritime.server.service;
+
+import com.asteritime.common.dto.AnalyticsReport;
+import com.asteritime.common.model.WeeklyReportSnapshot;
+import com.asteritime.server.repository.UserRepository;
+import com.asteritime.server.repository.WeeklyReportSnapshotRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Weekly reports (Monday to Sunday)
+ *
+ * The current and future weeks are computed live by AnalyticsService. Once a week has
+ * closed its report is frozen into weekly_report_snapshots, so reading it again is a
+ * single-row lookup. Snapshots are written ahead of time by WeeklyReportJob; a week the
+ * job has not reached yet is served live on its first read and frozen in the background
+ * (reportFreezeExecutor), so reads never write.
+ *
+ * Only weeks from the user's registration week up to the last closed week are frozen;
+ * other weeks are always computed live and never stored.
+ */
+@Service
+public class WeeklyReportService {
+
+    private static final Logger log = LoggerFactory.getLogger(WeeklyReportService.class);
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private WeeklyReportSnapshotRepository weeklyReportSnapshotRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Executor freezeExecutor;
+
+    public WeeklyReportService(PlatformTransactionManager transactionManager,
+                               @Qualifier("reportFreezeExecutor") Executor freezeExecutor) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.freezeExecutor = freezeExecutor;
+    }
+
+    /**
+     * Monday of the week containing day
+     */
+    public static LocalDate weekStartOf(LocalDate day) {
+        return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    /**
+     * Whether the week starting on weekStart has ended (today is after its Sunday)
+     */
+    public static boolean isClosed(LocalDate weekStart) {
+        return !weekStart.plusDays(7).isAfter(LocalDate.now());
+    }
+
+    /**
+     * Get the report of the week containing day
+     *
+     * @return Frozen report for frozen weeks (frozenAt set), live report otherwise
+     */
+    public AnalyticsReport getWeeklyReport(Long userId, LocalDate day) {
+        LocalDate weekStart = weekStartOf(day);
+        if (!isClosed(weekStart)) {
+            return analyticsService.buildReport(userId, weekStart, weekStart.plusDays(6));
+        }
+
+        Optional<WeeklyReportSnapshot> snapshot = weeklyReportSnapshotRepository.findByUserIdAndWeekStart(userId, weekStart);
+        if (snapshot.isPresent()) {
+            return toReport(snapshot.get());
+        }
+        AnalyticsReport report = analyticsService.buildReport(userId, weekStart, weekStart.plusDays(6));
+        if (isFreezable(userId, weekStart)) {
+            freezeLater(userId, weekStart);
+        }
+        return report;
+    }
+
+    /**
+     * Freeze the report of a closed week unless it is already stored or precedes the user's registration
+     *
+     * @return true if a snapshot was written
+     * @throws IllegalArgumentException if the week has not closed yet
+     */
+    public boolean freezeIfAbsent(Long userId, LocalDate weekStart) {
+        if (weeklyReportSnapshotRepository.existsByUserIdAndWeekStart(userId, weekStart)
+                || !isFreezable(userId, weekStart)) {
+            return false;
+        }
+        try {
+            freeze(userId, weekStart);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Whether a week lies between the user's registration week and the last closed week
+     */
+    private boolean isFreezable(Long userId, LocalDate weekStart) {
+        if (!isClosed(weekStart)) {
+            return false;
+        }
+        Optional<LocalDateTime> createdAt = userRepository.findCreatedAtById(userId);
+        return createdAt.isPresent() && !weekStart.isBefore(weekStartOf(createdAt.get().toLocalDate()));
+    }
+
+    /**
+     * Queue freezing a week on reportFreezeExecutor; if the queue is full the next read queues it again
+     */
+    private void freezeLater(Long userId, LocalDate weekStart) {
+        try {
+            freezeExecutor.execute(() -> {
+                try {
+                    freezeIfAbsent(userId, weekStart);
+                } catch (RuntimeException e) {
+                    log.warn("Failed to freeze weekly report of user {} for week {}", userId, weekStart, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Weekly report freeze queue full, skipped user {} week {}", userId, weekStart);
+        }
+    }
+
+    private WeeklyReportSnapshot freeze(Long userId, LocalDate weekStart) {
+        if (!weekStart.equals(weekStartOf(weekStart)) || !isClosed(weekStart)) {
+            throw new IllegalArgumentException("Only closed weeks starting on Monday can be frozen: " + weekStart);
+        }
+        return transactionTemplate.execute(status -> {
+            AnalyticsReport report = analyticsService.buildReport(userId, weekStart, weekStart.plusDays(6));
+            WeeklyReportSnapshot snapshot = new WeeklyReportSnapshot(userId, weekStart, toJson(report));
+            return weeklyReportSnapshotRepository.saveAndFlush(snapshot);
+        });
+    }
+
+    private String toJson(AnalyticsReport report) {
+        try {
+            return objectMapper.writeValueAsString(report);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize weekly report", e);
+        }
+    }
+
+    private AnalyticsReport toReport(WeeklyReportSnapshot snapshot) {
+        try {
+            AnalyticsReport report = objectMapper.readValue(snapshot.getReport(), AnalyticsReport.class);
+            report.setFrozenAt(snapshot.getFrozenAt());
+            return report;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt weekly report snapshot " + snapshot.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package com.asteritime.server.stream;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Per-user Server-Sent Events channel (GET /api/stream)
+ *
+ * Pushes task and focus-time changes to all open tabs of a user:
+ *   - Services record changes with publish*AfterCommit(); nothing is sent for rolled back transactions
+ *   - Changes are buffered per user and flushed every coalesce window as one "changes" event,
+ *     so a burst (e.g. a 500-item batch) produces a single message per tab
+ *   - Idle connections cost one SseEmitter each (async servlet, no request thread is held);
+ *     a comment heartbeat keeps proxies from closing them and detects dead clients
+ *
+ * Sending:
+ *   The scheduled flush and heartbeat only queue events; the blocking SseEmitter.send calls run on
+ *   streamSendExecutor, at most one per connection at a time, so a slow client never holds a
+ *   scheduler thread or delays other clients. A connection is closed (and the client reconnects
+ *   and catches up through /api/tasks/changes) when one send takes longer than send-timeout-ms
+ *   or more than MAX_QUEUED_EVENTS events wait for it.
+ *
+ * Event payload (data of event "changes"):
+ *   { "updatedTaskIds": [...], "deletedTaskIds": [...], "focusMinutesAdded": { "2025-12-01": 25 } }
+ * Clients refresh through GET /api/tasks/changes rather than relying on the payload alone.
+ */
+@Component
+public class ChangeStream {
+
+    private static final String EVENT_NAME = "changes";
+
+    /**
+     * Events allowed to wait for one connection before it is considered stuck
+     */
+    private static final int MAX_QUEUED_EVENTS = 32;
+
+    private final Map<Long, List<Connection>> emitters = new ConcurrentHashMap<>();
+
+    private final Map<Long, PendingChanges> pending = new ConcurrentHashMap<>();
+
+    private final long emitterTimeoutMillis;
+
+    private final int maxConnectionsPerUser;
+
+    private final long sendTimeoutMillis;
+
+    private final Executor sendExecutor;
+
+    private final AtomicLong eventsSent = new AtomicLong();
+
+    private final AtomicLong changesCoalesced = new AtomicLong();
+
+    private final AtomicLong connectionsDropped = new AtomicLong();
+
+    public ChangeStream(@Qualifier("streamSendExecutor") Executor sendExecutor,
+                        @Value("${asteritime.stream.emitter-timeout-ms:1800000}") long emitterTimeoutMillis,
+                        @Value("${asteritime.stream.max-connections-per-user:10}") int maxConnectionsPerUser,
+                        @Value("${asteritime.stream.send-timeout-ms:10000}") long sendTimeoutMillis) {
+        this.sendExecutor = sendExecutor;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+    }
+
+    /**
+     * Open a new stream for a user
+     * The oldest stream of the user is closed when max-connections-per-user is exceeded.
+     */
+    public SseEmitter open(Long userId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Connection connection = new Connection(userId, emitter);
+        List<Connection> evicted = new ArrayList<>();
+        emitters.compute(userId, (id, userConnections) -> {
+            List<Connection> target = userConnections == null ? new CopyOnWriteArrayList<>() : userConnections;
+            target.add(connection);
+            while (target.size() > maxConnectionsPerUser) {
+                evicted.add(target.remove(0));
+            }
+            return target;
+        });
+        for (Connection oldest : evicted) {
+            oldest.emitter.complete();
+        }
+
+        Runnable remove = () -> remove(connection);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+
+        try {
+            // Flush headers immediately so the client knows the stream is open (on the request thread)
+            emitter.send(SseEmitter.event().comment("connected").reconnectTime(3000));
+        } catch (IOException e) {
+            remove(connection);
+        }
+        return emitter;
+    }
+
+    /**
+     * Record that a task was created or updated, delivered once the current transaction commits
+     */
+    public void publishTaskUpdatedAfterCommit(Long userId, Long taskId) {
+        afterCommit(() -> record(userId, changes -> changes.taskUpdated(taskId)));
+    }
+
+    /**
+     * Record that a task was deleted, delivered once the current transaction commits
+     */
+    public void publishTaskDeletedAfterCommit(Long userId, Long taskId) {
+        afterCommit(() -> record(userId, changes -> changes.taskDeleted(taskId)));
+    }
+
+    /**
+     * Record a focus time increment, delivered once the current transaction commits
+     */
+    public void publishFocusMinutesAfterCommit(Long userId, LocalDate date, int minutes) {
+        afterCommit(() -> record(userId, changes -> changes.focusAdded(date, minutes)));
+    }
+
+    /**
+     * Send buffered changes, one event per user (runs every coalesce window)
+     */
+    @Scheduled(fixedDelayString = "${asteritime.stream.coalesce-window-ms:250}")
+    public void flush() {
+        for (Long userId : pending.keySet()) {
+            // remove() is atomic with record(), later changes start a new buffer
+            PendingChanges changes = pending.remove(userId);
+            List<Connection> userConnections = emitters.get(userId);
+            if (changes == null || userConnections == null || userConnections.isEmpty()) {
+                continue;
+            }
+            Map<String, Object> payload = changes.toPayload();
+            for (Connection connection : userConnections) {
+                enqueue(connection, SseEmitter.event().name(EVENT_NAME).data(payload));
+            }
+        }
+    }
+
+    /**
+     * Keep idle connections alive and drop the ones whose client went away or stopped reading
+     */
+    @Scheduled(fixedDelayString = "${asteritime.stream.heartbeat-interval-ms:25000}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        for (List<Connection> userConnections : emitters.values()) {
+            for (Connection connection : userConnections) {
+                if (!dropIfBlocked(connection, now) && connection.queued.get() == 0) {
+                    enqueue(connection, SseEmitter.event().comment("heartbeat"));
+                }
+            }
+        }
+    }
+
+    /**
+     * Stream statistics (open connections, users, queued and sent events, dropped slow connections)
+     */
+    public Map<String, Object> stats() {
+        int connections = 0;
+        int queuedEvents = 0;
+        for (List<Connection> userConnections : emitters.values()) {
+            connections += userConnections.size();
+            for (Connection connection : userConnections) {
+                queuedEvents += connection.queued.get();
+            }
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("users", emitters.size());
+        result.put("connections", connections);
+        result.put("queuedEvents", queuedEvents);
+        result.put("eventsSent", eventsSent.get());
+        result.put("changesCoalesced", changesCoalesced.get());
+        result.put("connectionsDropped", connectionsDropped.get());
+        return result;
+    }
+
+    /**
+     * Close all streams on shutdown so clients reconnect to another instance
+     */
+    @PreDestroy
+    public void closeAll() {
+        for (List<Connection> userConnections : emitters.values()) {
+            for (Connection connection : userConnections) {
+                connection.closed = true;
+                connection.emitter.complete();
+            }
+        }
+        emitters.clear();
+    }
+
+    /**
+     * Queue an event for a connection and make sure a worker is sending its queue
+     */
+    private void enqueue(Connection connection, SseEmitter.SseEventBuilder event) {
+        if (connection.closed || dropIfBlocked(connection, System.currentTimeMillis())) {
+            return;
+        }
+        if (connection.queued.incrementAndGet() > MAX_QUEUED_EVENTS) {
+            drop(connection, new IllegalStateException("SSE client fell " + MAX_QUEUED_EVENTS + " events behind"));
+            return;
+        }
+        connection.outbox.add(event);
+        scheduleDrain(connection);
+    }
+
+    private void scheduleDrain(Connection connection) {
+        if (!connection.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            sendExecutor.execute(() -> drain(connection));
+        } catch (RejectedExecutionException e) {
+            // Executor saturated: the events stay queued and the next enqueue retries
+            connection.draining.set(false);
+        }
+    }
+
+    /**
+     * Send the queued events of a connection in order (runs on streamSendExecutor, one worker per connection)
+     */
+    private void drain(Connection connection) {
+        while (true) {
+            SseEmitter.SseEventBuilder event = connection.outbox.poll();
+            if (event == null) {
+                connection.draining.set(false);
+                // An event queued after poll() but before the flag was cleared found the drain still running
+                if (connection.outbox.isEmpty() || !connection.draining.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            connection.queued.decrementAndGet();
+            if (connection.closed) {
+                continue;
+            }
+            connection.sendStartedAt = System.currentTimeMillis();
+            try {
+                connection.emitter.send(event);
+                eventsSent.incrementAndGet();
+            } catch (IOException | IllegalStateException e) {
+                // Client disconnected or emitter already completed
+                drop(connection, e);
+            } finally {
+                connection.sendStartedAt = 0;
+            }
+        }
+    }
+
+    /**
+     * Close a connection whose current send has been blocked for more than send-timeout-ms
+     */
+    private boolean dropIfBlocked(Connection connection, long now) {
+        long sendStartedAt = connection.sendStartedAt;
+        if (sendStartedAt == 0 || now - sendStartedAt <= sendTimeoutMillis) {
+            return false;
+        }
+        drop(connection, new TimeoutException("SSE send blocked for more than " + sendTimeoutMillis + " ms"));
+        return true;
+    }
+
+    private void drop(Connection connection, Throwable cause) {
+        if (connection.closed) {
+            return;
+        }
+        connection.closed = true;
+        connectionsDropped.incrementAndGet();
+        remove(connection);
+        connection.emitter.completeWithError(cause);
+    }
+
+    private void remove(Connection connection) {
+        emitters.computeIfPresent(connection.userId, (id, userConnections) -> {
+            userConnections.remove(connection);
+            return userConnections.isEmpty() ? null : userConnections;
+        });
+    }
+
+    private void record(Long userId, Consumer<PendingChanges> change) {
+        if (!emitters.containsKey(userId)) {
+            // Nobody is listening
+            return;
+        }
+        changesCoalesced.incrementAndGet();
+        pending.compute(userId, (id, changes) -> {
+            PendingChanges target = changes == null ? new PendingChanges() : changes;
+            change.accept(target);
+            return target;
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * One open stream and the events waiting to be sent to it
+     */
+    static final class Connection {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> outbox = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        /**
+         * Start of the send in progress (epoch ms), 0 when idle
+         */
+        private volatile long sendStartedAt;
+        private volatile boolean closed;
+
+        Connection(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+    }
+
+    /**
+     * Changes of one user collected during a coalesce window
+     * (only mutated inside ConcurrentHashMap.compute, read after removal from the map)
+     */
+    static final class PendingChanges {
+        private final Set<Long> updatedTaskIds = new LinkedHashSet<>();
+        private final Set<Long> deletedTaskIds = new LinkedHashSet<>();
+        private final Map<String, Integer> focusMinutesAdded = new LinkedHashMap<>();
+
+        void taskUpdated(Long taskId) {
+            if (!deletedTaskIds.contains(taskId)) {
+                updatedTaskIds.add(taskId);
+            }
+        }
+
+        void taskDeleted(Long taskId) {
+            updatedTaskIds.remove(taskId);
+            deletedTaskIds.add(taskId);
+        }
+
+        void focusAdded(LocalDate date, int minutes) {
+            focusMinutesAdded.merge(date.toString(), minutes, Integer::sum);
+        }
+
+        Map<String, Object> toPayload() {
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("updatedTaskIds", new ArrayList<>(updatedTaskIds));
+            payload.put("deletedTaskIds", new ArrayList<>(deletedTaskIds));
+            payload.put("focusMinutesAdded", new LinkedHashMap<>(focusMinutesAdded));
+            return payload;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.asteritime.server.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque cursor token codec for keyset pagination
+ *
+ * Encodes the sort key values of the last row of a page into a URL-safe token.
+ * Clients must treat the token as opaque; its layout may change at any time.
+ */
+public final class CursorCodec {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Placeholder for null key values (e.g., task without planned start time)
+     */
+    private static final String NULL_VALUE = "~";
+
+    private CursorCodec() {
+    }
+
+    /**
+     * Encode key values into cursor token
+     *
+     * @param values Key values (toString() is used, null allowed)
+     * @return URL-safe Base64 token
+     */
+    public static String encode(Object... values) {
+        StringBuilder raw = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                raw.append(SEPARATOR);
+            }
+            raw.append(values[i] == null ? NULL_VALUE : values[i].toString());
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode cursor token into key values (null placeholders are returned as null)
+     *
+     * @param token Cursor token
+     * @param expectedParts Number of key values the token must contain
+     * @throws IllegalArgumentException if token is malformed
+     */
+    public static String[] decode(String token, int expectedParts) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+        String[] parts = raw.split("\\|", -1);
+        if (parts.length != expectedParts) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        for (int i = 0; i < parts.length; i++) {
+            if (NULL_VALUE.equals(parts[i])) {
+                parts[i] = null;
+            }
+        }
+        return parts;
+    }
+}
@@ -0,0 +1,23 @@
+-- Content-addressed journal media (images, voice notes), files live under asteritime.media.dir
+
+CREATE TABLE media_blobs (
+    -- Lower-case hex SHA-256 of the content (also the file name)
+    sha256              CHAR(64)     NOT NULL,
+    size_bytes          BIGINT       NOT NULL,
+    content_type        VARCHAR(100) NOT NULL,
+    -- Number of journal_entry_media rows pointing at the blob
+    ref_count           INT          NOT NULL DEFAULT 0,
+    created_at          DATETIME(6)  NOT NULL,
+    -- Set while ref_count = 0; the garbage collector deletes blobs unreferenced for longer than the grace period
+    unreferenced_since  DATETIME(6)  NULL,
+    PRIMARY KEY (sha256),
+    KEY idx_media_blobs_unreferenced (unreferenced_since)
+) ENGINE = InnoDB;
+
+-- Blobs referenced by a journal entry (imageUrls / voiceNoteUrl pointing at /api/media/{sha256})
+CREATE TABLE journal_entry_media (
+    entry_id  BIGINT   NOT NULL,
+    sha256    CHAR(64) NOT NULL,
+    PRIMARY KEY (entry_id, sha256),
+    KEY idx_journal_entry_media_sha256 (sha256)
+) ENGINE = InnoDB;
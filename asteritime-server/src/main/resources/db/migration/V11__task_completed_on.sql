@@ -0,0 +1,7 @@
+-- Day a DONE task was completed: its actual end time, or its last update if it was finished without one
+-- (NULL for other statuses). Computed by MySQL and not mapped by the Task entity; read by the activity heatmap.
+
+ALTER TABLE tasks
+    ADD COLUMN completed_on DATE
+        AS (IF(status = 'DONE', DATE(COALESCE(actual_end_time, updated_at)), NULL)) STORED,
+    ADD KEY idx_tasks_user_completed_on (user_id, completed_on);
@@ -0,0 +1,13 @@
+-- Active days count a task on the day it was completed (tasks.completed_on) instead of its planned start day:
+-- rebuild activity_day_words from journal focus totals and completion days (TO_DAYS('1970-01-01') = 719528)
+
+DELETE FROM activity_day_words;
+
+INSERT INTO activity_day_words (user_id, word_index, bits)
+SELECT a.user_id, a.day DIV 64, CAST(BIT_OR(1 << (a.day MOD 64)) AS SIGNED)
+FROM (SELECT e.user_id, TO_DAYS(e.date) - 719528 AS day FROM journal_entries e
+      WHERE e.total_focus_minutes > 0 AND e.date >= '1970-01-01'
+      UNION
+      SELECT t.user_id, TO_DAYS(t.completed_on) - 719528 FROM tasks t
+      WHERE t.completed_on >= '1970-01-01') a
+GROUP BY a.user_id, a.day DIV 64;
@@ -0,0 +1,7 @@
+-- Change feed continuation (GET /api/tasks/changes with hasMore) seeks on (updated_at, id):
+--   user_id = :userId AND (updated_at > :t OR (updated_at = :t AND id > :id)) ORDER BY updated_at, id
+-- InnoDB already appends id to (user_id, updated_at); spelling it out keeps the seek
+-- and the ORDER BY covered should the primary key ever change.
+ALTER TABLE tasks
+    DROP INDEX idx_tasks_user_updated_at,
+    ADD INDEX idx_tasks_user_updated_at_id (user_id, updated_at, id);
@@ -0,0 +1,32 @@
+-- Rebuild planned-vs-actual statistics with the ratio computed in DOUBLE
+-- V8 divided minutes with integer '/', which MySQL evaluates as DECIMAL rounded to 4 places;
+-- ratios near a histogram bucket boundary landed in a different bucket than the DOUBLE
+-- computation TaskEstimateService uses for incremental updates (same SQL as
+-- TaskEstimateRepositoryImpl rebuild)
+
+DELETE FROM task_estimate_stats;
+DELETE FROM task_estimate_histograms;
+
+INSERT INTO task_estimate_stats
+    (user_id, category_id, sample_count, mean_ratio, m2_ratio, planned_minutes, actual_minutes)
+SELECT e.user_id, e.category_id, COUNT(*), AVG(CAST(e.actual AS DOUBLE) / e.planned),
+       VAR_POP(CAST(e.actual AS DOUBLE) / e.planned) * COUNT(*), SUM(e.planned), SUM(e.actual)
+FROM (SELECT t.user_id, COALESCE(t.category_id, 0) AS category_id,
+             TIMESTAMPDIFF(MINUTE, t.planned_start_time, t.planned_end_time) AS planned,
+             TIMESTAMPDIFF(MINUTE, t.actual_start_time, t.actual_end_time) AS actual
+      FROM tasks t
+      WHERE t.status = 'DONE' AND t.planned_start_time IS NOT NULL) e
+WHERE e.planned > 0 AND e.actual > 0
+GROUP BY e.user_id, e.category_id;
+
+INSERT INTO task_estimate_histograms (user_id, category_id, bucket, sample_count)
+SELECT e.user_id, e.category_id,
+       LEAST(GREATEST(FLOOR(LN(CAST(e.actual AS DOUBLE) / e.planned / 0.0625) / LN(1.05)) + 1, 0), 115) AS bucket,
+       COUNT(*)
+FROM (SELECT t.user_id, COALESCE(t.category_id, 0) AS category_id,
+             TIMESTAMPDIFF(MINUTE, t.planned_start_time, t.planned_end_time) AS planned,
+             TIMESTAMPDIFF(MINUTE, t.actual_start_time, t.actual_end_time) AS actual
+      FROM tasks t
+      WHERE t.status = 'DONE' AND t.planned_start_time IS NOT NULL) e
+WHERE e.planned > 0 AND e.actual > 0
+GROUP BY e.user_id, e.category_id, bucket;
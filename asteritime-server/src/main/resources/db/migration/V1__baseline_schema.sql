@@ -0,0 +1,82 @@
+-- AsteriTime baseline schema
+-- Mirrors the tables previously generated by Hibernate ddl-auto: update.
+-- Existing databases are baselined at version 1 (spring.flyway.baseline-on-migrate),
+-- so this script only runs against an empty database.
+
+CREATE TABLE users (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    username    VARCHAR(255) NOT NULL,
+    email       VARCHAR(255) NOT NULL,
+    password    VARCHAR(255) NOT NULL,
+    version     BIGINT       NOT NULL,
+    created_at  DATETIME(6)  NOT NULL,
+    updated_at  DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE task_categories (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    user_id     BIGINT       NOT NULL,
+    name        VARCHAR(255) NOT NULL,
+    version     BIGINT       NOT NULL,
+    created_at  DATETIME(6)  NOT NULL,
+    updated_at  DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_task_categories_user_name UNIQUE (user_id, name),
+    CONSTRAINT fk_task_categories_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE task_recurrence_rules (
+    id                    BIGINT       NOT NULL AUTO_INCREMENT,
+    user_id               BIGINT       NOT NULL,
+    frequency_expression  VARCHAR(255) NOT NULL,
+    version               BIGINT       NOT NULL,
+    created_at            DATETIME(6)  NOT NULL,
+    updated_at            DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_task_recurrence_rules_user_expr UNIQUE (user_id, frequency_expression),
+    CONSTRAINT fk_task_recurrence_rules_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE tasks (
+    id                  BIGINT       NOT NULL AUTO_INCREMENT,
+    user_id             BIGINT       NOT NULL,
+    title               VARCHAR(255) NOT NULL,
+    description         VARCHAR(255),
+    quadrant            INT          NOT NULL,
+    category_id         BIGINT,
+    recurrence_rule_id  BIGINT,
+    status              VARCHAR(255) NOT NULL,
+    planned_start_time  DATETIME(6),
+    planned_end_time    DATETIME(6),
+    actual_start_time   DATETIME(6),
+    actual_end_time     DATETIME(6),
+    version             BIGINT       NOT NULL,
+    created_at          DATETIME(6)  NOT NULL,
+    updated_at          DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_tasks_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_tasks_category FOREIGN KEY (category_id) REFERENCES task_categories (id),
+    CONSTRAINT fk_tasks_recurrence_rule FOREIGN KEY (recurrence_rule_id) REFERENCES task_recurrence_rules (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE journal_entries (
+    id                   BIGINT       NOT NULL AUTO_INCREMENT,
+    user_id              BIGINT       NOT NULL,
+    date                 DATE         NOT NULL,
+    title                VARCHAR(255),
+    content_text         TEXT,
+    image_urls           TEXT,
+    weather              VARCHAR(50),
+    mood                 VARCHAR(50),
+    activity             VARCHAR(50),
+    voice_note_url       VARCHAR(500),
+    total_focus_minutes  INT          NOT NULL,
+    evaluation           TEXT,
+    version              BIGINT       NOT NULL,
+    created_at           DATETIME(6)  NOT NULL,
+    updated_at           DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_journal_entries_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
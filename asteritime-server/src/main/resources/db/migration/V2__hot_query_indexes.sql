@@ -0,0 +1,33 @@
+-- Composite indexes for the hot query shapes
+--
+-- InnoDB appends the primary key to every secondary index, so (user_id, x) is
+-- effectively (user_id, x, id) and also serves keyset pagination on (x, id).
+
+-- tasks ----------------------------------------------------------------------
+
+-- TaskRepository#search / #searchAfter with planned start range (Dashboard, Timeline, Analytics),
+-- keyset order (planned_start_time, id) for GET /tasks/page
+CREATE INDEX idx_tasks_user_planned_start ON tasks (user_id, planned_start_time);
+
+-- Status filter combined with planned start range (e.g., DONE tasks of a week)
+CREATE INDEX idx_tasks_user_status_planned_start ON tasks (user_id, status, planned_start_time);
+
+-- Quadrant filter combined with planned start range
+CREATE INDEX idx_tasks_user_quadrant_planned_start ON tasks (user_id, quadrant, planned_start_time);
+
+-- Category filter combined with planned start range
+CREATE INDEX idx_tasks_user_category_planned_start ON tasks (user_id, category_id, planned_start_time);
+
+-- Actual start range filter (actualFrom / actualTo)
+CREATE INDEX idx_tasks_user_actual_start ON tasks (user_id, actual_start_time);
+
+-- updatedSince filter and default createdAt order
+CREATE INDEX idx_tasks_user_updated_at ON tasks (user_id, updated_at);
+CREATE INDEX idx_tasks_user_created_at ON tasks (user_id, created_at);
+
+-- journal_entries ------------------------------------------------------------
+
+-- findByUser_IdAndDateOrderByCreatedAtDesc (by-date, focus-time, today, evaluation),
+-- findByUser_IdAndDateBetweenOrderByDateDescCreatedAtDesc (by-date-range),
+-- findByUser_IdOrderByDateDescCreatedAtDesc and keyset order (date, created_at, id) for /page
+CREATE INDEX idx_journal_entries_user_date_created ON journal_entries (user_id, date, created_at);
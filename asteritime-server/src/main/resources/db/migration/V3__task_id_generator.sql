@@ -0,0 +1,15 @@
+-- Pooled ID allocation for tasks (enables JDBC insert batching)
+--
+-- Task IDs are allocated by Hibernate's table generator in blocks of 50 (allocationSize).
+-- The row is seeded one block above the current maximum so allocated IDs never collide
+-- with existing rows. tasks.id keeps AUTO_INCREMENT for manual inserts (e.g., test_data.sql),
+-- which should only be run against a database before the application allocates IDs.
+
+CREATE TABLE id_generators (
+    sequence_name  VARCHAR(255) NOT NULL,
+    next_val       BIGINT       NOT NULL,
+    PRIMARY KEY (sequence_name)
+) ENGINE = InnoDB;
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'tasks', COALESCE(MAX(id), 0) + 51 FROM tasks;
@@ -0,0 +1,13 @@
+-- Tombstones of deleted tasks for the incremental change feed (GET /api/tasks/changes)
+
+CREATE TABLE task_tombstones (
+    id          BIGINT      NOT NULL AUTO_INCREMENT,
+    user_id     BIGINT      NOT NULL,
+    task_id     BIGINT      NOT NULL,
+    deleted_at  DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    -- Change feed lookup: tombstones of one user since a watermark
+    KEY idx_task_tombstones_user_deleted_at (user_id, deleted_at),
+    -- Retention purge
+    KEY idx_task_tombstones_deleted_at (deleted_at)
+) ENGINE = InnoDB;
@@ -0,0 +1,25 @@
+-- Per-day task aggregates for analytics, maintained incrementally by TaskRollupService
+-- One row per (user, planned start day, quadrant, category, status); category_id 0 = uncategorized
+
+CREATE TABLE daily_task_rollups (
+    user_id          BIGINT       NOT NULL,
+    date             DATE         NOT NULL,
+    quadrant         INT          NOT NULL,
+    category_id      BIGINT       NOT NULL,
+    status           VARCHAR(255) NOT NULL,
+    task_count       BIGINT       NOT NULL,
+    planned_minutes  BIGINT       NOT NULL,
+    actual_minutes   BIGINT       NOT NULL,
+    -- Clustered by user and day: a weekly/monthly report reads one contiguous key range
+    PRIMARY KEY (user_id, date, quadrant, category_id, status)
+) ENGINE = InnoDB;
+
+-- Backfill from existing tasks (same aggregation as TaskAnalyticsRepositoryImpl rebuild)
+INSERT INTO daily_task_rollups
+    (user_id, date, quadrant, category_id, status, task_count, planned_minutes, actual_minutes)
+SELECT t.user_id, DATE(t.planned_start_time), t.quadrant, COALESCE(t.category_id, 0), t.status, COUNT(*),
+       SUM(GREATEST(COALESCE(TIMESTAMPDIFF(MINUTE, t.planned_start_time, t.planned_end_time), 0), 0)),
+       SUM(GREATEST(COALESCE(TIMESTAMPDIFF(MINUTE, t.actual_start_time, t.actual_end_time), 0), 0))
+FROM tasks t
+WHERE t.planned_start_time IS NOT NULL
+GROUP BY t.user_id, DATE(t.planned_start_time), t.quadrant, COALESCE(t.category_id, 0), t.status;
@@ -0,0 +1,23 @@
+-- Append-only Pomodoro sessions and their per-hour aggregates
+
+CREATE TABLE focus_sessions (
+    id          BIGINT      NOT NULL AUTO_INCREMENT,
+    user_id     BIGINT      NOT NULL,
+    -- No foreign key: sessions are kept when the task is deleted
+    task_id     BIGINT,
+    started_at  DATETIME(6) NOT NULL,
+    ended_at    DATETIME(6) NOT NULL,
+    minutes     INT         NOT NULL,
+    created_at  DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    KEY idx_focus_sessions_user_started_at (user_id, started_at)
+) ENGINE = InnoDB;
+
+-- Focus minutes per user and clock hour, incremented on every session insert
+CREATE TABLE focus_hour_buckets (
+    user_id     BIGINT   NOT NULL,
+    hour_start  DATETIME NOT NULL,
+    minutes     BIGINT   NOT NULL,
+    sessions    BIGINT   NOT NULL,
+    PRIMARY KEY (user_id, hour_start)
+) ENGINE = InnoDB;
@@ -0,0 +1,13 @@
+-- Frozen weekly analytics reports (Monday to Sunday), written once after the week closes
+
+CREATE TABLE weekly_report_snapshots (
+    id          BIGINT      NOT NULL AUTO_INCREMENT,
+    user_id     BIGINT      NOT NULL,
+    week_start  DATE        NOT NULL,
+    -- AnalyticsReport serialized as JSON
+    report      MEDIUMTEXT  NOT NULL,
+    frozen_at   DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    -- Report lookup is a single-row read; also keeps concurrent writers from storing a week twice
+    UNIQUE KEY uk_weekly_report_snapshots_user_week (user_id, week_start)
+) ENGINE = InnoDB;
@@ -0,0 +1,48 @@
+-- Planned-vs-actual duration statistics of DONE tasks, maintained incrementally by TaskEstimateService
+-- ratio = actual minutes / planned minutes; tasks without both durations are not counted
+-- category_id 0 = uncategorized
+
+-- Welford state (count, mean, sum of squared deviations) of the ratio per user and category
+CREATE TABLE task_estimate_stats (
+    user_id          BIGINT NOT NULL,
+    category_id      BIGINT NOT NULL,
+    sample_count     BIGINT NOT NULL,
+    mean_ratio       DOUBLE NOT NULL,
+    m2_ratio         DOUBLE NOT NULL,
+    planned_minutes  BIGINT NOT NULL,
+    actual_minutes   BIGINT NOT NULL,
+    PRIMARY KEY (user_id, category_id)
+) ENGINE = InnoDB;
+
+-- Log-scaled histogram of the ratio (bucket 0: <= 1/16, 1-114: 5% wide, 115: >= 16)
+CREATE TABLE task_estimate_histograms (
+    user_id       BIGINT NOT NULL,
+    category_id   BIGINT NOT NULL,
+    bucket        INT    NOT NULL,
+    sample_count  BIGINT NOT NULL,
+    PRIMARY KEY (user_id, category_id, bucket)
+) ENGINE = InnoDB;
+
+-- Backfill from existing tasks (same aggregation as TaskEstimateRepositoryImpl rebuild)
+INSERT INTO task_estimate_stats
+    (user_id, category_id, sample_count, mean_ratio, m2_ratio, planned_minutes, actual_minutes)
+SELECT e.user_id, e.category_id, COUNT(*), AVG(e.actual / e.planned), VAR_POP(e.actual / e.planned) * COUNT(*),
+       SUM(e.planned), SUM(e.actual)
+FROM (SELECT t.user_id, COALESCE(t.category_id, 0) AS category_id,
+             TIMESTAMPDIFF(MINUTE, t.planned_start_time, t.planned_end_time) AS planned,
+             TIMESTAMPDIFF(MINUTE, t.actual_start_time, t.actual_end_time) AS actual
+      FROM tasks t
+      WHERE t.status = 'DONE' AND t.planned_start_time IS NOT NULL) e
+WHERE e.planned > 0 AND e.actual > 0
+GROUP BY e.user_id, e.category_id;
+
+INSERT INTO task_estimate_histograms (user_id, category_id, bucket, sample_count)
+SELECT e.user_id, e.category_id,
+       LEAST(GREATEST(FLOOR(LN(e.actual / e.planned / 0.0625) / LN(1.05)) + 1, 0), 115) AS bucket, COUNT(*)
+FROM (SELECT t.user_id, COALESCE(t.category_id, 0) AS category_id,
+             TIMESTAMPDIFF(MINUTE, t.planned_start_time, t.planned_end_time) AS planned,
+             TIMESTAMPDIFF(MINUTE, t.actual_start_time, t.actual_end_time) AS actual
+      FROM tasks t
+      WHERE t.status = 'DONE' AND t.planned_start_time IS NOT NULL) e
+WHERE e.planned > 0 AND e.actual > 0
+GROUP BY e.user_id, e.category_id, bucket;
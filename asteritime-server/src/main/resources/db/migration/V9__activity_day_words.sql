@@ -0,0 +1,19 @@
+-- Per-user bitset of active days (focus minutes or completed tasks), maintained by ActivityStreakService
+-- Day d = days since 1970-01-01 is bit (d MOD 64) of word (d DIV 64); bits is the 64-bit word as signed BIGINT
+
+CREATE TABLE activity_day_words (
+    user_id     BIGINT NOT NULL,
+    word_index  INT    NOT NULL,
+    bits        BIGINT NOT NULL,
+    PRIMARY KEY (user_id, word_index)
+) ENGINE = InnoDB;
+
+-- Backfill from journal focus totals and task rollups (TO_DAYS('1970-01-01') = 719528)
+INSERT INTO activity_day_words (user_id, word_index, bits)
+SELECT a.user_id, a.day DIV 64, CAST(BIT_OR(1 << (a.day MOD 64)) AS SIGNED)
+FROM (SELECT e.user_id, TO_DAYS(e.date) - 719528 AS day FROM journal_entries e
+      WHERE e.total_focus_minutes > 0 AND e.date >= '1970-01-01'
+      UNION
+      SELECT r.user_id, TO_DAYS(r.date) - 719528 FROM daily_task_rollups r
+      WHERE r.status = 'DONE' AND r.task_count > 0 AND r.date >= '1970-01-01') a
+GROUP BY a.user_id, a.day DIV 64;
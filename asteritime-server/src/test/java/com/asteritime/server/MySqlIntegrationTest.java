@@ -0,0 +1,44 @@
+package com.asteritime.server;
+
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Base class of integration tests against a real MySQL 8 (Docker, via Testcontainers)
+ *
+ * The application context starts as in production: Flyway applies db/migration to an empty
+ * database and Hibernate validates the schema. One container is shared by all test classes
+ * (like the cached Spring context) and removed when the JVM exits, so each class should create
+ * its own users instead of relying on an empty database.
+ *
+ * MockMvc is configured for every subclass so they all share one cached context.
+ * Tests are skipped when no Docker daemon is available.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class MySqlIntegrationTest {
+
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0.36")
+            .withDatabaseName("asteritime")
+            .withUrlParam("serverTimezone", "UTC")
+            .withUrlParam("characterEncoding", "UTF-8")
+            .withUrlParam("rewriteBatchedStatements", "true")
+            // Idle unless a test calls SqlCapture.capture()
+            .withUrlParam("queryInterceptors", SqlCapture.class.getName());
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        // Started here rather than by @Container so it outlives a single test class
+        MYSQL.start();
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+    }
+}
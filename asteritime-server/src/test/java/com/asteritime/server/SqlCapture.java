@@ -0,0 +1,70 @@
+package com.asteritime.server;
+
+import com.mysql.cj.MysqlConnection;
+import com.mysql.cj.Query;
+import com.mysql.cj.interceptors.QueryInterceptor;
+import com.mysql.cj.log.Log;
+import com.mysql.cj.protocol.Resultset;
+import com.mysql.cj.protocol.ServerSession;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.Supplier;
+
+/**
+ * Records the SQL statements the current thread sends to MySQL (Connector/J query interceptor)
+ *
+ * Registered on every test connection by MySqlIntegrationTest (queryInterceptors URL parameter).
+ * Prepared statements are client-side (useServerPrepStmts=false), so the recorded text is the
+ * statement exactly as the server receives it, with parameters inlined; it can be run or
+ * EXPLAINed as is. Nothing is recorded outside capture().
+ */
+public class SqlCapture implements QueryInterceptor {
+
+    private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+    /**
+     * Run action and return the statements it sent on this thread, in order
+     */
+    public static List<String> capture(Runnable action) {
+        List<String> statements = new ArrayList<>();
+        STATEMENTS.set(statements);
+        try {
+            action.run();
+        } finally {
+            STATEMENTS.remove();
+        }
+        return Collections.unmodifiableList(statements);
+    }
+
+    @Override
+    public QueryInterceptor init(MysqlConnection connection, Properties properties, Log log) {
+        return this;
+    }
+
+    @Override
+    public <T extends Resultset> T preProcess(Supplier<String> sql, Query interceptedQuery) {
+        List<String> statements = STATEMENTS.get();
+        if (statements != null) {
+            statements.add(sql.get());
+        }
+        return null;
+    }
+
+    @Override
+    public boolean executeTopLevelOnly() {
+        return true;
+    }
+
+    @Override
+    public <T extends Resultset> T postProcess(Supplier<String> sql, Query interceptedQuery, T originalResultSet,
+                                               ServerSession serverSession) {
+        return originalResultSet;
+    }
+
+    @Override
+    public void destroy() {
+    }
+}
@@ -0,0 +1,174 @@
+package com.asteritime.server;
+
+import com.asteritime.common.model.TaskStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Bulk test rows written with plain JDBC (fast, and invisible to Hibernate caches)
+ *
+ * Rows are spread deterministically: task i is planned on day (i % days) at hour (i / days) % 24,
+ * cycles through quadrants, statuses, categories and recurrence rules, and every other task
+ * has an actual start time.
+ */
+public final class TestData {
+
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private static final String[] MOODS = {"happy", "calm", "tired", "sad"};
+
+    private TestData() {
+    }
+
+    /**
+     * Insert a user with a unique name and email
+     *
+     * @return User ID
+     */
+    public static long createUser(JdbcTemplate jdbc) {
+        String name = "test-" + UUID.randomUUID();
+        Map<String, Object> row = new HashMap<>();
+        row.put("username", name);
+        row.put("email", name + "@example.com");
+        row.put("password", "not-a-hash");
+        row.put("version", 0);
+        row.put("created_at", Timestamp.valueOf(LocalDateTime.now()));
+        return new SimpleJdbcInsert(jdbc).withTableName("users").usingGeneratedKeyColumns("id")
+                .executeAndReturnKey(row).longValue();
+    }
+
+    /**
+     * Insert categories named "Category 0".."Category n-1"
+     *
+     * @return Category IDs
+     */
+    public static List<Long> createCategories(JdbcTemplate jdbc, long userId, int count) {
+        SimpleJdbcInsert insert = new SimpleJdbcInsert(jdbc).withTableName("task_categories")
+                .usingGeneratedKeyColumns("id");
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("user_id", userId);
+            row.put("name", "Category " + i);
+            row.put("version", 0);
+            row.put("created_at", Timestamp.valueOf(LocalDateTime.now()));
+            ids.add(insert.executeAndReturnKey(row).longValue());
+        }
+        return ids;
+    }
+
+    /**
+     * Insert recurrence rules FREQ=DAILY;INTERVAL=1..n
+     *
+     * @return Rule IDs
+     */
+    public static List<Long> createRecurrenceRules(JdbcTemplate jdbc, long userId, int count) {
+        SimpleJdbcInsert insert = new SimpleJdbcInsert(jdbc).withTableName("task_recurrence_rules")
+                .usingGeneratedKeyColumns("id");
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("user_id", userId);
+            row.put("frequency_expression", "FREQ=DAILY;INTERVAL=" + (i + 1));
+            row.put("version", 0);
+            row.put("created_at", Timestamp.valueOf(LocalDateTime.now()));
+            ids.add(insert.executeAndReturnKey(row).longValue());
+        }
+        return ids;
+    }
+
+    /**
+     * Insert tasks planned over [firstDay, firstDay + days)
+     *
+     * IDs are reserved from id_generators like Hibernate's task_id generator does, so tasks the
+     * application creates afterwards never collide with them.
+     *
+     * @param categoryIds Categories assigned round-robin (empty = none)
+     * @param ruleIds Recurrence rules assigned round-robin (empty = none)
+     */
+    public static void insertTasks(JdbcTemplate jdbc, long userId, int count, LocalDate firstDay, int days,
+                                   List<Long> categoryIds, List<Long> ruleIds) {
+        long firstId = reserveTaskIds(jdbc, count);
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            LocalDateTime plannedStart = firstDay.plusDays(i % days).atStartOfDay().plusHours((i / days) % 24);
+            rows.add(new Object[] {
+                    firstId + i, userId, "Task " + i, 1 + i % 4,
+                    categoryIds.isEmpty() ? null : categoryIds.get(i % categoryIds.size()),
+                    ruleIds.isEmpty() ? null : ruleIds.get(i % ruleIds.size()),
+                    STATUSES[i % STATUSES.length].name(),
+                    Timestamp.valueOf(plannedStart), Timestamp.valueOf(plannedStart.plusMinutes(30)),
+                    i % 2 == 0 ? Timestamp.valueOf(plannedStart.plusMinutes(5)) : null,
+                    Timestamp.valueOf(now.minusSeconds(count - i)), Timestamp.valueOf(now.minusSeconds(count - i))
+            });
+        }
+        jdbc.batchUpdate("INSERT INTO tasks (id, user_id, title, quadrant, category_id, recurrence_rule_id, status, "
+                + "planned_start_time, planned_end_time, actual_start_time, version, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?)", rows);
+    }
+
+    /**
+     * Insert DONE tasks planned and worked on day, one per {plannedMinutes, actualMinutes} pair
+     *
+     * @param categoryId Category of every task (null = none)
+     */
+    public static void insertCompletedTasks(JdbcTemplate jdbc, long userId, Long categoryId, LocalDate day,
+                                            List<int[]> minutes) {
+        long firstId = reserveTaskIds(jdbc, minutes.size());
+        LocalDateTime start = day.atTime(8, 0);
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < minutes.size(); i++) {
+            rows.add(new Object[] {
+                    firstId + i, userId, "Done " + i, 1 + i % 4, categoryId, TaskStatus.DONE.name(),
+                    Timestamp.valueOf(start), Timestamp.valueOf(start.plusMinutes(minutes.get(i)[0])),
+                    Timestamp.valueOf(start), Timestamp.valueOf(start.plusMinutes(minutes.get(i)[1])),
+                    Timestamp.valueOf(now), Timestamp.valueOf(now)
+            });
+        }
+        jdbc.batchUpdate("INSERT INTO tasks (id, user_id, title, quadrant, category_id, status, "
+                + "planned_start_time, planned_end_time, actual_start_time, actual_end_time, version, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?)", rows);
+    }
+
+    /**
+     * Insert journal entries dated over [firstDay, firstDay + days), several per day once count > days
+     */
+    public static void insertJournalEntries(JdbcTemplate jdbc, long userId, int count, LocalDate firstDay, int days) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[] {
+                    userId, Date.valueOf(firstDay.plusDays(i % days)), "Entry " + i,
+                    "Journal text of entry " + i, MOODS[i % MOODS.length], i % 60,
+                    Timestamp.valueOf(now.minusSeconds(count - i)), Timestamp.valueOf(now.minusSeconds(count - i))
+            });
+        }
+        jdbc.batchUpdate("INSERT INTO journal_entries (user_id, date, title, content_text, mood, total_focus_minutes, "
+                + "version, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, 0, ?, ?)", rows);
+    }
+
+    /**
+     * Reserve count task IDs above every block the pooled generator may already have handed out
+     *
+     * @return First reserved ID
+     */
+    private static long reserveTaskIds(JdbcTemplate jdbc, int count) {
+        Long next = jdbc.queryForObject(
+                "SELECT next_val FROM id_generators WHERE sequence_name = 'tasks'", Long.class);
+        // The generator's next block starts at or after the new value minus its allocation size (50)
+        jdbc.update("UPDATE id_generators SET next_val = ? WHERE sequence_name = 'tasks'", next + count + 50);
+        return next;
+    }
+}
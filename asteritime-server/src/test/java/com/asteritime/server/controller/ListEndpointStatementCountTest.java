@@ -0,0 +1,170 @@
+package com.asteritime.server.controller;
+
+import com.asteritime.server.MySqlIntegrationTest;
+import com.asteritime.server.TestData;
+import com.asteritime.server.util.JwtUtil;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Task and journal list endpoints run a constant number of SQL statements, however many rows they return
+ * (and single-entity reads the same number whatever their user owns)
+ *
+ * Two users with the same data shape but a different row count (every task has its own category
+ * and recurrence rule, so a lazy association loaded per row would show up as extra statements)
+ * call each endpoint once; Hibernate statistics (generate_statistics) count the prepared statements
+ * of the whole request, including JSON serialization. Caches are cold for both users.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ListEndpointStatementCountTest extends MySqlIntegrationTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 3, 3);
+
+    private static final int FEW = 3;
+
+    private static final int MANY = 60;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String fewRowsToken;
+
+    private String manyRowsToken;
+
+    private long fewRowsUserId;
+
+    private long manyRowsUserId;
+
+    @BeforeAll
+    void seed() {
+        fewRowsUserId = createUserWithRows(FEW);
+        manyRowsUserId = createUserWithRows(MANY);
+        fewRowsToken = jwtUtil.generateToken(fewRowsUserId);
+        manyRowsToken = jwtUtil.generateToken(manyRowsUserId);
+    }
+
+    private long createUserWithRows(int count) {
+        long userId = TestData.createUser(jdbc);
+        // All tasks in one week, so the week query returns every row
+        TestData.insertTasks(jdbc, userId, count, FIRST_DAY, 7,
+                TestData.createCategories(jdbc, userId, count), TestData.createRecurrenceRules(jdbc, userId, count));
+        TestData.insertJournalEntries(jdbc, userId, count, FIRST_DAY, 7);
+        return userId;
+    }
+
+    @Test
+    void allTasks() throws Exception {
+        assertConstantStatements("/tasks");
+    }
+
+    @Test
+    void tasksOfWeek() throws Exception {
+        assertConstantStatements("/tasks?startTime=" + FIRST_DAY.atStartOfDay()
+                + "&endTime=" + FIRST_DAY.plusDays(6).atTime(23, 59, 59) + "&sort=plannedStartTime,asc");
+    }
+
+    @Test
+    void tasksFilteredWithLimit() throws Exception {
+        assertConstantStatements("/tasks?quadrant=1,2,3,4&status=DELAY,TODO,DOING,DONE,CANCEL&limit=200");
+    }
+
+    @Test
+    void taskPage() throws Exception {
+        assertConstantStatements("/tasks/page?size=200");
+    }
+
+    @Test
+    void taskChanges() throws Exception {
+        assertConstantStatements("/tasks/changes?since=" + LocalDateTime.now().minusDays(1));
+    }
+
+    @Test
+    void allJournalEntries() throws Exception {
+        assertConstantStatements("/journal-entries");
+    }
+
+    @Test
+    void journalPage() throws Exception {
+        assertConstantStatements("/journal-entries/page?size=200");
+    }
+
+    @Test
+    void journalEntriesByDate() throws Exception {
+        assertConstantStatements("/journal-entries/by-date?date=" + FIRST_DAY);
+    }
+
+    @Test
+    void journalEntriesByDateRange() throws Exception {
+        assertConstantStatements("/journal-entries/by-date-range?startDate=" + FIRST_DAY
+                + "&endDate=" + FIRST_DAY.plusDays(6));
+    }
+
+    @Test
+    void singleTask() throws Exception {
+        // Task with category and recurrence rule: one select with the entity graph, no lazy loads
+        assertThat(assertConstantStatements("/tasks/" + firstId("tasks", fewRowsUserId),
+                "/tasks/" + firstId("tasks", manyRowsUserId))).isEqualTo(1);
+    }
+
+    @Test
+    void singleJournalEntry() throws Exception {
+        // findByIdWithUser: the owner check reads the fetch-joined user, not a second select
+        assertThat(assertConstantStatements("/journal-entries/" + firstId("journal_entries", fewRowsUserId),
+                "/journal-entries/" + firstId("journal_entries", manyRowsUserId))).isEqualTo(1);
+    }
+
+    private long firstId(String table, long userId) {
+        return jdbc.queryForObject("SELECT MIN(id) FROM " + table + " WHERE user_id = ?", Long.class, userId);
+    }
+
+    private void assertConstantStatements(String url) throws Exception {
+        assertConstantStatements(url, url);
+    }
+
+    /**
+     * Same request for the user with few rows (fewRowsUrl) and the one with many (manyRowsUrl)
+     *
+     * @return Statements per request
+     */
+    private long assertConstantStatements(String fewRowsUrl, String manyRowsUrl) throws Exception {
+        long few = countStatements(fewRowsUrl, fewRowsToken);
+        long many = countStatements(manyRowsUrl, manyRowsToken);
+        assertThat(few).as("statements of GET %s", fewRowsUrl).isPositive();
+        assertThat(many).as("statements of GET %s for %d rows vs %d rows", manyRowsUrl, MANY, FEW).isEqualTo(few);
+        return few;
+    }
+
+    private long countStatements(String url, String token) throws Exception {
+        // Cold second-level cache, so a cached category or rule cannot hide a per-row select
+        entityManagerFactory.getCache().evictAll();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get(url).header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,217 @@
+package com.asteritime.server.media;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Range / If-Range handling of ByteRangeResponder (mock servlet objects, so bodies take the transferTo path)
+ */
+class ByteRangeResponderTest {
+
+    private static final int SIZE = 100;
+
+    private static final String ETAG = "\"abc123\"";
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+
+    private byte[] content;
+
+    @BeforeEach
+    void createFile() throws Exception {
+        content = new byte[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            content[i] = (byte) i;
+        }
+        file = directory.resolve("blob");
+        Files.write(file, content);
+    }
+
+    @Test
+    void noRangeSendsWholeFile() throws Exception {
+        MockHttpServletResponse response = respond(get());
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(response.getContentLengthLong()).isEqualTo(SIZE);
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    void singleRange() throws Exception {
+        MockHttpServletResponse response = respond(get("bytes=10-19"));
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 10-19/100");
+        assertThat(response.getContentLengthLong()).isEqualTo(10);
+        assertThat(response.getContentAsByteArray()).isEqualTo(slice(10, 20));
+    }
+
+    @Test
+    void openEndedRange() throws Exception {
+        MockHttpServletResponse response = respond(get("bytes=95-"));
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 95-99/100");
+        assertThat(response.getContentAsByteArray()).isEqualTo(slice(95, 100));
+    }
+
+    @Test
+    void suffixRangeSendsLastBytes() throws Exception {
+        MockHttpServletResponse response = respond(get("bytes=-10"));
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 90-99/100");
+        assertThat(response.getContentLengthLong()).isEqualTo(10);
+        assertThat(response.getContentAsByteArray()).isEqualTo(slice(90, 100));
+    }
+
+    @Test
+    void suffixLongerThanFileSendsWholeFileAsRange() throws Exception {
+        MockHttpServletResponse response = respond(get("bytes=-500"));
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 0-99/100");
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    void rangeEndBeyondFileIsClamped() throws Exception {
+        MockHttpServletResponse response = respond(get("bytes=90-500"));
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 90-99/100");
+        assertThat(response.getContentAsByteArray()).isEqualTo(slice(90, 100));
+    }
+
+    @Test
+    void unsatisfiableRangeIs416() throws Exception {
+        MockHttpServletResponse response = respond(get("bytes=100-200"));
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */100");
+        assertThat(response.getContentLengthLong()).isZero();
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void unsatisfiablePartsAreSkipped() throws Exception {
+        MockHttpServletResponse response = respond(get("bytes=10-19,150-160"));
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 10-19/100");
+        assertThat(response.getContentAsByteArray()).isEqualTo(slice(10, 20));
+    }
+
+    @Test
+    void malformedRangeIsIgnored() throws Exception {
+        MockHttpServletResponse response = respond(get("bytes=abc"));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    void rangesLargerThanFileAreIgnored() throws Exception {
+        MockHttpServletResponse response = respond(get("bytes=0-99,0-99"));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    void matchingIfRangeHonoursRange() throws Exception {
+        MockHttpServletRequest request = get("bytes=10-19");
+        request.addHeader(HttpHeaders.IF_RANGE, ETAG);
+        MockHttpServletResponse response = respond(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsByteArray()).isEqualTo(slice(10, 20));
+    }
+
+    @Test
+    void mismatchingIfRangeSendsWholeFile() throws Exception {
+        MockHttpServletRequest request = get("bytes=10-19");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"other\"");
+        MockHttpServletResponse response = respond(request);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isNull();
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    void dateIfRangeSendsWholeFile() throws Exception {
+        MockHttpServletRequest request = get("bytes=10-19");
+        request.addHeader(HttpHeaders.IF_RANGE, "Wed, 21 Oct 2015 07:28:00 GMT");
+        MockHttpServletResponse response = respond(request);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    void multipleRangesAreMultipartWithExactContentLength() throws Exception {
+        MockHttpServletResponse response = respond(get("bytes=0-9,50-59"));
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentType()).startsWith("multipart/byteranges; boundary=");
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isNull();
+        byte[] body = response.getContentAsByteArray();
+        assertThat(response.getContentLengthLong()).isEqualTo(body.length);
+
+        String boundary = response.getContentType().substring(response.getContentType().indexOf('=') + 1);
+        String text = new String(body, StandardCharsets.ISO_8859_1);
+        assertThat(text).contains("--" + boundary + "\r\nContent-Type: audio/wav\r\nContent-Range: bytes 0-9/100\r\n\r\n"
+                + new String(slice(0, 10), StandardCharsets.ISO_8859_1));
+        assertThat(text).contains("Content-Range: bytes 50-59/100\r\n\r\n"
+                + new String(slice(50, 60), StandardCharsets.ISO_8859_1));
+        assertThat(text).endsWith("\r\n--" + boundary + "--\r\n");
+    }
+
+    @Test
+    void headSendsHeadersOnly() throws Exception {
+        MockHttpServletRequest request = get("bytes=0-9,50-59");
+        request.setMethod("HEAD");
+        MockHttpServletResponse response = respond(request);
+
+        MockHttpServletResponse full = respond(get("bytes=0-9,50-59"));
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        // The boundary is random but always the same length, so the announced length matches a GET
+        assertThat(response.getContentLengthLong()).isEqualTo(full.getContentLengthLong());
+    }
+
+    private MockHttpServletResponse respond(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ByteRangeResponder.respond(request, response, file, SIZE, "audio/wav", ETAG);
+        return response;
+    }
+
+    private static MockHttpServletRequest get() {
+        return new MockHttpServletRequest("GET", "/media/blob");
+    }
+
+    private static MockHttpServletRequest get(String range) {
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.RANGE, range);
+        return request;
+    }
+
+    private byte[] slice(int from, int to) {
+        return Arrays.copyOfRange(content, from, to);
+    }
+}
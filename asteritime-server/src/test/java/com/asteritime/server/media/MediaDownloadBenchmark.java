@@ -0,0 +1,243 @@
+package com.asteritime.server.media;
+
+import com.asteritime.common.model.MediaBlob;
+import com.asteritime.server.MySqlIntegrationTest;
+import com.asteritime.server.service.MediaService;
+import com.sun.management.ThreadMXBean;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent ranged downloads of GET /api/media/{sha256}
+ *
+ * Stores one large WAV blob, then starts many Range requests at the same time over real HTTP and
+ * reads every body to the end. Reports throughput, the peak number of busy Tomcat worker threads
+ * and the heap allocated by Tomcat threads, and fails if
+ *   - a response is not 206 or its body has the wrong length,
+ *   - a worker thread is busy per download instead of being handed back while the body is sent
+ *     (peak busy workers above benchmark.max-busy-threads),
+ *   - the body is copied through the heap (allocations of http-nio threads above
+ *     benchmark.max-heap-percent of the bytes served).
+ *
+ * Not part of the regular test run:
+ *   mvn test -Dtest=MediaDownloadBenchmark -Dbenchmark=true [-Dbenchmark.downloads=64 -Dbenchmark.file-mb=256]
+ *
+ * The worker bound only holds where the connector supports sendfile (NIO on Linux/macOS);
+ * without it each download keeps its thread until the body is written.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MediaDownloadBenchmark extends MySqlIntegrationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(MediaDownloadBenchmark.class);
+
+    private static final int DOWNLOADS = Integer.getInteger("benchmark.downloads", 40);
+
+    private static final long FILE_BYTES = Integer.getInteger("benchmark.file-mb", 128) * 1024L * 1024L;
+
+    private static final int MAX_BUSY_THREADS = Integer.getInteger("benchmark.max-busy-threads", DOWNLOADS / 2);
+
+    private static final int MAX_HEAP_PERCENT = Integer.getInteger("benchmark.max-heap-percent", 5);
+
+    private static final String TOMCAT_THREAD_PREFIX = "http-nio-";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MediaService mediaService;
+
+    @Autowired
+    private ServletWebServerApplicationContext webServerContext;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private String sha256;
+
+    @BeforeAll
+    void storeBlob() throws Exception {
+        Path file = Files.createTempFile("media-benchmark", ".wav");
+        try {
+            writeWav(file);
+            try (InputStream in = Files.newInputStream(file)) {
+                MediaBlob blob = mediaService.upload("audio/wav", in);
+                sha256 = blob.getSha256();
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void concurrentRangedDownloads() throws Exception {
+        ThreadPoolExecutor workers = tomcatWorkers();
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Map<Long, Long> allocatedBefore = tomcatAllocations(threads);
+
+        AtomicInteger peakBusy = new AtomicInteger();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread sampler = new Thread(() -> {
+            while (running.get()) {
+                peakBusy.accumulateAndGet(workers.getActiveCount(), Math::max);
+                try {
+                    Thread.sleep(2);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "busy-worker-sampler");
+        sampler.start();
+
+        // Every download asks for a different, partly overlapping slice of half the file
+        long rangeLength = FILE_BYTES / 2;
+        long step = (FILE_BYTES - rangeLength) / Math.max(1, DOWNLOADS - 1);
+        ExecutorService clients = Executors.newFixedThreadPool(DOWNLOADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> results = new ArrayList<>();
+        for (int i = 0; i < DOWNLOADS; i++) {
+            long first = i * step;
+            long last = first + rangeLength - 1;
+            results.add(clients.submit(() -> {
+                start.await();
+                return download(first, last);
+            }));
+        }
+
+        long started = System.nanoTime();
+        start.countDown();
+        long bytes = 0;
+        for (Future<Long> result : results) {
+            bytes += result.get(5, TimeUnit.MINUTES);
+        }
+        long elapsedNanos = System.nanoTime() - started;
+        running.set(false);
+        sampler.join();
+        clients.shutdown();
+
+        long allocated = allocatedSince(threads, allocatedBefore);
+        log.info("{} ranged downloads, {} MB in {} ms ({} MB/s)", DOWNLOADS, bytes / (1024 * 1024),
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                Math.round(bytes / (1024.0 * 1024.0) / Math.max(1, elapsedNanos) * 1_000_000_000L));
+        log.info("Peak busy Tomcat workers: {} (pool max {}), heap allocated by Tomcat threads: {} KB",
+                peakBusy.get(), workers.getMaximumPoolSize(), allocated / 1024);
+
+        assertThat(bytes).isEqualTo(DOWNLOADS * rangeLength);
+        assertThat(peakBusy.get()).as("peak busy Tomcat workers for %d concurrent downloads", DOWNLOADS)
+                .isLessThanOrEqualTo(MAX_BUSY_THREADS);
+        assertThat(allocated).as("heap allocated by Tomcat threads while serving %d bytes", bytes)
+                .isLessThanOrEqualTo(bytes * MAX_HEAP_PERCENT / 100);
+    }
+
+    /**
+     * Downloads bytes first..last and returns the body length
+     */
+    private long download(long first, long last) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/media/" + sha256))
+                .header("Range", "bytes=" + first + "-" + last)
+                .build();
+        HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        assertThat(response.statusCode()).isEqualTo(206);
+        assertThat(response.headers().firstValue("Content-Range"))
+                .hasValue("bytes " + first + "-" + last + "/" + FILE_BYTES);
+        long length = 0;
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream body = response.body()) {
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                length += read;
+            }
+        }
+        assertThat(length).isEqualTo(last - first + 1);
+        return length;
+    }
+
+    private ThreadPoolExecutor tomcatWorkers() {
+        TomcatWebServer server = (TomcatWebServer) webServerContext.getWebServer();
+        return (ThreadPoolExecutor) server.getTomcat().getConnector().getProtocolHandler().getExecutor();
+    }
+
+    private static Map<Long, Long> tomcatAllocations(ThreadMXBean threads) {
+        Map<Long, Long> allocations = new HashMap<>();
+        for (ThreadInfo info : threads.getThreadInfo(threads.getAllThreadIds())) {
+            if (info != null && info.getThreadName().startsWith(TOMCAT_THREAD_PREFIX)) {
+                allocations.put(info.getThreadId(), threads.getThreadAllocatedBytes(info.getThreadId()));
+            }
+        }
+        return allocations;
+    }
+
+    /**
+     * Bytes allocated by Tomcat threads since the snapshot (threads started since then count from zero)
+     */
+    private static long allocatedSince(ThreadMXBean threads, Map<Long, Long> before) {
+        long allocated = 0;
+        for (Map.Entry<Long, Long> now : tomcatAllocations(threads).entrySet()) {
+            allocated += Math.max(0, now.getValue() - before.getOrDefault(now.getKey(), 0L));
+        }
+        return allocated;
+    }
+
+    /**
+     * Writes a WAV header followed by FILE_BYTES - 12 bytes of non-repeating content
+     */
+    private static void writeWav(Path file) throws Exception {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.wrap("RIFF\0\0\0\0WAVE".getBytes(StandardCharsets.US_ASCII));
+            channel.write(header);
+            ByteBuffer chunk = ByteBuffer.allocate(1024 * 1024);
+            long remaining = FILE_BYTES - header.capacity();
+            long counter = 0;
+            while (remaining > 0) {
+                chunk.clear();
+                while (chunk.remaining() >= Long.BYTES) {
+                    chunk.putLong(counter++);
+                }
+                chunk.flip();
+                chunk.limit((int) Math.min(chunk.limit(), remaining));
+                remaining -= channel.write(chunk);
+            }
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.asteritime.server.repository;
+
+import com.asteritime.common.model.TaskStatus;
+import com.asteritime.server.MySqlIntegrationTest;
+import com.asteritime.server.SqlCapture;
+import com.asteritime.server.TestData;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Index plan of the hot query shapes (V2__hot_query_indexes, V11__task_completed_on, V13__task_change_feed_index)
+ *
+ * Calls the real repository methods (Criteria search with its fetch joins, journal summary
+ * projections, completed_on queries) against migrated tables holding several users' worth of
+ * rows, captures the SQL they send with SqlCapture and asserts the index MySQL picks for it in
+ * EXPLAIN. A query that falls back to a full scan, or to a less selective index, fails here
+ * instead of in production, including when a mapping or Hibernate upgrade changes the SQL.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class HotQueryIndexTest extends MySqlIntegrationTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 1, 1);
+
+    // Prime, so quadrant/status/category are not tied to the day
+    private static final int TASK_DAYS = 397;
+
+    private static final int TASKS_PER_USER = 4000;
+
+    private static final int JOURNAL_DAYS = 365;
+
+    private static final int ENTRIES_PER_USER = 1500;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JournalEntryRepository journalEntryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private long userId;
+
+    private long categoryId;
+
+    @BeforeAll
+    void seed() {
+        // Neighbours first, so the user's rows are neither the whole table nor a prefix of it
+        for (int i = 0; i < 2; i++) {
+            long other = TestData.createUser(jdbc);
+            TestData.insertTasks(jdbc, other, TASKS_PER_USER, FIRST_DAY, TASK_DAYS,
+                    TestData.createCategories(jdbc, other, 8), TestData.createRecurrenceRules(jdbc, other, 4));
+            TestData.insertJournalEntries(jdbc, other, ENTRIES_PER_USER, FIRST_DAY, JOURNAL_DAYS);
+        }
+        userId = TestData.createUser(jdbc);
+        List<Long> categoryIds = TestData.createCategories(jdbc, userId, 8);
+        categoryId = categoryIds.get(0);
+        TestData.insertTasks(jdbc, userId, TASKS_PER_USER, FIRST_DAY, TASK_DAYS,
+                categoryIds, TestData.createRecurrenceRules(jdbc, userId, 4));
+        TestData.insertJournalEntries(jdbc, userId, ENTRIES_PER_USER, FIRST_DAY, JOURNAL_DAYS);
+        jdbc.execute("ANALYZE TABLE tasks, journal_entries");
+    }
+
+    // tasks ------------------------------------------------------------------
+
+    @Test
+    void plannedStartRangeUsesUserPlannedStartIndex() {
+        // TaskDayCache load of a week (default createdAt order)
+        String sql = captureOne("tasks", () -> taskRepository.search(userId,
+                new TaskQuery().plannedStartBetween(weekStart(), weekEnd())));
+        assertKey(sql, "tasks", "idx_tasks_user_planned_start");
+    }
+
+    @Test
+    void statusWithPlannedStartRangeUsesStatusIndex() {
+        String sql = captureOne("tasks", () -> taskRepository.search(userId, new TaskQuery()
+                .statuses(List.of(TaskStatus.DONE))
+                .plannedStartBetween(weekStart(), weekEnd())
+                .sort(TaskQuery.SortField.PLANNED_START_TIME, true)));
+        assertKey(sql, "tasks", "idx_tasks_user_status_planned_start");
+    }
+
+    @Test
+    void quadrantWithPlannedStartRangeUsesQuadrantIndex() {
+        String sql = captureOne("tasks", () -> taskRepository.search(userId, new TaskQuery()
+                .quadrants(List.of(1))
+                .plannedStartBetween(weekStart(), weekEnd())
+                .sort(TaskQuery.SortField.PLANNED_START_TIME, true)));
+        assertKey(sql, "tasks", "idx_tasks_user_quadrant_planned_start");
+    }
+
+    @Test
+    void categoryWithPlannedStartRangeUsesCategoryIndex() {
+        String sql = captureOne("tasks", () -> taskRepository.search(userId, new TaskQuery()
+                .categoryIds(List.of(categoryId))
+                .plannedStartBetween(weekStart(), weekEnd())
+                .sort(TaskQuery.SortField.PLANNED_START_TIME, true)));
+        assertKey(sql, "tasks", "idx_tasks_user_category_planned_start");
+    }
+
+    @Test
+    void actualStartRangeUsesActualStartIndex() {
+        String sql = captureOne("tasks", () -> taskRepository.search(userId,
+                new TaskQuery().actualStartBetween(weekStart(), weekEnd())));
+        assertKey(sql, "tasks", "idx_tasks_user_actual_start");
+    }
+
+    @Test
+    void keysetPageSeeksOnPlannedStartIndex() {
+        // GET /tasks/page continuation: strictly after (planned_start_time, id), one extra row
+        String sql = captureOne("tasks", () -> taskRepository.searchAfter(userId, new TaskQuery(),
+                weekStart(), 0L, 51));
+        assertKey(sql, "tasks", "idx_tasks_user_planned_start");
+    }
+
+    @Test
+    void defaultOrderWithLimitUsesCreatedAtIndex() {
+        String sql = captureOne("tasks", () -> taskRepository.search(userId, new TaskQuery().limit(50)));
+        assertKey(sql, "tasks", "idx_tasks_user_created_at");
+    }
+
+    @Test
+    void changeFeedUsesUpdatedAtIdIndex() {
+        // Same query as TaskService#findChangesSince
+        LocalDateTime since = LocalDateTime.now().minusMinutes(1);
+        String sql = captureOne("tasks", () -> taskRepository.search(userId, new TaskQuery()
+                .updatedSince(since)
+                .sort(TaskQuery.SortField.UPDATED_AT, true)
+                .limit(TaskQuery.MAX_LIMIT)));
+        assertKey(sql, "tasks", "idx_tasks_user_updated_at_id");
+    }
+
+    @Test
+    void changeFeedContinuationUsesUpdatedAtIdIndex() {
+        LocalDateTime since = LocalDateTime.now().minusMinutes(1);
+        String sql = captureOne("tasks", () -> taskRepository.search(userId, new TaskQuery()
+                .updatedAfter(since, 0L)
+                .sort(TaskQuery.SortField.UPDATED_AT, true)
+                .limit(TaskQuery.MAX_LIMIT)));
+        assertKey(sql, "tasks", "idx_tasks_user_updated_at_id");
+    }
+
+    @Test
+    void completedCountUsesCompletedOnIndex() {
+        // Activity heatmap load of a year
+        String sql = captureOne("tasks", () -> taskRepository.countCompletedByDay(userId,
+                LocalDate.now().withDayOfYear(1), LocalDate.now()));
+        assertKey(sql, "tasks", "idx_tasks_user_completed_on");
+    }
+
+    @Test
+    void activityDayClearUsesCompletedOnAndJournalDateIndexes() {
+        // Write statement: captured inside a transaction that is rolled back
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        String sql = captureOne("tasks", () -> transaction.executeWithoutResult(status -> {
+            taskRepository.clearActivityDayIfInactive(userId, LocalDate.now());
+            status.setRollbackOnly();
+        }));
+        assertKey(sql, "tasks", "idx_tasks_user_completed_on");
+        assertKey(sql, "journal_entries", "idx_journal_entries_user_date_created");
+    }
+
+    // journal_entries --------------------------------------------------------
+
+    @Test
+    void journalByDateUsesUserDateIndex() {
+        String sql = captureOne("journal_entries", () ->
+                journalEntryRepository.findSummariesByUserIdAndDate(userId, FIRST_DAY.plusDays(100)));
+        assertKey(sql, "journal_entries", "idx_journal_entries_user_date_created");
+    }
+
+    @Test
+    void journalDateRangeUsesUserDateIndex() {
+        String sql = captureOne("journal_entries", () -> journalEntryRepository
+                .findSummariesByUserIdAndDateBetween(userId, FIRST_DAY.plusDays(100), FIRST_DAY.plusDays(130)));
+        assertKey(sql, "journal_entries", "idx_journal_entries_user_date_created");
+    }
+
+    @Test
+    void journalKeysetPageUsesUserDateIndex() {
+        String sql = captureOne("journal_entries", () -> journalEntryRepository.findPageByUserIdAfter(userId,
+                FIRST_DAY.plusDays(200), LocalDateTime.now(), Long.MAX_VALUE, PageRequest.of(0, 51)));
+        assertKey(sql, "journal_entries", "idx_journal_entries_user_date_created");
+    }
+
+    private LocalDateTime weekStart() {
+        return FIRST_DAY.plusDays(140).atStartOfDay();
+    }
+
+    private LocalDateTime weekEnd() {
+        return FIRST_DAY.plusDays(146).atTime(23, 59, 59);
+    }
+
+    /**
+     * Run a repository call and return the one statement it sent that reads table
+     */
+    private String captureOne(String table, Runnable repositoryCall) {
+        List<String> statements = SqlCapture.capture(repositoryCall);
+        List<String> reading = statements.stream()
+                .filter(sql -> tableAlias(sql, table) != null)
+                .collect(Collectors.toList());
+        assertThat(reading).as("statements on %s among %s", table, statements).hasSize(1);
+        return reading.get(0);
+    }
+
+    private void assertKey(String sql, String table, String expectedKey) {
+        String alias = tableAlias(sql, table);
+        List<Map<String, Object>> plan = jdbc.queryForList("EXPLAIN " + sql);
+        Map<String, Object> row = plan.stream()
+                .filter(r -> alias.equals(r.get("table")))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No plan row for " + table + " in " + plan + " of " + sql));
+        assertThat(row.get("type")).as("access type of %s in %s (plan %s)", table, sql, plan).isNotEqualTo("ALL");
+        assertThat(row.get("key")).as("index of %s in %s (plan %s)", table, sql, plan).isEqualTo(expectedKey);
+    }
+
+    /**
+     * Alias of table in sql ("from tasks task0_", "join tasks t"), or null if sql does not read it
+     */
+    private static String tableAlias(String sql, String table) {
+        Matcher matcher = Pattern.compile("(?i)\\b(?:from|join)\\s+" + table + "\\s+(?:as\\s+)?(\\w+)").matcher(sql);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+}
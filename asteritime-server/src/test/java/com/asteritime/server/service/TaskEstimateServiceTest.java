@@ -0,0 +1,122 @@
+package com.asteritime.server.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Histogram maths of TaskEstimateService (buckets, representative ratios, quantiles)
+ */
+class TaskEstimateServiceTest {
+
+    private static final int OVERFLOW = TaskEstimateService.BUCKETS - 1;
+
+    @Test
+    void ratiosBelowMinimumUnderflow() {
+        assertThat(TaskEstimateService.bucketOf(0.001)).isZero();
+        assertThat(TaskEstimateService.bucketOf(TaskEstimateService.MIN_RATIO * 0.999)).isZero();
+    }
+
+    @Test
+    void minimumRatioStartsFirstInnerBucket() {
+        assertThat(TaskEstimateService.bucketOf(TaskEstimateService.MIN_RATIO)).isEqualTo(1);
+    }
+
+    @Test
+    void largeRatiosOverflow() {
+        assertThat(TaskEstimateService.bucketOf(17)).isEqualTo(OVERFLOW);
+        assertThat(TaskEstimateService.bucketOf(1000)).isEqualTo(OVERFLOW);
+    }
+
+    @Test
+    void exactEstimateIsInnerBucket() {
+        int bucket = TaskEstimateService.bucketOf(1.0);
+        assertThat(bucket).isBetween(1, OVERFLOW - 1);
+        assertThat(lowerBound(bucket)).isLessThanOrEqualTo(1.0);
+        assertThat(lowerBound(bucket + 1)).isGreaterThan(1.0);
+    }
+
+    @Test
+    void innerBucketsAreGammaWide() {
+        for (int bucket = 1; bucket < OVERFLOW; bucket++) {
+            // Just inside both ends of [MIN_RATIO * GAMMA^(b-1), MIN_RATIO * GAMMA^b)
+            assertThat(TaskEstimateService.bucketOf(lowerBound(bucket) * (1 + 1e-9))).as("bucket %d", bucket)
+                    .isEqualTo(bucket);
+            assertThat(TaskEstimateService.bucketOf(lowerBound(bucket + 1) * (1 - 1e-9))).as("bucket %d", bucket)
+                    .isEqualTo(bucket);
+        }
+    }
+
+    @Test
+    void bucketsIncreaseWithRatio() {
+        int previous = 0;
+        for (double ratio = 0.01; ratio < 20; ratio *= 1.01) {
+            int bucket = TaskEstimateService.bucketOf(ratio);
+            assertThat(bucket).as("bucket of %s", ratio).isBetween(previous, previous + 1);
+            previous = bucket;
+        }
+        assertThat(previous).isEqualTo(OVERFLOW);
+    }
+
+    @Test
+    void innerRatioIsGeometricMiddleOfItsBucket() {
+        for (int bucket = 1; bucket < OVERFLOW; bucket++) {
+            double ratio = TaskEstimateService.ratioOf(bucket);
+            assertThat(TaskEstimateService.bucketOf(ratio)).as("bucket %d", bucket).isEqualTo(bucket);
+            assertThat(ratio * ratio).as("bucket %d", bucket)
+                    .isCloseTo(lowerBound(bucket) * lowerBound(bucket + 1), within(1e-9 * ratio * ratio));
+        }
+    }
+
+    @Test
+    void outerBucketsUseTheirBounds() {
+        assertThat(TaskEstimateService.ratioOf(0)).isEqualTo(TaskEstimateService.MIN_RATIO);
+        assertThat(TaskEstimateService.ratioOf(OVERFLOW)).isCloseTo(lowerBound(OVERFLOW), within(1e-9));
+    }
+
+    @Test
+    void quantileOfSingleBucket() {
+        long[] histogram = histogram(40, 7);
+        assertThat(TaskEstimateService.quantile(histogram, 0.5)).isEqualTo(TaskEstimateService.ratioOf(40));
+        assertThat(TaskEstimateService.quantile(histogram, 0.9)).isEqualTo(TaskEstimateService.ratioOf(40));
+    }
+
+    @Test
+    void quantileIsSmallestBucketCoveringFraction() {
+        long[] histogram = histogram(30, 5);
+        histogram[50] = 4;
+        histogram[80] = 1;
+        // 10 samples: 5th in bucket 30, 9th in bucket 50, 10th in bucket 80
+        assertThat(TaskEstimateService.quantile(histogram, 0.5)).isEqualTo(TaskEstimateService.ratioOf(30));
+        assertThat(TaskEstimateService.quantile(histogram, 0.51)).isEqualTo(TaskEstimateService.ratioOf(50));
+        assertThat(TaskEstimateService.quantile(histogram, 0.9)).isEqualTo(TaskEstimateService.ratioOf(50));
+        assertThat(TaskEstimateService.quantile(histogram, 0.91)).isEqualTo(TaskEstimateService.ratioOf(80));
+    }
+
+    @Test
+    void quantileIgnoresNegativeCounts() {
+        // A bucket can be transiently negative while concurrent removals and rebuilds interleave
+        long[] histogram = histogram(30, 2);
+        histogram[20] = -3;
+        histogram[60] = 2;
+        assertThat(TaskEstimateService.quantile(histogram, 0.5)).isEqualTo(TaskEstimateService.ratioOf(30));
+        assertThat(TaskEstimateService.quantile(histogram, 0.9)).isEqualTo(TaskEstimateService.ratioOf(60));
+    }
+
+    @Test
+    void quantileOfEmptyHistogramIsLastBucket() {
+        assertThat(TaskEstimateService.quantile(new long[TaskEstimateService.BUCKETS], 0.5))
+                .isEqualTo(TaskEstimateService.ratioOf(OVERFLOW));
+    }
+
+    private static double lowerBound(int bucket) {
+        return TaskEstimateService.MIN_RATIO * Math.pow(TaskEstimateService.GAMMA, bucket - 1);
+    }
+
+    private static long[] histogram(int bucket, long count) {
+        long[] histogram = new long[TaskEstimateService.BUCKETS];
+        histogram[bucket] = count;
+        return histogram;
+    }
+}
@@ -0,0 +1,167 @@
+package com.asteritime.server.service;
+
+import com.asteritime.common.model.TaskStatus;
+import com.asteritime.server.MySqlIntegrationTest;
+import com.asteritime.server.TestData;
+import com.asteritime.server.repository.CategoryEstimateStat;
+import com.asteritime.server.repository.TaskRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Planned-vs-actual statistics in MySQL: the Chan merge upsert (TaskEstimateRepositoryImpl.MERGE_STATS_SQL)
+ * and the parity of incremental updates with the rebuild SQL
+ *
+ * Removing samples merges them with negative count and M2, so adding a batch and removing it
+ * again must give back the previous state; and the histogram buckets MySQL computes when
+ * rebuilding (RATIO_SQL, V14) must be the ones bucketOf assigns to the same tasks incrementally.
+ */
+class TaskEstimateStatsTest extends MySqlIntegrationTest {
+
+    private static final double TOLERANCE = 1e-9;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskEstimateService taskEstimateService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void addThenRemoveBatchRestoresState() {
+        long userId = TestData.createUser(jdbc);
+        double[] kept = {0.5, 1.0, 1.25, 2.0, 0.8};
+        double[] batch = {3.0, 0.25, 1.1};
+
+        merge(userId, kept, 1);
+        merge(userId, batch, 1);
+        assertState(userId, concat(kept, batch));
+
+        merge(userId, batch, -1);
+        assertState(userId, kept);
+    }
+
+    @Test
+    void removeBatchAddedTogetherWithOthers() {
+        long userId = TestData.createUser(jdbc);
+        double[] first = {1.0, 1.5, 0.9, 4.0};
+        double[] second = {0.3, 2.2, 1.05};
+
+        merge(userId, concat(first, second), 1);
+        merge(userId, first, -1);
+        assertState(userId, second);
+
+        merge(userId, first, 1);
+        assertState(userId, concat(first, second));
+    }
+
+    @Test
+    void removingEverySampleResetsState() {
+        long userId = TestData.createUser(jdbc);
+        double[] samples = {0.7, 1.3, 2.9};
+
+        merge(userId, samples, 1);
+        merge(userId, samples, -1);
+        assertThat(taskRepository.findEstimateStats(userId)).isEmpty();
+        Map<String, Object> row = jdbc.queryForMap(
+                "SELECT sample_count, mean_ratio, m2_ratio FROM task_estimate_stats WHERE user_id = ?", userId);
+        assertThat(((Number) row.get("sample_count")).longValue()).isZero();
+        assertThat(((Number) row.get("mean_ratio")).doubleValue()).isZero();
+        assertThat(((Number) row.get("m2_ratio")).doubleValue()).isZero();
+    }
+
+    @Test
+    void rebuildMatchesIncrementalUpdates() {
+        long userId = TestData.createUser(jdbc);
+        Long categoryId = TestData.createCategories(jdbc, userId, 1).get(0);
+        // Ratios of up to 2 h planned and 4 h actual, many of them on or next to a bucket boundary
+        List<int[]> minutes = new ArrayList<>();
+        for (int planned = 1; planned <= 120; planned++) {
+            for (int actual = 1; actual <= 240; actual += 1 + planned / 30) {
+                minutes.add(new int[] {planned, actual});
+            }
+        }
+        TestData.insertCompletedTasks(jdbc, userId, categoryId, LocalDate.of(2025, 6, 2), minutes);
+
+        // Incremental: every task reported as created DONE
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (int[] sample : minutes) {
+                taskEstimateService.recordChange(userId, null, new TaskRollupService.Contribution(
+                        LocalDate.of(2025, 6, 2), LocalDate.of(2025, 6, 2), 1, categoryId, TaskStatus.DONE,
+                        sample[0], sample[1]));
+            }
+        });
+        long[] incremental = taskRepository.findEstimateHistograms(userId, TaskEstimateService.BUCKETS).get(categoryId);
+        CategoryEstimateStat incrementalStats = taskRepository.findEstimateStats(userId).get(0);
+
+        // Java buckets of the same samples
+        long[] expected = new long[TaskEstimateService.BUCKETS];
+        for (int[] sample : minutes) {
+            expected[TaskEstimateService.bucketOf((double) sample[1] / sample[0])]++;
+        }
+        assertThat(incremental).isEqualTo(expected);
+
+        taskEstimateService.rebuild(userId);
+        long[] rebuilt = taskRepository.findEstimateHistograms(userId, TaskEstimateService.BUCKETS).get(categoryId);
+        CategoryEstimateStat rebuiltStats = taskRepository.findEstimateStats(userId).get(0);
+
+        for (int bucket = 0; bucket < TaskEstimateService.BUCKETS; bucket++) {
+            assertThat(rebuilt[bucket]).as("bucket %d (%s..%s)", bucket,
+                    TaskEstimateService.MIN_RATIO * Math.pow(TaskEstimateService.GAMMA, bucket - 1),
+                    TaskEstimateService.MIN_RATIO * Math.pow(TaskEstimateService.GAMMA, bucket))
+                    .isEqualTo(expected[bucket]);
+        }
+        assertThat(rebuiltStats.getSampleCount()).isEqualTo(incrementalStats.getSampleCount());
+        assertThat(rebuiltStats.getMeanRatio()).isCloseTo(incrementalStats.getMeanRatio(), within(TOLERANCE));
+        assertThat(rebuiltStats.getM2Ratio()).isCloseTo(incrementalStats.getM2Ratio(),
+                within(TOLERANCE * incrementalStats.getSampleCount()));
+        assertThat(rebuiltStats.getPlannedMinutes()).isEqualTo(incrementalStats.getPlannedMinutes());
+        assertThat(rebuiltStats.getActualMinutes()).isEqualTo(incrementalStats.getActualMinutes());
+    }
+
+    /**
+     * Merge the Welford state of ratios into the user's uncategorized row (sign -1 removes them)
+     */
+    private void merge(long userId, double[] ratios, int sign) {
+        double mean = Arrays.stream(ratios).average().orElse(0);
+        double m2 = Arrays.stream(ratios).map(ratio -> (ratio - mean) * (ratio - mean)).sum();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> taskRepository.mergeEstimateStats(
+                userId, null, sign * ratios.length, mean, sign * m2, sign * 60L * ratios.length,
+                sign * Math.round(60 * Arrays.stream(ratios).sum())));
+    }
+
+    private void assertState(long userId, double[] ratios) {
+        double mean = Arrays.stream(ratios).average().orElse(0);
+        double m2 = Arrays.stream(ratios).map(ratio -> (ratio - mean) * (ratio - mean)).sum();
+        List<CategoryEstimateStat> stats = taskRepository.findEstimateStats(userId);
+        assertThat(stats).hasSize(1);
+        CategoryEstimateStat stat = stats.get(0);
+        assertThat(stat.getCategoryId()).isNull();
+        assertThat(stat.getSampleCount()).isEqualTo(ratios.length);
+        assertThat(stat.getMeanRatio()).isCloseTo(mean, within(TOLERANCE));
+        assertThat(stat.getM2Ratio()).isCloseTo(m2, within(TOLERANCE));
+    }
+
+    private static double[] concat(double[] first, double[] second) {
+        double[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
@@ -0,0 +1,173 @@
+package com.asteritime.server.stream;
+
+import com.asteritime.server.MySqlIntegrationTest;
+import com.asteritime.server.util.JwtUtil;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fan-out capacity of GET /api/stream
+ *
+ * Opens many SSE connections over real HTTP (several tabs per user), then repeatedly records one
+ * change for every user and measures the time until every connection has received its "changes"
+ * event. Reports connections, latency of the last delivery and events per second per round, and
+ * fails if an event is lost or a connection is dropped.
+ *
+ * Not part of the regular test run:
+ *   mvn test -Dtest=ChangeStreamFanOutBenchmark -Dbenchmark=true [-Dbenchmark.users=500 -Dbenchmark.tabs=4]
+ *
+ * Each connection costs one socket on both sides, so users * tabs * 2 must fit the open file limit;
+ * tabs must not exceed asteritime.stream.max-connections-per-user.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ChangeStreamFanOutBenchmark extends MySqlIntegrationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeStreamFanOutBenchmark.class);
+
+    private static final int USERS = Integer.getInteger("benchmark.users", 250);
+
+    private static final int TABS = Integer.getInteger("benchmark.tabs", 4);
+
+    private static final int ROUNDS = Integer.getInteger("benchmark.rounds", 5);
+
+    // Stream users need a valid token only, not a users row
+    private static final long FIRST_USER_ID = 1_000_000;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ChangeStream changeStream;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private final List<EventCounter> subscribers = new ArrayList<>();
+
+    /**
+     * Latch of the current round, counted down once per delivered "changes" event
+     */
+    private final AtomicReference<CountDownLatch> delivered = new AtomicReference<>(new CountDownLatch(0));
+
+    @Test
+    void fanOut() throws Exception {
+        int connections = USERS * TABS;
+        CountDownLatch connected = new CountDownLatch(connections);
+        long openStarted = System.nanoTime();
+        for (int user = 0; user < USERS; user++) {
+            String token = jwtUtil.generateToken(FIRST_USER_ID + user);
+            for (int tab = 0; tab < TABS; tab++) {
+                EventCounter subscriber = new EventCounter(connected);
+                subscribers.add(subscriber);
+                HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/stream"))
+                        .header("Authorization", "Bearer " + token)
+                        .header("Accept", "text/event-stream")
+                        .build();
+                client.sendAsync(request, HttpResponse.BodyHandlers.fromLineSubscriber(subscriber));
+            }
+        }
+        assertThat(connected.await(60, TimeUnit.SECONDS)).as("all %d streams opened", connections).isTrue();
+        log.info("Opened {} SSE connections ({} users x {} tabs) in {} ms", connections, USERS, TABS,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - openStarted));
+
+        long droppedBefore = (Long) changeStream.stats().get("connectionsDropped");
+        for (int round = 1; round <= ROUNDS; round++) {
+            CountDownLatch latch = new CountDownLatch(connections);
+            delivered.set(latch);
+            long started = System.nanoTime();
+            for (int user = 0; user < USERS; user++) {
+                // No transaction is active, so the change is recorded right away
+                changeStream.publishTaskUpdatedAfterCommit(FIRST_USER_ID + user, (long) round);
+            }
+            // Flush now instead of waiting for the coalesce window (the scheduled flush finds nothing left)
+            changeStream.flush();
+            assertThat(latch.await(60, TimeUnit.SECONDS))
+                    .as("round %d: %d of %d events delivered", round, connections - latch.getCount(), connections)
+                    .isTrue();
+            long elapsedNanos = System.nanoTime() - started;
+            log.info("Round {}: {} events delivered in {} ms ({} events/s)", round, connections,
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), connections * 1_000_000_000L / Math.max(1, elapsedNanos));
+        }
+        log.info("Stream stats: {}", changeStream.stats());
+        assertThat((Long) changeStream.stats().get("connectionsDropped")).isEqualTo(droppedBefore);
+    }
+
+    @AfterAll
+    void closeStreams() {
+        subscribers.forEach(EventCounter::cancel);
+        changeStream.closeAll();
+    }
+
+    /**
+     * Counts the lines of one SSE stream: the "connected" comment once, then every "changes" event
+     */
+    private final class EventCounter implements Flow.Subscriber<String> {
+
+        private final CountDownLatch connected;
+
+        private volatile Flow.Subscription subscription;
+
+        EventCounter(CountDownLatch connected) {
+            this.connected = connected;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (line.equals(":connected")) {
+                connected.countDown();
+            } else if (line.equals("event:changes")) {
+                delivered.get().countDown();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            log.warn("SSE stream failed", throwable);
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        void cancel() {
+            Flow.Subscription current = subscription;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+    }
+}
@@ -13,6 +13,18 @@ DROP TABLE IF EXISTS task_categories;
 DROP TABLE IF EXISTS task_recurrence_rules;
 DROP TABLE IF EXISTS journal_entries;
 DROP TABLE IF EXISTS users;
+DROP TABLE IF EXISTS id_generators;
+DROP TABLE IF EXISTS task_tombstones;
+DROP TABLE IF EXISTS daily_task_rollups;
+DROP TABLE IF EXISTS focus_sessions;
+DROP TABLE IF EXISTS focus_hour_buckets;
+DROP TABLE IF EXISTS weekly_report_snapshots;
+DROP TABLE IF EXISTS task_estimate_stats;
+DROP TABLE IF EXISTS task_estimate_histograms;
+DROP TABLE IF EXISTS activity_day_words;
+DROP TABLE IF EXISTS journal_entry_media;
+DROP TABLE IF EXISTS media_blobs;
+DROP TABLE IF EXISTS flyway_schema_history;
 
 -- Re-enable foreign key checks
 SET FOREIGN_KEY_CHECKS = 1;